@@ -6,6 +6,7 @@ import android.app.PendingIntent;
 import android.content.Context;
 import android.content.Intent;
 import android.content.pm.PackageManager;
+import android.net.Uri;
 import android.os.Build;
 import android.provider.Settings;
 import android.util.Log;
@@ -19,9 +20,19 @@ import com.getcapacitor.PluginMethod;
 import com.getcapacitor.annotation.CapacitorPlugin;
 import com.getcapacitor.annotation.Permission;
 
+import org.json.JSONArray;
 import org.json.JSONException;
+import org.json.JSONObject;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 import android.app.AlarmManager.AlarmClockInfo;
 
@@ -35,6 +46,8 @@ import android.app.AlarmManager.AlarmClockInfo;
 )
 public class AdhanAlarmPlugin extends Plugin {
     private static final String TAG = "AdhanAlarmPlugin";
+    // AlarmManager IPC and PendingIntent work, off the shared bridge thread
+    private final PluginExecutor worker = new PluginExecutor(TAG);
 
     @Override
     public void load() {
@@ -45,217 +58,551 @@ public class AdhanAlarmPlugin extends Plugin {
         Log.i(TAG, "╚════════════════════════════════════════════════════════╝");
     }
 
+    @Override
+    protected void handleOnDestroy() {
+        worker.shutdown();
+        super.handleOnDestroy();
+    }
+
     @PluginMethod
     public void scheduleAlarm(PluginCall call) {
-        long triggerTime = call.getLong("triggerTime", 0L);
-        String prayerName = call.getString("prayerName", "");
-        String soundUri = call.getString("soundUri", "");
-        int prayerId = call.getInt("prayerId", 0);
-
-        Log.i(TAG, "==========================================");
-        Log.i(TAG, "🔔 scheduleAlarm called");
-        Log.i(TAG, "Prayer: " + prayerName);
-        Log.i(TAG, "Prayer ID: " + prayerId);
-        Log.i(TAG, "Trigger Time: " + triggerTime + " (" + new Date(triggerTime) + ")");
-        Log.i(TAG, "Sound URI: " + soundUri);
-        Log.i(TAG, "Current Time: " + System.currentTimeMillis() + " (" + new Date() + ")");
-        Log.i(TAG, "Time until alarm: " + ((triggerTime - System.currentTimeMillis()) / 1000) + " seconds");
-
-        if (triggerTime == 0 || prayerName.isEmpty()) {
-            Log.e(TAG, "Invalid parameters - triggerTime or prayerName missing");
-            call.reject("Invalid parameters");
-            return;
-        }
+        worker.execute(call, () -> {
+            long triggerTime = call.getLong("triggerTime", 0L);
+            String prayerName = call.getString("prayerName", "");
+            String soundUri = call.getString("soundUri", "");
+            int prayerId = call.getInt("prayerId", 0);
 
-        try {
-            AlarmManager alarmManager = (AlarmManager) getContext().getSystemService(Context.ALARM_SERVICE);
-            if (alarmManager == null) {
-                Log.e(TAG, "AlarmManager not available");
-                call.reject("AlarmManager not available");
+            Log.i(TAG, "==========================================");
+            Log.i(TAG, "🔔 scheduleAlarm called");
+            Log.i(TAG, "Prayer: " + prayerName);
+            Log.i(TAG, "Prayer ID: " + prayerId);
+            Log.i(TAG, "Trigger Time: " + triggerTime + " (" + new Date(triggerTime) + ")");
+            Log.i(TAG, "Sound URI: " + soundUri);
+            Log.i(TAG, "Current Time: " + System.currentTimeMillis() + " (" + new Date() + ")");
+            Log.i(TAG, "Time until alarm: " + ((triggerTime - System.currentTimeMillis()) / 1000) + " seconds");
+
+            if (triggerTime == 0 || prayerName.isEmpty()) {
+                Log.e(TAG, "Invalid parameters - triggerTime or prayerName missing");
+                call.reject("Invalid parameters");
                 return;
             }
 
-            Intent intent = new Intent(getContext(), AdhanAlarmReceiver.class);
-            intent.putExtra("prayerName", prayerName);
-            intent.putExtra("soundUri", soundUri);
-            intent.putExtra("prayerId", prayerId);
-            intent.setAction("com.xolbine.namaztimemm.ADHAN_ALARM");
-
-            PendingIntent pendingIntent = PendingIntent.getBroadcast(
-                getContext(),
-                prayerId,
-                intent,
-                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
-            );
+            try {
+                if (!arm(getContext(), prayerId, prayerName, soundUri, triggerTime)) {
+                    call.reject("AlarmManager not available");
+                    return;
+                }
 
-            // This treats the prayer time as a real system alarm, waking the device and bypassing Doze
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-                AlarmClockInfo alarmClockInfo = new AlarmClockInfo(triggerTime, pendingIntent);
-                alarmManager.setAlarmClock(alarmClockInfo, pendingIntent);
-                Log.i(TAG, "✅ Alarm scheduled using setAlarmClock (Highest Priority)");
-            } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
-                alarmManager.setExactAndAllowWhileIdle(
-                    AlarmManager.RTC_WAKEUP,
-                    triggerTime,
-                    pendingIntent
-                );
-                Log.i(TAG, "✅ Alarm scheduled using setExactAndAllowWhileIdle");
-            } else {
-                alarmManager.setExact(
-                    AlarmManager.RTC_WAKEUP,
-                    triggerTime,
-                    pendingIntent
-                );
-                Log.i(TAG, "✅ Alarm scheduled using setExact");
+                JSObject ret = new JSObject();
+                ret.put("success", true);
+                ret.put("scheduledTime", triggerTime);
+                Log.i(TAG, "Alarm successfully scheduled for " + prayerName);
+                Log.i(TAG, "==========================================");
+                call.resolve(ret);
+
+            } catch (Exception e) {
+                Log.e(TAG, "❌ Error scheduling alarm: " + e.getMessage());
+                e.printStackTrace();
+                call.reject("Error scheduling alarm: " + e.getMessage());
             }
-
-            JSObject ret = new JSObject();
-            ret.put("success", true);
-            ret.put("scheduledTime", triggerTime);
-            Log.i(TAG, "Alarm successfully scheduled for " + prayerName);
-            Log.i(TAG, "==========================================");
-            call.resolve(ret);
-
-        } catch (Exception e) {
-            Log.e(TAG, "❌ Error scheduling alarm: " + e.getMessage());
-            e.printStackTrace();
-            call.reject("Error scheduling alarm: " + e.getMessage());
-        }
+        });
     }
 
     @PluginMethod
     public void cancelAlarm(PluginCall call) {
-        int prayerId = call.getInt("prayerId", 0);
-        Log.i(TAG, "Canceling alarm with ID: " + prayerId);
-
-        try {
-            AlarmManager alarmManager = (AlarmManager) getContext().getSystemService(Context.ALARM_SERVICE);
-            if (alarmManager == null) {
-                call.reject("AlarmManager not available");
-                return;
-            }
-
-            Intent intent = new Intent(getContext(), AdhanAlarmReceiver.class);
-            intent.setAction("com.xolbine.namaztimemm.ADHAN_ALARM_" + prayerId);
-
-            PendingIntent pendingIntent = PendingIntent.getBroadcast(
-                getContext(),
-                prayerId,
-                intent,
-                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
-            );
-
-            alarmManager.cancel(pendingIntent);
-            pendingIntent.cancel();
+        worker.execute(call, () -> {
+            int prayerId = call.getInt("prayerId", 0);
+            Log.i(TAG, "Canceling alarm with ID: " + prayerId);
+
+            try {
+                if (!disarm(getContext(), prayerId)) {
+                    call.reject("AlarmManager not available");
+                    return;
+                }
 
-            JSObject ret = new JSObject();
-            ret.put("success", true);
-            Log.i(TAG, "Alarm canceled: " + prayerId);
-            call.resolve(ret);
+                JSObject ret = new JSObject();
+                ret.put("success", true);
+                Log.i(TAG, "Alarm canceled: " + prayerId);
+                call.resolve(ret);
 
-        } catch (Exception e) {
-            Log.e(TAG, "Error canceling alarm: " + e.getMessage());
-            call.reject("Error canceling alarm: " + e.getMessage());
-        }
+            } catch (Exception e) {
+                Log.e(TAG, "Error canceling alarm: " + e.getMessage());
+                call.reject("Error canceling alarm: " + e.getMessage());
+            }
+        });
     }
 
     @PluginMethod
     public void cancelAllAlarms(PluginCall call) {
-        Log.i(TAG, "==========================================");
-        Log.i(TAG, "Canceling all alarms...");
+        worker.execute(call, () -> {
+            Log.i(TAG, "==========================================");
+            Log.i(TAG, "Canceling all alarms...");
         
-        try {
-            AlarmManager alarmManager = (AlarmManager) getContext().getSystemService(Context.ALARM_SERVICE);
-            if (alarmManager == null) {
-                call.reject("AlarmManager not available");
-                return;
-            }
+            try {
+                AlarmManager alarmManager = (AlarmManager) getContext().getSystemService(Context.ALARM_SERVICE);
+                if (alarmManager == null) {
+                    call.reject("AlarmManager not available");
+                    return;
+                }
 
-            int[] prayerIds = {1000, 2000, 3000, 4000, 5000};
-            int cancelCount = 0;
+                int[] prayerIds = {1000, 2000, 3000, 4000, 5000};
+                int cancelCount = 0;
             
-            // Calculate day indices for the next 7 days (matching scheduling logic)
-            Calendar calendar = Calendar.getInstance();
-            for (int day = 0; day < 7; day++) {
-                int year = calendar.get(Calendar.YEAR);
-                int month = calendar.get(Calendar.MONTH) + 1; // Calendar.MONTH is 0-based
-                int dayOfMonth = calendar.get(Calendar.DAY_OF_MONTH);
+                // Calculate day indices for the next 7 days (matching scheduling logic)
+                Calendar calendar = Calendar.getInstance();
+                for (int day = 0; day < 7; day++) {
+                    int year = calendar.get(Calendar.YEAR);
+                    int month = calendar.get(Calendar.MONTH) + 1; // Calendar.MONTH is 0-based
+                    int dayOfMonth = calendar.get(Calendar.DAY_OF_MONTH);
                 
-                int dayIndex = (year * 10000 + month * 100 + dayOfMonth) % 1000;
+                    int dayIndex = (year * 10000 + month * 100 + dayOfMonth) % 1000;
                 
-                Log.d(TAG, "Day " + day + ": dayIndex = " + dayIndex);
+                    Log.d(TAG, "Day " + day + ": dayIndex = " + dayIndex);
                 
-                for (int baseId : prayerIds) {
-                    int prayerId = baseId + dayIndex;
+                    for (int baseId : prayerIds) {
+                        int prayerId = baseId + dayIndex;
                     
-                    Intent intent = new Intent(getContext(), AdhanAlarmReceiver.class);
-                    intent.setAction("com.xolbine.namaztimemm.ADHAN_ALARM");
-
-                    PendingIntent pendingIntent = PendingIntent.getBroadcast(
-                        getContext(),
-                        prayerId,
-                        intent,
-                        PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
-                    );
-
+                        PendingIntent pendingIntent = alarmIntent(getContext(), prayerId, null, null);
+                        alarmManager.cancel(pendingIntent);
+                        pendingIntent.cancel();
+                        cancelCount++;
+                    }
+                
+                    // Move to next day
+                    calendar.add(Calendar.DAY_OF_MONTH, 1);
+                }
+                // Anything armed outside that window, e.g. by a reconciliation on a later day
+                for (int prayerId : AlarmScheduleStore.loadArmed(getContext()).keySet()) {
+                    PendingIntent pendingIntent = alarmIntent(getContext(), prayerId, null, null);
                     alarmManager.cancel(pendingIntent);
                     pendingIntent.cancel();
-                    cancelCount++;
                 }
-                
-                // Move to next day
-                calendar.add(Calendar.DAY_OF_MONTH, 1);
+                AlarmScheduleStore.saveArmed(getContext(), new TreeMap<Integer, Long>());
+
+                JSObject ret = new JSObject();
+                ret.put("success", true);
+                Log.i(TAG, "✅ All alarms canceled (count: " + cancelCount + ")");
+                Log.i(TAG, "==========================================");
+                call.resolve(ret);
+
+            } catch (Exception e) {
+                Log.e(TAG, "❌ Error canceling alarms: " + e.getMessage());
+                e.printStackTrace();
+                call.reject("Error canceling alarms: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Saves the schedule inputs and queues a debounced reconcile through
+     * ScheduleCoordinator. Overlapping calls collapse into one run over the
+     * latest inputs, which only arms and cancels what changed.
+     */
+    @PluginMethod
+    public void requestSchedule(PluginCall call) {
+        worker.execute(call, () -> {
+            Double lat = call.getDouble("lat");
+            Double lng = call.getDouble("lng");
+            if (lat == null || lng == null) {
+                call.reject("lat and lng are required");
+                return;
             }
+            try {
+                Set<String> enabled = new HashSet<>();
+                JSObject prayers = call.getObject("enabledPrayers", new JSObject());
+                for (String key : AlarmReconciler.ALARM_PRAYERS) {
+                    if (prayers.optBoolean(key, true)) {
+                        enabled.add(key);
+                    }
+                }
+                AlarmScheduleStore.saveInputs(getContext(), new AlarmScheduleStore.Inputs(
+                    lat, lng,
+                    PrayerTimeEngine.CalcMethod.fromName(call.getString("method", "Karachi")),
+                    call.getInt("asrSchool", 2),
+                    call.getInt("hijriOffset", 0),
+                    enabled
+                ));
+                JSObject ret = new JSObject();
+                ret.put("queued", ScheduleCoordinator.getInstance(getContext()).request());
+                call.resolve(ret);
+            } catch (Exception e) {
+                call.reject("Error requesting schedule: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Replaces the extra location profiles (up to MAX_PROFILES - 1) and queues
+     * a reschedule. Each entry: label, lat, lng and optionally zoneId (alarms
+     * follow the device zone, whatever it is at the time, when omitted), method, asrSchool, hijriOffset, enabledPrayers and sound.
+     */
+    @PluginMethod
+    public void setProfiles(PluginCall call) {
+        worker.execute(call, () -> {
+            try {
+                JSArray array = call.getArray("profiles", new JSArray());
+                if (array.length() > AlarmProfile.MAX_PROFILES - 1) {
+                    call.reject("At most " + (AlarmProfile.MAX_PROFILES - 1) + " extra profiles");
+                    return;
+                }
+                List<AlarmProfile> profiles = new ArrayList<>();
+                for (int i = 0; i < array.length(); i++) {
+                    JSONObject o = array.getJSONObject(i);
+                    if (!o.has("lat") || !o.has("lng")) {
+                        call.reject("Profile " + i + ": lat and lng are required");
+                        return;
+                    }
+                    double lat = o.getDouble("lat");
+                    double lng = o.getDouble("lng");
+                    String sound = o.optString("sound", AlarmProfile.DEFAULT_SOUND);
+                    if (getContext().getResources().getIdentifier(sound, "raw", getContext().getPackageName()) == 0) {
+                        call.reject("Profile " + i + ": unknown sound " + sound);
+                        return;
+                    }
+                    Set<String> enabled = new HashSet<>();
+                    JSONObject prayers = o.optJSONObject("enabledPrayers");
+                    for (String key : AlarmReconciler.ALARM_PRAYERS) {
+                        if (prayers == null || prayers.optBoolean(key, true)) {
+                            enabled.add(key);
+                        }
+                    }
+                    // No zone stays null so the alarms follow the device zone when it changes
+                    String zoneId = o.optString("zoneId", "");
+                    if (zoneId.isEmpty()) {
+                        zoneId = null;
+                    } else if (!ZoneId.getAvailableZoneIds().contains(zoneId)) {
+                        call.reject("Profile " + i + ": unknown zoneId " + zoneId);
+                        return;
+                    }
+                    profiles.add(new AlarmProfile(i + 1, o.optString("label", ""),
+                        new AlarmScheduleStore.Inputs(
+                            lat, lng,
+                            PrayerTimeEngine.CalcMethod.fromName(o.optString("method", "Karachi")),
+                            o.optInt("asrSchool", 2),
+                            o.optInt("hijriOffset", 0),
+                            enabled
+                        ),
+                        zoneId, sound));
+                }
+                AlarmScheduleStore.saveExtraProfiles(getContext(), profiles);
+                JSObject ret = new JSObject();
+                ret.put("queued", ScheduleCoordinator.getInstance(getContext()).request());
+                call.resolve(ret);
+            } catch (Exception e) {
+                call.reject("Error setting profiles: " + e.getMessage());
+            }
+        });
+    }
 
+    @PluginMethod
+    public void getProfiles(PluginCall call) {
+        worker.execute(call, () -> {
+            JSArray profiles = new JSArray();
+            for (AlarmProfile profile : AlarmScheduleStore.loadExtraProfiles(getContext())) {
+                JSObject o = new JSObject();
+                o.put("slot", profile.slot);
+                o.put("label", profile.label);
+                o.put("lat", profile.inputs.lat);
+                o.put("lng", profile.inputs.lng);
+                o.put("zoneId", profile.zoneId);
+                o.put("method", profile.inputs.method.jsName);
+                o.put("asrSchool", profile.inputs.asrSchool);
+                o.put("hijriOffset", profile.inputs.hijriOffset);
+                JSObject prayers = new JSObject();
+                for (String key : AlarmReconciler.ALARM_PRAYERS) {
+                    prayers.put(key, profile.inputs.enabledPrayers.contains(key));
+                }
+                o.put("enabledPrayers", prayers);
+                o.put("sound", profile.sound);
+                profiles.put(o);
+            }
             JSObject ret = new JSObject();
-            ret.put("success", true);
-            Log.i(TAG, "✅ All alarms canceled (count: " + cancelCount + ")");
-            Log.i(TAG, "==========================================");
+            ret.put("profiles", profiles);
             call.resolve(ret);
-
-        } catch (Exception e) {
-            Log.e(TAG, "❌ Error canceling alarms: " + e.getMessage());
-            e.printStackTrace();
-            call.reject("Error canceling alarms: " + e.getMessage());
-        }
+        });
     }
 
     @PluginMethod
-    public void checkExactAlarmPermission(PluginCall call) {
+    public void getScheduleStats(PluginCall call) {
+        ScheduleCoordinator coordinator = ScheduleCoordinator.getInstance(getContext());
         JSObject ret = new JSObject();
-        
-        Log.i(TAG, "Checking exact alarm permission...");
-        
-        ret.put("granted", true);
-        ret.put("canRequest", false);
-        Log.i(TAG, "USE_EXACT_ALARM permission - automatically granted");
-        
+        ret.put("requests", coordinator.requests());
+        ret.put("runs", coordinator.runs());
+        ret.put("collapsed", coordinator.collapsed());
         call.resolve(ret);
     }
 
+    /**
+     * Soft reminders: beforeMinutes ahead of every prayer, and iqamahOffsets
+     * (minutes after the adhan, by prayer key). 0 or missing turns one off.
+     */
     @PluginMethod
-    public void requestExactAlarmPermission(PluginCall call) {
-        Log.i(TAG, "requestExactAlarmPermission called - not needed with USE_EXACT_ALARM");
+    public void setReminders(PluginCall call) {
+        worker.execute(call, () -> {
+            try {
+                int before = Math.max(0, call.getInt("beforeMinutes", 0));
+                JSObject iqamah = call.getObject("iqamahOffsets", new JSObject());
+                int[] offsets = new int[AlarmReconciler.ALARM_PRAYERS.length];
+                for (int i = 0; i < offsets.length; i++) {
+                    offsets[i] = Math.max(0, iqamah.optInt(AlarmReconciler.ALARM_PRAYERS[i], 0));
+                }
+                AlarmScheduleStore.saveReminders(getContext(), before, offsets);
+                ReminderScheduler.scheduleNext(getContext());
+                call.resolve();
+            } catch (Exception e) {
+                call.reject("Error setting reminders: " + e.getMessage());
+            }
+        });
+    }
+
+    /** Wakeups over the next 24 hours, so the saving from coalescing reminders is visible. */
+    @PluginMethod
+    public void getDailyWakeups(PluginCall call) {
+        worker.execute(call, () -> {
+            try {
+                int[] counts = ReminderScheduler.dailyWakeups(getContext());
+                JSObject ret = new JSObject();
+                ret.put("adhan", counts[0]);
+                ret.put("reminders", counts[1]);
+                ret.put("reminderWakeups", counts[2]);
+                ret.put("total", counts[0] + counts[2]);
+                ret.put("withoutCoalescing", counts[0] + counts[1]);
+                call.resolve(ret);
+            } catch (Exception e) {
+                call.reject("Error counting wakeups: " + e.getMessage());
+            }
+        });
+    }
+
+    /** What is armed natively, replacing the scheduled_alarms list the web UI used to keep. */
+    @PluginMethod
+    public void getArmedAlarms(PluginCall call) {
+        worker.execute(call, () -> {
+            JSArray alarms = new JSArray();
+            long now = System.currentTimeMillis();
+            Map<Integer, AlarmProfile> bySlot = new TreeMap<>();
+            for (AlarmProfile profile : AlarmScheduleStore.loadProfiles(getContext())) {
+                bySlot.put(profile.slot, profile);
+            }
+            for (Map.Entry<Integer, Long> e : AlarmScheduleStore.loadArmed(getContext()).entrySet()) {
+                if (e.getValue() <= now) continue;
+                AlarmProfile profile = bySlot.get(AlarmProfile.slotOf(e.getKey()));
+                JSObject alarm = new JSObject();
+                alarm.put("prayerId", e.getKey());
+                alarm.put("prayerName", profile != null
+                    ? profile.alarmName(e.getKey()) : AlarmReconciler.displayName(e.getKey()));
+                alarm.put("profile", AlarmProfile.slotOf(e.getKey()));
+                alarm.put("triggerTime", e.getValue());
+                alarms.put(alarm);
+            }
+            JSObject ret = new JSObject();
+            ret.put("alarms", alarms);
+            ret.put("reconciledAt", AlarmScheduleStore.getReconciledAt(getContext()));
+            call.resolve(ret);
+        });
+    }
+
+    /** Per-day energy counters from {@link EnergyLedger}, newest first. */
+    @PluginMethod
+    public void getEnergyReport(PluginCall call) {
+        worker.execute(call, () -> {
+            try {
+                int days = call.getInt("days", 7);
+                EnergyLedger.Metric[] metrics = EnergyLedger.Metric.values();
+                JSArray report = new JSArray();
+                for (Map.Entry<Integer, long[]> e : EnergyLedger.getInstance(getContext()).snapshot().descendingMap().entrySet()) {
+                    if (report.length() >= days) break;
+                    JSObject day = new JSObject();
+                    day.put("date", LocalDate.ofEpochDay(e.getKey()).toString());
+                    for (EnergyLedger.Metric metric : metrics) {
+                        day.put(metric.key, e.getValue()[metric.ordinal()]);
+                    }
+                    report.put(day);
+                }
+                JSObject ret = new JSObject();
+                ret.put("days", report);
+                call.resolve(ret);
+            } catch (Exception e) {
+                call.reject("Error reading energy report: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * The OS settings that make alarms late or silent, read in one pass, with
+     * the problems they cause worst first. See {@link AlarmHealth}.
+     */
+    @PluginMethod
+    public void getAlarmHealth(PluginCall call) {
+        worker.execute(call, () -> {
+            try {
+                long now = System.currentTimeMillis();
+                AlarmHealth health = AlarmHealth.collect(getContext(), now);
+                JSObject ret = new JSObject();
+                ret.put("checkedAt", now);
+                ret.put("sdkInt", health.sdkInt);
+                ret.put("exactAlarms", health.exactAlarms);
+                ret.put("ignoringBatteryOptimizations", health.ignoringBatteryOptimizations);
+                ret.put("backgroundRestricted", health.backgroundRestricted);
+                ret.put("standbyBucket", AlarmHealth.bucketName(health.standbyBucket));
+                ret.put("notificationsEnabled", health.notificationsEnabled);
+                ret.put("fullScreenIntent", health.fullScreenIntent);
+                if (health.nextAlarmClock != 0) {
+                    JSObject clock = new JSObject();
+                    clock.put("triggerTime", health.nextAlarmClock);
+                    clock.put("ours", health.nextAlarmClockOurs);
+                    ret.put("nextAlarmClock", clock);
+                }
+                if (health.nextArmedId >= 0) {
+                    AlarmProfile profile = AlarmScheduleStore.profileFor(getContext(), health.nextArmedId);
+                    JSObject armed = new JSObject();
+                    armed.put("prayerId", health.nextArmedId);
+                    armed.put("prayerName", profile != null
+                        ? profile.alarmName(health.nextArmedId) : AlarmReconciler.displayName(health.nextArmedId));
+                    armed.put("triggerTime", health.nextArmedAt);
+                    ret.put("nextArmed", armed);
+                }
+                JSArray issues = new JSArray();
+                boolean ok = true;
+                for (AlarmHealth.Issue issue : health.issues()) {
+                    JSObject entry = new JSObject();
+                    entry.put("code", issue.code);
+                    entry.put("severity", issue.severity);
+                    entry.put("message", issue.message);
+                    issues.put(entry);
+                    ok &= !AlarmHealth.ERROR.equals(issue.severity);
+                }
+                ret.put("issues", issues);
+                ret.put("ok", ok);
+                Log.i(TAG, "🩺 Alarm health: " + issues.length() + " issue(s), ok=" + ok);
+                call.resolve(ret);
+            } catch (Exception e) {
+                call.reject("Error checking alarm health: " + e.getMessage());
+            }
+        });
+    }
+
+    /** USE_EXACT_ALARM is granted at install on 13+; on 12 the user can turn Alarms & reminders off. */
+    @PluginMethod
+    public void checkExactAlarmPermission(PluginCall call) {
+        boolean granted = canScheduleExactAlarms(getContext());
         JSObject ret = new JSObject();
-        ret.put("success", true);
-        ret.put("message", "USE_EXACT_ALARM is automatically granted");
+        ret.put("granted", granted);
+        ret.put("canRequest", !granted && Build.VERSION.SDK_INT >= Build.VERSION_CODES.S);
+        Log.i(TAG, "Exact alarm permission granted: " + granted);
         call.resolve(ret);
     }
 
     @PluginMethod
-    public void stopAdhan(PluginCall call) {
-        Log.i(TAG, "Stopping adhan...");
+    public void requestExactAlarmPermission(PluginCall call) {
+        JSObject ret = new JSObject();
+        if (canScheduleExactAlarms(getContext())) {
+            ret.put("success", true);
+            ret.put("message", "Exact alarms are already allowed");
+            call.resolve(ret);
+            return;
+        }
         try {
-            Intent stopIntent = new Intent(getContext(), AdhanPlayerService.class);
-            stopIntent.setAction("STOP_ADHAN");
-            getContext().startService(stopIntent);
-
-            JSObject ret = new JSObject();
+            Intent intent = new Intent(Settings.ACTION_REQUEST_SCHEDULE_EXACT_ALARM,
+                Uri.fromParts("package", getContext().getPackageName(), null));
+            intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+            getContext().startActivity(intent);
             ret.put("success", true);
+            ret.put("message", "Opened Alarms & reminders settings");
             call.resolve(ret);
         } catch (Exception e) {
-            Log.e(TAG, "Error stopping adhan: " + e.getMessage());
-            call.reject("Error stopping adhan: " + e.getMessage());
+            call.reject("Error opening alarm settings: " + e.getMessage());
+        }
+    }
+
+    private static boolean canScheduleExactAlarms(Context context) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.S) {
+            return true;
+        }
+        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+        return alarmManager != null && alarmManager.canScheduleExactAlarms();
+    }
+
+    @PluginMethod
+    public void stopAdhan(PluginCall call) {
+        worker.execute(call, () -> {
+            Log.i(TAG, "Stopping adhan...");
+            try {
+                Intent stopIntent = new Intent(getContext(), AdhanPlayerService.class);
+                stopIntent.setAction("STOP_ADHAN");
+                getContext().startService(stopIntent);
+
+                JSObject ret = new JSObject();
+                ret.put("success", true);
+                call.resolve(ret);
+            } catch (Exception e) {
+                Log.e(TAG, "Error stopping adhan: " + e.getMessage());
+                call.reject("Error stopping adhan: " + e.getMessage());
+            }
+        });
+    }
+
+    /* -------------------- Arming -------------------- */
+
+    /** Arms one adhan alarm and records it as armed; false when AlarmManager is unavailable. */
+    public static boolean arm(Context context, int prayerId, String prayerName, String soundUri, long triggerTime) {
+        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+        if (alarmManager == null) {
+            Log.e(TAG, "AlarmManager not available");
+            return false;
+        }
+        PendingIntent pendingIntent = alarmIntent(context, prayerId, prayerName, soundUri);
+
+        // This treats the prayer time as a real system alarm, waking the device and bypassing Doze
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            AlarmClockInfo alarmClockInfo = new AlarmClockInfo(triggerTime, pendingIntent);
+            alarmManager.setAlarmClock(alarmClockInfo, pendingIntent);
+            Log.i(TAG, "✅ Alarm scheduled using setAlarmClock (Highest Priority)");
+        } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            alarmManager.setExactAndAllowWhileIdle(
+                AlarmManager.RTC_WAKEUP,
+                triggerTime,
+                pendingIntent
+            );
+            Log.i(TAG, "✅ Alarm scheduled using setExactAndAllowWhileIdle");
+        } else {
+            alarmManager.setExact(
+                AlarmManager.RTC_WAKEUP,
+                triggerTime,
+                pendingIntent
+            );
+            Log.i(TAG, "✅ Alarm scheduled using setExact");
+        }
+        AlarmScheduleStore.putArmed(context, prayerId, triggerTime);
+        return true;
+    }
+
+    public static boolean disarm(Context context, int prayerId) {
+        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+        if (alarmManager == null) {
+            return false;
+        }
+        PendingIntent pendingIntent = alarmIntent(context, prayerId, null, null);
+        alarmManager.cancel(pendingIntent);
+        pendingIntent.cancel();
+        AlarmScheduleStore.removeArmed(context, prayerId);
+        return true;
+    }
+
+    /** Extras don't take part in PendingIntent matching, so null extras still find the armed alarm. */
+    private static PendingIntent alarmIntent(Context context, int prayerId, String prayerName, String soundUri) {
+        Intent intent = new Intent(context, AdhanAlarmReceiver.class);
+        if (prayerName != null) {
+            intent.putExtra("prayerName", prayerName);
+            intent.putExtra("soundUri", soundUri);
+            intent.putExtra("prayerId", prayerId);
         }
+        intent.setAction("com.xolbine.namaztimemm.ADHAN_ALARM");
+        return PendingIntent.getBroadcast(
+            context,
+            prayerId,
+            intent,
+            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+        );
     }
 }
@@ -28,6 +28,29 @@ public class AdhanAlarmReceiver extends BroadcastReceiver {
 
         Log.i(TAG, "🕌 Adhan receiver triggered for: " + prayerName);
 
+        // Extra profiles' sounds are read at fire time too, so switching one needs no re-arming
+        if (AlarmProfile.slotOf(prayerId) > 0) {
+            AlarmProfile profile = AlarmScheduleStore.profileFor(context, prayerId);
+            if (profile != null) {
+                soundUri = profile.sound;
+            }
+        }
+
+        EnergyLedger ledger = EnergyLedger.getInstance(context);
+        ledger.add(EnergyLedger.Metric.ALARM_WAKEUPS, 1);
+
+        // Tiers are read at fire time, so changing one needs no re-arming
+        int index = DeliveryTier.prayerIndex(prayerId);
+        DeliveryTier tier = index >= 0
+            ? DeliveryTier.fromName(SettingsStore.getInstance(context).get(SettingsStore.DELIVERY_TIER.get(index)))
+            : DeliveryTier.FULL;
+        if (tier != DeliveryTier.FULL) {
+            ledger.flush();
+            LightAlert.post(context, tier, prayerId, prayerName != null ? prayerName : "Prayer");
+            return;
+        }
+
+        // The ledger is flushed when this wake lock is released
         WakeLockHelper.acquire(context);
 
         Intent serviceIntent = new Intent(context, AdhanPlayerService.class);
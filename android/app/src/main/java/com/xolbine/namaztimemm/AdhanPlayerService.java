@@ -17,6 +17,7 @@ import android.os.Build;
 import android.os.Handler;
 import android.os.IBinder;
 import android.os.PowerManager;
+import android.os.SystemClock;
 import android.util.Log;
 import android.content.BroadcastReceiver;
 import android.content.IntentFilter;
@@ -38,6 +39,8 @@ public class AdhanPlayerService extends Service implements
     private static final String TAG = "AdhanPlayerService";
     private static final String CHANNEL_ID = "adhan_alarm_channel";
     private static final int NOTIFICATION_ID = 1001;
+    /** Sent to this package when playback ends, so AlarmActivity can close itself. */
+    public static final String ACTION_ADHAN_STOPPED = "com.xolbine.namaztimemm.ADHAN_STOPPED";
     private static final long ADHAN_MAX_DURATION = 6 * 60 * 1000; // 6 minutes max
 
     private MediaPlayer mediaPlayer;
@@ -48,6 +51,8 @@ public class AdhanPlayerService extends Service implements
     private Handler stopHandler = new Handler();
     private VolumeButtonReceiver volumeButtonReceiver;
     private boolean isCleanedUp = false;
+    private long foregroundSince = 0;
+    private long playingSince = 0;
 
     @Override
     public void onCreate() {
@@ -87,6 +92,9 @@ public class AdhanPlayerService extends Service implements
             } else {
                 startForeground(NOTIFICATION_ID, createNotification(currentPrayerName));
             }
+            if (foregroundSince == 0) {
+                foregroundSince = SystemClock.elapsedRealtime();
+            }
 
             initializeMediaPlayer(soundUri);
         }
@@ -172,6 +180,7 @@ public class AdhanPlayerService extends Service implements
                 mediaPlayer.setVolume(1.0f, 1.0f);
                 mediaPlayer.start();
                 isPlaying = true;
+                playingSince = SystemClock.elapsedRealtime();
                 Log.i(TAG, "🕌 Adhan audio is now playing in the foreground");
 
                 stopHandler.removeCallbacksAndMessages(null);
@@ -216,6 +225,7 @@ public class AdhanPlayerService extends Service implements
                 if (mediaPlayer != null && mediaPlayer.isPlaying()) {
                     mediaPlayer.pause();
                     isPlaying = false;
+                    recordPlayback();
                 }
                 break;
             case AudioManager.AUDIOFOCUS_GAIN:
@@ -251,10 +261,13 @@ public class AdhanPlayerService extends Service implements
             notificationManager.cancel(NOTIFICATION_ID);
         }
 
+        sendBroadcast(new Intent(ACTION_ADHAN_STOPPED).setPackage(getPackageName()));
+
         Log.i(TAG, "Adhan stopped and notification cleared");
     }
 
     private void releaseMediaPlayer() {
+        recordPlayback();
         if (mediaPlayer != null) {
             try {
                 if (mediaPlayer.isPlaying()) {
@@ -268,6 +281,18 @@ public class AdhanPlayerService extends Service implements
         }
     }
 
+    /** Closes the current playback span; setWakeMode holds its lock for exactly that span. */
+    private void recordPlayback() {
+        if (playingSince == 0) {
+            return;
+        }
+        long played = SystemClock.elapsedRealtime() - playingSince;
+        playingSince = 0;
+        EnergyLedger ledger = EnergyLedger.getInstance(this);
+        ledger.add(EnergyLedger.Metric.AUDIO_MS, played);
+        ledger.add(EnergyLedger.Metric.MEDIA_WAKELOCK_MS, played);
+    }
+
     private Notification createNotification(String prayerName) {
         Intent stopIntent = new Intent(this, AdhanPlayerService.class);
         stopIntent.setAction("STOP_ADHAN");
@@ -278,12 +303,14 @@ public class AdhanPlayerService extends Service implements
             PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
         );
         
-        Intent notificationIntent = new Intent(this, MainActivity.class);
-        notificationIntent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP);
-        PendingIntent contentIntent = PendingIntent.getActivity(
+        // Lightweight native screen; MainActivity would boot the WebView while audio starts
+        Intent alarmIntent = new Intent(this, AlarmActivity.class);
+        alarmIntent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_NO_USER_ACTION);
+        alarmIntent.putExtra("prayerName", prayerName);
+        PendingIntent fullScreenIntent = PendingIntent.getActivity(
             this,
             0,
-            notificationIntent,
+            alarmIntent,
             PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
         );
 
@@ -297,7 +324,7 @@ public class AdhanPlayerService extends Service implements
             .setOngoing(true)
             .setAutoCancel(false)
             .setContentIntent(stopPendingIntent)
-            .setFullScreenIntent(contentIntent, true)
+            .setFullScreenIntent(fullScreenIntent, true)
             .addAction(
                 android.R.drawable.ic_media_pause,
                 "Stop",
@@ -340,6 +367,12 @@ public class AdhanPlayerService extends Service implements
         if (!isCleanedUp) {
             stopAdhan();
         }
+        if (foregroundSince != 0) {
+            EnergyLedger ledger = EnergyLedger.getInstance(this);
+            ledger.add(EnergyLedger.Metric.FOREGROUND_MS, SystemClock.elapsedRealtime() - foregroundSince);
+            ledger.flush();
+            foregroundSince = 0;
+        }
         Log.d(TAG, "Service destroyed");
     }
 
@@ -2,30 +2,59 @@ package com.xolbine.namaztimemm;
 
 import android.app.Activity;
 import android.app.KeyguardManager;
+import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
+import android.content.IntentFilter;
 import android.os.Build;
 import android.os.Bundle;
+import android.os.Debug;
 import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
 import android.util.Log;
+import android.view.View;
+import android.view.ViewTreeObserver;
 import android.view.WindowManager;
 import android.widget.TextView;
 import android.widget.Button;
-import android.view.View;
 
 /**
- * AlarmActivity is launched by the BroadcastReceiver.
- * Its primary purpose is to show on top of the lock screen, which signals
- * to the Android system that the app is "Visible" and "Foreground",
- * allowing the AdhanPlayerService to successfully request Audio Focus.
+ * Lock-screen UI for a firing adhan, opened by the full-screen intent of the
+ * AdhanPlayerService notification.
+ *
+ * A plain Activity with a two-view layout, so the alarm path never boots the
+ * Capacitor bridge, the WebView or the web bundle while audio is starting.
+ * Closes itself when the service reports the adhan has stopped.
  */
 public class AlarmActivity extends Activity {
     private static final String TAG = "AlarmActivity";
+    // Resource usage is sampled this long after the first frame, while the adhan plays
+    private static final long USAGE_SAMPLE_DELAY_MS = 3000;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable logUsage = new Runnable() {
+        @Override
+        public void run() {
+            Debug.MemoryInfo memory = new Debug.MemoryInfo();
+            Debug.getMemoryInfo(memory);
+            Log.i(TAG, "📊 Alarm path: cpu=" + Process.getElapsedCpuTime() + "ms pss="
+                + memory.getTotalPss() + "KB, " + StartupTimer.snapshot());
+        }
+    };
+
+    private final BroadcastReceiver stoppedReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            finish();
+        }
+    };
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
+        StartupTimer.mark(StartupTimer.ALARM_UI_CREATE);
         super.onCreate(savedInstanceState);
-        
+
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O_MR1) {
             setShowWhenLocked(true);
             setTurnScreenOn(true);
@@ -58,6 +87,31 @@ public class AlarmActivity extends Activity {
             });
         }
 
+        IntentFilter filter = new IntentFilter(AdhanPlayerService.ACTION_ADHAN_STOPPED);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
+            registerReceiver(stoppedReceiver, filter, Context.RECEIVER_NOT_EXPORTED);
+        } else {
+            registerReceiver(stoppedReceiver, filter);
+        }
+
+        final View root = getWindow().getDecorView();
+        root.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                root.getViewTreeObserver().removeOnPreDrawListener(this);
+                StartupTimer.mark(StartupTimer.ALARM_UI_DRAWN);
+                handler.postDelayed(logUsage, USAGE_SAMPLE_DELAY_MS);
+                return true;
+            }
+        });
+
         Log.i(TAG, "AlarmActivity created and visible over lock screen");
     }
+
+    @Override
+    protected void onDestroy() {
+        handler.removeCallbacks(logUsage);
+        unregisterReceiver(stoppedReceiver);
+        super.onDestroy();
+    }
 }
@@ -0,0 +1,184 @@
+package com.xolbine.namaztimemm;
+
+import android.app.ActivityManager;
+import android.app.AlarmManager;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.app.usage.UsageStatsManager;
+import android.content.Context;
+import android.os.Build;
+import android.os.PowerManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Snapshot of the OS settings that decide whether an adhan alarm fires on
+ * time: exact alarm access, battery optimization, background restriction,
+ * standby bucket, notification and full-screen intent access, and whether
+ * the next alarm we armed is still the one the system will fire.
+ *
+ * Readings are taken once in {@link #collect(Context, long)}; on releases
+ * without a setting the reading is the permissive value, since the
+ * restriction doesn't exist there. {@link #issues()} turns them into
+ * problems for the test-alarm page, worst first.
+ */
+final class AlarmHealth {
+    static final String ERROR = "error";     // alarms will be missed
+    static final String WARNING = "warning"; // alarms may be late or silent
+    static final int BUCKET_UNKNOWN = -1;
+    // How much later than our earliest armed alarm the system's next alarm clock may be and still be it
+    static final long MATCH_TOLERANCE_MS = 1000;
+
+    final int sdkInt;
+    final boolean exactAlarms;
+    final boolean ignoringBatteryOptimizations;
+    final boolean backgroundRestricted;
+    final int standbyBucket;
+    final boolean notificationsEnabled;
+    final boolean fullScreenIntent;
+    final long nextAlarmClock;        // 0 when the system has none
+    final boolean nextAlarmClockOurs;
+    final int nextArmedId;            // earliest future alarm in AlarmScheduleStore, or -1
+    final long nextArmedAt;
+
+    static final class Issue {
+        final String code;
+        final String severity;
+        final String message;
+
+        Issue(String code, String severity, String message) {
+            this.code = code;
+            this.severity = severity;
+            this.message = message;
+        }
+    }
+
+    AlarmHealth(int sdkInt, boolean exactAlarms, boolean ignoringBatteryOptimizations, boolean backgroundRestricted,
+                int standbyBucket, boolean notificationsEnabled, boolean fullScreenIntent,
+                long nextAlarmClock, boolean nextAlarmClockOurs, int nextArmedId, long nextArmedAt) {
+        this.sdkInt = sdkInt;
+        this.exactAlarms = exactAlarms;
+        this.ignoringBatteryOptimizations = ignoringBatteryOptimizations;
+        this.backgroundRestricted = backgroundRestricted;
+        this.standbyBucket = standbyBucket;
+        this.notificationsEnabled = notificationsEnabled;
+        this.fullScreenIntent = fullScreenIntent;
+        this.nextAlarmClock = nextAlarmClock;
+        this.nextAlarmClockOurs = nextAlarmClockOurs;
+        this.nextArmedId = nextArmedId;
+        this.nextArmedAt = nextArmedAt;
+    }
+
+    static AlarmHealth collect(Context context, long now) {
+        int sdk = Build.VERSION.SDK_INT;
+        String pkg = context.getPackageName();
+
+        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+        boolean exact = sdk < Build.VERSION_CODES.S || (alarmManager != null && alarmManager.canScheduleExactAlarms());
+        long nextClock = 0;
+        boolean ours = false;
+        if (alarmManager != null) {
+            AlarmManager.AlarmClockInfo info = alarmManager.getNextAlarmClock();
+            if (info != null) {
+                nextClock = info.getTriggerTime();
+                PendingIntent show = info.getShowIntent();
+                ours = show != null && pkg.equals(show.getCreatorPackage());
+            }
+        }
+
+        PowerManager powerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        boolean ignoring = powerManager != null && powerManager.isIgnoringBatteryOptimizations(pkg);
+
+        boolean restricted = false;
+        int bucket = BUCKET_UNKNOWN;
+        if (sdk >= Build.VERSION_CODES.P) {
+            ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+            restricted = activityManager != null && activityManager.isBackgroundRestricted();
+            UsageStatsManager usage = (UsageStatsManager) context.getSystemService(Context.USAGE_STATS_SERVICE);
+            if (usage != null) {
+                bucket = usage.getAppStandbyBucket();
+            }
+        }
+
+        NotificationManager notificationManager =
+            (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+        boolean notifications = notificationManager == null
+            || sdk < Build.VERSION_CODES.N || notificationManager.areNotificationsEnabled();
+        boolean fullScreen = notificationManager == null
+            || sdk < Build.VERSION_CODES.UPSIDE_DOWN_CAKE || notificationManager.canUseFullScreenIntent();
+
+        int armedId = -1;
+        long armedAt = 0;
+        for (Map.Entry<Integer, Long> e : AlarmScheduleStore.loadArmed(context).entrySet()) {
+            long at = e.getValue();
+            if (at > now && (armedId < 0 || at < armedAt)) {
+                armedId = e.getKey();
+                armedAt = at;
+            }
+        }
+
+        return new AlarmHealth(sdk, exact, ignoring, restricted, bucket, notifications, fullScreen,
+            nextClock, ours, armedId, armedAt);
+    }
+
+    /**
+     * Whether our earliest armed alarm has been dropped: the system's next
+     * alarm clock should be it or earlier. An earlier one may be another
+     * app's hiding ours, so that isn't reported.
+     */
+    boolean armedAlarmMissing() {
+        if (nextArmedId < 0) return false;
+        return nextAlarmClock == 0 || nextAlarmClock > nextArmedAt + MATCH_TOLERANCE_MS;
+    }
+
+    List<Issue> issues() {
+        List<Issue> errors = new ArrayList<>();
+        List<Issue> warnings = new ArrayList<>();
+        if (!exactAlarms) {
+            errors.add(new Issue("exactAlarmDenied", ERROR,
+                "Alarms & reminders access is off, so adhan alarms can't be set for the exact time"));
+        }
+        if (backgroundRestricted) {
+            errors.add(new Issue("backgroundRestricted", ERROR,
+                "Battery usage is set to Restricted; alarms are held back while the app is in the background"));
+        }
+        if (standbyBucket == UsageStatsManager.STANDBY_BUCKET_RESTRICTED) {
+            errors.add(new Issue("standbyRestricted", ERROR,
+                "The system put the app in the restricted standby bucket; alarms may not fire"));
+        } else if (standbyBucket == UsageStatsManager.STANDBY_BUCKET_RARE) {
+            warnings.add(new Issue("standbyRare", WARNING,
+                "The app is rarely used, so the system limits its background work"));
+        }
+        if (!notificationsEnabled) {
+            errors.add(new Issue("notificationsDisabled", ERROR,
+                "Notifications are off, so chime and vibrate alerts won't show and the adhan can't be stopped from its notification"));
+        }
+        if (armedAlarmMissing()) {
+            errors.add(new Issue("armedAlarmMissing", ERROR,
+                "The next adhan alarm is no longer registered with the system"));
+        }
+        if (!ignoringBatteryOptimizations) {
+            warnings.add(new Issue("batteryOptimized", WARNING,
+                "Battery optimization is on; some phones delay or drop alarms for optimized apps"));
+        }
+        if (!fullScreenIntent) {
+            warnings.add(new Issue("fullScreenIntentDenied", WARNING,
+                "Full-screen alerts are off, so the alarm screen won't show over the lock screen"));
+        }
+        errors.addAll(warnings);
+        return errors;
+    }
+
+    static String bucketName(int bucket) {
+        switch (bucket) {
+            case UsageStatsManager.STANDBY_BUCKET_ACTIVE: return "active";
+            case UsageStatsManager.STANDBY_BUCKET_WORKING_SET: return "workingSet";
+            case UsageStatsManager.STANDBY_BUCKET_FREQUENT: return "frequent";
+            case UsageStatsManager.STANDBY_BUCKET_RARE: return "rare";
+            case UsageStatsManager.STANDBY_BUCKET_RESTRICTED: return "restricted";
+            default: return "unknown";
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.xolbine.namaztimemm;
+
+/**
+ * One location whose prayers get adhan alarms. Slot 0 is the primary profile,
+ * built from the scheduleNativeAlarms inputs and timed in the device zone;
+ * slots 1.. are extra locations (a relative's city, the home mosque while
+ * travelling), each timed in its own zone.
+ *
+ * Alarm ids are slot * {@link #ID_STRIDE} + base id + day index, so the
+ * primary profile keeps the ids it has always used.
+ */
+public final class AlarmProfile {
+    public static final int MAX_PROFILES = 5;
+    static final int ID_STRIDE = 10000;
+    public static final String DEFAULT_SOUND = "adhan";
+
+    public final int slot;
+    public final String label;
+    public final AlarmScheduleStore.Inputs inputs;
+    public final String zoneId; // null for the device zone
+    public final String sound;  // raw resource name for AdhanPlayerService
+
+    public AlarmProfile(int slot, String label, AlarmScheduleStore.Inputs inputs, String zoneId, String sound) {
+        this.slot = slot;
+        this.label = label;
+        this.inputs = inputs;
+        this.zoneId = zoneId;
+        this.sound = sound;
+    }
+
+    static AlarmProfile primary(AlarmScheduleStore.Inputs inputs) {
+        return new AlarmProfile(0, "", inputs, null, DEFAULT_SOUND);
+    }
+
+    static int slotOf(int alarmId) {
+        return alarmId / ID_STRIDE;
+    }
+
+    /** The id as the primary profile would have it: base id + day index. */
+    static int baseId(int alarmId) {
+        return alarmId % ID_STRIDE;
+    }
+
+    /** Name shown for one of this profile's alarms, e.g. "Asr" or "Asr · Mandalay". */
+    String alarmName(int alarmId) {
+        String name = AlarmReconciler.displayName(alarmId);
+        return label.isEmpty() ? name : name + " · " + label;
+    }
+}
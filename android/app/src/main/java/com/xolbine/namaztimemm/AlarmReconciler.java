@@ -0,0 +1,247 @@
+package com.xolbine.namaztimemm;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Rebuilds the adhan alarm schedule natively after the clock, timezone or date
+ * changes, or after a reboot.
+ *
+ * The desired schedule is recomputed from the persisted inputs exactly as
+ * scheduleNativeAlarms does it (7 days, ids base + yyyymmdd % 1000, device-local
+ * wall times), then diffed against the armed set: only alarms that are missing
+ * or whose trigger time moved are armed, and only stale ones are cancelled.
+ *
+ * Every {@link AlarmProfile} contributes its alarms under its own id range.
+ * Profiles at the same coordinates and settings share each day's computation
+ * when their UTC offsets match, and an alarm that lands within a minute of the
+ * same prayer from an earlier profile is skipped, so two profiles for one
+ * city don't sound the adhan twice.
+ */
+public final class AlarmReconciler {
+    private static final String TAG = "AlarmReconciler";
+
+    public static final String[] ALARM_PRAYERS = { "fajr", "dhuhr", "asr", "maghrib", "isha" };
+    private static final String[] DISPLAY_NAMES = { "Fajr", "Dhuhr", "Asr", "Maghrib", "Isha" };
+    private static final int[] ENGINE_INDEX = {
+        PrayerTimeEngine.FAJR, PrayerTimeEngine.DHUHR, PrayerTimeEngine.ASR,
+        PrayerTimeEngine.MAGHRIB, PrayerTimeEngine.ISHA
+    };
+    private static final int[] BASE_IDS = { 1000, 2000, 3000, 4000, 5000 };
+    private static final int DAYS = 7;
+    private static final int DAILY_REQUEST_CODE = 9200;
+    static final long DEDUP_WINDOW_MS = 60 * 1000;
+
+    private AlarmReconciler() {}
+
+    /** Changes needed to turn the armed set into the desired one. */
+    static final class Diff {
+        final List<Integer> cancel = new ArrayList<>();
+        final Map<Integer, Long> arm = new TreeMap<>();
+        int unchanged;
+    }
+
+    /**
+     * Synchronized so receivers and ScheduleCoordinator never interleave their arm/cancel calls.
+     *
+     * @param armedLost true after a reboot, when the system has dropped every alarm
+     */
+    public static synchronized void reconcile(Context context, String reason, boolean armedLost) {
+        long start = SystemClock.elapsedRealtime();
+        try {
+            List<AlarmProfile> profiles = AlarmScheduleStore.loadProfiles(context);
+            if (profiles.isEmpty()) {
+                Log.i(TAG, "No schedule inputs yet, nothing to reconcile (" + reason + ")");
+                return;
+            }
+            long now = System.currentTimeMillis();
+            Map<Integer, AlarmProfile> bySlot = new HashMap<>();
+            for (AlarmProfile profile : profiles) {
+                bySlot.put(profile.slot, profile);
+            }
+            Map<Integer, Long> desired = desired(profiles, now, TimeZone.getDefault(), MosqueTimetable.get(context));
+            Map<Integer, Long> armed = armedLost ? new TreeMap<Integer, Long>() : AlarmScheduleStore.loadArmed(context);
+            Diff diff = diff(armed, desired, now);
+
+            for (int prayerId : diff.cancel) {
+                AdhanAlarmPlugin.disarm(context, prayerId);
+            }
+            if (armedLost) {
+                AlarmScheduleStore.saveArmed(context, new TreeMap<Integer, Long>());
+            }
+            for (Map.Entry<Integer, Long> e : diff.arm.entrySet()) {
+                AlarmProfile profile = bySlot.get(AlarmProfile.slotOf(e.getKey()));
+                AdhanAlarmPlugin.arm(context, e.getKey(), profile.alarmName(e.getKey()), profile.sound, e.getValue());
+            }
+            AlarmScheduleStore.setReconciledAt(context, now);
+            scheduleDailyCheck(context, now);
+            ReminderScheduler.scheduleNext(context);
+
+            Log.i(TAG, "⏱️ Reconciled (" + reason + ") in " + (SystemClock.elapsedRealtime() - start) + "ms: "
+                + diff.arm.size() + " armed, " + diff.cancel.size() + " cancelled, " + diff.unchanged + " unchanged");
+        } catch (Exception e) {
+            Log.e(TAG, "Error reconciling alarms: " + e.getMessage());
+        }
+    }
+
+    /** Trigger times by prayerId for today and the next six days, skipping times already past. */
+    static Map<Integer, Long> desired(AlarmScheduleStore.Inputs inputs, long now, TimeZone zone) {
+        Map<Integer, Long> desired = new TreeMap<>();
+        addDesired(desired, 0, inputs, now, zone, new HashMap<String, int[]>(), MosqueTimetable.EMPTY);
+        return desired;
+    }
+
+    static Map<Integer, Long> desired(List<AlarmProfile> profiles, long now, TimeZone deviceZone) {
+        return desired(profiles, now, deviceZone, MosqueTimetable.EMPTY);
+    }
+
+    /**
+     * The same for every profile, in slot order, with ids offset by slot. Extra
+     * profiles without a zone use {@code deviceZone}. Profiles near the mosque
+     * take its published times where it has them.
+     */
+    static Map<Integer, Long> desired(List<AlarmProfile> profiles, long now, TimeZone deviceZone,
+                                      MosqueTimetable mosque) {
+        Map<Integer, Long> desired = new TreeMap<>();
+        Map<String, int[]> days = new HashMap<>();
+        List<TreeSet<Long>> taken = new ArrayList<>();
+        for (int p = 0; p < ALARM_PRAYERS.length; p++) {
+            taken.add(new TreeSet<Long>());
+        }
+        for (AlarmProfile profile : profiles) {
+            TimeZone zone = profile.zoneId != null ? TimeZone.getTimeZone(profile.zoneId) : deviceZone;
+            Map<Integer, Long> own = new TreeMap<>();
+            MosqueTimetable overrides = mosque.appliesTo(profile.inputs.lat, profile.inputs.lng)
+                ? mosque : MosqueTimetable.EMPTY;
+            addDesired(own, profile.slot * AlarmProfile.ID_STRIDE, profile.inputs, now, zone, days, overrides);
+            for (Map.Entry<Integer, Long> e : own.entrySet()) {
+                TreeSet<Long> times = taken.get(AlarmProfile.baseId(e.getKey()) / 1000 - 1);
+                long at = e.getValue();
+                if (!times.subSet(at - DEDUP_WINDOW_MS, false, at + DEDUP_WINDOW_MS, false).isEmpty()) {
+                    continue;
+                }
+                times.add(at);
+                desired.put(e.getKey(), at);
+            }
+        }
+        return desired;
+    }
+
+    /** @param days computed days keyed by coordinates, settings, offset and date, shared between profiles */
+    private static void addDesired(Map<Integer, Long> desired, int idOffset, AlarmScheduleStore.Inputs inputs,
+                                   long now, TimeZone zone, Map<String, int[]> days, MosqueTimetable mosque) {
+        Calendar day = Calendar.getInstance(zone);
+        day.setTimeInMillis(now);
+        for (int d = 0; d < DAYS; d++) {
+            int year = day.get(Calendar.YEAR);
+            int month = day.get(Calendar.MONTH) + 1;
+            int dayOfMonth = day.get(Calendar.DAY_OF_MONTH);
+            int dayIndex = (year * 10000 + month * 100 + dayOfMonth) % 1000;
+
+            // Offset at local noon, so a DST switch inside the week is honoured
+            Calendar noon = (Calendar) day.clone();
+            noon.set(Calendar.HOUR_OF_DAY, 12);
+            noon.set(Calendar.MINUTE, 0);
+            double timezone = zone.getOffset(noon.getTimeInMillis()) / 3600000.0;
+
+            String key = inputs.lat + "," + inputs.lng + "," + inputs.method + "," + inputs.asrSchool + ","
+                + inputs.hijriOffset + "," + timezone + "," + year + "-" + month + "-" + dayOfMonth;
+            int[] minutes = days.get(key);
+            if (minutes == null) {
+                minutes = PrayerTimeEngine.computeDay(inputs.lat, inputs.lng, timezone, year, month, dayOfMonth,
+                    inputs.method, inputs.asrSchool, PrayerTimeEngine.HighLatRule.MIDDLE_OF_NIGHT, null,
+                    inputs.hijriOffset);
+                days.put(key, minutes);
+            }
+            int epochDay = PrayerTimeEngine.epochDay(year, month, dayOfMonth);
+            if (mosque.covers(epochDay)) {
+                // The memo is shared with profiles away from the mosque, so override a copy
+                minutes = minutes.clone();
+                mosque.apply(epochDay, minutes);
+            }
+
+            for (int p = 0; p < ALARM_PRAYERS.length; p++) {
+                if (!inputs.enabledPrayers.contains(ALARM_PRAYERS[p])) continue;
+                int m = minutes[ENGINE_INDEX[p]];
+                Calendar at = (Calendar) day.clone();
+                at.set(Calendar.HOUR_OF_DAY, (m / 60) % 24);
+                at.set(Calendar.MINUTE, m % 60);
+                at.set(Calendar.SECOND, 0);
+                at.set(Calendar.MILLISECOND, 0);
+                if (at.getTimeInMillis() > now) {
+                    desired.put(idOffset + BASE_IDS[p] + dayIndex, at.getTimeInMillis());
+                }
+            }
+            day.add(Calendar.DAY_OF_MONTH, 1);
+        }
+    }
+
+    /** Alarms that already fired are dropped from the armed set without a cancel. */
+    static Diff diff(Map<Integer, Long> armed, Map<Integer, Long> desired, long now) {
+        Diff diff = new Diff();
+        Map<Integer, Long> live = new TreeMap<>(armed);
+        Iterator<Map.Entry<Integer, Long>> it = live.entrySet().iterator();
+        while (it.hasNext()) {
+            if (it.next().getValue() <= now) it.remove();
+        }
+        for (Map.Entry<Integer, Long> e : live.entrySet()) {
+            if (!desired.containsKey(e.getKey())) {
+                diff.cancel.add(e.getKey());
+            }
+        }
+        for (Map.Entry<Integer, Long> e : desired.entrySet()) {
+            Long current = live.get(e.getKey());
+            if (current != null && current.longValue() == e.getValue()) {
+                diff.unchanged++;
+            } else {
+                diff.arm.put(e.getKey(), e.getValue());
+            }
+        }
+        return diff;
+    }
+
+    static String displayName(int prayerId) {
+        int index = AlarmProfile.baseId(prayerId) / 1000 - 1;
+        return DISPLAY_NAMES[Math.max(0, Math.min(DISPLAY_NAMES.length - 1, index))];
+    }
+
+    /**
+     * DATE_CHANGED is not delivered to manifest receivers from Android 8, so the
+     * rolling window is also topped up by an inexact, non-wakeup alarm after midnight.
+     */
+    private static void scheduleDailyCheck(Context context, long now) {
+        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+        if (alarmManager == null) return;
+        Calendar midnight = Calendar.getInstance();
+        midnight.setTimeInMillis(now);
+        midnight.add(Calendar.DAY_OF_MONTH, 1);
+        midnight.set(Calendar.HOUR_OF_DAY, 0);
+        midnight.set(Calendar.MINUTE, 5);
+        midnight.set(Calendar.SECOND, 0);
+        midnight.set(Calendar.MILLISECOND, 0);
+
+        Intent intent = new Intent(context, DailyReconcileReceiver.class);
+        intent.setAction(DailyReconcileReceiver.ACTION_DAILY_RECONCILE);
+        PendingIntent pendingIntent = PendingIntent.getBroadcast(
+            context,
+            DAILY_REQUEST_CODE,
+            intent,
+            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+        );
+        alarmManager.set(AlarmManager.RTC, midnight.getTimeInMillis(), pendingIntent);
+    }
+}
@@ -0,0 +1,231 @@
+package com.xolbine.namaztimemm;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * What the adhan alarms were scheduled from, and what is currently armed.
+ * Lets AlarmReconciler rebuild the schedule without the WebView.
+ */
+public class AlarmScheduleStore {
+    private static final String TAG = "AlarmScheduleStore";
+    private static final String PREFS_NAME = "alarm_schedule";
+
+    /** Inputs passed to scheduleNativeAlarms (lib/native-alarm-scheduler.ts). */
+    public static final class Inputs {
+        public final double lat;
+        public final double lng;
+        public final PrayerTimeEngine.CalcMethod method;
+        public final int asrSchool;
+        public final int hijriOffset;
+        public final Set<String> enabledPrayers; // keys of AlarmReconciler.ALARM_PRAYERS
+
+        public Inputs(double lat, double lng, PrayerTimeEngine.CalcMethod method, int asrSchool,
+                      int hijriOffset, Set<String> enabledPrayers) {
+            this.lat = lat;
+            this.lng = lng;
+            this.method = method;
+            this.asrSchool = asrSchool;
+            this.hijriOffset = hijriOffset;
+            this.enabledPrayers = enabledPrayers;
+        }
+    }
+
+    public static synchronized void saveInputs(Context context, Inputs inputs) {
+        prefs(context).edit()
+            .putLong("lat", Double.doubleToRawLongBits(inputs.lat))
+            .putLong("lng", Double.doubleToRawLongBits(inputs.lng))
+            .putString("method", inputs.method.jsName)
+            .putInt("asrSchool", inputs.asrSchool)
+            .putInt("hijriOffset", inputs.hijriOffset)
+            .putStringSet("enabledPrayers", new HashSet<>(inputs.enabledPrayers))
+            .apply();
+    }
+
+    /** Saved inputs, or null if the web UI has never scheduled alarms. */
+    public static synchronized Inputs loadInputs(Context context) {
+        SharedPreferences prefs = prefs(context);
+        if (!prefs.contains("lat")) {
+            return null;
+        }
+        return new Inputs(
+            Double.longBitsToDouble(prefs.getLong("lat", 0)),
+            Double.longBitsToDouble(prefs.getLong("lng", 0)),
+            PrayerTimeEngine.CalcMethod.fromName(prefs.getString("method", "Karachi")),
+            prefs.getInt("asrSchool", 2),
+            prefs.getInt("hijriOffset", 0),
+            new HashSet<>(prefs.getStringSet("enabledPrayers", new HashSet<String>()))
+        );
+    }
+
+    /** The extra location profiles (slots 1..), replacing any saved before. */
+    public static synchronized void saveExtraProfiles(Context context, List<AlarmProfile> profiles) {
+        JSONArray array = new JSONArray();
+        try {
+            for (AlarmProfile profile : profiles) {
+                JSONObject o = new JSONObject();
+                o.put("slot", profile.slot);
+                o.put("label", profile.label);
+                o.put("lat", profile.inputs.lat);
+                o.put("lng", profile.inputs.lng);
+                o.put("zoneId", profile.zoneId);
+                o.put("method", profile.inputs.method.jsName);
+                o.put("asrSchool", profile.inputs.asrSchool);
+                o.put("hijriOffset", profile.inputs.hijriOffset);
+                o.put("enabledPrayers", new JSONArray(profile.inputs.enabledPrayers));
+                o.put("sound", profile.sound);
+                array.put(o);
+            }
+        } catch (JSONException e) {
+            throw new IllegalArgumentException("Profile not storable: " + e.getMessage());
+        }
+        prefs(context).edit().putString("profiles", array.toString()).apply();
+    }
+
+    /** Extra profiles in slot order; empty when none are set. */
+    public static synchronized List<AlarmProfile> loadExtraProfiles(Context context) {
+        List<AlarmProfile> profiles = new ArrayList<>();
+        try {
+            JSONArray array = new JSONArray(prefs(context).getString("profiles", "[]"));
+            for (int i = 0; i < array.length(); i++) {
+                JSONObject o = array.getJSONObject(i);
+                Set<String> enabled = new HashSet<>();
+                JSONArray prayers = o.getJSONArray("enabledPrayers");
+                for (int p = 0; p < prayers.length(); p++) {
+                    enabled.add(prayers.getString(p));
+                }
+                profiles.add(new AlarmProfile(
+                    o.getInt("slot"),
+                    o.getString("label"),
+                    new Inputs(
+                        o.getDouble("lat"),
+                        o.getDouble("lng"),
+                        PrayerTimeEngine.CalcMethod.fromName(o.getString("method")),
+                        o.getInt("asrSchool"),
+                        o.getInt("hijriOffset"),
+                        enabled
+                    ),
+                    o.has("zoneId") ? o.getString("zoneId") : null,
+                    o.getString("sound")
+                ));
+            }
+        } catch (JSONException e) {
+            Log.e(TAG, "Error reading profiles: " + e.getMessage());
+        }
+        return profiles;
+    }
+
+    /** Every profile to schedule: the primary one if the web UI has scheduled, then the extras. */
+    public static synchronized List<AlarmProfile> loadProfiles(Context context) {
+        List<AlarmProfile> profiles = new ArrayList<>();
+        Inputs primary = loadInputs(context);
+        if (primary != null) {
+            profiles.add(AlarmProfile.primary(primary));
+        }
+        profiles.addAll(loadExtraProfiles(context));
+        return profiles;
+    }
+
+    /** The profile an alarm id belongs to, or null if it no longer exists. */
+    public static synchronized AlarmProfile profileFor(Context context, int alarmId) {
+        int slot = AlarmProfile.slotOf(alarmId);
+        for (AlarmProfile profile : loadProfiles(context)) {
+            if (profile.slot == slot) {
+                return profile;
+            }
+        }
+        return null;
+    }
+
+    /** Minutes before each prayer for the soft reminder, 0 when off. */
+    public static synchronized int loadReminderBefore(Context context) {
+        return prefs(context).getInt("reminderBefore", 0);
+    }
+
+    /** Minutes after the adhan for each ALARM_PRAYERS entry's iqamah alert, 0 when off. */
+    public static synchronized int[] loadIqamahOffsets(Context context) {
+        SharedPreferences prefs = prefs(context);
+        int[] offsets = new int[AlarmReconciler.ALARM_PRAYERS.length];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = prefs.getInt("iqamah_" + AlarmReconciler.ALARM_PRAYERS[i], 0);
+        }
+        return offsets;
+    }
+
+    public static synchronized void saveReminders(Context context, int beforeMinutes, int[] iqamahOffsets) {
+        SharedPreferences.Editor editor = prefs(context).edit().putInt("reminderBefore", beforeMinutes);
+        for (int i = 0; i < iqamahOffsets.length; i++) {
+            editor.putInt("iqamah_" + AlarmReconciler.ALARM_PRAYERS[i], iqamahOffsets[i]);
+        }
+        editor.apply();
+    }
+
+    /** When the armed set was last brought in line with the inputs, 0 if never. */
+    public static synchronized long getReconciledAt(Context context) {
+        return prefs(context).getLong("reconciledAt", 0);
+    }
+
+    public static synchronized void setReconciledAt(Context context, long at) {
+        prefs(context).edit().putLong("reconciledAt", at).apply();
+    }
+
+    /** End of the last delivered reminder group, so an early wakeup doesn't repeat its reminders. */
+    public static synchronized long getRemindersDeliveredUntil(Context context) {
+        return prefs(context).getLong("remindersDeliveredUntil", 0);
+    }
+
+    public static synchronized void setRemindersDeliveredUntil(Context context, long until) {
+        prefs(context).edit().putLong("remindersDeliveredUntil", until).apply();
+    }
+
+    /** Armed alarms as prayerId to trigger time, ordered by id. */
+    public static synchronized Map<Integer, Long> loadArmed(Context context) {
+        Map<Integer, Long> armed = new TreeMap<>();
+        for (String entry : prefs(context).getStringSet("armed", new HashSet<String>())) {
+            int sep = entry.indexOf(':');
+            try {
+                armed.put(Integer.parseInt(entry.substring(0, sep)), Long.parseLong(entry.substring(sep + 1)));
+            } catch (RuntimeException e) {
+                // Skip a malformed entry; the next reconciliation rewrites the set
+            }
+        }
+        return armed;
+    }
+
+    public static synchronized void saveArmed(Context context, Map<Integer, Long> armed) {
+        Set<String> entries = new HashSet<>();
+        for (Map.Entry<Integer, Long> e : armed.entrySet()) {
+            entries.add(e.getKey() + ":" + e.getValue());
+        }
+        prefs(context).edit().putStringSet("armed", entries).apply();
+    }
+
+    public static synchronized void putArmed(Context context, int prayerId, long triggerTime) {
+        Map<Integer, Long> armed = loadArmed(context);
+        armed.put(prayerId, triggerTime);
+        saveArmed(context, armed);
+    }
+
+    public static synchronized void removeArmed(Context context, int prayerId) {
+        Map<Integer, Long> armed = loadArmed(context);
+        if (armed.remove(prayerId) != null) {
+            saveArmed(context, armed);
+        }
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+}
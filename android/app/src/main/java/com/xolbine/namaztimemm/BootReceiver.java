@@ -7,18 +7,19 @@ import android.util.Log;
 
 /**
  * Receiver that triggers when device boots
- * Can be used to reschedule alarms after device restart
+ * Re-arms the adhan alarms from the persisted schedule inputs, since a reboot clears them
  */
 public class BootReceiver extends BroadcastReceiver {
     private static final String TAG = "BootReceiver";
 
     @Override
     public void onReceive(Context context, Intent intent) {
-        if (Intent.ACTION_BOOT_COMPLETED.equals(intent.getAction())) {
-            Log.i(TAG, "Device booted - alarms need to be rescheduled from app");
-            
-            // Note: We don't automatically reschedule here because we need prayer time data
-            // The app should reschedule alarms when it starts after boot
+        String action = intent.getAction();
+        if (Intent.ACTION_BOOT_COMPLETED.equals(action)
+                || "android.intent.action.QUICKBOOT_POWERON".equals(action)
+                || Intent.ACTION_MY_PACKAGE_REPLACED.equals(action)) {
+            Log.i(TAG, "Device booted or app updated - re-arming alarms");
+            TimeChangeReceiver.reconcileAsync(this, context, action, true);
         }
     }
 }
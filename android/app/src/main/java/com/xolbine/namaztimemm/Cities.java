@@ -0,0 +1,58 @@
+package com.xolbine.namaztimemm;
+
+/**
+ * Native copy of CITIES from lib/solar-calc.ts.
+ * Keep both lists in the same order so indices match.
+ */
+public final class Cities {
+
+    public static final class City {
+        public final String name;
+        public final String slug;
+        public final double lat;
+        public final double lng;
+        public final double timezone;
+
+        public City(String name, String slug, double lat, double lng, double timezone) {
+            this.name = name;
+            this.slug = slug;
+            this.lat = lat;
+            this.lng = lng;
+            this.timezone = timezone;
+        }
+    }
+
+    public static final City[] ALL = {
+        new City("Yangon", "yangon", 16.8661, 96.1951, 6.5),
+        new City("Mandalay", "mandalay", 21.9588, 96.0891, 6.5),
+        new City("Naypyidaw", "naypyidaw", 19.7633, 96.0785, 6.5),
+        new City("Taunggyi", "taunggyi", 20.7888, 97.0333, 6.5),
+        new City("Mawlamyine", "mawlamyine", 16.4833, 97.6333, 6.5),
+        new City("Bago", "bago", 17.3333, 96.4833, 6.5),
+        new City("Pathein", "pathein", 16.7833, 94.7333, 6.5),
+        new City("Pyay", "pyay", 18.8167, 95.2167, 6.5),
+        new City("Monywa", "monywa", 22.1167, 95.1333, 6.5),
+        new City("Sittwe", "sittwe", 20.15, 92.9, 6.5),
+        new City("Lashio", "lashio", 22.95, 97.75, 6.5),
+        new City("Meiktila", "meiktila", 20.8833, 95.85, 6.5),
+        new City("Magway", "magway", 20.15, 94.9167, 6.5),
+        new City("Myitkyina", "myitkyina", 25.3833, 97.4, 6.5),
+        new City("Dawei", "dawei", 14.0833, 98.2, 6.5),
+        new City("Hpa-An", "hpa-an", 16.8833, 97.6333, 6.5),
+        new City("Loikaw", "loikaw", 19.6667, 97.2, 6.5),
+        new City("Hakha", "hakha", 22.65, 93.6, 6.5),
+        new City("Kalay", "kalay", 23.2, 94.0167, 6.5),
+        new City("Pakokku", "pakokku", 21.3333, 95.0833, 6.5),
+        new City("Thaton", "thaton", 16.9167, 97.3667, 6.5),
+        new City("Pyin Oo Lwin", "pyin-oo-lwin", 22.0315, 96.471, 6.5),
+    };
+
+    private Cities() {}
+
+    public static City findBySlug(String slug) {
+        for (City city : ALL) {
+            if (city.slug.equals(slug)) return city;
+        }
+        return null;
+    }
+}
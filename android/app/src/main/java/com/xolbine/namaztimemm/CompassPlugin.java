@@ -6,6 +6,7 @@ import android.hardware.Sensor;
 import android.hardware.SensorEvent;
 import android.hardware.SensorEventListener;
 import android.hardware.SensorManager;
+import android.os.SystemClock;
 import android.view.WindowManager;
 import android.view.Surface;
 import com.getcapacitor.Plugin;
@@ -14,6 +15,8 @@ import com.getcapacitor.PluginMethod;
 import com.getcapacitor.annotation.CapacitorPlugin;
 import com.getcapacitor.JSObject;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 @CapacitorPlugin(name = "Compass")
 public class CompassPlugin extends Plugin implements SensorEventListener {
     private SensorManager sensorManager;
@@ -23,6 +26,13 @@ public class CompassPlugin extends Plugin implements SensorEventListener {
     private boolean isWatching = false;
     private long lastEmit = 0;
     private static final int EMIT_INTERVAL_MS = 66;
+    private final PluginExecutor worker = new PluginExecutor("CompassPlugin");
+
+    // Energy accounting, folded into the ledger when the sensors are released
+    private long sensorsActiveSince = 0;
+    // Bumped on the sensor thread, folded in on the worker
+    private final AtomicLong sensorEvents = new AtomicLong();
+    private final AtomicLong sensorEmits = new AtomicLong();
 
     private float[] gravity = null;
     private float[] geomagnetic = null;
@@ -50,6 +60,12 @@ public class CompassPlugin extends Plugin implements SensorEventListener {
     private static final float ALPHA = 0.15f;
     
     private boolean hasMagneticInterference = false;
+    private final MagneticInterferenceDetector interferenceDetector = new MagneticInterferenceDetector();
+    private final float[] lastRotationMatrix = new float[9];
+    private boolean rotationMatrixValid = false;
+    private boolean usingRotationVector = false;
+    private float lastGoodHeading = -1f;
+    private float cachedDeclination = 0f;
 
     @PluginMethod
     public void setLocation(PluginCall call) {
@@ -57,31 +73,44 @@ public class CompassPlugin extends Plugin implements SensorEventListener {
         userLongitude = call.getFloat("longitude", 0f);
         userAltitude = call.getFloat("altitude", 0f);
         locationSet = true;
-        call.resolve();
-    }
 
-    private float getMagneticDeclination() {
-        if (!locationSet) {
-            return 0f;
-        }
         GeomagneticField field = new GeomagneticField(
             userLatitude,
             userLongitude,
             userAltitude,
             System.currentTimeMillis()
         );
-        return field.getDeclination();
+        cachedDeclination = field.getDeclination();
+        // GeomagneticField reports nanotesla, the magnetometer reports microtesla
+        interferenceDetector.setExpectedField(field.getFieldStrength() / 1000f, field.getInclination());
+        call.resolve();
+    }
+
+    private float getMagneticDeclination() {
+        if (!locationSet) {
+            return 0f;
+        }
+        return cachedDeclination;
     }
 
     @PluginMethod
     public void startWatching(PluginCall call) {
+        worker.execute(call, () -> startSensors(call));
+    }
+
+    /** Sensor registration is binder IPC; also called on resume with no call. */
+    private synchronized void startSensors(PluginCall call) {
         if (sensorManager == null) {
             sensorManager = (SensorManager) getContext().getSystemService(Context.SENSOR_SERVICE);
         }
 
         resetState();
+        interferenceDetector.reset();
+        rotationMatrixValid = false;
+        lastGoodHeading = -1f;
 
         rotationSensor = sensorManager.getDefaultSensor(Sensor.TYPE_ROTATION_VECTOR);
+        magneticSensor = sensorManager.getDefaultSensor(Sensor.TYPE_MAGNETIC_FIELD);
 
         if (rotationSensor != null) {
             boolean registered = sensorManager.registerListener(
@@ -91,25 +120,50 @@ public class CompassPlugin extends Plugin implements SensorEventListener {
             );
 
             if (registered) {
+                // Raw magnetometer only feeds the interference detector in this mode
+                if (magneticSensor != null) {
+                    sensorManager.registerListener(this, magneticSensor, SensorManager.SENSOR_DELAY_UI);
+                }
+                usingRotationVector = true;
                 isWatching = true;
+                markSensorsActive();
                 if (call != null) call.resolve();
                 return;
             }
         }
 
-        magneticSensor = sensorManager.getDefaultSensor(Sensor.TYPE_MAGNETIC_FIELD);
+        usingRotationVector = false;
         accelerometerSensor = sensorManager.getDefaultSensor(Sensor.TYPE_ACCELEROMETER);
 
         if (magneticSensor != null && accelerometerSensor != null) {
             sensorManager.registerListener(this, magneticSensor, SensorManager.SENSOR_DELAY_UI);
             sensorManager.registerListener(this, accelerometerSensor, SensorManager.SENSOR_DELAY_UI);
             isWatching = true;
+            markSensorsActive();
             if (call != null) call.resolve();
         } else {
             if (call != null) call.reject("No compass sensors available");
         }
     }
 
+    private void markSensorsActive() {
+        if (sensorsActiveSince == 0) {
+            sensorsActiveSince = SystemClock.elapsedRealtime();
+        }
+    }
+
+    private void recordSensorUsage() {
+        if (sensorsActiveSince == 0) {
+            return;
+        }
+        EnergyLedger ledger = EnergyLedger.getInstance(getContext());
+        ledger.add(EnergyLedger.Metric.SENSOR_ACTIVE_MS, SystemClock.elapsedRealtime() - sensorsActiveSince);
+        ledger.add(EnergyLedger.Metric.SENSOR_EVENTS, sensorEvents.getAndSet(0));
+        ledger.add(EnergyLedger.Metric.SENSOR_EMITS, sensorEmits.getAndSet(0));
+        ledger.flush();
+        sensorsActiveSince = 0;
+    }
+
     private void resetState() {
         gravity = null;
         geomagnetic = null;
@@ -128,29 +182,46 @@ public class CompassPlugin extends Plugin implements SensorEventListener {
 
     @PluginMethod
     public void stopWatching(PluginCall call) {
+        worker.execute(call, () -> {
+            stopSensors();
+            call.resolve();
+        });
+    }
+
+    private synchronized void stopSensors() {
         if (sensorManager != null && isWatching) {
             sensorManager.unregisterListener(this);
             isWatching = false;
+            recordSensorUsage();
             resetState();
         }
-        if (call != null) call.resolve();
     }
 
+    /** Sensor (un)registration goes through the worker so the main thread never waits on it. */
     @Override
     protected void handleOnPause() {
-        if (isWatching && sensorManager != null) {
-            sensorManager.unregisterListener(this);
-        }
+        worker.execute(this::pauseSensors);
         super.handleOnPause();
     }
 
     @Override
     protected void handleOnResume() {
+        worker.execute(this::resumeSensors);
+        super.handleOnResume();
+    }
+
+    private synchronized void pauseSensors() {
+        if (isWatching && sensorManager != null) {
+            sensorManager.unregisterListener(this);
+            recordSensorUsage();
+        }
+    }
+
+    private synchronized void resumeSensors() {
         if (isWatching && sensorManager != null) {
             resetState();
-            startWatching(null);
+            startSensors(null);
         }
-        super.handleOnResume();
     }
 
     private float angularDifference(float a, float b) {
@@ -271,10 +342,20 @@ public class CompassPlugin extends Plugin implements SensorEventListener {
     @Override
     public void onSensorChanged(SensorEvent event) {
         long now = System.currentTimeMillis();
+        sensorEvents.incrementAndGet();
+
+        if (event.sensor.getType() == Sensor.TYPE_MAGNETIC_FIELD) {
+            hasMagneticInterference = interferenceDetector.update(
+                event.values,
+                rotationMatrixValid ? lastRotationMatrix : null,
+                now
+            );
+            if (usingRotationVector) return;
+        }
+
         if (now - lastEmit < EMIT_INTERVAL_MS) return;
         lastEmit = now;
 
-        float heading = 0;
         int accuracy = event.accuracy;
         float pitch = 0;
         float roll = 0;
@@ -283,6 +364,8 @@ public class CompassPlugin extends Plugin implements SensorEventListener {
             float[] rotationMatrix = new float[9];
             float[] adjustedMatrix = new float[9];
             SensorManager.getRotationMatrixFromVector(rotationMatrix, event.values);
+            System.arraycopy(rotationMatrix, 0, lastRotationMatrix, 0, 9);
+            rotationMatrixValid = true;
 
             int[] axes = getRemappedAxes();
             SensorManager.remapCoordinateSystem(
@@ -303,30 +386,13 @@ public class CompassPlugin extends Plugin implements SensorEventListener {
             float declination = getMagneticDeclination();
             float rawHeading = (azimuthDegrees + declination + 360) % 360;
             
-            heading = processHeading(rawHeading);
-
-            JSObject ret = new JSObject();
-            ret.put("heading", heading);
-            ret.put("accuracy", accuracy);
-            ret.put("pitch", pitch);
-            ret.put("roll", roll);
-            ret.put("needsLevelWarning", Math.abs(pitch) > 30 || Math.abs(roll) > 30);
-            ret.put("isStabilizing", isShaking);
-            ret.put("hasMagneticInterference", hasMagneticInterference);
-            notifyListeners("headingChanged", ret);
+            emitHeading(rawHeading, accuracy, pitch, roll);
 
         } else if (event.sensor.getType() == Sensor.TYPE_ACCELEROMETER) {
             gravity = lowPass(event.values.clone(), gravity);
             
         } else if (event.sensor.getType() == Sensor.TYPE_MAGNETIC_FIELD) {
             geomagnetic = lowPass(event.values.clone(), geomagnetic);
-            
-            float magnitude = (float) Math.sqrt(
-                event.values[0] * event.values[0] + 
-                event.values[1] * event.values[1] + 
-                event.values[2] * event.values[2]
-            );
-            hasMagneticInterference = (magnitude < 25 || magnitude > 65);
         }
 
         if (event.sensor.getType() == Sensor.TYPE_MAGNETIC_FIELD && gravity != null && geomagnetic != null) {
@@ -334,6 +400,9 @@ public class CompassPlugin extends Plugin implements SensorEventListener {
             float[] I = new float[9];
             
             if (SensorManager.getRotationMatrix(R, I, gravity, geomagnetic)) {
+                System.arraycopy(R, 0, lastRotationMatrix, 0, 9);
+                rotationMatrixValid = true;
+
                 float[] adjustedMatrix = new float[9];
                 int[] axes = getRemappedAxes();
                 SensorManager.remapCoordinateSystem(
@@ -354,21 +423,33 @@ public class CompassPlugin extends Plugin implements SensorEventListener {
                 float declination = getMagneticDeclination();
                 float rawHeading = (azimuthDegrees + declination + 360) % 360;
                 
-                heading = processHeading(rawHeading);
-                
-                JSObject ret = new JSObject();
-                ret.put("heading", heading);
-                ret.put("accuracy", accuracy);
-                ret.put("pitch", pitch);
-                ret.put("roll", roll);
-                ret.put("needsLevelWarning", Math.abs(pitch) > 30 || Math.abs(roll) > 30);
-                ret.put("isStabilizing", isShaking);
-                ret.put("hasMagneticInterference", hasMagneticInterference);
-                notifyListeners("headingChanged", ret);
+                emitHeading(rawHeading, accuracy, pitch, roll);
             }
         }
     }
 
+    private void emitHeading(float rawHeading, int accuracy, float pitch, float roll) {
+        float heading;
+        if (hasMagneticInterference && lastGoodHeading >= 0) {
+            // Hold the last trusted heading instead of feeding disturbed samples into the filters
+            heading = lastGoodHeading;
+        } else {
+            heading = processHeading(rawHeading);
+            lastGoodHeading = heading;
+        }
+
+        JSObject ret = new JSObject();
+        ret.put("heading", heading);
+        ret.put("accuracy", accuracy);
+        ret.put("pitch", pitch);
+        ret.put("roll", roll);
+        ret.put("needsLevelWarning", Math.abs(pitch) > 30 || Math.abs(roll) > 30);
+        ret.put("isStabilizing", isShaking);
+        ret.put("hasMagneticInterference", hasMagneticInterference);
+        notifyListeners("headingChanged", ret);
+        sensorEmits.incrementAndGet();
+    }
+
     private float[] lowPass(float[] input, float[] output) {
         if (output == null) return input;
         
@@ -390,9 +471,8 @@ public class CompassPlugin extends Plugin implements SensorEventListener {
 
     @Override
     protected void handleOnDestroy() {
-        if (sensorManager != null && isWatching) {
-            sensorManager.unregisterListener(this);
-        }
+        worker.shutdown();
+        stopSensors();
         super.handleOnDestroy();
     }
 }
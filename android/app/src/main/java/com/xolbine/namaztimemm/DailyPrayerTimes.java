@@ -0,0 +1,122 @@
+package com.xolbine.namaztimemm;
+
+import android.content.Context;
+import android.location.Location;
+
+/**
+ * One day's times at the last saved location, computed with the synced settings
+ * and replaced by the mosque's own times where an imported timetable covers them.
+ * Shared by the native first frame and the home-screen widget, so both agree
+ * with each other and with the web list.
+ */
+public final class DailyPrayerTimes {
+    private static final long DAY_MS = 86400000L;
+
+    // Same rows as the web prayer list
+    public static final int[] SHOWN = {
+        PrayerTimeEngine.FAJR, PrayerTimeEngine.SUNRISE, PrayerTimeEngine.ZAWAL,
+        PrayerTimeEngine.ASR, PrayerTimeEngine.MAGHRIB, PrayerTimeEngine.ISHA
+    };
+    private static final String[] NAMES_EN = { "Fajr", "Sunrise", "Zawal", "Asr", "Maghrib", "Isha" };
+    private static final String[] NAMES_MY = { "ဖဂျရ်", "နေထွက်ချိန်", "ဇဝါလ်", "အဆွရ်", "မဂ်ရိဗ်", "အေရှာ" };
+
+    public final int epochDay;        // local date at the location
+    public final long dayStartMillis; // local midnight at the location
+    public final int[] minutes;       // minutes after local midnight, indexed FAJR..ISHA
+    public final PrayerSettings settings;
+    private final double lat;
+    private final double lng;
+
+    private DailyPrayerTimes(double lat, double lng, int epochDay, long dayStartMillis, int[] minutes,
+                             PrayerSettings settings) {
+        this.lat = lat;
+        this.lng = lng;
+        this.epochDay = epochDay;
+        this.dayStartMillis = dayStartMillis;
+        this.minutes = minutes;
+        this.settings = settings;
+    }
+
+    /** Times for the local day containing {@code millis}, or null when no location has been saved. */
+    public static DailyPrayerTimes at(Context context, long millis) {
+        Location location = LastLocationStore.load(context);
+        if (location == null) {
+            return null;
+        }
+        return at(context, location.getLatitude(), location.getLongitude(), millis);
+    }
+
+    /** Times at the given point for the local day containing {@code millis}. */
+    public static DailyPrayerTimes at(Context context, double lat, double lng, long millis) {
+        PrayerSettings settings = PrayerSettings.load(context);
+        TimezoneResolver resolver = TimezoneResolver.getInstance();
+        String zoneId = resolver.deviceZone();
+
+        // The offset depends on the date and the date on the offset; the second pass settles it
+        double timezone = resolver.offsetHours(zoneId, (int) Math.floorDiv(millis, DAY_MS));
+        int epochDay = (int) Math.floorDiv(millis + (long) (timezone * 3600000), DAY_MS);
+        timezone = resolver.offsetHours(zoneId, epochDay);
+
+        int[] ymd = PrayerTimeEngine.civilFromEpochDay(epochDay);
+        int[] minutes = minutes(MosqueTimetable.get(context), lat, lng, timezone, ymd[0], ymd[1], ymd[2],
+            settings.calcMethod(), settings.asrSchool, settings.hijriOffset);
+        long dayStart = epochDay * DAY_MS - (long) (timezone * 3600000);
+        return new DailyPrayerTimes(lat, lng, epochDay, dayStart, minutes, settings);
+    }
+
+    /**
+     * One day's minutes from the shared cache, with the mosque's published
+     * times in place of computed ones near it: what the alarms arm, for every
+     * surface that shows a day's times.
+     */
+    static int[] minutes(MosqueTimetable mosque, double lat, double lng, double timezone,
+                         int year, int month, int day,
+                         PrayerTimeEngine.CalcMethod method, int asrSchool, int hijriOffset) {
+        int[] minutes = PrayerTimeCache.getInstance().get(
+            lat, lng, timezone, year, month, day, method, asrSchool, hijriOffset
+        );
+        if (mosque.appliesTo(lat, lng)) {
+            mosque.apply(PrayerTimeEngine.epochDay(year, month, day), minutes); // the cache hands out copies
+        }
+        return minutes;
+    }
+
+    /** The following day at the same location. */
+    public DailyPrayerTimes tomorrow(Context context) {
+        return at(context, lat, lng, dayStartMillis + DAY_MS + DAY_MS / 2);
+    }
+
+    public long millisAt(int minuteOfDay) {
+        return dayStartMillis + minuteOfDay * 60000L;
+    }
+
+    public int minuteOf(long millis) {
+        return (int) Math.floorDiv(millis - dayStartMillis, 60000L);
+    }
+
+    public long nextMidnightMillis() {
+        return dayStartMillis + DAY_MS;
+    }
+
+    public String[] names() {
+        return "en".equals(settings.language) ? NAMES_EN : NAMES_MY;
+    }
+
+    /** Index into {@link #SHOWN} of the first time after {@code nowMinutes}, or -1 once Isha has passed. */
+    public static int upcoming(int[] minutes, int nowMinutes) {
+        for (int i = 0; i < SHOWN.length; i++) {
+            if (minutes[SHOWN[i]] > nowMinutes) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** Same format as formatHM in solar-calc.ts, e.g. "4:52 AM". */
+    public static String formatTime(int minutes) {
+        int hh = (minutes / 60) % 24;
+        int mm = minutes % 60;
+        int h12 = hh % 12 == 0 ? 12 : hh % 12;
+        return h12 + ":" + (mm < 10 ? "0" : "") + mm + (hh >= 12 ? " PM" : " AM");
+    }
+}
@@ -0,0 +1,24 @@
+package com.xolbine.namaztimemm;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.util.Log;
+
+/**
+ * Daily check just after midnight, armed by AlarmReconciler. Not exported,
+ * so other apps can't trigger a reconcile.
+ */
+public class DailyReconcileReceiver extends BroadcastReceiver {
+    private static final String TAG = "DailyReconcileReceiver";
+    public static final String ACTION_DAILY_RECONCILE = "com.xolbine.namaztimemm.DAILY_RECONCILE";
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        if (!ACTION_DAILY_RECONCILE.equals(intent.getAction())) {
+            return;
+        }
+        Log.i(TAG, "🕐 Daily check");
+        TimeChangeReceiver.reconcileAsync(this, context, ACTION_DAILY_RECONCILE, false);
+    }
+}
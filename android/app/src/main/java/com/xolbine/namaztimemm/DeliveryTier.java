@@ -0,0 +1,33 @@
+package com.xolbine.namaztimemm;
+
+/**
+ * How a prayer's alarm is delivered. Only FULL starts AdhanPlayerService;
+ * the lighter tiers are a single notification posted by the receiver.
+ */
+public enum DeliveryTier {
+    FULL("adhan"),
+    CHIME("chime"),
+    VIBRATE("vibrate"),
+    SILENT("silent");
+
+    public final String jsName;
+
+    DeliveryTier(String jsName) {
+        this.jsName = jsName;
+    }
+
+    public static DeliveryTier fromName(String name) {
+        for (DeliveryTier tier : values()) {
+            if (tier.jsName.equals(name)) {
+                return tier;
+            }
+        }
+        return FULL;
+    }
+
+    /** Index into AlarmReconciler.ALARM_PRAYERS for an alarm id of any profile, or -1 for ad-hoc alarms. */
+    static int prayerIndex(int prayerId) {
+        int index = AlarmProfile.baseId(prayerId) / 1000 - 1;
+        return index >= 0 && index < AlarmReconciler.ALARM_PRAYERS.length ? index : -1;
+    }
+}
@@ -0,0 +1,193 @@
+package com.xolbine.namaztimemm;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.TreeMap;
+
+/**
+ * Per-day energy counters for the subsystems that keep the device awake:
+ * alarm wakeups, wake locks, the adhan foreground service, audio playback
+ * and the compass sensors.
+ *
+ * Counters accumulate in memory and are written to files/energy.bin
+ * ("NTEN" v1, see {@link #writeTo(OutputStream)}) on {@link #flush()}, which
+ * callers invoke at the end of a span rather than per event. Only the last
+ * {@link #MAX_DAYS} local days are kept.
+ */
+public final class EnergyLedger {
+    private static final String TAG = "EnergyLedger";
+    public static final String FILE_NAME = "energy.bin";
+
+    private static final int MAGIC = 0x4E54454E; // "NTEN"
+    private static final int VERSION = 1;
+    static final int MAX_DAYS = 14;
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+
+    public enum Metric {
+        ALARM_WAKEUPS("alarmWakeups"),
+        WAKELOCK_MS("wakeLockMs"),
+        MEDIA_WAKELOCK_MS("mediaWakeLockMs"),
+        FOREGROUND_MS("foregroundServiceMs"),
+        AUDIO_MS("audioMs"),
+        SENSOR_ACTIVE_MS("sensorActiveMs"),
+        SENSOR_EVENTS("sensorEventsDelivered"),
+        SENSOR_EMITS("sensorEventsEmitted");
+
+        public final String key;
+
+        Metric(String key) {
+            this.key = key;
+        }
+    }
+
+    private static EnergyLedger instance;
+
+    private final File file;
+    // epochDay (local) -> counters indexed by Metric.ordinal()
+    private final TreeMap<Integer, long[]> days;
+    private boolean dirty;
+
+    public static synchronized EnergyLedger getInstance(Context context) {
+        if (instance == null) {
+            instance = new EnergyLedger(new File(context.getApplicationContext().getFilesDir(), FILE_NAME));
+        }
+        return instance;
+    }
+
+    EnergyLedger(File file) {
+        this.file = file;
+        this.days = load(file);
+    }
+
+    private static TreeMap<Integer, long[]> load(File file) {
+        if (file == null) {
+            return new TreeMap<>();
+        }
+        try (InputStream in = new FileInputStream(file)) {
+            return read(in);
+        } catch (FileNotFoundException | EOFException e) {
+            // Nothing flushed yet, or a write cut short: start over
+            return new TreeMap<>();
+        } catch (Exception e) {
+            Log.e(TAG, "Error loading energy ledger: " + e.getMessage());
+            return new TreeMap<>();
+        }
+    }
+
+    public void add(Metric metric, long amount) {
+        add(metric, amount, System.currentTimeMillis(), TimeZone.getDefault());
+    }
+
+    synchronized void add(Metric metric, long amount, long nowMillis, TimeZone zone) {
+        if (amount <= 0) {
+            return;
+        }
+        int day = localEpochDay(nowMillis, zone);
+        long[] counters = days.get(day);
+        if (counters == null) {
+            counters = new long[Metric.values().length];
+            days.put(day, counters);
+            while (days.size() > MAX_DAYS) {
+                days.remove(days.firstKey());
+            }
+        }
+        counters[metric.ordinal()] += amount;
+        dirty = true;
+    }
+
+    /** Writes pending counters; replaces the file atomically so a crash never leaves half a ledger. */
+    public synchronized void flush() {
+        if (!dirty || file == null) {
+            return;
+        }
+        File tmp = new File(file.getPath() + ".tmp");
+        try (OutputStream out = new FileOutputStream(tmp)) {
+            writeTo(out, days);
+        } catch (IOException e) {
+            Log.e(TAG, "Error writing energy ledger: " + e.getMessage());
+            return;
+        }
+        if (!tmp.renameTo(file)) {
+            Log.e(TAG, "Error replacing " + file.getName());
+            return;
+        }
+        dirty = false;
+    }
+
+    /** Copy of the kept days, oldest first. */
+    public synchronized TreeMap<Integer, long[]> snapshot() {
+        TreeMap<Integer, long[]> copy = new TreeMap<>();
+        for (Map.Entry<Integer, long[]> e : days.entrySet()) {
+            copy.put(e.getKey(), e.getValue().clone());
+        }
+        return copy;
+    }
+
+    static int localEpochDay(long millis, TimeZone zone) {
+        return (int) Math.floorDiv(millis + zone.getOffset(millis), DAY_MS);
+    }
+
+    /* -------------------- Binary format -------------------- */
+
+    /**
+     * Header: magic, version, metric count (byte), day count (byte). Then per
+     * day: epoch day (int) and one long per metric. Readers ignore metrics
+     * past the ones they know and zero the ones a file doesn't have.
+     */
+    static void writeTo(OutputStream out, TreeMap<Integer, long[]> days) throws IOException {
+        int metrics = Metric.values().length;
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeByte(metrics);
+        data.writeByte(days.size());
+        for (Map.Entry<Integer, long[]> e : days.entrySet()) {
+            data.writeInt(e.getKey());
+            for (int i = 0; i < metrics; i++) {
+                data.writeLong(e.getValue()[i]);
+            }
+        }
+        data.flush();
+    }
+
+    static TreeMap<Integer, long[]> read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not an energy ledger");
+        }
+        int version = data.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported energy ledger version " + version);
+        }
+        int stored = data.readUnsignedByte();
+        int count = data.readUnsignedByte();
+        int known = Metric.values().length;
+        TreeMap<Integer, long[]> days = new TreeMap<>();
+        for (int d = 0; d < count; d++) {
+            int day = data.readInt();
+            long[] counters = new long[known];
+            for (int i = 0; i < stored; i++) {
+                long value = data.readLong();
+                if (i < known) {
+                    counters[i] = value;
+                }
+            }
+            days.put(day, counters);
+        }
+        return days;
+    }
+}
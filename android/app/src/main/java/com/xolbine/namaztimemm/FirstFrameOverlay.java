@@ -0,0 +1,156 @@
+package com.xolbine.namaztimemm;
+
+import android.app.Activity;
+import android.content.Context;
+import android.graphics.Typeface;
+import android.util.Log;
+import android.util.TypedValue;
+import android.view.Gravity;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
+import android.widget.FrameLayout;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+
+import java.text.DateFormat;
+import java.util.Date;
+
+/**
+ * Native view of today's times laid over the WebView on cold start.
+ * Computed from the persisted location and settings on a background thread
+ * while the bridge boots, then attached on the main thread; MainActivity
+ * removes it once the web UI reports ready.
+ */
+public class FirstFrameOverlay {
+    private static final String TAG = "FirstFrameOverlay";
+
+    private static final int TEXT_COLOR = 0xFF1F2622;
+    private static final int PRIMARY_COLOR = 0xFF1E5C46;
+
+    private final Activity activity;
+    private View view;
+    private boolean dismissed = false;
+
+    private FirstFrameOverlay(Activity activity) {
+        this.activity = activity;
+    }
+
+    /**
+     * Starts computing today's times and returns at once; the view is added to
+     * the activity's content when they are ready, unless dismissed first or no
+     * location is known yet. Safe to call before super.onCreate.
+     */
+    public static FirstFrameOverlay show(Activity activity) {
+        final long nowMillis = System.currentTimeMillis();
+        final Context context = activity.getApplicationContext();
+        final FirstFrameOverlay overlay = new FirstFrameOverlay(activity);
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                final DailyPrayerTimes today;
+                try {
+                    today = DailyPrayerTimes.at(context, nowMillis);
+                } catch (Exception e) {
+                    Log.e(TAG, "Error computing first frame: " + e.getMessage());
+                    return;
+                }
+                if (today == null) {
+                    return;
+                }
+                StartupTimer.mark(StartupTimer.FIRST_FRAME_COMPUTED);
+                overlay.activity.runOnUiThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        overlay.attach(today, nowMillis);
+                    }
+                });
+            }
+        }, "FirstFrame");
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.start();
+        return overlay;
+    }
+
+    private void attach(DailyPrayerTimes today, long nowMillis) {
+        if (dismissed || activity.isFinishing()) {
+            return;
+        }
+        try {
+            View view = LayoutInflater.from(activity).inflate(R.layout.overlay_first_frame, null);
+            TextView date = view.findViewById(R.id.first_frame_date);
+            date.setText(DateFormat.getDateInstance(DateFormat.FULL).format(new Date(nowMillis)));
+
+            LinearLayout rows = view.findViewById(R.id.first_frame_rows);
+            String[] names = today.names();
+            int upcoming = DailyPrayerTimes.upcoming(today.minutes, today.minuteOf(nowMillis));
+            for (int i = 0; i < DailyPrayerTimes.SHOWN.length; i++) {
+                rows.addView(row(activity, names[i], today.minutes[DailyPrayerTimes.SHOWN[i]], i == upcoming));
+            }
+
+            ViewGroup content = activity.findViewById(android.R.id.content);
+            content.addView(view, new FrameLayout.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+
+            final View drawn = view;
+            view.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+                @Override
+                public boolean onPreDraw() {
+                    drawn.getViewTreeObserver().removeOnPreDrawListener(this);
+                    StartupTimer.mark(StartupTimer.FIRST_FRAME_DRAWN);
+                    return true;
+                }
+            });
+            this.view = view;
+        } catch (Exception e) {
+            Log.e(TAG, "Error showing first frame: " + e.getMessage());
+        }
+    }
+
+    /** Fades the overlay out; safe to call more than once. */
+    public void dismiss() {
+        if (dismissed) return;
+        dismissed = true;
+        if (view == null) return;
+        StartupTimer.mark(StartupTimer.OVERLAY_DISMISSED);
+        final View view = this.view;
+        view.animate().alpha(0f).setDuration(200).withEndAction(new Runnable() {
+            @Override
+            public void run() {
+                ViewGroup parent = (ViewGroup) view.getParent();
+                if (parent != null) {
+                    parent.removeView(view);
+                }
+            }
+        });
+    }
+
+    private static View row(Activity activity, String name, int minutes, boolean upcoming) {
+        LinearLayout row = new LinearLayout(activity);
+        row.setOrientation(LinearLayout.HORIZONTAL);
+        int padding = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, 14,
+            activity.getResources().getDisplayMetrics());
+        row.setPadding(0, padding, 0, padding);
+
+        int color = upcoming ? PRIMARY_COLOR : TEXT_COLOR;
+        TextView label = new TextView(activity);
+        label.setText(name);
+        label.setTextColor(color);
+        label.setTextSize(TypedValue.COMPLEX_UNIT_SP, 18);
+        row.addView(label, new LinearLayout.LayoutParams(0, ViewGroup.LayoutParams.WRAP_CONTENT, 1));
+
+        TextView time = new TextView(activity);
+        time.setText(DailyPrayerTimes.formatTime(minutes));
+        time.setTextColor(color);
+        time.setTextSize(TypedValue.COMPLEX_UNIT_SP, 18);
+        time.setGravity(Gravity.END);
+        if (upcoming) {
+            label.setTypeface(Typeface.DEFAULT_BOLD);
+            time.setTypeface(Typeface.DEFAULT_BOLD);
+        }
+        row.addView(time, new LinearLayout.LayoutParams(
+            ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+        return row;
+    }
+}
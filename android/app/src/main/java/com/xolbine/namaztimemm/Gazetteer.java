@@ -0,0 +1,307 @@
+package com.xolbine.namaztimemm;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Offline place gazetteer with a nearest-place index and a name prefix index.
+ *
+ * Places ship as assets/gazetteer.bin ("NTGZ" v1, see {@link #writeTo(OutputStream)}),
+ * built from gazetteer/places.csv by {@link GazetteerBuilder}; when the asset is
+ * missing the 22 built-in Cities are used. Nearest lookups go
+ * through a balanced k-d tree over unit-sphere (x, y, z) points, where straight-line
+ * distance orders places the same way as great-circle distance. Name search is a
+ * binary search over names sorted by their normalized form.
+ */
+public final class Gazetteer {
+    private static final String TAG = "Gazetteer";
+    public static final String ASSET_NAME = "gazetteer.bin";
+
+    private static final int MAGIC = 0x4E54475A; // "NTGZ"
+    private static final int VERSION = 1;
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double DEG2RAD = Math.PI / 180;
+
+    public static final class Place {
+        public final String name;
+        public final String slug; // route slug for built-in cities, empty for other places
+        public final double lat;
+        public final double lng;
+        public final double timezone;
+
+        public Place(String name, String slug, double lat, double lng, double timezone) {
+            this.name = name;
+            this.slug = slug != null ? slug : "";
+            this.lat = lat;
+            this.lng = lng;
+            this.timezone = timezone;
+        }
+    }
+
+    private static Gazetteer instance;
+
+    private final Place[] places;
+
+    // k-d tree in implicit form: node of [lo, hi) is at (lo + hi) >>> 1, split axis = depth % 3
+    private final Place[] treePlaces;
+    private final double[] tx;
+    private final double[] ty;
+    private final double[] tz;
+
+    // Prefix index: places sorted by normalized name
+    private final String[] sortedKeys;
+    private final Place[] sortedPlaces;
+
+    public static synchronized Gazetteer getInstance(Context context) {
+        if (instance == null) {
+            instance = load(context);
+        }
+        return instance;
+    }
+
+    private static Gazetteer load(Context context) {
+        try (InputStream in = context.getAssets().open(ASSET_NAME)) {
+            Gazetteer gazetteer = read(in);
+            Log.i(TAG, "📍 Loaded " + gazetteer.size() + " places");
+            return gazetteer;
+        } catch (FileNotFoundException e) {
+            Log.i(TAG, "No " + ASSET_NAME + ", using built-in cities");
+        } catch (Exception e) {
+            Log.e(TAG, "Error loading gazetteer: " + e.getMessage());
+        }
+        return fromCities();
+    }
+
+    public static Gazetteer fromCities() {
+        Place[] places = new Place[Cities.ALL.length];
+        for (int i = 0; i < places.length; i++) {
+            Cities.City c = Cities.ALL[i];
+            places[i] = new Place(c.name, c.slug, c.lat, c.lng, c.timezone);
+        }
+        return new Gazetteer(places);
+    }
+
+    public Gazetteer(Place[] places) {
+        this.places = places.clone();
+        int n = places.length;
+
+        final double[][] xyz = new double[3][n];
+        for (int i = 0; i < n; i++) {
+            double lat = places[i].lat * DEG2RAD;
+            double lng = places[i].lng * DEG2RAD;
+            xyz[0][i] = Math.cos(lat) * Math.cos(lng);
+            xyz[1][i] = Math.cos(lat) * Math.sin(lng);
+            xyz[2][i] = Math.sin(lat);
+        }
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        build(order, xyz, 0, n, 0);
+
+        treePlaces = new Place[n];
+        tx = new double[n];
+        ty = new double[n];
+        tz = new double[n];
+        for (int i = 0; i < n; i++) {
+            treePlaces[i] = places[order[i]];
+            tx[i] = xyz[0][order[i]];
+            ty[i] = xyz[1][order[i]];
+            tz[i] = xyz[2][order[i]];
+        }
+
+        final String[] keys = new String[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = normalize(places[i].name);
+        }
+        Integer[] byName = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            byName[i] = i;
+        }
+        Arrays.sort(byName, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return keys[a].compareTo(keys[b]);
+            }
+        });
+        sortedKeys = new String[n];
+        sortedPlaces = new Place[n];
+        for (int i = 0; i < n; i++) {
+            sortedKeys[i] = keys[byName[i]];
+            sortedPlaces[i] = places[byName[i]];
+        }
+    }
+
+    public int size() {
+        return places.length;
+    }
+
+    public Place get(int index) {
+        return places[index];
+    }
+
+    /** Closest place to the given point, or null when the gazetteer is empty. */
+    public Place nearest(double lat, double lng) {
+        if (places.length == 0) {
+            return null;
+        }
+        double cosLat = Math.cos(lat * DEG2RAD);
+        double[] query = {
+            cosLat * Math.cos(lng * DEG2RAD),
+            cosLat * Math.sin(lng * DEG2RAD),
+            Math.sin(lat * DEG2RAD)
+        };
+        double[] best = { Double.MAX_VALUE };
+        int[] bestIndex = { -1 };
+        search(0, places.length, 0, query, best, bestIndex);
+        return treePlaces[bestIndex[0]];
+    }
+
+    /** Up to {@code limit} places whose name starts with {@code prefix} (case, spaces and punctuation ignored). */
+    public List<Place> search(String prefix, int limit) {
+        List<Place> results = new ArrayList<>();
+        String key = normalize(prefix);
+        int i = lowerBound(key);
+        while (i < sortedKeys.length && results.size() < limit && sortedKeys[i].startsWith(key)) {
+            results.add(sortedPlaces[i]);
+            i++;
+        }
+        return results;
+    }
+
+    /** Great-circle distance in kilometres. */
+    public static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = (lat2 - lat1) * DEG2RAD;
+        double dLng = (lng2 - lng1) * DEG2RAD;
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+            + Math.cos(lat1 * DEG2RAD) * Math.cos(lat2 * DEG2RAD) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /* -------------------- Binary format -------------------- */
+
+    /**
+     * Header: magic, version, count. Then per place: name (UTF), slug (UTF),
+     * lat and lng (float, ~1 m), timezone in minutes (short).
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(places.length);
+        for (Place p : places) {
+            data.writeUTF(p.name);
+            data.writeUTF(p.slug);
+            data.writeFloat((float) p.lat);
+            data.writeFloat((float) p.lng);
+            data.writeShort((int) Math.round(p.timezone * 60));
+        }
+        data.flush();
+    }
+
+    public static Gazetteer read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a gazetteer file");
+        }
+        int version = data.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported gazetteer version " + version);
+        }
+        int count = data.readInt();
+        Place[] places = new Place[count];
+        for (int i = 0; i < count; i++) {
+            String name = data.readUTF();
+            String slug = data.readUTF();
+            double lat = data.readFloat();
+            double lng = data.readFloat();
+            double timezone = data.readShort() / 60.0;
+            places[i] = new Place(name, slug, lat, lng, timezone);
+        }
+        return new Gazetteer(places);
+    }
+
+    /* -------------------- Internals -------------------- */
+
+    /** Orders [lo, hi) so its median on the split axis sits at the middle, then recurses. */
+    private static void build(Integer[] order, final double[][] xyz, int lo, int hi, int depth) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        final double[] axis = xyz[depth % 3];
+        Arrays.sort(order, lo, hi, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return Double.compare(axis[a], axis[b]);
+            }
+        });
+        int mid = (lo + hi) >>> 1;
+        build(order, xyz, lo, mid, depth + 1);
+        build(order, xyz, mid + 1, hi, depth + 1);
+    }
+
+    private void search(int lo, int hi, int depth, double[] q, double[] best, int[] bestIndex) {
+        if (hi - lo <= 0) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        double dx = q[0] - tx[mid];
+        double dy = q[1] - ty[mid];
+        double dz = q[2] - tz[mid];
+        double d2 = dx * dx + dy * dy + dz * dz;
+        if (d2 < best[0]) {
+            best[0] = d2;
+            bestIndex[0] = mid;
+        }
+
+        int axis = depth % 3;
+        double diff = axis == 0 ? dx : axis == 1 ? dy : dz;
+        if (diff < 0) {
+            search(lo, mid, depth + 1, q, best, bestIndex);
+            if (diff * diff < best[0]) search(mid + 1, hi, depth + 1, q, best, bestIndex);
+        } else {
+            search(mid + 1, hi, depth + 1, q, best, bestIndex);
+            if (diff * diff < best[0]) search(lo, mid, depth + 1, q, best, bestIndex);
+        }
+    }
+
+    private int lowerBound(String key) {
+        int lo = 0;
+        int hi = sortedKeys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sortedKeys[mid].compareTo(key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    static String normalize(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        String lower = name.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (Character.isLetterOrDigit(c) || Character.getType(c) == Character.NON_SPACING_MARK
+                || Character.getType(c) == Character.COMBINING_SPACING_MARK) {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
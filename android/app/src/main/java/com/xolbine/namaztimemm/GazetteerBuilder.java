@@ -0,0 +1,129 @@
+package com.xolbine.namaztimemm;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds assets/gazetteer.bin from place source data. Runs from the compiled
+ * classes without an Android runtime, see {@link #main(String[])}.
+ *
+ * Accepts either the checked-in gazetteer/places.csv (name,lat,lng with # comments)
+ * or a GeoNames country dump such as MM.txt (tab separated), from which only the
+ * capital and seats of regions, districts and townships are kept. The built-in
+ * Cities always come first so their route slugs survive; a source row with the
+ * same name as an earlier place within 15 km of it is dropped as a duplicate.
+ */
+public final class GazetteerBuilder {
+    static final double DEFAULT_TIMEZONE = 6.5;
+    private static final double DUPLICATE_KM = 15;
+
+    // GeoNames columns: 1 name, 4 latitude, 5 longitude, 6 feature class, 7 feature code, 17 timezone
+    private static final String[] SEAT_CODES = { "PPLC", "PPLA", "PPLA2", "PPLA3" };
+
+    private GazetteerBuilder() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: GazetteerBuilder places.csv|MM.txt out.bin");
+            System.exit(2);
+        }
+        Gazetteer gazetteer;
+        try (Reader in = new InputStreamReader(new FileInputStream(args[0]), StandardCharsets.UTF_8)) {
+            gazetteer = build(in);
+        }
+        try (OutputStream out = new FileOutputStream(args[1])) {
+            gazetteer.writeTo(out);
+        }
+        System.out.println(gazetteer.size() + " places, wrote " + args[1]);
+    }
+
+    /** Built-in cities followed by the source places, in source order. */
+    public static Gazetteer build(Reader source) throws IOException {
+        List<Gazetteer.Place> places = new ArrayList<>();
+        for (Cities.City c : Cities.ALL) {
+            places.add(new Gazetteer.Place(c.name, c.slug, c.lat, c.lng, c.timezone));
+        }
+        for (Gazetteer.Place p : readSource(source)) {
+            if (!isDuplicate(places, p)) {
+                places.add(p);
+            }
+        }
+        return new Gazetteer(places.toArray(new Gazetteer.Place[0]));
+    }
+
+    static List<Gazetteer.Place> readSource(Reader source) throws IOException {
+        List<Gazetteer.Place> places = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(source);
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                line = line.substring(1);
+            }
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            try {
+                Gazetteer.Place place = line.indexOf('\t') >= 0 ? parseGeoNames(line) : parseCsv(trimmed);
+                if (place != null) {
+                    places.add(place);
+                }
+            } catch (RuntimeException e) {
+                throw new IOException("Line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        return places;
+    }
+
+    private static Gazetteer.Place parseCsv(String line) {
+        String[] f = line.split(",");
+        if (f.length < 3) {
+            throw new IllegalArgumentException("expected name,lat,lng");
+        }
+        return new Gazetteer.Place(f[0].trim(), "", Double.parseDouble(f[1].trim()),
+            Double.parseDouble(f[2].trim()), DEFAULT_TIMEZONE);
+    }
+
+    private static Gazetteer.Place parseGeoNames(String line) {
+        String[] f = line.split("\t", -1);
+        if (f.length < 18) {
+            throw new IllegalArgumentException("expected a GeoNames row");
+        }
+        if (!"P".equals(f[6]) || !isSeat(f[7])) {
+            return null;
+        }
+        double timezone = f[17].isEmpty() ? DEFAULT_TIMEZONE
+            : ZoneId.of(f[17]).getRules().getStandardOffset(Instant.now()).getTotalSeconds() / 3600.0;
+        return new Gazetteer.Place(f[1], "", Double.parseDouble(f[4]), Double.parseDouble(f[5]), timezone);
+    }
+
+    private static boolean isSeat(String code) {
+        for (String seat : SEAT_CODES) {
+            if (seat.equals(code)) return true;
+        }
+        return false;
+    }
+
+    private static boolean isDuplicate(List<Gazetteer.Place> places, Gazetteer.Place p) {
+        String key = Gazetteer.normalize(p.name);
+        for (Gazetteer.Place q : places) {
+            if (Gazetteer.normalize(q.name).equals(key)
+                && Gazetteer.distanceKm(p.lat, p.lng, q.lat, q.lng) < DUPLICATE_KM) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
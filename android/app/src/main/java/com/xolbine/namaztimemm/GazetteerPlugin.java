@@ -0,0 +1,77 @@
+package com.xolbine.namaztimemm;
+
+import android.util.Log;
+
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+
+import java.util.List;
+
+/**
+ * Offline place lookup: nearest named place for a GPS fix and prefix search
+ * for the city picker.
+ */
+@CapacitorPlugin(name = "Gazetteer")
+public class GazetteerPlugin extends Plugin {
+    private static final String TAG = "GazetteerPlugin";
+    private static final int MAX_RESULTS = 50;
+
+    @PluginMethod
+    public void nearest(PluginCall call) {
+        Double lat = call.getDouble("lat");
+        Double lng = call.getDouble("lng");
+
+        if (lat == null || lng == null) {
+            call.reject("Invalid location parameters");
+            return;
+        }
+
+        try {
+            Gazetteer.Place place = Gazetteer.getInstance(getContext()).nearest(lat, lng);
+            if (place == null) {
+                call.reject("Gazetteer is empty");
+                return;
+            }
+            JSObject ret = toJson(place);
+            ret.put("distanceKm", Gazetteer.distanceKm(lat, lng, place.lat, place.lng));
+            call.resolve(ret);
+        } catch (Exception e) {
+            Log.e(TAG, "Error finding nearest place: " + e.getMessage());
+            call.reject("Error finding nearest place: " + e.getMessage());
+        }
+    }
+
+    @PluginMethod
+    public void search(PluginCall call) {
+        String query = call.getString("query", "");
+        int limit = Math.max(1, Math.min(call.getInt("limit", 20), MAX_RESULTS));
+
+        try {
+            List<Gazetteer.Place> places = Gazetteer.getInstance(getContext()).search(query, limit);
+            JSArray results = new JSArray();
+            for (Gazetteer.Place place : places) {
+                results.put(toJson(place));
+            }
+            JSObject ret = new JSObject();
+            ret.put("places", results);
+            call.resolve(ret);
+        } catch (Exception e) {
+            Log.e(TAG, "Error searching places: " + e.getMessage());
+            call.reject("Error searching places: " + e.getMessage());
+        }
+    }
+
+    private static JSObject toJson(Gazetteer.Place place) {
+        JSObject obj = new JSObject();
+        obj.put("name", place.name);
+        obj.put("slug", place.slug);
+        obj.put("lat", place.lat);
+        obj.put("lng", place.lng);
+        obj.put("timezone", place.timezone);
+        return obj;
+    }
+}
@@ -0,0 +1,152 @@
+package com.xolbine.namaztimemm;
+
+/**
+ * Precomputed Gregorian to Hijri (arithmetic/civil) lookup, same results as
+ * getHijriDate in lib/solar-calc.ts.
+ *
+ * The table stores one char per Gregorian day: the Hijri (year, month) relative to
+ * the first entry in the high bits and the day of month in the low 5 bits. A
+ * conversion is one array read and the user's hijriOffset is just a shift of the
+ * index. Entries are exactly what the arithmetic algorithm returns, including the
+ * day 0 and month 0/13 it yields at some month ends, so native screens agree
+ * with the WebView. Dates outside the table fall back to the arithmetic algorithm.
+ */
+public final class HijriCalendar {
+    public static final int DEFAULT_START_YEAR = 2000;
+    public static final int DEFAULT_END_YEAR = 2100;
+
+    /** Same order as the events list in getIslamicEvent; the first match wins. */
+    public enum IslamicEvent {
+        NEW_YEAR("new_year", 1, 1, 1),
+        ASHURA("ashura", 1, 10, 1),
+        MAWLID("mawlid", 3, 12, 1),
+        ISRA("isra", 7, 27, 1),
+        BARAAT("baraat", 8, 15, 1),
+        RAMADAN_START("ramadan_start", 9, 1, 1),
+        QADR("qadr", 9, 21, 10),
+        FITR("fitr", 10, 1, 1),
+        HAJJ("hajj", 12, 8, 6),
+        ARAFAH("arafah", 12, 9, 1),
+        ADHA("adha", 12, 10, 1);
+
+        public final String key;
+        public final int month;
+        public final int day;
+        public final int range;
+
+        IslamicEvent(String key, int month, int day, int range) {
+            this.key = key;
+            this.month = month;
+            this.day = day;
+            this.range = range;
+        }
+    }
+
+    // Event ordinal + 1 for every Hijri (month, day); 0 means none
+    private static final byte[] EVENT_INDEX = buildEventIndex();
+    private static final IslamicEvent[] EVENTS = IslamicEvent.values();
+
+    private static HijriCalendar defaultInstance;
+
+    private final int firstEpochDay;
+    private final int lastEpochDay;
+    private final int firstMonthKey; // hijriYear * 14 + month of the first entry (the algorithm yields months 0..13)
+    private final char[] table;
+
+    public static synchronized HijriCalendar getDefault() {
+        if (defaultInstance == null) {
+            defaultInstance = new HijriCalendar(DEFAULT_START_YEAR, DEFAULT_END_YEAR);
+        }
+        return defaultInstance;
+    }
+
+    /** Builds the table for Gregorian years startYear..endYear inclusive (at most ~140 years). */
+    public HijriCalendar(int startYear, int endYear) {
+        if (endYear < startYear) {
+            throw new IllegalArgumentException("endYear must not be before startYear");
+        }
+        firstEpochDay = PrayerTimeEngine.epochDay(startYear, 1, 1);
+        lastEpochDay = PrayerTimeEngine.epochDay(endYear, 12, 31);
+        table = new char[lastEpochDay - firstEpochDay + 1];
+
+        int[] first = arithmetic(firstEpochDay);
+        firstMonthKey = first[0] * 14 + first[1];
+        for (int e = firstEpochDay; e <= lastEpochDay; e++) {
+            int[] hijri = arithmetic(e);
+            int relative = hijri[0] * 14 + hijri[1] - firstMonthKey;
+            if (relative > 0x7FF) {
+                throw new IllegalArgumentException("Year range too large for the lookup table");
+            }
+            table[e - firstEpochDay] = (char) (relative << 5 | hijri[2]);
+        }
+    }
+
+    /**
+     * Hijri date for a Gregorian epoch day with the user's offset applied.
+     * @return {year, month, day} as getHijriDate would return them
+     */
+    public int[] toHijri(int epochDay, int offset) {
+        int e = epochDay + offset;
+        if (e < firstEpochDay || e > lastEpochDay) {
+            return arithmetic(e);
+        }
+        char packed = table[e - firstEpochDay];
+        int monthKey = firstMonthKey + (packed >> 5);
+        return new int[] { monthKey / 14, monthKey % 14, packed & 0x1F };
+    }
+
+    /** Hijri month only; avoids allocating for the UmmAlQura Isha rule. */
+    public int month(int epochDay, int offset) {
+        int e = epochDay + offset;
+        if (e < firstEpochDay || e > lastEpochDay) {
+            return arithmetic(e)[1];
+        }
+        return (firstMonthKey + (table[e - firstEpochDay] >> 5)) % 14;
+    }
+
+    public int getFirstEpochDay() {
+        return firstEpochDay;
+    }
+
+    public int getLastEpochDay() {
+        return lastEpochDay;
+    }
+
+    /** Event for a Hijri month/day, or null. */
+    public static IslamicEvent eventFor(int hijriMonth, int hijriDay) {
+        if (hijriMonth < 1 || hijriMonth > 12 || hijriDay < 1 || hijriDay > 30) {
+            return null;
+        }
+        int slot = EVENT_INDEX[(hijriMonth - 1) * 30 + hijriDay - 1];
+        return slot == 0 ? null : EVENTS[slot - 1];
+    }
+
+    private static byte[] buildEventIndex() {
+        byte[] index = new byte[12 * 30];
+        for (IslamicEvent event : IslamicEvent.values()) {
+            for (int d = event.day; d < event.day + event.range && d <= 30; d++) {
+                int slot = (event.month - 1) * 30 + d - 1;
+                if (index[slot] == 0) {
+                    index[slot] = (byte) (event.ordinal() + 1);
+                }
+            }
+        }
+        return index;
+    }
+
+    /** Arithmetic (civil) Hijri date, same algorithm as getHijriDate. Returns {year, month, day}. */
+    static int[] arithmetic(int epochDay) {
+        long jd = epochDay + 2440588L; // JD at noon
+        long l0 = jd - 1948440 + 10632;
+        long n = Math.floorDiv(l0 - 1, 10631);
+        long l = l0 - 10631 * n + 354;
+        long j = Math.floorDiv(10985 - l, 5316) * Math.floorDiv(50 * l + 2, 17719)
+            + Math.floorDiv(l, 5670) * Math.floorDiv(43 * l + 2, 15238);
+        long l2 = l - Math.floorDiv(30 - j, 15) * Math.floorDiv(17719 * j + 2, 50)
+            - Math.floorDiv(j, 16) * Math.floorDiv(15238 * j + 2, 43) + 29;
+        long month = Math.floorDiv(24 * l2 + 3, 709);
+        long day = l2 - Math.floorDiv(709 * month + 3, 24);
+        long year = 30 * n + j - 30;
+        return new int[] { (int) year, (int) month, (int) day };
+    }
+}
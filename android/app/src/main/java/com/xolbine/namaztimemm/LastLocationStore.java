@@ -0,0 +1,105 @@
+package com.xolbine.namaztimemm;
+
+import android.Manifest;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.content.pm.PackageManager;
+import android.location.Location;
+import android.location.LocationManager;
+import android.util.Log;
+
+import androidx.core.content.ContextCompat;
+
+/**
+ * Native cache of the last good location fix.
+ * Survives WebView storage clears and is readable from receivers and widgets.
+ */
+public class LastLocationStore {
+    private static final String TAG = "LastLocationStore";
+    private static final String PREFS_NAME = "last_location";
+    private static final String STORE_PROVIDER = "store";
+
+    private static final long SIGNIFICANTLY_NEWER_MS = 2 * 60 * 1000;
+
+    public static synchronized void save(Context context, Location location) {
+        prefs(context).edit()
+            .putLong("lat", Double.doubleToRawLongBits(location.getLatitude()))
+            .putLong("lng", Double.doubleToRawLongBits(location.getLongitude()))
+            .putFloat("accuracy", location.hasAccuracy() ? location.getAccuracy() : -1)
+            .putLong("time", location.getTime())
+            .apply();
+    }
+
+    /** Persisted fix, or null if none has been saved. */
+    public static synchronized Location load(Context context) {
+        SharedPreferences prefs = prefs(context);
+        if (!prefs.contains("lat")) {
+            return null;
+        }
+        Location location = new Location(STORE_PROVIDER);
+        location.setLatitude(Double.longBitsToDouble(prefs.getLong("lat", 0)));
+        location.setLongitude(Double.longBitsToDouble(prefs.getLong("lng", 0)));
+        float accuracy = prefs.getFloat("accuracy", -1);
+        if (accuracy >= 0) {
+            location.setAccuracy(accuracy);
+        }
+        location.setTime(prefs.getLong("time", 0));
+        return location;
+    }
+
+    /**
+     * Best fix available without turning on a radio: the persisted fix and every
+     * provider's last-known location (including passive, which picks up fixes
+     * other apps requested).
+     */
+    public static Location bestAvailable(Context context) {
+        Location best = load(context);
+        if (!hasPermission(context)) {
+            return best;
+        }
+        LocationManager manager = (LocationManager) context.getSystemService(Context.LOCATION_SERVICE);
+        if (manager == null) {
+            return best;
+        }
+        String[] providers = {
+            LocationManager.GPS_PROVIDER, LocationManager.NETWORK_PROVIDER, LocationManager.PASSIVE_PROVIDER
+        };
+        for (String provider : providers) {
+            try {
+                Location candidate = manager.getLastKnownLocation(provider);
+                if (isBetter(candidate, best)) {
+                    best = candidate;
+                }
+            } catch (SecurityException | IllegalArgumentException e) {
+                Log.w(TAG, "No last-known fix from " + provider + ": " + e.getMessage());
+            }
+        }
+        return best;
+    }
+
+    /** A fix more than two minutes newer wins; within that window the more accurate one does. */
+    public static boolean isBetter(Location candidate, Location current) {
+        if (candidate == null) return false;
+        if (current == null) return true;
+
+        long age = candidate.getTime() - current.getTime();
+        if (age > SIGNIFICANTLY_NEWER_MS) return true;
+        if (age < -SIGNIFICANTLY_NEWER_MS) return false;
+
+        float candidateAccuracy = candidate.hasAccuracy() ? candidate.getAccuracy() : Float.MAX_VALUE;
+        float currentAccuracy = current.hasAccuracy() ? current.getAccuracy() : Float.MAX_VALUE;
+        if (candidateAccuracy < currentAccuracy) return true;
+        return age > 0 && candidateAccuracy <= currentAccuracy;
+    }
+
+    public static boolean hasPermission(Context context) {
+        return ContextCompat.checkSelfPermission(context, Manifest.permission.ACCESS_FINE_LOCATION)
+                == PackageManager.PERMISSION_GRANTED
+            || ContextCompat.checkSelfPermission(context, Manifest.permission.ACCESS_COARSE_LOCATION)
+                == PackageManager.PERMISSION_GRANTED;
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+}
@@ -0,0 +1,107 @@
+package com.xolbine.namaztimemm;
+
+import android.app.Notification;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.media.AudioAttributes;
+import android.os.Build;
+import android.provider.Settings;
+import android.util.Log;
+
+import androidx.core.app.NotificationCompat;
+
+/**
+ * Chime, vibrate and silent deliveries, posted straight from the alarm
+ * receiver. No foreground service, MediaPlayer or wake lock beyond the one
+ * AlarmManager holds for onReceive.
+ */
+public final class LightAlert {
+    private static final String TAG = "LightAlert";
+    private static final int NOTIFICATION_BASE = 20000; // + prayerId, clear of the adhan and reminder ids
+
+    private static final long[] CHIME_PATTERN = { 0, 250 };
+    private static final long[] VIBRATE_PATTERN = { 0, 400, 200, 400, 200, 400 };
+
+    private LightAlert() {}
+
+    public static void post(Context context, DeliveryTier tier, int prayerId, String prayerName) {
+        NotificationManager notificationManager =
+            (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+        if (notificationManager == null) return;
+
+        // Channel sound and vibration can't change after creation, so each tier has its own
+        String channelId = "prayer_" + tier.jsName + "_channel";
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            notificationManager.createNotificationChannel(channel(tier, channelId));
+        }
+
+        Intent openIntent = new Intent(context, MainActivity.class);
+        openIntent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP);
+        PendingIntent contentIntent = PendingIntent.getActivity(
+            context,
+            0,
+            openIntent,
+            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+        );
+
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, channelId)
+            .setSmallIcon(android.R.drawable.ic_lock_idle_alarm)
+            .setContentTitle(prayerName + " Time")
+            .setContentText("It is time for " + prayerName)
+            .setCategory(NotificationCompat.CATEGORY_REMINDER)
+            .setVisibility(NotificationCompat.VISIBILITY_PUBLIC)
+            .setAutoCancel(true)
+            .setContentIntent(contentIntent);
+        // Pre-O has no channels; the builder carries sound and vibration instead
+        switch (tier) {
+            case CHIME:
+                builder.setPriority(NotificationCompat.PRIORITY_HIGH)
+                    .setSound(Settings.System.DEFAULT_NOTIFICATION_URI)
+                    .setVibrate(CHIME_PATTERN);
+                break;
+            case VIBRATE:
+                builder.setPriority(NotificationCompat.PRIORITY_HIGH)
+                    .setVibrate(VIBRATE_PATTERN);
+                break;
+            default:
+                builder.setPriority(NotificationCompat.PRIORITY_DEFAULT)
+                    .setSilent(true);
+                break;
+        }
+
+        Notification notification = builder.build();
+        notificationManager.notify(NOTIFICATION_BASE + prayerId, notification);
+        Log.i(TAG, "🔔 " + tier.jsName + " alert posted for " + prayerName);
+    }
+
+    private static NotificationChannel channel(DeliveryTier tier, String channelId) {
+        NotificationChannel channel;
+        switch (tier) {
+            case CHIME:
+                channel = new NotificationChannel(channelId, "Prayer Chime", NotificationManager.IMPORTANCE_HIGH);
+                channel.setSound(Settings.System.DEFAULT_NOTIFICATION_URI, new AudioAttributes.Builder()
+                    .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
+                    .setUsage(AudioAttributes.USAGE_NOTIFICATION)
+                    .build());
+                channel.enableVibration(true);
+                channel.setVibrationPattern(CHIME_PATTERN);
+                break;
+            case VIBRATE:
+                channel = new NotificationChannel(channelId, "Prayer Vibrate", NotificationManager.IMPORTANCE_HIGH);
+                channel.setSound(null, null);
+                channel.enableVibration(true);
+                channel.setVibrationPattern(VIBRATE_PATTERN);
+                break;
+            default:
+                channel = new NotificationChannel(channelId, "Prayer Silent", NotificationManager.IMPORTANCE_LOW);
+                channel.enableVibration(false);
+                break;
+        }
+        channel.setDescription("Prayer time alerts without the adhan");
+        channel.setLockscreenVisibility(Notification.VISIBILITY_PUBLIC);
+        return channel;
+    }
+}
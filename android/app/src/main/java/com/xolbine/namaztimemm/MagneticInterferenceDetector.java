@@ -0,0 +1,170 @@
+package com.xolbine.namaztimemm;
+
+/**
+ * Detects magnetic interference by comparing the measured field against the
+ * field expected at the user's location (from GeomagneticField).
+ * Keeps O(1) running statistics over a fixed window and uses hysteresis so
+ * the warning does not flicker around the threshold.
+ */
+public class MagneticInterferenceDetector {
+    private static final int WINDOW_SIZE = 16;
+
+    // Fallback when no location is known: centre of the old 25..65 uT band
+    private static final float DEFAULT_FIELD_STRENGTH = 45f;
+
+    // Relative magnitude deviation (enter / exit)
+    private static final float MAGNITUDE_ENTER_RATIO = 0.25f;
+    private static final float MAGNITUDE_EXIT_RATIO = 0.15f;
+    private static final float DEFAULT_MAGNITUDE_ENTER_RATIO = 0.45f;
+    private static final float DEFAULT_MAGNITUDE_EXIT_RATIO = 0.35f;
+
+    // Absolute inclination deviation in degrees (enter / exit)
+    private static final float INCLINATION_ENTER_DEG = 12f;
+    private static final float INCLINATION_EXIT_DEG = 7f;
+
+    // A noisy field (e.g. a moving magnet or a motor nearby) is also rejected
+    private static final float STD_DEV_ENTER_RATIO = 0.12f;
+    private static final float STD_DEV_EXIT_RATIO = 0.06f;
+
+    private static final long MIN_STATE_DURATION_MS = 750;
+
+    private final float[] magnitudes = new float[WINDOW_SIZE];
+    private final float[] inclinations = new float[WINDOW_SIZE];
+    private final boolean[] hasInclination = new boolean[WINDOW_SIZE];
+    private int index = 0;
+    private int count = 0;
+    private int inclinationCount = 0;
+    private double magnitudeSum = 0;
+    private double magnitudeSumSq = 0;
+    private double inclinationSum = 0;
+
+    private boolean hasExpected = false;
+    private float expectedStrength = DEFAULT_FIELD_STRENGTH;
+    private float expectedInclination = 0f;
+
+    private boolean interference = false;
+    private long lastStateChange = 0;
+
+    /**
+     * @param fieldStrengthMicroTesla expected total field in uT
+     *        (GeomagneticField reports nanotesla, divide by 1000)
+     * @param inclinationDegrees expected dip angle, positive downward
+     */
+    public void setExpectedField(float fieldStrengthMicroTesla, float inclinationDegrees) {
+        expectedStrength = fieldStrengthMicroTesla;
+        expectedInclination = inclinationDegrees;
+        hasExpected = true;
+    }
+
+    public void reset() {
+        index = 0;
+        count = 0;
+        inclinationCount = 0;
+        magnitudeSum = 0;
+        magnitudeSumSq = 0;
+        inclinationSum = 0;
+        interference = false;
+        lastStateChange = 0;
+    }
+
+    /**
+     * Feeds one magnetometer sample.
+     *
+     * @param field raw magnetometer values in device coordinates (uT)
+     * @param rotationMatrix 3x3 device-to-world matrix, or null if unknown
+     * @param now timestamp in ms used for the hysteresis dwell time
+     * @return the current interference state
+     */
+    public boolean update(float[] field, float[] rotationMatrix, long now) {
+        float mx = field[0];
+        float my = field[1];
+        float mz = field[2];
+        float magnitude = (float) Math.sqrt(mx * mx + my * my + mz * mz);
+
+        float inclination = 0f;
+        boolean inclinationValid = rotationMatrix != null && magnitude > 0f;
+        if (inclinationValid) {
+            // Rotate into the world frame (X east, Y north, Z up); dip is positive downward
+            float wx = rotationMatrix[0] * mx + rotationMatrix[1] * my + rotationMatrix[2] * mz;
+            float wy = rotationMatrix[3] * mx + rotationMatrix[4] * my + rotationMatrix[5] * mz;
+            float wz = rotationMatrix[6] * mx + rotationMatrix[7] * my + rotationMatrix[8] * mz;
+            float horizontal = (float) Math.sqrt(wx * wx + wy * wy);
+            inclination = (float) Math.toDegrees(Math.atan2(-wz, horizontal));
+        }
+
+        push(magnitude, inclination, inclinationValid);
+        evaluate(now);
+        return interference;
+    }
+
+    public boolean hasInterference() {
+        return interference;
+    }
+
+    public float getMeanMagnitude() {
+        return count == 0 ? 0f : (float) (magnitudeSum / count);
+    }
+
+    private void push(float magnitude, float inclination, boolean inclinationValid) {
+        if (count == WINDOW_SIZE) {
+            float oldMagnitude = magnitudes[index];
+            magnitudeSum -= oldMagnitude;
+            magnitudeSumSq -= oldMagnitude * oldMagnitude;
+            if (hasInclination[index]) {
+                inclinationSum -= inclinations[index];
+                inclinationCount--;
+            }
+        } else {
+            count++;
+        }
+
+        magnitudes[index] = magnitude;
+        inclinations[index] = inclination;
+        hasInclination[index] = inclinationValid;
+        magnitudeSum += magnitude;
+        magnitudeSumSq += magnitude * magnitude;
+        if (inclinationValid) {
+            inclinationSum += inclination;
+            inclinationCount++;
+        }
+
+        index = (index + 1) % WINDOW_SIZE;
+    }
+
+    private void evaluate(long now) {
+        // Wait for half a window before making any decision
+        if (count < WINDOW_SIZE / 2) return;
+        if (now - lastStateChange < MIN_STATE_DURATION_MS) return;
+
+        double mean = magnitudeSum / count;
+        double variance = Math.max(0, magnitudeSumSq / count - mean * mean);
+        double stdDev = Math.sqrt(variance);
+        double magnitudeRatio = Math.abs(mean - expectedStrength) / expectedStrength;
+        double noiseRatio = stdDev / expectedStrength;
+
+        boolean checkInclination = hasExpected && inclinationCount >= WINDOW_SIZE / 2;
+        double inclinationError = checkInclination
+            ? Math.abs(inclinationSum / inclinationCount - expectedInclination)
+            : 0;
+
+        float magnitudeEnter = hasExpected ? MAGNITUDE_ENTER_RATIO : DEFAULT_MAGNITUDE_ENTER_RATIO;
+        float magnitudeExit = hasExpected ? MAGNITUDE_EXIT_RATIO : DEFAULT_MAGNITUDE_EXIT_RATIO;
+
+        boolean next;
+        if (interference) {
+            // Only clear once every metric is comfortably back in range
+            next = magnitudeRatio > magnitudeExit
+                || noiseRatio > STD_DEV_EXIT_RATIO
+                || inclinationError > INCLINATION_EXIT_DEG;
+        } else {
+            next = magnitudeRatio > magnitudeEnter
+                || noiseRatio > STD_DEV_ENTER_RATIO
+                || inclinationError > INCLINATION_ENTER_DEG;
+        }
+
+        if (next != interference) {
+            interference = next;
+            lastStateChange = now;
+        }
+    }
+}
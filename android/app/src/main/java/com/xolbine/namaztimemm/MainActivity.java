@@ -6,24 +6,59 @@ import android.content.pm.PackageManager;
 import android.net.Uri;
 import android.os.Build;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.os.PowerManager;
 import android.provider.Settings;
 import android.view.WindowManager;
 import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
+import android.webkit.WebView;
 import com.getcapacitor.BridgeActivity;
+import com.getcapacitor.WebViewListener;
 
 public class MainActivity extends BridgeActivity {
     private static final int LOCATION_PERMISSION_CODE = 100;
     private static final int NOTIFICATION_PERMISSION_CODE = 101;
+    // Upper bound on how long the native first frame can cover the WebView
+    private static final long FIRST_FRAME_TIMEOUT_MS = 10000;
+
+    private FirstFrameOverlay firstFrame;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable dismissFirstFrame = new Runnable() {
+        @Override
+        public void run() {
+            dismissFirstFrame();
+        }
+    };
     
     @Override
     public void onCreate(Bundle savedInstanceState) {
+        StartupTimer.mark(StartupTimer.ACTIVITY_CREATE);
+        // Today's times natively while the WebView boots; StartupPlugin.ready() removes it.
+        // Computed off the main thread, overlapping the bridge setup below.
+        firstFrame = FirstFrameOverlay.show(this);
+        handler.postDelayed(dismissFirstFrame, FIRST_FRAME_TIMEOUT_MS);
         registerPlugin(CompassPlugin.class);
         registerPlugin(AdhanAlarmPlugin.class);
+        registerPlugin(PrayerTimesPlugin.class);
+        registerPlugin(GazetteerPlugin.class);
+        registerPlugin(NativeLocationPlugin.class);
+        registerPlugin(StartupPlugin.class);
+        registerPlugin(PrayerClockPlugin.class);
+        registerPlugin(SettingsPlugin.class);
         
         super.onCreate(savedInstanceState);
 
+        if (getBridge() != null) {
+            getBridge().addWebViewListener(new WebViewListener() {
+                @Override
+                public void onPageLoaded(WebView webView) {
+                    StartupTimer.mark(StartupTimer.WEBVIEW_PAGE_LOADED);
+                }
+            });
+        }
+
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O_MR1) {
             setShowWhenLocked(true);
             setTurnScreenOn(true);
@@ -38,6 +73,20 @@ public class MainActivity extends BridgeActivity {
         requestLocationPermission();
     }
 
+    void dismissFirstFrame() {
+        handler.removeCallbacks(dismissFirstFrame);
+        if (firstFrame != null) {
+            firstFrame.dismiss();
+            firstFrame = null;
+        }
+    }
+
+    @Override
+    public void onDestroy() {
+        handler.removeCallbacks(dismissFirstFrame);
+        super.onDestroy();
+    }
+
     private void requestLocationPermission() {
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
             if (ContextCompat.checkSelfPermission(this, Manifest.permission.ACCESS_FINE_LOCATION) != PackageManager.PERMISSION_GRANTED) {
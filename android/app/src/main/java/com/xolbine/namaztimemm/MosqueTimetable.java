@@ -0,0 +1,456 @@
+package com.xolbine.namaztimemm;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A mosque's own published times, preferred over computed ones wherever they
+ * cover a day and prayer.
+ *
+ * Times are kept per prayer as a short[] of local minutes after midnight,
+ * indexed by day from {@code startEpochDay}, with {@link #NONE} for gaps, so
+ * a lookup is one subtraction and one array read. A multi-year timetable is a
+ * few tens of KB. The table is stored in files/mosque.bin ("NTMQ" v1, see
+ * {@link #writeTo(OutputStream)}) and filled by {@link Importer}, which reads
+ * CSV rows of date, prayer, time one line at a time. When the mosque's
+ * location is known, the times only apply within {@link #MAX_DISTANCE_KM} of
+ * it, so they stop applying once the user travels.
+ */
+public final class MosqueTimetable {
+    private static final String TAG = "MosqueTimetable";
+    public static final String FILE_NAME = "mosque.bin";
+
+    private static final int MAGIC = 0x4E544D51; // "NTMQ"
+    private static final int VERSION = 1;
+    public static final short NONE = -1;
+    static final double MAX_DISTANCE_KM = 30;
+    // Twenty years of days; bounds what a malformed date can make the importer allocate
+    static final int MAX_SPAN_DAYS = 366 * 20;
+
+    static final MosqueTimetable EMPTY = new MosqueTimetable("", Double.NaN, Double.NaN, 0,
+        new short[PrayerTimeEngine.PRAYER_COUNT][0]);
+
+    private static volatile MosqueTimetable current;
+    private static volatile int version;
+
+    public final String name;
+    public final double lat; // NaN when the location is unknown
+    public final double lng;
+    private final int startEpochDay;
+    private final short[][] minutes; // [prayer][day]
+
+    MosqueTimetable(String name, double lat, double lng, int startEpochDay, short[][] minutes) {
+        this.name = name;
+        this.lat = lat;
+        this.lng = lng;
+        this.startEpochDay = startEpochDay;
+        this.minutes = minutes;
+    }
+
+    /** The imported timetable, or {@link #EMPTY}; loaded from disk on first use. */
+    public static MosqueTimetable get(Context context) {
+        MosqueTimetable table = current;
+        if (table == null) {
+            synchronized (MosqueTimetable.class) {
+                if (current == null) {
+                    current = load(file(context));
+                }
+                table = current;
+            }
+        }
+        return table;
+    }
+
+    /** Bumped on every replace, so holders of derived data know to rebuild. */
+    public static int version() {
+        return version;
+    }
+
+    /** Persists and publishes {@code table}; EMPTY removes the file. */
+    public static synchronized void replace(Context context, MosqueTimetable table) throws IOException {
+        File file = file(context);
+        if (table.days() == 0) {
+            if (file.exists() && !file.delete()) {
+                throw new IOException("Could not delete " + file.getName());
+            }
+        } else {
+            File tmp = new File(file.getPath() + ".tmp");
+            try (OutputStream out = new FileOutputStream(tmp)) {
+                table.writeTo(out);
+            }
+            if (!tmp.renameTo(file)) {
+                throw new IOException("Could not replace " + file.getName());
+            }
+        }
+        current = table;
+        version++;
+    }
+
+    private static File file(Context context) {
+        return new File(context.getApplicationContext().getFilesDir(), FILE_NAME);
+    }
+
+    private static MosqueTimetable load(File file) {
+        try (InputStream in = new FileInputStream(file)) {
+            MosqueTimetable table = read(in);
+            Log.i(TAG, "🕌 Loaded " + table.days() + " days of mosque times for " + table.name);
+            return table;
+        } catch (FileNotFoundException e) {
+            return EMPTY;
+        } catch (IOException e) {
+            Log.e(TAG, "Error loading mosque times: " + e.getMessage());
+            return EMPTY;
+        }
+    }
+
+    public int days() {
+        return minutes[0].length;
+    }
+
+    public int getStartEpochDay() {
+        return startEpochDay;
+    }
+
+    /** Whether these times should be used for a point; always true when the mosque has no location. */
+    public boolean appliesTo(double lat, double lng) {
+        if (days() == 0) return false;
+        if (Double.isNaN(this.lat)) return true;
+        return Gazetteer.distanceKm(this.lat, this.lng, lat, lng) <= MAX_DISTANCE_KM;
+    }
+
+    public boolean covers(int epochDay) {
+        int d = epochDay - startEpochDay;
+        return d >= 0 && d < days();
+    }
+
+    /** Minutes after local midnight for a prayer (PrayerTimeEngine.FAJR..ISHA) on a day, or NONE. */
+    public int minutes(int prayer, int epochDay) {
+        int d = epochDay - startEpochDay;
+        if (d < 0 || d >= minutes[prayer].length) return NONE;
+        return minutes[prayer][d];
+    }
+
+    /** Overwrites the covered entries of a computed day in place; returns how many it replaced. */
+    public int apply(int epochDay, int[] dayMinutes) {
+        int d = epochDay - startEpochDay;
+        if (d < 0 || d >= days()) return 0;
+        int replaced = 0;
+        for (int p = 0; p < PrayerTimeEngine.PRAYER_COUNT; p++) {
+            if (minutes[p][d] != NONE) {
+                dayMinutes[p] = minutes[p][d];
+                replaced++;
+            }
+        }
+        return replaced;
+    }
+
+    /** Number of (day, prayer) entries set. */
+    public int entries() {
+        int count = 0;
+        for (short[] column : minutes) {
+            for (short m : column) {
+                if (m != NONE) count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Header: magic, version, UTF name, double lat, double lng, int
+     * startEpochDay, int days, int prayerCount; then each prayer's column of
+     * shorts.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeUTF(name);
+        data.writeDouble(lat);
+        data.writeDouble(lng);
+        data.writeInt(startEpochDay);
+        data.writeInt(days());
+        data.writeInt(minutes.length);
+        for (short[] column : minutes) {
+            for (short m : column) {
+                data.writeShort(m);
+            }
+        }
+        data.flush();
+    }
+
+    public static MosqueTimetable read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a mosque timetable");
+        }
+        int version = data.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported mosque timetable version " + version);
+        }
+        String name = data.readUTF();
+        double lat = data.readDouble();
+        double lng = data.readDouble();
+        int start = data.readInt();
+        int days = data.readInt();
+        int prayers = data.readInt();
+        if (days < 0 || days > MAX_SPAN_DAYS || prayers != PrayerTimeEngine.PRAYER_COUNT) {
+            throw new IOException("Corrupt mosque timetable header");
+        }
+        short[][] minutes = new short[prayers][days];
+        for (short[] column : minutes) {
+            for (int d = 0; d < days; d++) {
+                column[d] = data.readShort();
+            }
+        }
+        return new MosqueTimetable(name, lat, lng, start, minutes);
+    }
+
+    /**
+     * Streams CSV rows of {@code date,prayer,time} into a timetable, on top of
+     * an existing one when merging month by month. Dates are YYYY-MM-DD,
+     * prayers are PrayerTimeEngine.PRAYER_KEYS (any case, "zuhr" for dhuhr),
+     * times are 24-hour H:MM or 12-hour H:MM AM/PM. A header row, blank lines
+     * and lines starting with # are skipped; malformed rows are counted and
+     * the first few reported. Later rows for the same day and prayer win.
+     */
+    public static final class Importer {
+        static final int MAX_REPORTED_ERRORS = 5;
+        private static final int INITIAL_DAYS = 64;
+
+        private final String name;
+        private final double lat;
+        private final double lng;
+        private int base;   // epoch day of index 0 in the columns
+        private int start;  // first day in use
+        private int length; // days in use from start
+        private short[][] columns = new short[PrayerTimeEngine.PRAYER_COUNT][0];
+
+        private int rows;
+        private int skipped;
+        private final List<String> errors = new ArrayList<>();
+
+        public Importer(String name, double lat, double lng) {
+            this.name = name != null ? name : "";
+            this.lat = lat;
+            this.lng = lng;
+        }
+
+        /** Starts from {@code base}'s entries, keeping its name and location unless given new ones. */
+        public Importer(MosqueTimetable base, String name, double lat, double lng) {
+            this(name != null ? name : base.name, Double.isNaN(lat) ? base.lat : lat, Double.isNaN(lat) ? base.lng : lng);
+            if (base.days() > 0) {
+                this.base = start = base.startEpochDay;
+                length = base.days();
+                for (int p = 0; p < columns.length; p++) {
+                    columns[p] = base.minutes[p].clone();
+                }
+            }
+        }
+
+        /**
+         * Reads date,prayer,time rows. Blank lines and # comments are skipped,
+         * as is a header: the first remaining line, when its date doesn't parse.
+         */
+        public void read(Reader reader) throws IOException {
+            BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+            String line;
+            int lineNumber = 0;
+            boolean first = true;
+            while ((line = lines.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                    line = line.substring(1); // spreadsheet exports often start with a BOM
+                }
+                line = line.trim();
+                if (line.isEmpty() || line.charAt(0) == '#') continue;
+                if (first) {
+                    first = false;
+                    int comma = line.indexOf(',');
+                    if (parseDate(field(line, 0, comma < 0 ? line.length() : comma)) == Integer.MIN_VALUE) {
+                        continue; // header
+                    }
+                }
+                row(line, lineNumber);
+            }
+        }
+
+        private void row(String line, int lineNumber) {
+            int c1 = line.indexOf(',');
+            int c2 = c1 < 0 ? -1 : line.indexOf(',', c1 + 1);
+            if (c2 < 0) {
+                error(lineNumber, "expected date,prayer,time");
+                return;
+            }
+            int c3 = line.indexOf(',', c2 + 1);
+            int epochDay = parseDate(field(line, 0, c1));
+            int prayer = parsePrayer(field(line, c1 + 1, c2));
+            int minute = parseTime(field(line, c2 + 1, c3 < 0 ? line.length() : c3));
+            if (epochDay == Integer.MIN_VALUE) {
+                error(lineNumber, "bad date");
+            } else if (prayer < 0) {
+                error(lineNumber, "unknown prayer");
+            } else if (minute < 0) {
+                error(lineNumber, "bad time");
+            } else if (!ensure(epochDay)) {
+                error(lineNumber, "date outside a " + MAX_SPAN_DAYS + "-day span");
+            } else {
+                columns[prayer][epochDay - base] = (short) minute;
+                rows++;
+            }
+        }
+
+        private void error(int lineNumber, String message) {
+            skipped++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("line " + lineNumber + ": " + message);
+            }
+        }
+
+        /**
+         * Grows the columns to cover epochDay, doubling with the slack on the
+         * side that grew, so files in either date order cost amortized O(1)
+         * per row.
+         */
+        private boolean ensure(int epochDay) {
+            if (length == 0) {
+                base = epochDay - INITIAL_DAYS / 2;
+                start = epochDay;
+                length = 1;
+                allocate(INITIAL_DAYS, 0);
+                return true;
+            }
+            int newStart = Math.min(start, epochDay);
+            int newEnd = Math.max(start + length, epochDay + 1);
+            if (newEnd - newStart > MAX_SPAN_DAYS) {
+                return false;
+            }
+            int capacity = columns[0].length;
+            if (newStart < base || newEnd > base + capacity) {
+                while (capacity < newEnd - newStart) capacity *= 2;
+                int newBase = newStart < start ? newEnd - capacity : newStart;
+                allocate(capacity, start - newBase);
+                base = newBase;
+            }
+            start = newStart;
+            length = newEnd - newStart;
+            return true;
+        }
+
+        /** Replaces the columns with {@code capacity} days, the used range moved to index {@code at}. */
+        private void allocate(int capacity, int at) {
+            for (int p = 0; p < columns.length; p++) {
+                short[] grown = new short[capacity];
+                Arrays.fill(grown, NONE);
+                if (columns[p].length > 0) {
+                    System.arraycopy(columns[p], start - base, grown, at, length);
+                }
+                columns[p] = grown;
+            }
+        }
+
+        public MosqueTimetable build() {
+            short[][] exact = new short[columns.length][];
+            for (int p = 0; p < columns.length; p++) {
+                exact[p] = length == 0 ? new short[0]
+                    : Arrays.copyOfRange(columns[p], start - base, start - base + length);
+            }
+            return new MosqueTimetable(name, lat, lng, start, exact);
+        }
+
+        /** Rows stored by {@link #read(Reader)} calls so far. */
+        public int rows() {
+            return rows;
+        }
+
+        public int skipped() {
+            return skipped;
+        }
+
+        /** The first {@link #MAX_REPORTED_ERRORS} problems, e.g. "line 12: bad time". */
+        public List<String> errors() {
+            return errors;
+        }
+
+        private static String field(String line, int from, int to) {
+            String f = line.substring(from, to).trim();
+            if (f.length() >= 2 && f.charAt(0) == '"' && f.charAt(f.length() - 1) == '"') {
+                f = f.substring(1, f.length() - 1).trim();
+            }
+            return f;
+        }
+
+        static int parseDate(String s) {
+            if (s.length() != 10 || s.charAt(4) != '-' || s.charAt(7) != '-') return Integer.MIN_VALUE;
+            int year = digits(s, 0, 4);
+            int month = digits(s, 5, 7);
+            int day = digits(s, 8, 10);
+            if (year < 0 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+                return Integer.MIN_VALUE;
+            }
+            return PrayerTimeEngine.epochDay(year, month, day);
+        }
+
+        static int parsePrayer(String s) {
+            String key = s.toLowerCase(Locale.ROOT);
+            if (key.equals("zuhr")) return PrayerTimeEngine.DHUHR;
+            for (int p = 0; p < PrayerTimeEngine.PRAYER_KEYS.length; p++) {
+                if (PrayerTimeEngine.PRAYER_KEYS[p].equals(key)) return p;
+            }
+            return -1;
+        }
+
+        /** Minutes after midnight, or -1. */
+        static int parseTime(String s) {
+            int colon = s.indexOf(':');
+            if (colon < 1 || colon + 3 > s.length()) return -1;
+            int hour = digits(s, 0, colon);
+            int minute = digits(s, colon + 1, colon + 3);
+            if (hour < 0 || minute < 0 || minute > 59) return -1;
+            String rest = s.substring(colon + 3).trim();
+            if (rest.startsWith(":")) {
+                rest = rest.length() >= 3 ? rest.substring(3).trim() : "";
+            }
+            if (rest.isEmpty()) {
+                return hour <= 23 ? hour * 60 + minute : -1;
+            }
+            boolean pm = rest.equalsIgnoreCase("pm");
+            if (!pm && !rest.equalsIgnoreCase("am")) return -1;
+            if (hour < 1 || hour > 12) return -1;
+            return ((hour % 12) + (pm ? 12 : 0)) * 60 + minute;
+        }
+
+        private static int digits(String s, int from, int to) {
+            if (from >= to || to > s.length()) return -1;
+            int value = 0;
+            for (int i = from; i < to; i++) {
+                char c = s.charAt(i);
+                if (c < '0' || c > '9') return -1;
+                value = value * 10 + (c - '0');
+            }
+            return value;
+        }
+
+        private static int daysInMonth(int year, int month) {
+            return month == 12 ? 31
+                : PrayerTimeEngine.epochDay(year, month + 1, 1) - PrayerTimeEngine.epochDay(year, month, 1);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.xolbine.namaztimemm;
+
+/**
+ * Result of PrayerTimeEngine.computeDaysAllMethods: one Timetable per
+ * (CalcMethod, Asr school). Method-independent columns are shared.
+ */
+public final class MultiMethodTimetable {
+    /** Methods on the printed mosque timetables and the compare-methods view. */
+    public static final PrayerTimeEngine.CalcMethod[] PUBLISHED_METHODS = {
+        PrayerTimeEngine.CalcMethod.KARACHI,
+        PrayerTimeEngine.CalcMethod.MWL,
+        PrayerTimeEngine.CalcMethod.EGYPT,
+        PrayerTimeEngine.CalcMethod.UMM_AL_QURA,
+    };
+    public static final int[] ASR_SCHOOLS = { 1, 2 };
+
+    private final Timetable[][] tables;
+
+    MultiMethodTimetable(Timetable[][] tables) {
+        this.tables = tables;
+    }
+
+    /** @param asrSchool 1 = Shafi, 2 = Hanafi */
+    public Timetable get(PrayerTimeEngine.CalcMethod method, int asrSchool) {
+        return tables[method.ordinal()][asrSchool == 1 ? 0 : 1];
+    }
+
+    public int size() {
+        return tables[0][0].size();
+    }
+
+    public int getStartEpochDay() {
+        return tables[0][0].getStartEpochDay();
+    }
+}
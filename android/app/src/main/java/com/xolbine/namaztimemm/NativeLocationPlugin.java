@@ -0,0 +1,201 @@
+package com.xolbine.namaztimemm;
+
+import android.content.Context;
+import android.location.Location;
+import android.location.LocationListener;
+import android.location.LocationManager;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+
+/**
+ * Location without waiting on a cold GPS fix.
+ * getCachedLocation answers immediately from last-known and persisted fixes;
+ * startRefinement listens on network and GPS until a fix is accurate enough
+ * for prayer times (or the timeout hits), then turns the radios off again.
+ */
+@CapacitorPlugin(name = "NativeLocation")
+public class NativeLocationPlugin extends Plugin implements LocationListener {
+    private static final String TAG = "NativeLocationPlugin";
+
+    // PrayerTimeCache cells are ~5 km; anything inside 500 m gives the same times
+    private static final float DEFAULT_TARGET_ACCURACY_M = 500f;
+    private static final long DEFAULT_TIMEOUT_MS = 30000;
+    private static final long FRESH_FIX_MS = 10 * 60 * 1000;
+
+    private LocationManager locationManager;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private boolean refining = false;
+    private float targetAccuracy = DEFAULT_TARGET_ACCURACY_M;
+    private Location bestFix;
+
+    private final Runnable timeoutRunnable = new Runnable() {
+        @Override
+        public void run() {
+            Log.i(TAG, "⏱️ Refinement timed out");
+            stopUpdates();
+        }
+    };
+
+    @Override
+    public void load() {
+        locationManager = (LocationManager) getContext().getSystemService(Context.LOCATION_SERVICE);
+    }
+
+    @PluginMethod
+    public void getCachedLocation(PluginCall call) {
+        try {
+            Location best = LastLocationStore.bestAvailable(getContext());
+            JSObject ret = new JSObject();
+            if (best != null) {
+                ret.put("location", toJson(best));
+            }
+            call.resolve(ret);
+        } catch (Exception e) {
+            Log.e(TAG, "Error reading cached location: " + e.getMessage());
+            call.reject("Error reading cached location: " + e.getMessage());
+        }
+    }
+
+    @PluginMethod
+    public void startRefinement(PluginCall call) {
+        if (!LastLocationStore.hasPermission(getContext())) {
+            call.reject("Location permission not granted");
+            return;
+        }
+        if (locationManager == null) {
+            call.reject("Location service unavailable");
+            return;
+        }
+
+        final float accuracy = call.getFloat("targetAccuracy", DEFAULT_TARGET_ACCURACY_M);
+        final long timeoutMs = call.getLong("timeoutMs", DEFAULT_TIMEOUT_MS);
+
+        Location cached = LastLocationStore.bestAvailable(getContext());
+        if (isGoodEnough(cached, accuracy)) {
+            JSObject ret = new JSObject();
+            ret.put("started", false);
+            ret.put("location", toJson(cached));
+            call.resolve(ret);
+            return;
+        }
+
+        handler.post(new Runnable() {
+            @Override
+            public void run() {
+                startUpdates(accuracy, timeoutMs);
+            }
+        });
+
+        JSObject ret = new JSObject();
+        ret.put("started", true);
+        call.resolve(ret);
+    }
+
+    @PluginMethod
+    public void stopRefinement(PluginCall call) {
+        handler.post(new Runnable() {
+            @Override
+            public void run() {
+                stopUpdates();
+            }
+        });
+        call.resolve();
+    }
+
+    @Override
+    protected void handleOnDestroy() {
+        stopUpdates();
+        super.handleOnDestroy();
+    }
+
+    /* -------------------- LocationListener -------------------- */
+
+    @Override
+    public void onLocationChanged(Location location) {
+        if (!refining) return;
+
+        if (LastLocationStore.isBetter(location, bestFix)) {
+            bestFix = location;
+            LastLocationStore.save(getContext(), location);
+            PrayerWidgetProvider.refreshAll(getContext());
+            notifyListeners("locationUpdate", toJson(location));
+        }
+
+        if (location.hasAccuracy() && location.getAccuracy() <= targetAccuracy) {
+            Log.i(TAG, "📍 Fix within " + Math.round(location.getAccuracy()) + "m, stopping updates");
+            stopUpdates();
+        }
+    }
+
+    // Required below API 30, where these have no default implementation
+    @Override
+    public void onStatusChanged(String provider, int status, Bundle extras) {}
+
+    @Override
+    public void onProviderEnabled(String provider) {}
+
+    @Override
+    public void onProviderDisabled(String provider) {}
+
+    /* -------------------- Internals -------------------- */
+
+    private void startUpdates(float accuracy, long timeoutMs) {
+        stopUpdates();
+        targetAccuracy = accuracy;
+        bestFix = LastLocationStore.load(getContext());
+        refining = true;
+
+        try {
+            // Network usually answers within seconds; GPS only runs until the target is met
+            if (locationManager.isProviderEnabled(LocationManager.NETWORK_PROVIDER)) {
+                locationManager.requestLocationUpdates(LocationManager.NETWORK_PROVIDER, 0, 0, this, Looper.getMainLooper());
+            }
+            if (locationManager.isProviderEnabled(LocationManager.GPS_PROVIDER)) {
+                locationManager.requestLocationUpdates(LocationManager.GPS_PROVIDER, 0, 0, this, Looper.getMainLooper());
+            }
+            handler.postDelayed(timeoutRunnable, timeoutMs);
+            Log.i(TAG, "🛰️ Refining location (target " + Math.round(accuracy) + "m)");
+        } catch (SecurityException e) {
+            Log.e(TAG, "Location permission revoked: " + e.getMessage());
+            stopUpdates();
+        }
+    }
+
+    private void stopUpdates() {
+        handler.removeCallbacks(timeoutRunnable);
+        if (refining && locationManager != null) {
+            locationManager.removeUpdates(this);
+        }
+        if (refining) {
+            refining = false;
+            notifyListeners("refinementStopped", new JSObject());
+        }
+    }
+
+    private static boolean isGoodEnough(Location location, float accuracy) {
+        return location != null
+            && location.hasAccuracy()
+            && location.getAccuracy() <= accuracy
+            && System.currentTimeMillis() - location.getTime() < FRESH_FIX_MS;
+    }
+
+    private static JSObject toJson(Location location) {
+        JSObject obj = new JSObject();
+        obj.put("lat", location.getLatitude());
+        obj.put("lng", location.getLongitude());
+        if (location.hasAccuracy()) {
+            obj.put("accuracy", location.getAccuracy());
+        }
+        obj.put("time", location.getTime());
+        obj.put("provider", location.getProvider());
+        return obj;
+    }
+}
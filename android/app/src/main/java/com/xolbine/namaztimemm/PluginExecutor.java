@@ -0,0 +1,116 @@
+package com.xolbine.namaztimemm;
+
+import android.util.Log;
+
+import com.getcapacitor.PluginCall;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-plugin background worker for @PluginMethod bodies that make system
+ * calls (AlarmManager, PendingIntent, sensor registration) or touch storage.
+ *
+ * Capacitor runs every plugin's methods on one shared bridge thread, so a
+ * slow call in one plugin holds up all the others. Each plugin gets its own
+ * serial worker instead: calls to the same plugin still run in order
+ * (cancel-then-arm stays correct), but they no longer block other plugins.
+ * The queue is bounded, and a full queue rejects the call rather than
+ * buffering without limit. {@link #shutdown()} drops queued work and
+ * rejects those calls; a call already running settles itself.
+ */
+final class PluginExecutor {
+    private static final String TAG = "PluginExecutor";
+    static final int QUEUE_CAPACITY = 32;
+    private static final long IDLE_TIMEOUT_S = 30;
+
+    private final String name;
+    private final ThreadPoolExecutor executor;
+
+    /** Queued work with the call it has to settle, or null for lifecycle work. */
+    private static final class CallTask extends FutureTask<Void> {
+        final PluginCall call;
+
+        CallTask(Runnable work, PluginCall call) {
+            super(work, null);
+            this.call = call;
+        }
+    }
+
+    PluginExecutor(final String name) {
+        this.name = name;
+        executor = new ThreadPoolExecutor(1, 1, IDLE_TIMEOUT_S, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<Runnable>(QUEUE_CAPACITY),
+            new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, name + "-worker");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        // The thread goes away between bursts of calls
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /** Runs {@code work} off the bridge thread; work resolves or rejects {@code call} itself. */
+    void execute(final PluginCall call, final Runnable work) {
+        Runnable guarded = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    work.run();
+                } catch (RuntimeException e) {
+                    // FutureTask would swallow this and leave the JS promise pending
+                    Log.e(TAG, "Error in " + name + "." + call.getMethodName() + ": " + e.getMessage());
+                    call.reject("Error in " + call.getMethodName() + ": " + e.getMessage());
+                }
+            }
+        };
+        try {
+            executor.execute(new CallTask(guarded, call));
+        } catch (RejectedExecutionException e) {
+            call.reject(name + " is busy, try again");
+        }
+    }
+
+    /** Runs lifecycle work (pause, resume) in order with the calls, off the main thread. */
+    void execute(final Runnable work) {
+        Runnable guarded = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    work.run();
+                } catch (RuntimeException e) {
+                    Log.e(TAG, "Error in " + name + " lifecycle work: " + e.getMessage());
+                }
+            }
+        };
+        try {
+            executor.execute(new CallTask(guarded, null));
+        } catch (RejectedExecutionException e) {
+            Log.w(TAG, name + " busy or shut down, dropping lifecycle work");
+        }
+    }
+
+    /**
+     * For handleOnDestroy: rejects the calls that never started. The running
+     * call is interrupted but left to resolve or reject on its own, since it
+     * may already have done so.
+     */
+    void shutdown() {
+        List<Runnable> neverStarted = executor.shutdownNow();
+        for (Runnable r : neverStarted) {
+            CallTask task = (CallTask) r;
+            task.cancel(false);
+            if (task.call != null) {
+                task.call.reject("Cancelled");
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.xolbine.namaztimemm;
+
+import android.content.Context;
+
+/**
+ * Upcoming prayer boundaries at one location, sorted by time, for
+ * current / next / remaining queries without recomputing a day.
+ *
+ * Boundaries are the {@link DailyPrayerTimes#SHOWN} rows of each local day,
+ * kept as parallel primitive arrays: epoch millis in {@code times} and the
+ * PrayerTimeEngine index in {@code kinds}. A query binary-searches them.
+ * The index covers the day before now (so the current boundary before Fajr is
+ * last night's Isha), today, and {@link #HORIZON_DAYS} days ahead. As time
+ * passes, days behind are dropped and days ahead are computed on demand, one
+ * at a time. A clock jump outside the covered range rebuilds it.
+ *
+ * Not thread-safe; callers synchronize. Positions from {@link #seek(long)}
+ * are only valid until the next seek.
+ */
+public final class PrayerBoundaryIndex {
+    private static final long DAY_MS = 86400000L;
+    static final int HORIZON_DAYS = 3;
+    // Yesterday, today and the horizon
+    private static final int MAX_DAYS = HORIZON_DAYS + 2;
+    private static final int PER_DAY = DailyPrayerTimes.SHOWN.length;
+
+    interface Source {
+        /** The local day containing {@code millis}: SHOWN boundaries in epoch millis, then the next local midnight. */
+        long[] day(long millis);
+    }
+
+    private final Source source;
+    private final long[] times = new long[MAX_DAYS * PER_DAY];
+    private final byte[] kinds = new byte[MAX_DAYS * PER_DAY];
+    private final long[] dayEnds = new long[MAX_DAYS];
+    private int days;
+    private long computedDays;
+
+    PrayerBoundaryIndex(Source source) {
+        this.source = source;
+    }
+
+    /** Index at a fixed point, with the current settings. */
+    public static PrayerBoundaryIndex forLocation(final Context context, final double lat, final double lng) {
+        return new PrayerBoundaryIndex(new Source() {
+            @Override
+            public long[] day(long millis) {
+                DailyPrayerTimes day = DailyPrayerTimes.at(context, lat, lng, millis);
+                long[] bounds = new long[PER_DAY + 1];
+                for (int i = 0; i < PER_DAY; i++) {
+                    bounds[i] = day.millisAt(day.minutes[DailyPrayerTimes.SHOWN[i]]);
+                }
+                bounds[PER_DAY] = day.nextMidnightMillis();
+                return bounds;
+            }
+        });
+    }
+
+    /** Position of the first boundary after {@code now}; the current one is at {@code position - 1}. */
+    public int seek(long now) {
+        cover(now);
+        int lo = 0;
+        int hi = days * PER_DAY;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (times[mid] <= now) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    public long time(int position) {
+        return times[position];
+    }
+
+    /** PrayerTimeEngine index of the boundary, e.g. {@link PrayerTimeEngine#ASR}. */
+    public int kind(int position) {
+        return kinds[position];
+    }
+
+    /** Boundaries available from {@code position} without computing more days. */
+    public int available(int position) {
+        return days * PER_DAY - position;
+    }
+
+    /** Whether the boundary at {@code position} falls on a later local day than {@code now}. */
+    public boolean isLaterDay(long now, int position) {
+        int day = 0;
+        while (dayEnds[day] <= now) {
+            day++;
+        }
+        return position >= (day + 1) * PER_DAY;
+    }
+
+    /** Drops everything, e.g. after a settings, clock or zone change. */
+    public void invalidate() {
+        days = 0;
+    }
+
+    /** Days computed since creation, rebuilds included. */
+    long computedDays() {
+        return computedDays;
+    }
+
+    private void cover(long now) {
+        // Before the end of day 0 there is no day behind now
+        if (days == 0 || now < dayEnds[0] || now >= dayEnds[days - 1]) {
+            days = 0;
+            append(now - DAY_MS);
+            // A short (DST) day can leave now - DAY_MS two days back
+            while (dayEnds[days - 1] <= now) {
+                append(dayEnds[days - 1] + DAY_MS / 2);
+            }
+        }
+        // Keep exactly one day behind the one containing now
+        int today = 0;
+        while (dayEnds[today] <= now) {
+            today++;
+        }
+        if (today > 1) {
+            drop(today - 1);
+        }
+        while (days < MAX_DAYS) {
+            append(dayEnds[days - 1] + DAY_MS / 2);
+        }
+    }
+
+    private void append(long millis) {
+        long[] bounds = source.day(millis);
+        int base = days * PER_DAY;
+        for (int i = 0; i < PER_DAY; i++) {
+            times[base + i] = bounds[i];
+            kinds[base + i] = (byte) DailyPrayerTimes.SHOWN[i];
+        }
+        dayEnds[days] = bounds[PER_DAY];
+        days++;
+        computedDays++;
+    }
+
+    private void drop(int count) {
+        int remaining = days - count;
+        System.arraycopy(times, count * PER_DAY, times, 0, remaining * PER_DAY);
+        System.arraycopy(kinds, count * PER_DAY, kinds, 0, remaining * PER_DAY);
+        System.arraycopy(dayEnds, count, dayEnds, 0, remaining);
+        days = remaining;
+    }
+}
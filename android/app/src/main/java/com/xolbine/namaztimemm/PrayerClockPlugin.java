@@ -0,0 +1,236 @@
+package com.xolbine.namaztimemm;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.location.Location;
+import android.os.Build;
+import android.util.Log;
+
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+
+/**
+ * Wall-clock events for the web UI, replacing a per-second JS timer.
+ *
+ * "minuteTick" fires on each ACTION_TIME_TICK, which the system sends at the
+ * start of every minute, and "nextPrayerChanged" fires when a prayer boundary
+ * passes. Prayer times are whole minutes, so every boundary lands on a tick.
+ * The receiver is only registered while the activity is in the foreground; on
+ * resume both events are re-evaluated at once. Both events and getBoundaries
+ * answer from a {@link PrayerBoundaryIndex}, so a tick is a binary search.
+ */
+@CapacitorPlugin(name = "PrayerClock")
+public class PrayerClockPlugin extends Plugin {
+    private static final String TAG = "PrayerClockPlugin";
+
+    private boolean started = false;
+    private boolean registered = false;
+    private double lat;
+    private double lng;
+
+    private PrayerBoundaryIndex index;
+    private int mosqueVersion = MosqueTimetable.version();
+    private int nextKind = -1;
+    private long nextAt = -1;
+    private boolean nextTomorrow;
+
+    private final BroadcastReceiver tickReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            if (!Intent.ACTION_TIME_TICK.equals(intent.getAction())) {
+                // Clock or zone changed: the indexed days may no longer line up
+                invalidate();
+            }
+            tick();
+        }
+    };
+
+    /** Starts events for a location; calling again with new settings or location recomputes. */
+    @PluginMethod
+    public void start(PluginCall call) {
+        Double lat = call.getDouble("lat");
+        Double lng = call.getDouble("lng");
+        if (lat == null || lng == null) {
+            call.reject("lat and lng are required");
+            return;
+        }
+        try {
+            JSObject next;
+            synchronized (this) {
+                this.lat = lat;
+                this.lng = lng;
+                index = PrayerBoundaryIndex.forLocation(getContext(), lat, lng);
+                nextKind = -1;
+                started = true;
+                register();
+                updateNext(System.currentTimeMillis(), false);
+                next = nextPrayer();
+            }
+            call.resolve(next);
+        } catch (Exception e) {
+            call.reject("Error starting prayer clock: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Current and next boundary, time remaining, and the next {@code count}
+     * boundaries (default 6, at most what the index holds ahead). Uses the
+     * started location, or the last saved one when the clock is not running.
+     */
+    @PluginMethod
+    public void getBoundaries(PluginCall call) {
+        int count = Math.max(0, call.getInt("count", DailyPrayerTimes.SHOWN.length));
+        try {
+            JSObject ret = new JSObject();
+            synchronized (this) {
+                if (index == null) {
+                    Location location = LastLocationStore.load(getContext());
+                    if (location == null) {
+                        call.reject("No location saved");
+                        return;
+                    }
+                    index = PrayerBoundaryIndex.forLocation(getContext(), location.getLatitude(), location.getLongitude());
+                }
+                checkMosqueTimes();
+                long now = System.currentTimeMillis();
+                int next = index.seek(now);
+                ret.put("now", now);
+                ret.put("current", boundary(next - 1));
+                JSObject nextBoundary = boundary(next);
+                nextBoundary.put("tomorrow", index.isLaterDay(now, next));
+                ret.put("next", nextBoundary);
+                ret.put("remainingMs", index.time(next) - now);
+                JSArray upcoming = new JSArray();
+                for (int i = 0; i < Math.min(count, index.available(next)); i++) {
+                    upcoming.put(boundary(next + i));
+                }
+                ret.put("upcoming", upcoming);
+            }
+            call.resolve(ret);
+        } catch (Exception e) {
+            call.reject("Error getting prayer boundaries: " + e.getMessage());
+        }
+    }
+
+    @PluginMethod
+    public void stop(PluginCall call) {
+        synchronized (this) {
+            started = false;
+            unregister();
+        }
+        call.resolve();
+    }
+
+    @Override
+    protected void handleOnPause() {
+        unregister();
+        super.handleOnPause();
+    }
+
+    @Override
+    protected void handleOnResume() {
+        if (started) {
+            register();
+            tick();
+        }
+        super.handleOnResume();
+    }
+
+    @Override
+    protected void handleOnDestroy() {
+        unregister();
+        super.handleOnDestroy();
+    }
+
+    // Receiver callbacks run on the main thread, plugin methods on the plugin thread
+    private synchronized void tick() {
+        if (!started) return;
+        try {
+            long now = System.currentTimeMillis();
+            JSObject ret = new JSObject();
+            ret.put("time", now);
+            notifyListeners("minuteTick", ret);
+            updateNext(now, true);
+        } catch (Exception e) {
+            Log.e(TAG, "Error on minute tick: " + e.getMessage());
+        }
+    }
+
+    /** Looks up the next prayer, notifying only when it moved on. */
+    private void updateNext(long now, boolean notify) {
+        checkMosqueTimes();
+        int next = index.seek(now);
+        int kind = index.kind(next);
+        long at = index.time(next);
+        if (kind == nextKind && at == nextAt) {
+            return;
+        }
+        nextKind = kind;
+        nextAt = at;
+        nextTomorrow = index.isLaterDay(now, next);
+        if (notify) {
+            notifyListeners("nextPrayerChanged", nextPrayer());
+        }
+    }
+
+    private JSObject nextPrayer() {
+        JSObject ret = new JSObject();
+        ret.put("prayer", PrayerTimeEngine.PRAYER_KEYS[nextKind]);
+        ret.put("time", nextAt);
+        // After Isha the next prayer is tomorrow's Fajr
+        ret.put("tomorrow", nextTomorrow);
+        return ret;
+    }
+
+    private JSObject boundary(int position) {
+        JSObject ret = new JSObject();
+        ret.put("prayer", PrayerTimeEngine.PRAYER_KEYS[index.kind(position)]);
+        ret.put("time", index.time(position));
+        return ret;
+    }
+
+    /** Drops indexed days computed before the last mosque timetable import. */
+    private void checkMosqueTimes() {
+        int version = MosqueTimetable.version();
+        if (version != mosqueVersion) {
+            mosqueVersion = version;
+            index.invalidate();
+        }
+    }
+
+    private synchronized void invalidate() {
+        if (index != null) {
+            index.invalidate();
+        }
+    }
+
+    private synchronized void register() {
+        if (registered) return;
+        IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_TIME_TICK);
+        filter.addAction(Intent.ACTION_TIME_CHANGED);
+        filter.addAction(Intent.ACTION_TIMEZONE_CHANGED);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
+            getContext().registerReceiver(tickReceiver, filter, Context.RECEIVER_NOT_EXPORTED);
+        } else {
+            getContext().registerReceiver(tickReceiver, filter);
+        }
+        registered = true;
+    }
+
+    private synchronized void unregister() {
+        if (!registered) return;
+        try {
+            getContext().unregisterReceiver(tickReceiver);
+        } catch (IllegalArgumentException e) {
+            Log.w(TAG, "Tick receiver was not registered");
+        }
+        registered = false;
+    }
+}
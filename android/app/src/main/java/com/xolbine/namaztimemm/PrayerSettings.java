@@ -0,0 +1,36 @@
+package com.xolbine.namaztimemm;
+
+import android.content.Context;
+
+/**
+ * The calculation settings from SettingsStore, read together so native code
+ * computes the same times as the web UI.
+ */
+public class PrayerSettings {
+
+    public final int method; // UserSettings.method index
+    public final int asrSchool;
+    public final int hijriOffset;
+    public final String language;
+
+    public PrayerSettings(int method, int asrSchool, int hijriOffset, String language) {
+        this.method = method;
+        this.asrSchool = asrSchool;
+        this.hijriOffset = hijriOffset;
+        this.language = language;
+    }
+
+    public PrayerTimeEngine.CalcMethod calcMethod() {
+        return PrayerTimeEngine.CalcMethod.fromSettingsIndex(method);
+    }
+
+    public static PrayerSettings load(Context context) {
+        SettingsStore store = SettingsStore.getInstance(context);
+        return new PrayerSettings(
+            store.get(SettingsStore.METHOD),
+            store.get(SettingsStore.ASR_SHADOW),
+            store.get(SettingsStore.HIJRI_OFFSET),
+            store.get(SettingsStore.LANGUAGE)
+        );
+    }
+}
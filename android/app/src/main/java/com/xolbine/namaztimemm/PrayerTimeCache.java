@@ -0,0 +1,149 @@
+package com.xolbine.namaztimemm;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Process-wide LRU cache of daily prayer times keyed by a quantized location.
+ *
+ * Grid choice (|lat| <= 40 deg): cells are 0.05 deg in both axes and the cached
+ * value is computed at the cell centre, so a query is at most 0.025 deg away
+ * from the centre on each axis.
+ *  - Longitude only shifts solar noon: dt/dlng = 4 min/deg = 240 s/deg, so the
+ *    error is at most 240 * 0.025 = 6 s.
+ *  - Latitude moves the hour angle. |dt/dlat| = 240 * |dH/dlat| s/deg with
+ *    dH/dlat = (sin d - sin lat sin a) / (cos^2 lat cos d sin H); over
+ *    |lat| <= 40, |d| <= 23.44 and every angle the engine uses (including the
+ *    Asr altitude, which itself depends on latitude) the maximum is ~502 s/deg,
+ *    so the error is at most 502 * 0.025 = 12.6 s.
+ * Together that is under 19 s before minute rounding, inside the 30 s budget
+ * (PrayerTimeCacheTest sweeps the band to confirm it). Beyond 40 deg the
+ * derivative grows without bound near persistent twilight, so those
+ * lookups bypass the cache and are computed directly.
+ */
+public final class PrayerTimeCache {
+    public static final double CELL_DEGREES = 0.05;
+    public static final double MAX_CACHED_LATITUDE = 40.0;
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private static PrayerTimeCache instance;
+
+    private final int capacity;
+    private final LinkedHashMap<Long, int[]> entries;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+    private long bypasses = 0;
+
+    public static synchronized PrayerTimeCache getInstance() {
+        if (instance == null) {
+            instance = new PrayerTimeCache(DEFAULT_CAPACITY);
+        }
+        return instance;
+    }
+
+    PrayerTimeCache(int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<Long, int[]>(capacity * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, int[]> eldest) {
+                if (size() > PrayerTimeCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns minutes after midnight indexed by PrayerTimeEngine.FAJR..ISHA,
+     * computed with the default offsets and the MiddleOfNight high-latitude rule.
+     * The returned array is a copy and may be modified by the caller.
+     */
+    public int[] get(double lat, double lng, double timezone, int year, int month, int day,
+                     PrayerTimeEngine.CalcMethod method, int asrSchool, int hijriOffset) {
+        if (Math.abs(lat) > MAX_CACHED_LATITUDE) {
+            synchronized (this) {
+                bypasses++;
+            }
+            return compute(lat, lng, timezone, year, month, day, method, asrSchool, hijriOffset);
+        }
+
+        int latCell = (int) Math.round(lat / CELL_DEGREES);
+        int lngCell = (int) Math.round(normalizeLongitude(lng) / CELL_DEGREES);
+        long key = key(latCell, lngCell, timezone, PrayerTimeEngine.epochDay(year, month, day),
+            method, asrSchool, hijriOffset);
+
+        synchronized (this) {
+            int[] cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached.clone();
+            }
+            misses++;
+        }
+
+        int[] computed = compute(latCell * CELL_DEGREES, lngCell * CELL_DEGREES, timezone,
+            year, month, day, method, asrSchool, hijriOffset);
+        synchronized (this) {
+            entries.put(key, computed);
+        }
+        return computed.clone();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized long getBypasses() {
+        return bypasses;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private static int[] compute(double lat, double lng, double timezone, int year, int month, int day,
+                                 PrayerTimeEngine.CalcMethod method, int asrSchool, int hijriOffset) {
+        return PrayerTimeEngine.computeDay(lat, lng, timezone, year, month, day, method, asrSchool,
+            PrayerTimeEngine.HighLatRule.MIDDLE_OF_NIGHT, null, hijriOffset);
+    }
+
+    private static double normalizeLongitude(double lng) {
+        return ((lng + 180) % 360 + 360) % 360 - 180;
+    }
+
+    /**
+     * Packs the key into 64 bits:
+     * lat cell (12) | lng cell (13) | tz minutes (11) | epoch day (20) | method (3) | school (1) | hijri offset (4).
+     */
+    private static long key(int latCell, int lngCell, double timezone, int epochDay,
+                            PrayerTimeEngine.CalcMethod method, int asrSchool, int hijriOffset) {
+        long tzMinutes = Math.round(timezone * 60);
+        long k = (latCell + 2048L) & 0xFFF;
+        k = (k << 13) | ((lngCell + 4096L) & 0x1FFF);
+        k = (k << 11) | ((tzMinutes + 1024) & 0x7FF);
+        k = (k << 20) | ((epochDay + (1 << 19)) & 0xFFFFF);
+        k = (k << 3) | (method.ordinal() & 0x7);
+        k = (k << 1) | (asrSchool == 1 ? 0 : 1);
+        k = (k << 4) | ((hijriOffset + 8) & 0xF);
+        return k;
+    }
+}
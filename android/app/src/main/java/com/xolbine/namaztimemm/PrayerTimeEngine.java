@@ -0,0 +1,571 @@
+package com.xolbine.namaztimemm;
+
+/**
+ * Offline prayer time engine.
+ * Native port of lib/solar-calc.ts so receivers, services and plugins can
+ * compute the same times as the WebView without booting it.
+ * All results are minutes after local midnight.
+ */
+public final class PrayerTimeEngine {
+    public static final int FAJR = 0;
+    public static final int SUNRISE = 1;
+    public static final int ZAWAL = 2;
+    public static final int DHUHR = 3;
+    public static final int ASR = 4;
+    public static final int MAGHRIB = 5;
+    public static final int ISHA = 6;
+    public static final int PRAYER_COUNT = 7;
+
+    public static final String[] PRAYER_KEYS = {
+        "fajr", "sunrise", "zawal", "dhuhr", "asr", "maghrib", "isha"
+    };
+
+    // Same defaults as calculatePrayerTimesAdvanced / scheduleNativeAlarms (minutes)
+    public static final int[] DEFAULT_OFFSETS = { 0, -2, 0, 0, 0, 4, 2 };
+
+    private static final double SUNRISE_ANGLE = -0.833;
+    private static final double DEG2RAD = Math.PI / 180;
+    private static final double RAD2DEG = 180 / Math.PI;
+    private static final double JD_UNIX_EPOCH = 2440587.5;
+
+    public enum CalcMethod {
+        MWL("MWL", -18, -17),
+        KARACHI("Karachi", -18, -18),
+        EGYPT("Egypt", -19.5, -17.5),
+        UMM_AL_QURA("UmmAlQura", -18.5, 0), // Isha by minutes
+        CUSTOM("Custom", -18, -18);
+
+        public final String jsName;
+        public final double fajrAngle;
+        public final double ishaAngle;
+
+        CalcMethod(String jsName, double fajrAngle, double ishaAngle) {
+            this.jsName = jsName;
+            this.fajrAngle = fajrAngle;
+            this.ishaAngle = ishaAngle;
+        }
+
+        /** Accepts the CalcMethod enum values used in solar-calc.ts. */
+        public static CalcMethod fromName(String name) {
+            if (name != null) {
+                for (CalcMethod method : values()) {
+                    if (method.jsName.equalsIgnoreCase(name) || method.name().equalsIgnoreCase(name)) {
+                        return method;
+                    }
+                }
+            }
+            return KARACHI;
+        }
+
+        /** Numeric index used by UserSettings.method in lib/storage.ts. */
+        public static CalcMethod fromSettingsIndex(int index) {
+            switch (index) {
+                case 1: return MWL;
+                case 2: return EGYPT;
+                case 3: return UMM_AL_QURA;
+                default: return KARACHI;
+            }
+        }
+    }
+
+    public enum HighLatRule {
+        NONE, MIDDLE_OF_NIGHT, ONE_SEVENTH, ANGLE_BASED;
+
+        public static HighLatRule fromName(String name) {
+            if ("None".equalsIgnoreCase(name)) return NONE;
+            if ("OneSeventh".equalsIgnoreCase(name)) return ONE_SEVENTH;
+            if ("AngleBased".equalsIgnoreCase(name)) return ANGLE_BASED;
+            return MIDDLE_OF_NIGHT;
+        }
+    }
+
+    private PrayerTimeEngine() {}
+
+    /* -------------------- Single day -------------------- */
+
+    /**
+     * Computes one day, mirroring calculatePrayerTimesAdvanced step for step.
+     *
+     * @param month 1-12
+     * @param asrSchool 1 = Shafi, 2 = Hanafi
+     * @param offsets minutes per prayer indexed by FAJR..ISHA, or null for DEFAULT_OFFSETS
+     * @return minutes after midnight indexed by FAJR..ISHA
+     */
+    public static int[] computeDay(double lat, double lng, double timezone,
+                                   int year, int month, int day,
+                                   CalcMethod method, int asrSchool, HighLatRule highLatRule,
+                                   int[] offsets, int hijriOffset) {
+        double[] hours = computeDayHours(lat, lng, timezone, year, month, day,
+            method, asrSchool, highLatRule, offsets, hijriOffset);
+        int[] mins = new int[PRAYER_COUNT];
+        for (int p = 0; p < PRAYER_COUNT; p++) {
+            mins[p] = hoursToMins(hours[p]);
+        }
+        return mins;
+    }
+
+    /** Unrounded local hours (offsets applied) behind computeDay. */
+    static double[] computeDayHours(double lat, double lng, double timezone,
+                                    int year, int month, int day,
+                                    CalcMethod method, int asrSchool, HighLatRule highLatRule,
+                                    int[] offsets, int hijriOffset) {
+        double jd = julianDay(year, month, day);
+        double[] solar = new double[2];
+
+        double sunrise = solveTime(lat, lng, timezone, jd, SUNRISE_ANGLE, true, 12, 3, solar);
+        double sunset = solveTime(lat, lng, timezone, jd, SUNRISE_ANGLE, false, 12, 3, solar);
+
+        double night = sunrise + 24 - sunset;
+        double portion = nightPortion(highLatRule, Math.abs(method.fajrAngle));
+
+        double fajr = solveTime(lat, lng, timezone, jd, method.fajrAngle, true, 12, 3, solar);
+        if (Double.isNaN(fajr)) fajr = sunrise - night * portion;
+
+        double isha;
+        if (method == CalcMethod.UMM_AL_QURA) {
+            isha = sunset + ummAlQuraIshaHours(year, month, day, hijriOffset);
+        } else {
+            isha = solveTime(lat, lng, timezone, jd, method.ishaAngle, false, 12, 3, solar);
+            if (Double.isNaN(isha)) isha = sunset + night * portion;
+        }
+
+        solarPosition(jd, solar);
+        double asr = solveTime(lat, lng, timezone, jd, asrAltitude(lat, solar[0], asrSchool), false, 12, 3, solar);
+
+        double zawal = (sunrise + sunset) / 2;
+        double dhuhr = zawal + 5.0 / 60;
+
+        double[] hours = new double[PRAYER_COUNT];
+        hours[FAJR] = fajr;
+        hours[SUNRISE] = sunrise;
+        hours[ZAWAL] = zawal;
+        hours[DHUHR] = dhuhr;
+        hours[ASR] = asr;
+        hours[MAGHRIB] = sunset;
+        hours[ISHA] = isha;
+
+        for (int p = 0; p < PRAYER_COUNT; p++) {
+            hours[p] += offsetMinutes(offsets, p) / 60.0;
+        }
+        return hours;
+    }
+
+    /* -------------------- Bulk (N consecutive days) -------------------- */
+
+    /**
+     * Computes {@code days} consecutive days starting at year/month/day in one pass.
+     * Solar declination and equation of time are evaluated once per day boundary and
+     * interpolated for every prayer of that day, trig on the latitude and the target
+     * altitudes is hoisted out of the loop, and each day's iteration is seeded with
+     * the previous day's solution so it converges in fewer passes.
+     */
+    public static Timetable computeDays(double lat, double lng, double timezone,
+                                        int year, int month, int day, int days,
+                                        CalcMethod method, int asrSchool, HighLatRule highLatRule,
+                                        int[] offsets, int hijriOffset) {
+        if (days <= 0) {
+            throw new IllegalArgumentException("days must be positive");
+        }
+
+        int startEpochDay = epochDay(year, month, day);
+        double jd0 = startEpochDay + JD_UNIX_EPOCH;
+
+        // Solar terms at each midnight boundary, shared by consecutive days
+        double[] sinDecl = new double[days + 1];
+        double[] cosDecl = new double[days + 1];
+        double[] decl = new double[days + 1];
+        double[] eot = new double[days + 1];
+        double[] solar = new double[2];
+        for (int k = 0; k <= days; k++) {
+            solarPosition(jd0 + k, solar);
+            decl[k] = solar[0];
+            eot[k] = solar[1];
+            sinDecl[k] = Math.sin(solar[0] * DEG2RAD);
+            cosDecl[k] = Math.cos(solar[0] * DEG2RAD);
+        }
+
+        double sinLat = Math.sin(lat * DEG2RAD);
+        double cosLat = Math.cos(lat * DEG2RAD);
+        double baseNoon = 12 + timezone - lng / 15;
+        double sinSunrise = Math.sin(SUNRISE_ANGLE * DEG2RAD);
+        double sinFajr = Math.sin(method.fajrAngle * DEG2RAD);
+        double sinIsha = Math.sin(method.ishaAngle * DEG2RAD);
+        boolean ishaByMinutes = method == CalcMethod.UMM_AL_QURA;
+        double portion = nightPortion(highLatRule, Math.abs(method.fajrAngle));
+
+        int[] offs = new int[PRAYER_COUNT];
+        for (int p = 0; p < PRAYER_COUNT; p++) offs[p] = offsetMinutes(offsets, p);
+
+        Timetable table = new Timetable(startEpochDay, days);
+        short[][] out = table.minutes;
+
+        // Previous day's raw solutions; the 3-pass solver starts from noon
+        double seedSunrise = 12, seedSunset = 12, seedFajr = 12, seedIsha = 12, seedAsr = 12;
+        int passes = 3;
+
+        for (int d = 0; d < days; d++) {
+            double sDecl0 = sinDecl[d], sDecl1 = sinDecl[d + 1];
+            double cDecl0 = cosDecl[d], cDecl1 = cosDecl[d + 1];
+            double eot0 = eot[d], eot1 = eot[d + 1];
+
+            double sunrise = solveInterpolated(sinLat, cosLat, baseNoon, sinSunrise, true, seedSunrise, passes,
+                sDecl0, sDecl1, cDecl0, cDecl1, eot0, eot1);
+            double sunset = solveInterpolated(sinLat, cosLat, baseNoon, sinSunrise, false, seedSunset, passes,
+                sDecl0, sDecl1, cDecl0, cDecl1, eot0, eot1);
+
+            double night = sunrise + 24 - sunset;
+
+            double fajr = solveInterpolated(sinLat, cosLat, baseNoon, sinFajr, true, seedFajr, passes,
+                sDecl0, sDecl1, cDecl0, cDecl1, eot0, eot1);
+            if (Double.isNaN(fajr)) {
+                fajr = sunrise - night * portion;
+            } else {
+                seedFajr = fajr;
+            }
+
+            double isha;
+            if (ishaByMinutes) {
+                isha = sunset + ummAlQuraIshaHours(startEpochDay + d, hijriOffset);
+            } else {
+                isha = solveInterpolated(sinLat, cosLat, baseNoon, sinIsha, false, seedIsha, passes,
+                    sDecl0, sDecl1, cDecl0, cDecl1, eot0, eot1);
+                if (Double.isNaN(isha)) {
+                    isha = sunset + night * portion;
+                } else {
+                    seedIsha = isha;
+                }
+            }
+
+            double sinAsr = Math.sin(asrAltitude(lat, decl[d], asrSchool) * DEG2RAD);
+            double asr = solveInterpolated(sinLat, cosLat, baseNoon, sinAsr, false, seedAsr, passes,
+                sDecl0, sDecl1, cDecl0, cDecl1, eot0, eot1);
+
+            double zawal = (sunrise + sunset) / 2;
+
+            out[FAJR][d] = (short) hoursToMins(fajr + offs[FAJR] / 60.0);
+            out[SUNRISE][d] = (short) hoursToMins(sunrise + offs[SUNRISE] / 60.0);
+            out[ZAWAL][d] = (short) hoursToMins(zawal + offs[ZAWAL] / 60.0);
+            out[DHUHR][d] = (short) hoursToMins(zawal + 5.0 / 60 + offs[DHUHR] / 60.0);
+            out[ASR][d] = (short) hoursToMins(asr + offs[ASR] / 60.0);
+            out[MAGHRIB][d] = (short) hoursToMins(sunset + offs[MAGHRIB] / 60.0);
+            out[ISHA][d] = (short) hoursToMins(isha + offs[ISHA] / 60.0);
+
+            seedSunrise = sunrise;
+            seedSunset = sunset;
+            seedAsr = asr;
+            // A seed from yesterday is within a couple of minutes; one refinement pass less is enough
+            passes = 2;
+        }
+
+        return table;
+    }
+
+    /* -------------------- All methods in one pass -------------------- */
+
+    /**
+     * Evaluates every CalcMethod under both Asr schools for {@code days} consecutive days.
+     * Sunrise, sunset, zawal, dhuhr and the solar terms are computed once, Asr once per
+     * school, and Fajr/Isha once per distinct twilight angle (MWL and Karachi share Fajr).
+     * Columns that do not depend on the method are shared between the returned timetables.
+     */
+    public static MultiMethodTimetable computeDaysAllMethods(double lat, double lng, double timezone,
+                                                             int year, int month, int day, int days,
+                                                             HighLatRule highLatRule, int[] offsets,
+                                                             int hijriOffset) {
+        if (days <= 0) {
+            throw new IllegalArgumentException("days must be positive");
+        }
+
+        CalcMethod[] methods = CalcMethod.values();
+        int startEpochDay = epochDay(year, month, day);
+        double jd0 = startEpochDay + JD_UNIX_EPOCH;
+
+        double[] sinDecl = new double[days + 1];
+        double[] cosDecl = new double[days + 1];
+        double[] decl = new double[days + 1];
+        double[] eot = new double[days + 1];
+        double[] solar = new double[2];
+        for (int k = 0; k <= days; k++) {
+            solarPosition(jd0 + k, solar);
+            decl[k] = solar[0];
+            eot[k] = solar[1];
+            sinDecl[k] = Math.sin(solar[0] * DEG2RAD);
+            cosDecl[k] = Math.cos(solar[0] * DEG2RAD);
+        }
+
+        // Distinct Fajr / Isha angles and the method -> angle slot mapping
+        double[] fajrAngles = new double[methods.length];
+        double[] ishaAngles = new double[methods.length];
+        int[] fajrSlot = new int[methods.length];
+        int[] ishaSlot = new int[methods.length];
+        int fajrCount = 0;
+        int ishaCount = 0;
+        for (int m = 0; m < methods.length; m++) {
+            fajrSlot[m] = slotFor(fajrAngles, fajrCount, methods[m].fajrAngle);
+            if (fajrSlot[m] == fajrCount) fajrAngles[fajrCount++] = methods[m].fajrAngle;
+            if (methods[m] == CalcMethod.UMM_AL_QURA) {
+                ishaSlot[m] = -1;
+            } else {
+                ishaSlot[m] = slotFor(ishaAngles, ishaCount, methods[m].ishaAngle);
+                if (ishaSlot[m] == ishaCount) ishaAngles[ishaCount++] = methods[m].ishaAngle;
+            }
+        }
+
+        double sinLat = Math.sin(lat * DEG2RAD);
+        double cosLat = Math.cos(lat * DEG2RAD);
+        double baseNoon = 12 + timezone - lng / 15;
+        double sinSunrise = Math.sin(SUNRISE_ANGLE * DEG2RAD);
+        double[] sinFajr = new double[fajrCount];
+        double[] sinIsha = new double[ishaCount];
+        for (int i = 0; i < fajrCount; i++) sinFajr[i] = Math.sin(fajrAngles[i] * DEG2RAD);
+        for (int i = 0; i < ishaCount; i++) sinIsha[i] = Math.sin(ishaAngles[i] * DEG2RAD);
+
+        int[] offs = new int[PRAYER_COUNT];
+        for (int p = 0; p < PRAYER_COUNT; p++) offs[p] = offsetMinutes(offsets, p);
+
+        short[] sunriseCol = new short[days];
+        short[] zawalCol = new short[days];
+        short[] dhuhrCol = new short[days];
+        short[] maghribCol = new short[days];
+        short[][] asrCols = new short[2][days];
+        short[][] fajrCols = new short[methods.length][days];
+        short[][] ishaCols = new short[methods.length][days];
+
+        double seedSunrise = 12, seedSunset = 12;
+        double[] seedAsr = { 12, 12 };
+        double[] seedFajr = new double[fajrCount];
+        double[] seedIsha = new double[ishaCount];
+        java.util.Arrays.fill(seedFajr, 12);
+        java.util.Arrays.fill(seedIsha, 12);
+        double[] fajrRaw = new double[fajrCount];
+        double[] ishaRaw = new double[ishaCount];
+        int passes = 3;
+
+        for (int d = 0; d < days; d++) {
+            double sDecl0 = sinDecl[d], sDecl1 = sinDecl[d + 1];
+            double cDecl0 = cosDecl[d], cDecl1 = cosDecl[d + 1];
+            double eot0 = eot[d], eot1 = eot[d + 1];
+
+            double sunrise = solveInterpolated(sinLat, cosLat, baseNoon, sinSunrise, true, seedSunrise, passes,
+                sDecl0, sDecl1, cDecl0, cDecl1, eot0, eot1);
+            double sunset = solveInterpolated(sinLat, cosLat, baseNoon, sinSunrise, false, seedSunset, passes,
+                sDecl0, sDecl1, cDecl0, cDecl1, eot0, eot1);
+            double night = sunrise + 24 - sunset;
+            double zawal = (sunrise + sunset) / 2;
+
+            sunriseCol[d] = (short) hoursToMins(sunrise + offs[SUNRISE] / 60.0);
+            zawalCol[d] = (short) hoursToMins(zawal + offs[ZAWAL] / 60.0);
+            dhuhrCol[d] = (short) hoursToMins(zawal + 5.0 / 60 + offs[DHUHR] / 60.0);
+            maghribCol[d] = (short) hoursToMins(sunset + offs[MAGHRIB] / 60.0);
+
+            for (int s = 0; s < 2; s++) {
+                double sinAsr = Math.sin(asrAltitude(lat, decl[d], s + 1) * DEG2RAD);
+                double asr = solveInterpolated(sinLat, cosLat, baseNoon, sinAsr, false, seedAsr[s], passes,
+                    sDecl0, sDecl1, cDecl0, cDecl1, eot0, eot1);
+                asrCols[s][d] = (short) hoursToMins(asr + offs[ASR] / 60.0);
+                seedAsr[s] = asr;
+            }
+
+            for (int i = 0; i < fajrCount; i++) {
+                fajrRaw[i] = solveInterpolated(sinLat, cosLat, baseNoon, sinFajr[i], true, seedFajr[i], passes,
+                    sDecl0, sDecl1, cDecl0, cDecl1, eot0, eot1);
+                if (!Double.isNaN(fajrRaw[i])) seedFajr[i] = fajrRaw[i];
+            }
+            for (int i = 0; i < ishaCount; i++) {
+                ishaRaw[i] = solveInterpolated(sinLat, cosLat, baseNoon, sinIsha[i], false, seedIsha[i], passes,
+                    sDecl0, sDecl1, cDecl0, cDecl1, eot0, eot1);
+                if (!Double.isNaN(ishaRaw[i])) seedIsha[i] = ishaRaw[i];
+            }
+
+            double ummAlQuraIsha = Double.NaN;
+            for (int m = 0; m < methods.length; m++) {
+                double portion = nightPortion(highLatRule, Math.abs(methods[m].fajrAngle));
+
+                double fajr = fajrRaw[fajrSlot[m]];
+                if (Double.isNaN(fajr)) fajr = sunrise - night * portion;
+                fajrCols[m][d] = (short) hoursToMins(fajr + offs[FAJR] / 60.0);
+
+                double isha;
+                if (ishaSlot[m] < 0) {
+                    if (Double.isNaN(ummAlQuraIsha)) {
+                        ummAlQuraIsha = sunset + ummAlQuraIshaHours(startEpochDay + d, hijriOffset);
+                    }
+                    isha = ummAlQuraIsha;
+                } else {
+                    isha = ishaRaw[ishaSlot[m]];
+                    if (Double.isNaN(isha)) isha = sunset + night * portion;
+                }
+                ishaCols[m][d] = (short) hoursToMins(isha + offs[ISHA] / 60.0);
+            }
+
+            seedSunrise = sunrise;
+            seedSunset = sunset;
+            passes = 2;
+        }
+
+        Timetable[][] tables = new Timetable[methods.length][2];
+        for (int m = 0; m < methods.length; m++) {
+            for (int s = 0; s < 2; s++) {
+                short[][] columns = new short[PRAYER_COUNT][];
+                columns[FAJR] = fajrCols[m];
+                columns[SUNRISE] = sunriseCol;
+                columns[ZAWAL] = zawalCol;
+                columns[DHUHR] = dhuhrCol;
+                columns[ASR] = asrCols[s];
+                columns[MAGHRIB] = maghribCol;
+                columns[ISHA] = ishaCols[m];
+                tables[m][s] = new Timetable(startEpochDay, days, columns);
+            }
+        }
+        return new MultiMethodTimetable(tables);
+    }
+
+    private static int slotFor(double[] angles, int count, double angle) {
+        for (int i = 0; i < count; i++) {
+            if (angles[i] == angle) return i;
+        }
+        return count;
+    }
+
+    /**
+     * Same fixed-point iteration as solveTime, but the solar terms for jd + t/24
+     * are linearly interpolated between the two midnight boundaries of the day.
+     * Declination moves at most ~0.4 deg/day, so the interpolation error is far
+     * below one second of time.
+     */
+    private static double solveInterpolated(double sinLat, double cosLat, double baseNoon, double sinAngle,
+                                            boolean beforeNoon, double seed, int passes,
+                                            double sDecl0, double sDecl1, double cDecl0, double cDecl1,
+                                            double eot0, double eot1) {
+        double t = Double.isNaN(seed) ? 12 : seed;
+        for (int i = 0; i < passes; i++) {
+            double f = t / 24;
+            double sDecl = sDecl0 + (sDecl1 - sDecl0) * f;
+            double cDecl = cDecl0 + (cDecl1 - cDecl0) * f;
+            double e = eot0 + (eot1 - eot0) * f;
+            double noon = baseNoon - e / 60;
+            double cosH = (sinAngle - sinLat * sDecl) / (cosLat * cDecl);
+            double h = RAD2DEG * Math.acos(Math.min(1, Math.max(-1, cosH))) / 15;
+            t = beforeNoon ? noon - h : noon + h;
+        }
+        return t;
+    }
+
+    /* -------------------- Core solar math -------------------- */
+
+    /** Julian date at 00:00 UTC of the given civil date. */
+    static double julianDay(int year, int month, int day) {
+        return epochDay(year, month, day) + JD_UNIX_EPOCH;
+    }
+
+    /** Writes declination (deg) to out[0] and equation of time (minutes) to out[1]. */
+    static void solarPosition(double jd, double[] out) {
+        double T = (jd - 2451545.0) / 36525;
+
+        double L0 = 280.46646 + 36000.76983 * T + 0.0003032 * T * T;
+        double M = 357.52911 + 35999.05029 * T - 0.0001537 * T * T;
+        double e = 0.016708634 - 0.000042037 * T - 0.0000001267 * T * T;
+
+        double C = (1.914602 - 0.004817 * T) * sin(M) + (0.019993 - 0.000101 * T) * sin(2 * M) + 0.000289 * sin(3 * M);
+
+        double lambda = L0 + C;
+        double epsilon = 23.439291 - 0.0130042 * T;
+
+        double decl = RAD2DEG * Math.asin(sin(epsilon) * sin(lambda));
+
+        double tanHalf = Math.tan(epsilon / 2 * DEG2RAD);
+        double y = tanHalf * tanHalf;
+
+        double eot = 4 * RAD2DEG * (y * sin(2 * L0)
+            - 2 * e * sin(M)
+            + 4 * e * y * sin(M) * cos(2 * L0)
+            - 0.5 * y * y * sin(4 * L0)
+            - 1.25 * e * e * sin(2 * M));
+
+        out[0] = decl;
+        out[1] = eot;
+    }
+
+    private static double solveTime(double lat, double lng, double tz, double jd, double angle,
+                                    boolean beforeNoon, double seed, int passes, double[] solar) {
+        double t = seed;
+        for (int i = 0; i < passes; i++) {
+            solarPosition(jd + t / 24, solar);
+            double noon = 12 + tz - lng / 15 - solar[1] / 60;
+            double h = hourAngle(lat, solar[0], angle) / 15;
+            t = beforeNoon ? noon - h : noon + h;
+        }
+        return t;
+    }
+
+    private static double hourAngle(double lat, double decl, double angle) {
+        double num = sin(angle) - sin(lat) * sin(decl);
+        double den = cos(lat) * cos(decl);
+        return RAD2DEG * Math.acos(Math.min(1, Math.max(-1, num / den)));
+    }
+
+    private static double asrAltitude(double lat, double decl, int factor) {
+        return RAD2DEG * Math.atan(1 / (factor + Math.tan(Math.abs(lat - decl) * DEG2RAD)));
+    }
+
+    private static double nightPortion(HighLatRule rule, double angle) {
+        if (rule == HighLatRule.ANGLE_BASED) return angle / 60;
+        if (rule == HighLatRule.ONE_SEVENTH) return 1.0 / 7;
+        if (rule == HighLatRule.MIDDLE_OF_NIGHT) return 1.0 / 2;
+        return 0;
+    }
+
+    private static double ummAlQuraIshaHours(int year, int month, int day, int hijriOffset) {
+        return ummAlQuraIshaHours(epochDay(year, month, day), hijriOffset);
+    }
+
+    /** 2 h in Ramadan, 1.5 h otherwise; the Hijri month comes from the precomputed table. */
+    private static double ummAlQuraIshaHours(int epochDay, int hijriOffset) {
+        return HijriCalendar.getDefault().month(epochDay, hijriOffset) == 9 ? 2 : 1.5;
+    }
+
+    /* -------------------- Time helpers -------------------- */
+
+    private static int offsetMinutes(int[] offsets, int prayer) {
+        int[] source = offsets != null ? offsets : DEFAULT_OFFSETS;
+        return prayer < source.length ? source[prayer] : 0;
+    }
+
+    static int hoursToMins(double h) {
+        double norm = ((h % 24) + 24) % 24;
+        return (int) Math.round(norm * 60);
+    }
+
+    /** Days since 1970-01-01 for a proleptic Gregorian date (month 1-12). */
+    public static int epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yoe = y - era * 400;
+        int mp = (month + 9) % 12;
+        int doy = (153 * mp + 2) / 5 + day - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+    }
+
+    /** Inverse of epochDay: returns {year, month (1-12), day}. */
+    public static int[] civilFromEpochDay(int epochDay) {
+        int z = epochDay + 719468;
+        int era = Math.floorDiv(z, 146097);
+        int doe = z - era * 146097;
+        int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        int mp = (5 * doy + 2) / 153;
+        int d = doy - (153 * mp + 2) / 5 + 1;
+        int m = mp < 10 ? mp + 3 : mp - 9;
+        int y = yoe + era * 400 + (m <= 2 ? 1 : 0);
+        return new int[] { y, m, d };
+    }
+
+    private static double sin(double deg) {
+        return Math.sin(deg * DEG2RAD);
+    }
+
+    private static double cos(double deg) {
+        return Math.cos(deg * DEG2RAD);
+    }
+}
@@ -0,0 +1,371 @@
+package com.xolbine.namaztimemm;
+
+import android.net.Uri;
+import android.util.Log;
+
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Calendar;
+
+/**
+ * Exposes the native PrayerTimeEngine to the WebView.
+ */
+@CapacitorPlugin(name = "PrayerTimes")
+public class PrayerTimesPlugin extends Plugin {
+    private static final String TAG = "PrayerTimesPlugin";
+    private static final int MAX_DAYS = 366 * 5;
+    // Mosque timetable imports read files and rewrite storage, off the shared bridge thread
+    private final PluginExecutor worker = new PluginExecutor(TAG);
+
+    @Override
+    protected void handleOnDestroy() {
+        worker.shutdown();
+        super.handleOnDestroy();
+    }
+
+    /** Without a numeric timezone, offsets come per day from the given zoneId or the device zone. */
+    @PluginMethod
+    public void getTimetable(PluginCall call) {
+        Double lat = call.getDouble("lat");
+        Double lng = call.getDouble("lng");
+        Double timezone = call.getDouble("timezone");
+        int days = call.getInt("days", 365);
+
+        if (lat == null || lng == null) {
+            call.reject("Invalid location parameters");
+            return;
+        }
+        if (days <= 0 || days > MAX_DAYS) {
+            call.reject("days must be between 1 and " + MAX_DAYS);
+            return;
+        }
+
+        Calendar today = Calendar.getInstance();
+        int year = call.getInt("year", today.get(Calendar.YEAR));
+        int month = call.getInt("month", today.get(Calendar.MONTH) + 1);
+        int day = call.getInt("day", today.get(Calendar.DAY_OF_MONTH));
+
+        PrayerTimeEngine.CalcMethod method = PrayerTimeEngine.CalcMethod.fromName(call.getString("method", "Karachi"));
+        int asrSchool = call.getInt("asrSchool", 2);
+        int hijriOffset = call.getInt("hijriOffset", 0);
+
+        try {
+            long start = System.nanoTime();
+            String zoneId = null;
+            Timetable table;
+            if (timezone != null) {
+                table = PrayerTimeEngine.computeDays(
+                    lat, lng, timezone, year, month, day, days,
+                    method, asrSchool, PrayerTimeEngine.HighLatRule.MIDDLE_OF_NIGHT,
+                    null, hijriOffset
+                );
+            } else {
+                // Times are linear in the offset, so compute in UTC and shift each day
+                TimezoneResolver resolver = TimezoneResolver.getInstance();
+                zoneId = resolver.zoneOrDevice(call.getString("zoneId"));
+                Timetable utc = PrayerTimeEngine.computeDays(
+                    lat, lng, 0, year, month, day, days,
+                    method, asrSchool, PrayerTimeEngine.HighLatRule.MIDDLE_OF_NIGHT,
+                    null, hijriOffset
+                );
+                table = utc.withDailyOffsets(resolver.offsetMinutes(zoneId, utc.getStartEpochDay(), days));
+            }
+            long elapsedUs = (System.nanoTime() - start) / 1000;
+            Log.d(TAG, "Computed " + days + " days in " + elapsedUs + "us");
+
+            JSObject ret = new JSObject();
+            if (zoneId != null) {
+                ret.put("zoneId", zoneId);
+            }
+            ret.put("startEpochDay", table.getStartEpochDay());
+            ret.put("days", table.size());
+            for (int p = 0; p < PrayerTimeEngine.PRAYER_COUNT; p++) {
+                short[] column = table.column(p);
+                JSArray values = new JSArray();
+                for (short minutes : column) {
+                    values.put((int) minutes);
+                }
+                ret.put(PrayerTimeEngine.PRAYER_KEYS[p], values);
+            }
+            call.resolve(ret);
+        } catch (Exception e) {
+            Log.e(TAG, "Error computing timetable: " + e.getMessage());
+            call.reject("Error computing timetable: " + e.getMessage());
+        }
+    }
+
+    @PluginMethod
+    public void compareMethods(PluginCall call) {
+        Double lat = call.getDouble("lat");
+        Double lng = call.getDouble("lng");
+
+        if (lat == null || lng == null) {
+            call.reject("Invalid location parameters");
+            return;
+        }
+
+        Calendar today = Calendar.getInstance();
+        int year = call.getInt("year", today.get(Calendar.YEAR));
+        int month = call.getInt("month", today.get(Calendar.MONTH) + 1);
+        int day = call.getInt("day", today.get(Calendar.DAY_OF_MONTH));
+        int hijriOffset = call.getInt("hijriOffset", 0);
+
+        try {
+            double timezone = timezoneFor(call, year, month, day);
+            MultiMethodTimetable all = PrayerTimeEngine.computeDaysAllMethods(
+                lat, lng, timezone, year, month, day, 1,
+                PrayerTimeEngine.HighLatRule.MIDDLE_OF_NIGHT, null, hijriOffset
+            );
+
+            JSArray results = new JSArray();
+            for (PrayerTimeEngine.CalcMethod method : MultiMethodTimetable.PUBLISHED_METHODS) {
+                for (int asrSchool : MultiMethodTimetable.ASR_SCHOOLS) {
+                    Timetable table = all.get(method, asrSchool);
+                    JSObject row = new JSObject();
+                    row.put("method", method.jsName);
+                    row.put("asrSchool", asrSchool);
+                    for (int p = 0; p < PrayerTimeEngine.PRAYER_COUNT; p++) {
+                        row.put(PrayerTimeEngine.PRAYER_KEYS[p], table.getMinutes(p, 0));
+                    }
+                    results.put(row);
+                }
+            }
+
+            JSObject ret = new JSObject();
+            ret.put("results", results);
+            call.resolve(ret);
+        } catch (Exception e) {
+            Log.e(TAG, "Error comparing methods: " + e.getMessage());
+            call.reject("Error comparing methods: " + e.getMessage());
+        }
+    }
+
+    /** One day through the process-wide PrayerTimeCache; GPS jitter lands on the same entry. */
+    @PluginMethod
+    public void getPrayerTimes(PluginCall call) {
+        Double lat = call.getDouble("lat");
+        Double lng = call.getDouble("lng");
+
+        if (lat == null || lng == null) {
+            call.reject("Invalid location parameters");
+            return;
+        }
+
+        Calendar today = Calendar.getInstance();
+        int year = call.getInt("year", today.get(Calendar.YEAR));
+        int month = call.getInt("month", today.get(Calendar.MONTH) + 1);
+        int day = call.getInt("day", today.get(Calendar.DAY_OF_MONTH));
+
+        PrayerTimeEngine.CalcMethod method = PrayerTimeEngine.CalcMethod.fromName(call.getString("method", "Karachi"));
+        int asrSchool = call.getInt("asrSchool", 2);
+        int hijriOffset = call.getInt("hijriOffset", 0);
+
+        try {
+            double timezone = timezoneFor(call, year, month, day);
+            // Same times the alarms arm, mosque overrides included
+            int[] minutes = DailyPrayerTimes.minutes(MosqueTimetable.get(getContext()),
+                lat, lng, timezone, year, month, day, method, asrSchool, hijriOffset);
+
+            JSObject ret = new JSObject();
+            for (int p = 0; p < PrayerTimeEngine.PRAYER_COUNT; p++) {
+                ret.put(PrayerTimeEngine.PRAYER_KEYS[p], minutes[p]);
+            }
+            ret.put("timezone", timezone);
+            call.resolve(ret);
+        } catch (Exception e) {
+            Log.e(TAG, "Error computing prayer times: " + e.getMessage());
+            call.reject("Error computing prayer times: " + e.getMessage());
+        }
+    }
+
+    @PluginMethod
+    public void getCacheStats(PluginCall call) {
+        PrayerTimeCache cache = PrayerTimeCache.getInstance();
+        JSObject ret = new JSObject();
+        ret.put("hits", cache.getHits());
+        ret.put("misses", cache.getMisses());
+        ret.put("evictions", cache.getEvictions());
+        ret.put("bypasses", cache.getBypasses());
+        ret.put("size", cache.size());
+        ret.put("capacity", cache.getCapacity());
+        call.resolve(ret);
+    }
+
+    /** Hijri date and Islamic event for every day of a Gregorian month (month views). */
+    @PluginMethod
+    public void getHijriMonth(PluginCall call) {
+        Calendar today = Calendar.getInstance();
+        int year = call.getInt("year", today.get(Calendar.YEAR));
+        int month = call.getInt("month", today.get(Calendar.MONTH) + 1);
+        int hijriOffset = call.getInt("hijriOffset", 0);
+
+        if (month < 1 || month > 12) {
+            call.reject("month must be between 1 and 12");
+            return;
+        }
+
+        try {
+            HijriCalendar calendar = HijriCalendar.getDefault();
+            int first = PrayerTimeEngine.epochDay(year, month, 1);
+            int next = month == 12 ? PrayerTimeEngine.epochDay(year + 1, 1, 1) : PrayerTimeEngine.epochDay(year, month + 1, 1);
+
+            JSArray days = new JSArray();
+            for (int e = first; e < next; e++) {
+                int[] hijri = calendar.toHijri(e, hijriOffset);
+                HijriCalendar.IslamicEvent event = HijriCalendar.eventFor(hijri[1], hijri[2]);
+
+                JSObject entry = new JSObject();
+                entry.put("day", e - first + 1);
+                entry.put("hijriYear", hijri[0]);
+                entry.put("hijriMonth", hijri[1]);
+                entry.put("hijriDay", hijri[2]);
+                if (event != null) {
+                    entry.put("event", event.key);
+                }
+                days.put(entry);
+            }
+
+            JSObject ret = new JSObject();
+            ret.put("days", days);
+            call.resolve(ret);
+        } catch (Exception e) {
+            Log.e(TAG, "Error building Hijri month: " + e.getMessage());
+            call.reject("Error building Hijri month: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Imports a mosque's date,prayer,time CSV from a content/file {@code uri}
+     * or an inline {@code csv} string. Rows merge into the existing timetable
+     * unless {@code replace} is set. {@code lat}/{@code lng} place the mosque,
+     * so its times only apply nearby. Alarms and widgets are refreshed.
+     */
+    @PluginMethod
+    public void importMosqueTimetable(PluginCall call) {
+        worker.execute(call, () -> {
+            String uri = call.getString("uri");
+            String csv = call.getString("csv");
+            if (uri == null && csv == null) {
+                call.reject("uri or csv is required");
+                return;
+            }
+            Double lat = call.getDouble("lat");
+            Double lng = call.getDouble("lng");
+            if ((lat == null) != (lng == null)) {
+                call.reject("lat and lng must be given together");
+                return;
+            }
+
+            try {
+                long start = System.nanoTime();
+                String name = call.getString("name");
+                double mosqueLat = lat != null ? lat : Double.NaN;
+                double mosqueLng = lng != null ? lng : Double.NaN;
+                MosqueTimetable.Importer importer = call.getBoolean("replace", false)
+                    ? new MosqueTimetable.Importer(name, mosqueLat, mosqueLng)
+                    : new MosqueTimetable.Importer(MosqueTimetable.get(getContext()), name, mosqueLat, mosqueLng);
+
+                if (uri != null) {
+                    try (InputStream in = getContext().getContentResolver().openInputStream(Uri.parse(uri))) {
+                        if (in == null) {
+                            call.reject("Could not open " + uri);
+                            return;
+                        }
+                        importer.read(new InputStreamReader(in, StandardCharsets.UTF_8));
+                    }
+                } else {
+                    try (Reader reader = new StringReader(csv)) {
+                        importer.read(reader);
+                    }
+                }
+                if (importer.rows() == 0) {
+                    call.reject("No timetable rows found" + (importer.errors().isEmpty() ? "" : ": " + importer.errors().get(0)));
+                    return;
+                }
+
+                MosqueTimetable table = importer.build();
+                MosqueTimetable.replace(getContext(), table);
+                Log.i(TAG, "🕌 Imported " + importer.rows() + " mosque times (" + importer.skipped() + " skipped) in "
+                    + (System.nanoTime() - start) / 1000000 + "ms");
+
+                ScheduleCoordinator.getInstance(getContext()).request();
+                PrayerWidgetProvider.refreshAll(getContext());
+
+                JSObject ret = mosqueTimetable(table);
+                ret.put("rows", importer.rows());
+                ret.put("skipped", importer.skipped());
+                JSArray errors = new JSArray();
+                for (String error : importer.errors()) {
+                    errors.put(error);
+                }
+                ret.put("errors", errors);
+                call.resolve(ret);
+            } catch (Exception e) {
+                Log.e(TAG, "Error importing mosque timetable: " + e.getMessage());
+                call.reject("Error importing mosque timetable: " + e.getMessage());
+            }
+        });
+    }
+
+    @PluginMethod
+    public void getMosqueTimetable(PluginCall call) {
+        worker.execute(call, () -> {
+            try {
+                call.resolve(mosqueTimetable(MosqueTimetable.get(getContext())));
+            } catch (Exception e) {
+                call.reject("Error loading mosque timetable: " + e.getMessage());
+            }
+        });
+    }
+
+    @PluginMethod
+    public void clearMosqueTimetable(PluginCall call) {
+        worker.execute(call, () -> {
+            try {
+                MosqueTimetable.replace(getContext(), MosqueTimetable.EMPTY);
+                ScheduleCoordinator.getInstance(getContext()).request();
+                PrayerWidgetProvider.refreshAll(getContext());
+                call.resolve();
+            } catch (Exception e) {
+                call.reject("Error clearing mosque timetable: " + e.getMessage());
+            }
+        });
+    }
+
+    /** Summary of the stored timetable; no dates when nothing is imported. */
+    private static JSObject mosqueTimetable(MosqueTimetable table) {
+        JSObject ret = new JSObject();
+        ret.put("days", table.days());
+        ret.put("entries", table.entries());
+        if (table.days() > 0) {
+            ret.put("name", table.name);
+            ret.put("startEpochDay", table.getStartEpochDay());
+            ret.put("endEpochDay", table.getStartEpochDay() + table.days() - 1);
+            if (!Double.isNaN(table.lat)) {
+                ret.put("lat", table.lat);
+                ret.put("lng", table.lng);
+            }
+        }
+        return ret;
+    }
+
+    /** The caller's numeric timezone if given, else the zone's (or the device's) offset on that date. */
+    private double timezoneFor(PluginCall call, int year, int month, int day) {
+        Double timezone = call.getDouble("timezone");
+        if (timezone != null) {
+            return timezone;
+        }
+        TimezoneResolver resolver = TimezoneResolver.getInstance();
+        return resolver.offsetHours(resolver.zoneOrDevice(call.getString("zoneId")), year, month, day);
+    }
+}
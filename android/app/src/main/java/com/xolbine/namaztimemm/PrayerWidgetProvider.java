@@ -0,0 +1,158 @@
+package com.xolbine.namaztimemm;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.appwidget.AppWidgetManager;
+import android.appwidget.AppWidgetProvider;
+import android.content.ComponentName;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.View;
+import android.widget.RemoteViews;
+
+/**
+ * Home-screen widget with today's times and the next prayer.
+ *
+ * Nothing runs between prayers: the countdown is a Chronometer the launcher
+ * ticks on its own, and the provider re-renders only at the next prayer
+ * boundary or local midnight, through a non-wakeup inexact alarm. If the device
+ * is asleep at the boundary the refresh waits until the screen is next on.
+ */
+public class PrayerWidgetProvider extends AppWidgetProvider {
+    private static final String TAG = "PrayerWidgetProvider";
+    public static final String ACTION_REFRESH = "com.xolbine.namaztimemm.WIDGET_REFRESH";
+    private static final int REFRESH_REQUEST_CODE = 9100;
+
+    private static final int TEXT_COLOR = 0xFF1F2622;
+    private static final int PRIMARY_COLOR = 0xFF1E5C46;
+
+    private static final int[] NAME_IDS = {
+        R.id.widget_name_0, R.id.widget_name_1, R.id.widget_name_2,
+        R.id.widget_name_3, R.id.widget_name_4, R.id.widget_name_5
+    };
+    private static final int[] TIME_IDS = {
+        R.id.widget_time_0, R.id.widget_time_1, R.id.widget_time_2,
+        R.id.widget_time_3, R.id.widget_time_4, R.id.widget_time_5
+    };
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        if (ACTION_REFRESH.equals(intent.getAction())) {
+            refreshAll(context);
+            return;
+        }
+        super.onReceive(context, intent);
+    }
+
+    @Override
+    public void onUpdate(Context context, AppWidgetManager manager, int[] appWidgetIds) {
+        render(context, manager, appWidgetIds);
+    }
+
+    @Override
+    public void onDisabled(Context context) {
+        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+        if (alarmManager != null) {
+            alarmManager.cancel(refreshIntent(context));
+        }
+    }
+
+    /** Re-renders every placed widget, e.g. after the location or settings change. */
+    public static void refreshAll(Context context) {
+        AppWidgetManager manager = AppWidgetManager.getInstance(context);
+        int[] ids = manager.getAppWidgetIds(new ComponentName(context, PrayerWidgetProvider.class));
+        if (ids != null && ids.length > 0) {
+            render(context, manager, ids);
+        }
+    }
+
+    private static void render(Context context, AppWidgetManager manager, int[] appWidgetIds) {
+        try {
+            RemoteViews views = new RemoteViews(context.getPackageName(), R.layout.widget_prayer_times);
+            views.setOnClickPendingIntent(R.id.widget_root, openAppIntent(context));
+
+            long now = System.currentTimeMillis();
+            DailyPrayerTimes today = DailyPrayerTimes.at(context, now);
+            if (today == null) {
+                views.setTextViewText(R.id.widget_next_time, context.getString(R.string.widget_no_location));
+                manager.updateAppWidget(appWidgetIds, views);
+                return;
+            }
+
+            String[] names = today.names();
+            int upcoming = DailyPrayerTimes.upcoming(today.minutes, today.minuteOf(now));
+            for (int i = 0; i < DailyPrayerTimes.SHOWN.length; i++) {
+                int color = i == upcoming ? PRIMARY_COLOR : TEXT_COLOR;
+                views.setTextViewText(NAME_IDS[i], names[i]);
+                views.setTextViewText(TIME_IDS[i], DailyPrayerTimes.formatTime(today.minutes[DailyPrayerTimes.SHOWN[i]]));
+                views.setTextColor(NAME_IDS[i], color);
+                views.setTextColor(TIME_IDS[i], color);
+            }
+
+            // After Isha the next prayer is tomorrow's Fajr
+            String nextName;
+            int nextMinutes;
+            long nextAt;
+            if (upcoming >= 0) {
+                nextName = names[upcoming];
+                nextMinutes = today.minutes[DailyPrayerTimes.SHOWN[upcoming]];
+                nextAt = today.millisAt(nextMinutes);
+            } else {
+                DailyPrayerTimes tomorrow = today.tomorrow(context);
+                nextName = names[0];
+                nextMinutes = tomorrow.minutes[PrayerTimeEngine.FAJR];
+                nextAt = tomorrow.millisAt(nextMinutes);
+            }
+            views.setTextViewText(R.id.widget_next_name, nextName);
+            views.setTextViewText(R.id.widget_next_time, DailyPrayerTimes.formatTime(nextMinutes));
+
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+                views.setChronometer(R.id.widget_countdown,
+                    SystemClock.elapsedRealtime() + (nextAt - now), null, true);
+                views.setChronometerCountDown(R.id.widget_countdown, true);
+                views.setViewVisibility(R.id.widget_countdown, View.VISIBLE);
+            } else {
+                // No count-down Chronometer before API 24; the next time alone is shown
+                views.setViewVisibility(R.id.widget_countdown, View.GONE);
+            }
+
+            manager.updateAppWidget(appWidgetIds, views);
+            scheduleRefresh(context, Math.min(nextAt, today.nextMidnightMillis()));
+        } catch (Exception e) {
+            Log.e(TAG, "Error updating widget: " + e.getMessage());
+        }
+    }
+
+    private static void scheduleRefresh(Context context, long triggerAt) {
+        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+        if (alarmManager == null) return;
+        // RTC (not RTC_WAKEUP) and inexact: a widget nobody is looking at can wait for the screen
+        alarmManager.set(AlarmManager.RTC, triggerAt, refreshIntent(context));
+        Log.i(TAG, "🔄 Next widget refresh in " + (triggerAt - System.currentTimeMillis()) / 1000 + "s");
+    }
+
+    private static PendingIntent refreshIntent(Context context) {
+        Intent intent = new Intent(context, PrayerWidgetProvider.class);
+        intent.setAction(ACTION_REFRESH);
+        return PendingIntent.getBroadcast(
+            context,
+            REFRESH_REQUEST_CODE,
+            intent,
+            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+        );
+    }
+
+    private static PendingIntent openAppIntent(Context context) {
+        Intent intent = new Intent(context, MainActivity.class);
+        intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP);
+        return PendingIntent.getActivity(
+            context,
+            0,
+            intent,
+            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+        );
+    }
+}
@@ -0,0 +1,27 @@
+package com.xolbine.namaztimemm;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.util.Log;
+
+/**
+ * Fires once per coalesced group of soft reminders.
+ */
+public class ReminderReceiver extends BroadcastReceiver {
+    private static final String TAG = "ReminderReceiver";
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        if (!ReminderScheduler.ACTION_REMINDER.equals(intent.getAction())) {
+            return;
+        }
+        long start = intent.getLongExtra("groupStart", 0);
+        long end = intent.getLongExtra("groupEnd", 0);
+        Log.i(TAG, "🔔 Reminder wakeup");
+        EnergyLedger ledger = EnergyLedger.getInstance(context);
+        ledger.add(EnergyLedger.Metric.ALARM_WAKEUPS, 1);
+        ledger.flush();
+        ReminderScheduler.deliver(context, start, end);
+    }
+}
@@ -0,0 +1,248 @@
+package com.xolbine.namaztimemm;
+
+import android.app.AlarmManager;
+import android.app.Notification;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+import android.util.Log;
+
+import androidx.core.app.NotificationCompat;
+
+import java.text.DateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Soft reminders: N minutes before each prayer and at the mosque's iqamah.
+ *
+ * Unlike adhan alarms (exact, setAlarmClock), reminders tolerate a little drift,
+ * so reminders within {@link #COALESCE_WINDOW_MS} of each other share one
+ * wakeup, armed with setWindow at the group's last reminder: none arrives
+ * early, and none more than the window late. A before-prayer reminder also
+ * ends its group ahead of its prayer. Only the next wakeup is armed; when it fires,
+ * ReminderReceiver posts its reminders and arms the one after. setWindow is not
+ * exempt from Doze, so a reminder can arrive late; a before-prayer reminder whose
+ * prayer has started, or an iqamah alert more than a window late, is dropped.
+ */
+public final class ReminderScheduler {
+    private static final String TAG = "ReminderScheduler";
+    public static final String ACTION_REMINDER = "com.xolbine.namaztimemm.PRAYER_REMINDER";
+
+    static final long COALESCE_WINDOW_MS = 10 * 60 * 1000;
+    private static final long WINDOW_LENGTH_MS = 2 * 60 * 1000;
+    private static final long DAY_MS = 24 * 60 * 60 * 1000;
+    private static final int REQUEST_CODE = 9300;
+    private static final int NOTIFICATION_ID = 7000;
+    private static final String CHANNEL_ID = "prayer_reminder_channel";
+
+    private static final String[] DISPLAY_NAMES = { "Fajr", "Dhuhr", "Asr", "Maghrib", "Isha" };
+
+    private ReminderScheduler() {}
+
+    static final class Reminder {
+        final int prayer;        // index into AlarmReconciler.ALARM_PRAYERS
+        final boolean iqamah;    // false for a before-prayer reminder
+        final long at;           // when to show it
+        final long prayerTime;   // the adhan time it refers to
+
+        Reminder(int prayer, boolean iqamah, long at, long prayerTime) {
+            this.prayer = prayer;
+            this.iqamah = iqamah;
+            this.at = at;
+            this.prayerTime = prayerTime;
+        }
+    }
+
+    /** Reminders after {@code after}, in time order, for adhan times keyed by prayerId. */
+    static List<Reminder> plan(Map<Integer, Long> prayerTimes, int beforeMinutes, int[] iqamahOffsets, long after) {
+        List<Reminder> reminders = new ArrayList<>();
+        for (Map.Entry<Integer, Long> e : prayerTimes.entrySet()) {
+            int prayer = e.getKey() / 1000 - 1;
+            long time = e.getValue();
+            if (prayer < 0 || prayer >= iqamahOffsets.length) continue;
+            if (beforeMinutes > 0 && time - beforeMinutes * 60000L > after) {
+                reminders.add(new Reminder(prayer, false, time - beforeMinutes * 60000L, time));
+            }
+            if (iqamahOffsets[prayer] > 0 && time + iqamahOffsets[prayer] * 60000L > after) {
+                reminders.add(new Reminder(prayer, true, time + iqamahOffsets[prayer] * 60000L, time));
+            }
+        }
+        Collections.sort(reminders, new Comparator<Reminder>() {
+            @Override
+            public int compare(Reminder a, Reminder b) {
+                return Long.compare(a.at, b.at);
+            }
+        });
+        return reminders;
+    }
+
+    /**
+     * Groups time-ordered reminders to fire together at the last one's time.
+     * A group spans at most {@code windowMs} from its first reminder and ends
+     * before any of its before-prayer reminders' prayer starts.
+     */
+    static List<List<Reminder>> coalesce(List<Reminder> reminders, long windowMs) {
+        List<List<Reminder>> groups = new ArrayList<>();
+        List<Reminder> current = null;
+        long deadline = Long.MAX_VALUE;
+        for (Reminder r : reminders) {
+            if (current == null || r.at - current.get(0).at > windowMs || r.at >= deadline) {
+                current = new ArrayList<>();
+                groups.add(current);
+                deadline = Long.MAX_VALUE;
+            }
+            current.add(r);
+            if (!r.iqamah) {
+                deadline = Math.min(deadline, r.prayerTime);
+            }
+        }
+        return groups;
+    }
+
+    /** Arms the next reminder wakeup, or cancels it when no reminders are configured. */
+    public static void scheduleNext(Context context) {
+        try {
+            AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+            if (alarmManager == null) return;
+            List<List<Reminder>> groups = upcomingGroups(context, System.currentTimeMillis());
+            if (groups.isEmpty()) {
+                alarmManager.cancel(wakeupIntent(context, 0, 0));
+                return;
+            }
+            List<Reminder> next = groups.get(0);
+            long start = next.get(0).at;
+            long end = next.get(next.size() - 1).at;
+            alarmManager.setWindow(AlarmManager.RTC_WAKEUP, end, WINDOW_LENGTH_MS, wakeupIntent(context, start, end));
+            Log.i(TAG, "🔔 Next reminder wakeup at " + new Date(end) + " (" + next.size() + " reminders)");
+        } catch (Exception e) {
+            Log.e(TAG, "Error scheduling reminders: " + e.getMessage());
+        }
+    }
+
+    /** Called by ReminderReceiver: shows the group's reminders, then arms the next wakeup. */
+    static void deliver(Context context, long groupStart, long groupEnd) {
+        long now = System.currentTimeMillis();
+        List<String> lines = new ArrayList<>();
+        DateFormat format = DateFormat.getTimeInstance(DateFormat.SHORT);
+        for (Reminder r : plan(prayerTimes(context, now), AlarmScheduleStore.loadReminderBefore(context),
+                AlarmScheduleStore.loadIqamahOffsets(context), groupStart - 1)) {
+            if (r.at > groupEnd) break;
+            if (r.iqamah) {
+                if (r.at + COALESCE_WINDOW_MS < now) continue;
+                lines.add(DISPLAY_NAMES[r.prayer] + " iqamah at " + format.format(new Date(r.at)));
+            } else if (r.prayerTime > now) {
+                lines.add(DISPLAY_NAMES[r.prayer] + " at " + format.format(new Date(r.prayerTime)));
+            }
+        }
+        AlarmScheduleStore.setRemindersDeliveredUntil(context, groupEnd);
+        if (!lines.isEmpty()) {
+            notify(context, lines);
+        }
+        scheduleNext(context);
+    }
+
+    /** Exact adhan and soft reminder wakeups over the next 24 hours, with and without coalescing. */
+    public static int[] dailyWakeups(Context context) {
+        long now = System.currentTimeMillis();
+        int adhan = 0;
+        for (long at : AlarmScheduleStore.loadArmed(context).values()) {
+            if (at > now && at <= now + DAY_MS) adhan++;
+        }
+        List<Reminder> reminders = new ArrayList<>();
+        for (Reminder r : plan(prayerTimes(context, now), AlarmScheduleStore.loadReminderBefore(context),
+                AlarmScheduleStore.loadIqamahOffsets(context), now)) {
+            if (r.at <= now + DAY_MS) reminders.add(r);
+        }
+        return new int[] { adhan, reminders.size(), coalesce(reminders, COALESCE_WINDOW_MS).size() };
+    }
+
+    private static List<List<Reminder>> upcomingGroups(Context context, long now) {
+        long after = Math.max(now, AlarmScheduleStore.getRemindersDeliveredUntil(context));
+        return coalesce(plan(prayerTimes(context, now), AlarmScheduleStore.loadReminderBefore(context),
+            AlarmScheduleStore.loadIqamahOffsets(context), after), COALESCE_WINDOW_MS);
+    }
+
+    /** Every prayer's time for the coming week, whether or not its adhan is enabled. */
+    private static Map<Integer, Long> prayerTimes(Context context, long now) {
+        AlarmScheduleStore.Inputs inputs = AlarmScheduleStore.loadInputs(context);
+        if (inputs == null) {
+            return Collections.emptyMap();
+        }
+        return prayerTimes(inputs, now, TimeZone.getDefault(), MosqueTimetable.get(context));
+    }
+
+    /** The primary profile's times with every prayer enabled, taking the mosque's times near it like the adhan does. */
+    static Map<Integer, Long> prayerTimes(AlarmScheduleStore.Inputs inputs, long now, TimeZone zone,
+                                          MosqueTimetable mosque) {
+        HashSet<String> all = new HashSet<>();
+        Collections.addAll(all, AlarmReconciler.ALARM_PRAYERS);
+        AlarmScheduleStore.Inputs allPrayers = new AlarmScheduleStore.Inputs(
+            inputs.lat, inputs.lng, inputs.method, inputs.asrSchool, inputs.hijriOffset, all);
+        // Start an hour back so iqamah alerts for a prayer that just started are still planned
+        return AlarmReconciler.desired(Collections.singletonList(AlarmProfile.primary(allPrayers)),
+            now - 60 * 60 * 1000, zone, mosque);
+    }
+
+    private static PendingIntent wakeupIntent(Context context, long start, long end) {
+        Intent intent = new Intent(context, ReminderReceiver.class);
+        intent.setAction(ACTION_REMINDER);
+        intent.putExtra("groupStart", start);
+        intent.putExtra("groupEnd", end);
+        return PendingIntent.getBroadcast(
+            context,
+            REQUEST_CODE,
+            intent,
+            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+        );
+    }
+
+    private static void notify(Context context, List<String> lines) {
+        NotificationManager notificationManager =
+            (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+        if (notificationManager == null) return;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            NotificationChannel channel = new NotificationChannel(
+                CHANNEL_ID,
+                "Prayer Reminders",
+                NotificationManager.IMPORTANCE_DEFAULT
+            );
+            channel.setDescription("Reminders before prayers and at iqamah");
+            notificationManager.createNotificationChannel(channel);
+        }
+
+        Intent openIntent = new Intent(context, MainActivity.class);
+        openIntent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP);
+        PendingIntent contentIntent = PendingIntent.getActivity(
+            context,
+            0,
+            openIntent,
+            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+        );
+
+        StringBuilder text = new StringBuilder();
+        for (String line : lines) {
+            if (text.length() > 0) text.append(" · ");
+            text.append(line);
+        }
+        Notification notification = new NotificationCompat.Builder(context, CHANNEL_ID)
+            .setSmallIcon(android.R.drawable.ic_lock_idle_alarm)
+            .setContentTitle("Prayer reminder")
+            .setContentText(text.toString())
+            .setPriority(NotificationCompat.PRIORITY_DEFAULT)
+            .setCategory(NotificationCompat.CATEGORY_REMINDER)
+            .setAutoCancel(true)
+            .setContentIntent(contentIntent)
+            .build();
+        notificationManager.notify(NOTIFICATION_ID, notification);
+    }
+}
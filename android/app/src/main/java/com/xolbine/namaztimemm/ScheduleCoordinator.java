@@ -0,0 +1,153 @@
+package com.xolbine.namaztimemm;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single entry point for web-initiated alarm scheduling.
+ *
+ * Callers save their inputs first (the latest always wins) and then call
+ * {@link #request()}. Requests within {@link #DEBOUNCE_MS} of each other
+ * collapse into one run, but a steady stream of requests can't hold it off
+ * for more than {@link #MAX_WAIT_MS} after the first. Runs execute one at a
+ * time on the {@link Scheduler}, so at most one is ever in flight. A request that arrives during a run queues a fresh run,
+ * which reads whatever inputs are current by then.
+ */
+public final class ScheduleCoordinator {
+    private static final String TAG = "ScheduleCoordinator";
+    static final long DEBOUNCE_MS = 750;
+    static final long MAX_WAIT_MS = 5000;
+
+    interface Run {
+        /** @param requests how many requests this run covers */
+        void run(int requests);
+    }
+
+    /** Time source and delayed execution; tests substitute a manual clock. */
+    interface Scheduler {
+        long nanoTime();
+
+        /** Runs {@code task} after {@code delayMs}, one task at a time. */
+        Future<?> schedule(Runnable task, long delayMs);
+    }
+
+    private static final class ExecutorScheduler implements Scheduler {
+        private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "ScheduleCoordinator");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+
+        @Override
+        public Future<?> schedule(Runnable task, long delayMs) {
+            return executor.schedule(task, delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static ScheduleCoordinator instance;
+
+    private final long debounceMs;
+    private final long maxWaitMs;
+    private final Scheduler scheduler;
+    private final Run run;
+
+    private Future<?> pending;
+    private int queued;
+    private long firstQueuedNanos; // when the oldest queued request arrived
+    private long requests;
+    private long runs;
+    private long collapsed;
+
+    private final Runnable flush = new Runnable() {
+        @Override
+        public void run() {
+            int count;
+            synchronized (ScheduleCoordinator.this) {
+                count = queued;
+                queued = 0;
+                pending = null;
+                if (count == 0) {
+                    return;
+                }
+                runs++;
+                collapsed += count - 1;
+            }
+            try {
+                run.run(count);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Error in scheduling run: " + e.getMessage());
+            }
+        }
+    };
+
+    public static synchronized ScheduleCoordinator getInstance(Context context) {
+        if (instance == null) {
+            final Context appContext = context.getApplicationContext();
+            instance = new ScheduleCoordinator(DEBOUNCE_MS, MAX_WAIT_MS, new Run() {
+                @Override
+                public void run(int requests) {
+                    AlarmReconciler.reconcile(appContext, requests + " schedule request(s)", false);
+                }
+            });
+        }
+        return instance;
+    }
+
+    ScheduleCoordinator(long debounceMs, long maxWaitMs, Run run) {
+        this(debounceMs, maxWaitMs, new ExecutorScheduler(), run);
+    }
+
+    ScheduleCoordinator(long debounceMs, long maxWaitMs, Scheduler scheduler, Run run) {
+        this.debounceMs = debounceMs;
+        this.maxWaitMs = maxWaitMs;
+        this.scheduler = scheduler;
+        this.run = run;
+    }
+
+    /**
+     * Queues a run after the debounce window, or sooner when the oldest queued
+     * request has waited close to the maximum; returns how many requests it
+     * now covers.
+     */
+    public synchronized int request() {
+        long now = scheduler.nanoTime();
+        requests++;
+        if (queued++ == 0) {
+            firstQueuedNanos = now;
+        }
+        if (pending != null) {
+            pending.cancel(false);
+        }
+        long deadlineMs = maxWaitMs - TimeUnit.NANOSECONDS.toMillis(now - firstQueuedNanos);
+        pending = scheduler.schedule(flush, Math.max(0, Math.min(debounceMs, deadlineMs)));
+        return queued;
+    }
+
+    public synchronized long requests() {
+        return requests;
+    }
+
+    public synchronized long runs() {
+        return runs;
+    }
+
+    /** Requests absorbed into another request's run. */
+    public synchronized long collapsed() {
+        return collapsed;
+    }
+}
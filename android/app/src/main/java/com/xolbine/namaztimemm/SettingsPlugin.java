@@ -0,0 +1,90 @@
+package com.xolbine.namaztimemm;
+
+import com.getcapacitor.JSArray;
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * SettingsStore for the web UI: read everything, write a batch, and hear
+ * about changes as "settingsChanged" events.
+ */
+@CapacitorPlugin(name = "Settings")
+public class SettingsPlugin extends Plugin {
+    private SettingsStore store;
+
+    private final SettingsStore.Listener listener = new SettingsStore.Listener() {
+        @Override
+        public void onSettingsChanged(Set<String> keys) {
+            Map<String, Object> current = store.snapshot();
+            JSObject values = new JSObject();
+            JSArray changed = new JSArray();
+            for (String key : keys) {
+                changed.put(key);
+                values.put(key, current.get(key));
+            }
+            JSObject ret = new JSObject();
+            ret.put("keys", changed);
+            ret.put("values", values);
+            notifyListeners("settingsChanged", ret);
+
+            // The widget computes with these; the rest only matter when an alarm fires
+            if (keys.contains(SettingsStore.METHOD.name) || keys.contains(SettingsStore.ASR_SHADOW.name)
+                || keys.contains(SettingsStore.HIJRI_OFFSET.name) || keys.contains(SettingsStore.LANGUAGE.name)) {
+                PrayerWidgetProvider.refreshAll(getContext());
+            }
+        }
+    };
+
+    @Override
+    public void load() {
+        store = SettingsStore.getInstance(getContext());
+        store.addListener(listener);
+    }
+
+    @Override
+    protected void handleOnDestroy() {
+        store.removeListener(listener);
+        super.handleOnDestroy();
+    }
+
+    @PluginMethod
+    public void getAll(PluginCall call) {
+        JSObject values = new JSObject();
+        for (Map.Entry<String, Object> e : store.snapshot().entrySet()) {
+            values.put(e.getKey(), e.getValue());
+        }
+        JSObject ret = new JSObject();
+        ret.put("values", values);
+        call.resolve(ret);
+    }
+
+    /** Applies every entry of values as one batch; an unknown key or wrong type rejects the whole call. */
+    @PluginMethod
+    public void set(PluginCall call) {
+        JSObject values = call.getObject("values", new JSObject());
+        try {
+            SettingsStore.Batch batch = store.edit();
+            Iterator<String> keys = values.keys();
+            while (keys.hasNext()) {
+                String key = keys.next();
+                batch.putValue(key, values.opt(key));
+            }
+            JSArray changed = new JSArray();
+            for (String key : batch.commit()) {
+                changed.put(key);
+            }
+            JSObject ret = new JSObject();
+            ret.put("changed", changed);
+            call.resolve(ret);
+        } catch (IllegalArgumentException e) {
+            call.reject("Error saving settings: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.xolbine.namaztimemm;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Native home of the user settings the web UI edits (lib/storage.ts), with
+ * typed keys, so receivers, services and widgets can read them without the
+ * WebView.
+ *
+ * Values are loaded from SharedPreferences once and then served from an
+ * immutable in-memory snapshot, so reads take no lock and do no I/O. Writes
+ * go through a {@link Batch}: the whole batch is swapped in and persisted as
+ * one SharedPreferences edit, and listeners hear once per batch with the keys
+ * that actually changed. Key names are the JS field names; per-prayer
+ * settings use "field.prayer", e.g. "prayerSound.fajr".
+ */
+public final class SettingsStore {
+    private static final String TAG = "SettingsStore";
+    // Shared with what PrayerSettings wrote before this store existed, so those values carry over
+    private static final String PREFS_NAME = "prayer_settings";
+
+    enum Type { INT, BOOLEAN, STRING }
+
+    public static final class Key<T> {
+        public final String name;
+        final Type type;
+        final T defaultValue;
+
+        private Key(String name, Type type, T defaultValue) {
+            this.name = name;
+            this.type = type;
+            this.defaultValue = defaultValue;
+        }
+
+        /** Converts a JS value to this key's type; numbers from the bridge arrive as Integer or Double. */
+        Object coerce(Object value) {
+            switch (type) {
+                case INT:
+                    if (value instanceof Number) return ((Number) value).intValue();
+                    break;
+                case BOOLEAN:
+                    if (value instanceof Boolean) return value;
+                    break;
+                case STRING:
+                    if (value instanceof String) return value;
+                    break;
+            }
+            throw new IllegalArgumentException(name + " expects " + type.name().toLowerCase() + ", got " + value);
+        }
+    }
+
+    public interface Listener {
+        void onSettingsChanged(Set<String> keys);
+    }
+
+    /** Where a store keeps its values between processes. */
+    interface Backing {
+        Map<String, ?> load();
+        void write(Map<String, Object> changes);
+    }
+
+    public static final Key<Integer> METHOD = new Key<>("method", Type.INT, 0); // UserSettings.method index
+    public static final Key<Integer> ASR_SHADOW = new Key<>("asrShadow", Type.INT, 2);
+    public static final Key<Integer> HIJRI_OFFSET = new Key<>("hijriOffset", Type.INT, 0);
+    public static final Key<String> LANGUAGE = new Key<>("language", Type.STRING, "my");
+
+    /** Indexed like AlarmReconciler.ALARM_PRAYERS. */
+    public static final List<Key<Boolean>> PRAYER_SOUND = new ArrayList<>();
+    public static final List<Key<String>> DELIVERY_TIER = new ArrayList<>();
+
+    private static final Map<String, Key<?>> KEYS = new LinkedHashMap<>();
+
+    static {
+        for (String prayer : AlarmReconciler.ALARM_PRAYERS) {
+            PRAYER_SOUND.add(new Key<>("prayerSound." + prayer, Type.BOOLEAN, true));
+            DELIVERY_TIER.add(new Key<>("deliveryTier." + prayer, Type.STRING, DeliveryTier.FULL.jsName));
+        }
+        register(METHOD);
+        register(ASR_SHADOW);
+        register(HIJRI_OFFSET);
+        register(LANGUAGE);
+        for (Key<Boolean> key : PRAYER_SOUND) register(key);
+        for (Key<String> key : DELIVERY_TIER) register(key);
+    }
+
+    private static void register(Key<?> key) {
+        KEYS.put(key.name, key);
+    }
+
+    static Key<?> key(String name) {
+        return KEYS.get(name);
+    }
+
+    static Iterable<Key<?>> keys() {
+        return KEYS.values();
+    }
+
+    private static SettingsStore instance;
+
+    private final Backing backing;
+    private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile Map<String, Object> values;
+    // Stored values that no longer fit their key, reported by getInstance
+    final List<String> droppedOnLoad = new ArrayList<>();
+
+    public static synchronized SettingsStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new SettingsStore(prefsBacking(context.getApplicationContext()
+                .getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)));
+            for (String dropped : instance.droppedOnLoad) {
+                Log.w(TAG, "Dropping stored " + dropped);
+            }
+        }
+        return instance;
+    }
+
+    SettingsStore(Backing backing) {
+        this.backing = backing;
+        Map<String, Object> loaded = new HashMap<>();
+        for (Map.Entry<String, ?> e : backing.load().entrySet()) {
+            Key<?> key = KEYS.get(e.getKey());
+            if (key == null || e.getValue() == null) continue;
+            try {
+                loaded.put(key.name, key.coerce(e.getValue()));
+            } catch (IllegalArgumentException ex) {
+                droppedOnLoad.add(ex.getMessage());
+            }
+        }
+        values = Collections.unmodifiableMap(loaded);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(Key<T> key) {
+        Object value = values.get(key.name);
+        return value != null ? (T) value : key.defaultValue;
+    }
+
+    /** Every key with its current or default value. */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> current = values;
+        Map<String, Object> all = new LinkedHashMap<>();
+        for (Key<?> key : KEYS.values()) {
+            Object value = current.get(key.name);
+            all.put(key.name, value != null ? value : key.defaultValue);
+        }
+        return all;
+    }
+
+    public Batch edit() {
+        return new Batch();
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /** Changes applied together by {@link #commit()}; nothing is visible before then. */
+    public final class Batch {
+        private final Map<String, Object> changes = new LinkedHashMap<>();
+
+        private Batch() {}
+
+        /** Throws IllegalArgumentException on null; put the key's default to reset it. */
+        public <T> Batch put(Key<T> key, T value) {
+            if (value == null) {
+                throw new IllegalArgumentException(key.name + " can't be null");
+            }
+            changes.put(key.name, value);
+            return this;
+        }
+
+        /** Untyped put for values from JS; throws IllegalArgumentException on an unknown key or wrong type. */
+        Batch putValue(String name, Object value) {
+            Key<?> key = KEYS.get(name);
+            if (key == null) {
+                throw new IllegalArgumentException("Unknown setting " + name);
+            }
+            changes.put(name, key.coerce(value));
+            return this;
+        }
+
+        /** @return the keys whose value changed */
+        public Set<String> commit() {
+            Set<String> changed = new LinkedHashSet<>();
+            Map<String, Object> written = new LinkedHashMap<>();
+            synchronized (SettingsStore.this) {
+                Map<String, Object> next = new HashMap<>(values);
+                for (Map.Entry<String, Object> e : changes.entrySet()) {
+                    Object before = next.containsKey(e.getKey()) ? next.get(e.getKey()) : KEYS.get(e.getKey()).defaultValue;
+                    if (!e.getValue().equals(before)) {
+                        changed.add(e.getKey());
+                    }
+                    if (!e.getValue().equals(next.get(e.getKey()))) {
+                        written.put(e.getKey(), e.getValue());
+                        next.put(e.getKey(), e.getValue());
+                    }
+                }
+                if (written.isEmpty()) {
+                    return changed;
+                }
+                values = Collections.unmodifiableMap(next);
+                backing.write(written);
+            }
+            if (!changed.isEmpty()) {
+                for (Listener listener : listeners) {
+                    listener.onSettingsChanged(changed);
+                }
+            }
+            return changed;
+        }
+    }
+
+    private static Backing prefsBacking(final SharedPreferences prefs) {
+        return new Backing() {
+            @Override
+            public Map<String, ?> load() {
+                return prefs.getAll();
+            }
+
+            @Override
+            public void write(Map<String, Object> changes) {
+                SharedPreferences.Editor editor = prefs.edit();
+                for (Map.Entry<String, Object> e : changes.entrySet()) {
+                    Object value = e.getValue();
+                    if (value instanceof Integer) {
+                        editor.putInt(e.getKey(), (Integer) value);
+                    } else if (value instanceof Boolean) {
+                        editor.putBoolean(e.getKey(), (Boolean) value);
+                    } else {
+                        editor.putString(e.getKey(), (String) value);
+                    }
+                }
+                // One edit, so a batch lands on disk all or nothing
+                editor.apply();
+            }
+        };
+    }
+}
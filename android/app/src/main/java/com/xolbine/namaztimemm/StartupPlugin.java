@@ -0,0 +1,41 @@
+package com.xolbine.namaztimemm;
+
+import com.getcapacitor.JSObject;
+import com.getcapacitor.Plugin;
+import com.getcapacitor.PluginCall;
+import com.getcapacitor.PluginMethod;
+import com.getcapacitor.annotation.CapacitorPlugin;
+
+import java.util.Map;
+
+/**
+ * Cold-start handshake with the web UI.
+ */
+@CapacitorPlugin(name = "Startup")
+public class StartupPlugin extends Plugin {
+
+    /** Called once the web UI has rendered times; removes the native first frame. */
+    @PluginMethod
+    public void ready(PluginCall call) {
+        StartupTimer.mark(StartupTimer.WEB_READY);
+        if (getActivity() instanceof MainActivity) {
+            final MainActivity activity = (MainActivity) getActivity();
+            activity.runOnUiThread(new Runnable() {
+                @Override
+                public void run() {
+                    activity.dismissFirstFrame();
+                }
+            });
+        }
+        call.resolve();
+    }
+
+    @PluginMethod
+    public void getTimings(PluginCall call) {
+        JSObject ret = new JSObject();
+        for (Map.Entry<String, Long> mark : StartupTimer.snapshot().entrySet()) {
+            ret.put(mark.getKey(), mark.getValue());
+        }
+        call.resolve(ret);
+    }
+}
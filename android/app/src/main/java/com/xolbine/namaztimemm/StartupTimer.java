@@ -0,0 +1,48 @@
+package com.xolbine.namaztimemm;
+
+import android.os.Build;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cold-start milestones in milliseconds since process start.
+ * Each milestone is recorded once per process.
+ */
+public final class StartupTimer {
+    private static final String TAG = "StartupTimer";
+
+    public static final String ACTIVITY_CREATE = "activity_create";
+    public static final String FIRST_FRAME_COMPUTED = "first_frame_computed";
+    public static final String FIRST_FRAME_DRAWN = "first_frame_drawn";
+    public static final String WEBVIEW_PAGE_LOADED = "webview_page_loaded";
+    public static final String WEB_READY = "web_ready";
+    public static final String OVERLAY_DISMISSED = "overlay_dismissed";
+    public static final String ALARM_UI_CREATE = "alarm_ui_create";
+    public static final String ALARM_UI_DRAWN = "alarm_ui_drawn";
+
+    private static final Map<String, Long> marks = new LinkedHashMap<>();
+    private static long origin = -1;
+
+    private StartupTimer() {}
+
+    public static synchronized void mark(String name) {
+        long now = SystemClock.uptimeMillis();
+        if (origin < 0) {
+            // Before API 24 there is no process start time; the first mark becomes zero
+            origin = Build.VERSION.SDK_INT >= Build.VERSION_CODES.N ? Process.getStartUptimeMillis() : now;
+        }
+        if (marks.containsKey(name)) {
+            return;
+        }
+        marks.put(name, now - origin);
+        Log.i(TAG, "⏱️ " + name + " at +" + (now - origin) + "ms");
+    }
+
+    public static synchronized Map<String, Long> snapshot() {
+        return new LinkedHashMap<>(marks);
+    }
+}
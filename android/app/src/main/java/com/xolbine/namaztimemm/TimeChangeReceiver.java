@@ -0,0 +1,52 @@
+package com.xolbine.namaztimemm;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.util.Log;
+
+/**
+ * Reconciles adhan alarms when wall-clock time jumps: a manual clock change, a
+ * timezone change (e.g. after a flight) or a new day. Exported for the system
+ * broadcasts only; the daily check goes to {@link DailyReconcileReceiver}.
+ */
+public class TimeChangeReceiver extends BroadcastReceiver {
+    private static final String TAG = "TimeChangeReceiver";
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        String action = intent.getAction();
+        if (!Intent.ACTION_TIME_CHANGED.equals(action)
+                && !Intent.ACTION_TIMEZONE_CHANGED.equals(action)
+                && !Intent.ACTION_DATE_CHANGED.equals(action)) {
+            return;
+        }
+        Log.i(TAG, "🕐 " + action);
+        reconcileAsync(this, context, action, false);
+    }
+
+    /**
+     * Runs the reconcile and widget refresh on a background thread, keeping the
+     * broadcast alive until they finish. reconcile() is synchronized and may
+     * wait behind another pass, which must not happen on the main thread.
+     * armedLost is true when the system dropped every alarm (boot, app update).
+     */
+    static void reconcileAsync(BroadcastReceiver receiver, Context context, final String action,
+                               final boolean armedLost) {
+        final BroadcastReceiver.PendingResult result = receiver.goAsync();
+        final Context appContext = context.getApplicationContext();
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    AlarmReconciler.reconcile(appContext, action, armedLost);
+                    PrayerWidgetProvider.refreshAll(appContext);
+                } catch (Exception e) {
+                    Log.e(TAG, "Error reconciling after " + action + ": " + e.getMessage());
+                } finally {
+                    result.finish();
+                }
+            }
+        }, TAG).start();
+    }
+}
@@ -0,0 +1,57 @@
+package com.xolbine.namaztimemm;
+
+/**
+ * Consecutive-day prayer times in structure-of-arrays form.
+ * One primitive short[] of minutes-after-midnight per prayer, indexed by day,
+ * so a whole year is seven small arrays instead of thousands of objects.
+ */
+public final class Timetable {
+    private final int startEpochDay;
+    private final int days;
+    final short[][] minutes;
+
+    Timetable(int startEpochDay, int days) {
+        this.startEpochDay = startEpochDay;
+        this.days = days;
+        this.minutes = new short[PrayerTimeEngine.PRAYER_COUNT][days];
+    }
+
+    /** Wraps existing columns; columns may be shared with other timetables. */
+    Timetable(int startEpochDay, int days, short[][] minutes) {
+        this.startEpochDay = startEpochDay;
+        this.days = days;
+        this.minutes = minutes;
+    }
+
+    public int getStartEpochDay() {
+        return startEpochDay;
+    }
+
+    public int size() {
+        return days;
+    }
+
+    /** Minutes after midnight for a prayer (PrayerTimeEngine.FAJR..ISHA) on day index 0..size()-1. */
+    public int getMinutes(int prayer, int dayIndex) {
+        return minutes[prayer][dayIndex];
+    }
+
+    /** Direct access to one prayer's column; callers must not modify it. */
+    public short[] column(int prayer) {
+        return minutes[prayer];
+    }
+
+    /**
+     * Copy with a per-day minute offset added, wrapped to 0..1439. Used to turn a
+     * UTC timetable into local time when the UTC offset changes during the range (DST).
+     */
+    public Timetable withDailyOffsets(int[] offsetMinutes) {
+        Timetable shifted = new Timetable(startEpochDay, days);
+        for (int p = 0; p < minutes.length; p++) {
+            for (int d = 0; d < days; d++) {
+                shifted.minutes[p][d] = (short) Math.floorMod(minutes[p][d] + offsetMinutes[d], 1440);
+            }
+        }
+        return shifted;
+    }
+}
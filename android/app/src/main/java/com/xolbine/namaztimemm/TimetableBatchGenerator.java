@@ -0,0 +1,297 @@
+package com.xolbine.namaztimemm;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Builds printed-timetable data for every (city x method x asrSchool x day) cell
+ * on a fork-join pool and writes it as one compact indexed file, for the
+ * published monthly timetables. Runs from the compiled classes without an
+ * Android runtime, see {@link #main(String[])}.
+ *
+ * File layout (big endian):
+ *   int magic "NTTB", int version, int startEpochDay, int days,
+ *   int cityCount, int methodCount, int schoolCount, int prayerCount,
+ *   cities (UTF name, UTF slug, float lat, float lng, float tz),
+ *   methods (UTF name), schools (byte), long dataOffset,
+ *   then shorts of minutes-after-midnight laid out as
+ *   [city][method][school][prayer][day] so any cell is found by arithmetic.
+ */
+public final class TimetableBatchGenerator {
+    private static final int MAGIC = 0x4E545442; // "NTTB"
+    private static final int VERSION = 1;
+    private static final int PRAYERS = PrayerTimeEngine.PRAYER_COUNT;
+
+    // Leaf size: one city for up to a month of days
+    private static final int DAYS_PER_TASK = 31;
+
+    private final Cities.City[] cities;
+    private final PrayerTimeEngine.CalcMethod[] methods;
+    private final int[] schools;
+    private final int startEpochDay;
+    private final int days;
+    private final int chunksPerSeries;
+    private final short[] data;
+
+    public static final class Result {
+        public final long cells;
+        public final long elapsedNanos;
+
+        Result(long cells, long elapsedNanos) {
+            this.cells = cells;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public double cellsPerSecond() {
+            return cells / (elapsedNanos / 1e9);
+        }
+    }
+
+    public TimetableBatchGenerator(Cities.City[] cities, PrayerTimeEngine.CalcMethod[] methods, int[] schools,
+                                   int year, int month, int day, int days) {
+        if (days <= 0) {
+            throw new IllegalArgumentException("days must be positive");
+        }
+        this.cities = cities;
+        this.methods = methods;
+        this.schools = schools;
+        this.startEpochDay = PrayerTimeEngine.epochDay(year, month, day);
+        this.days = days;
+        this.chunksPerSeries = (days + DAYS_PER_TASK - 1) / DAYS_PER_TASK;
+
+        long total = (long) seriesCount() * PRAYERS * days;
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Grid too large: " + total + " values");
+        }
+        this.data = new short[(int) total];
+    }
+
+    /** Publishes all cities under every method and both Asr schools. */
+    public static TimetableBatchGenerator forAllCities(int year, int month, int day, int days) {
+        return new TimetableBatchGenerator(Cities.ALL, MultiMethodTimetable.PUBLISHED_METHODS,
+            MultiMethodTimetable.ASR_SCHOOLS, year, month, day, days);
+    }
+
+    public int seriesCount() {
+        return cities.length * methods.length * schools.length;
+    }
+
+    /** Number of (city, method, school, day) rows in the grid. */
+    public long cellCount() {
+        return (long) seriesCount() * days;
+    }
+
+    public Result generate() {
+        return generate(ForkJoinPool.commonPool());
+    }
+
+    public Result generate(ForkJoinPool pool) {
+        long start = System.nanoTime();
+        pool.invoke(new GridTask(0, cities.length * chunksPerSeries));
+        return new Result(cellCount(), System.nanoTime() - start);
+    }
+
+    private final class GridTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        GridTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                for (int unit = from; unit < to; unit++) {
+                    computeUnit(unit);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new GridTask(from, mid), new GridTask(mid, to));
+        }
+    }
+
+    private void computeUnit(int unit) {
+        int city = unit / chunksPerSeries;
+        int chunk = unit % chunksPerSeries;
+        int firstDay = chunk * DAYS_PER_TASK;
+        int count = Math.min(DAYS_PER_TASK, days - firstDay);
+
+        // All methods and schools of a city share sunrise/sunset/Asr work, so one unit covers them
+        Cities.City c = cities[city];
+        int[] civil = PrayerTimeEngine.civilFromEpochDay(startEpochDay + firstDay);
+        MultiMethodTimetable all = PrayerTimeEngine.computeDaysAllMethods(
+            c.lat, c.lng, c.timezone, civil[0], civil[1], civil[2], count,
+            PrayerTimeEngine.HighLatRule.MIDDLE_OF_NIGHT, null, 0
+        );
+
+        for (int method = 0; method < methods.length; method++) {
+            for (int school = 0; school < schools.length; school++) {
+                Timetable table = all.get(methods[method], schools[school]);
+                int series = (city * methods.length + method) * schools.length + school;
+
+                // Each unit owns a disjoint slice of every prayer row, so no locking is needed
+                for (int p = 0; p < PRAYERS; p++) {
+                    int base = (series * PRAYERS + p) * days + firstDay;
+                    System.arraycopy(table.column(p), 0, data, base, count);
+                }
+            }
+        }
+    }
+
+    /**
+     * Usage: TimetableBatchGenerator year days out.bin [threads]. Generates
+     * every city under every published method and Asr school from 1 January
+     * of {@code year} and prints the row rate.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: TimetableBatchGenerator year days out.bin [threads]");
+            System.exit(2);
+        }
+        int year = Integer.parseInt(args[0]);
+        int days = Integer.parseInt(args[1]);
+        File out = new File(args[2]);
+        ForkJoinPool pool = args.length > 3 ? new ForkJoinPool(Integer.parseInt(args[3])) : ForkJoinPool.commonPool();
+
+        TimetableBatchGenerator generator = forAllCities(year, 1, 1, days);
+        Result result = generator.generate(pool);
+        generator.writeTo(out);
+        System.out.printf("%d rows on %d threads in %.1f ms (%.0f rows/s), wrote %s%n",
+            result.cells, pool.getParallelism(), result.elapsedNanos / 1e6, result.cellsPerSecond(), out);
+    }
+
+    public int getMinutes(int city, int method, int school, int dayIndex, int prayer) {
+        int series = (city * methods.length + method) * schools.length + school;
+        return data[(series * PRAYERS + prayer) * days + dayIndex];
+    }
+
+    public void writeTo(File file) throws IOException {
+        ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+        DataOutputStream header = new DataOutputStream(headerBytes);
+        header.writeInt(MAGIC);
+        header.writeInt(VERSION);
+        header.writeInt(startEpochDay);
+        header.writeInt(days);
+        header.writeInt(cities.length);
+        header.writeInt(methods.length);
+        header.writeInt(schools.length);
+        header.writeInt(PRAYERS);
+        for (Cities.City c : cities) {
+            header.writeUTF(c.name);
+            header.writeUTF(c.slug);
+            header.writeFloat((float) c.lat);
+            header.writeFloat((float) c.lng);
+            header.writeFloat((float) c.timezone);
+        }
+        for (PrayerTimeEngine.CalcMethod m : methods) {
+            header.writeUTF(m.jsName);
+        }
+        for (int s : schools) {
+            header.writeByte(s);
+        }
+        header.flush();
+
+        long dataOffset = headerBytes.size() + 8;
+        header.writeLong(dataOffset);
+        header.flush();
+
+        ByteBuffer body = ByteBuffer.allocate(data.length * 2);
+        body.asShortBuffer().put(data);
+
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(headerBytes.toByteArray());
+            out.write(body.array());
+        }
+    }
+
+    /**
+     * Random-access reader for files written by {@link #writeTo(File)}.
+     * The day data is memory-mapped, so opening a multi-year file costs only the header.
+     */
+    public static final class Reader {
+        public final int startEpochDay;
+        public final int days;
+        public final String[] citySlugs;
+        public final String[] methodNames;
+        public final int[] schools;
+        private final ShortBuffer minutes;
+
+        private Reader(int startEpochDay, int days, String[] citySlugs, String[] methodNames,
+                       int[] schools, ShortBuffer minutes) {
+            this.startEpochDay = startEpochDay;
+            this.days = days;
+            this.citySlugs = citySlugs;
+            this.methodNames = methodNames;
+            this.schools = schools;
+            this.minutes = minutes;
+        }
+
+        public static Reader open(File file) throws IOException {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+                 RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+                if (in.readInt() != MAGIC) {
+                    throw new IOException("Not a timetable file: " + file);
+                }
+                int version = in.readInt();
+                if (version != VERSION) {
+                    throw new IOException("Unsupported timetable version " + version);
+                }
+                int startEpochDay = in.readInt();
+                int days = in.readInt();
+                int cityCount = in.readInt();
+                int methodCount = in.readInt();
+                int schoolCount = in.readInt();
+                int prayerCount = in.readInt();
+                if (prayerCount != PRAYERS) {
+                    throw new IOException("Unexpected prayer count " + prayerCount);
+                }
+
+                String[] slugs = new String[cityCount];
+                for (int i = 0; i < cityCount; i++) {
+                    in.readUTF();
+                    slugs[i] = in.readUTF();
+                    in.readFloat();
+                    in.readFloat();
+                    in.readFloat();
+                }
+                String[] methodNames = new String[methodCount];
+                for (int i = 0; i < methodCount; i++) {
+                    methodNames[i] = in.readUTF();
+                }
+                int[] schools = new int[schoolCount];
+                for (int i = 0; i < schoolCount; i++) {
+                    schools[i] = in.readByte();
+                }
+                long dataOffset = in.readLong();
+
+                long size = (long) cityCount * methodCount * schoolCount * PRAYERS * days * 2;
+                ShortBuffer minutes = raf.getChannel()
+                    .map(FileChannel.MapMode.READ_ONLY, dataOffset, size)
+                    .asShortBuffer();
+                return new Reader(startEpochDay, days, slugs, methodNames, schools, minutes);
+            }
+        }
+
+        public int getMinutes(int city, int method, int school, int dayIndex, int prayer) {
+            int series = (city * methodNames.length + method) * schools.length + school;
+            return minutes.get((series * PRAYERS + prayer) * days + dayIndex);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.xolbine.namaztimemm;
+
+import android.database.AbstractCursor;
+
+import java.time.LocalDate;
+
+/**
+ * Cursor over a {@link TimetableWindows.Range}: one row per day, values read
+ * from the cached window on access, so a year query never holds a year of
+ * rows. Prayer columns are local minutes after midnight.
+ */
+final class TimetableCursor extends AbstractCursor {
+    static final String COLUMN_ID = "_id";
+    static final String COLUMN_EPOCH_DAY = "epoch_day";
+    static final String COLUMN_DATE = "date";
+    static final String COLUMN_UTC_OFFSET = "utc_offset";
+
+    // Column ids below PRAYER_BASE are the fixed columns, PRAYER_BASE + p the prayer columns
+    private static final int ID = 0;
+    private static final int EPOCH_DAY = 1;
+    private static final int DATE = 2;
+    private static final int UTC_OFFSET = 3;
+    private static final int PRAYER_BASE = 4;
+
+    private final TimetableWindows.Range range;
+    private final String[] columnNames;
+    private final int[] columns;
+
+    /** @param projection column names, or null for every column */
+    TimetableCursor(TimetableWindows.Range range, String[] projection) {
+        this.range = range;
+        this.columnNames = projection != null ? projection.clone() : allColumns();
+        this.columns = new int[columnNames.length];
+        for (int i = 0; i < columnNames.length; i++) {
+            columns[i] = columnId(columnNames[i]);
+        }
+    }
+
+    static String[] allColumns() {
+        String[] all = new String[PRAYER_BASE + PrayerTimeEngine.PRAYER_COUNT];
+        all[ID] = COLUMN_ID;
+        all[EPOCH_DAY] = COLUMN_EPOCH_DAY;
+        all[DATE] = COLUMN_DATE;
+        all[UTC_OFFSET] = COLUMN_UTC_OFFSET;
+        System.arraycopy(PrayerTimeEngine.PRAYER_KEYS, 0, all, PRAYER_BASE, PrayerTimeEngine.PRAYER_COUNT);
+        return all;
+    }
+
+    private static int columnId(String name) {
+        String[] all = allColumns();
+        for (int i = 0; i < all.length; i++) {
+            if (all[i].equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown column " + name);
+    }
+
+    @Override
+    public int getCount() {
+        return range.getCount();
+    }
+
+    @Override
+    public String[] getColumnNames() {
+        return columnNames;
+    }
+
+    @Override
+    public boolean onMove(int oldPosition, int newPosition) {
+        range.moveTo(newPosition);
+        return true;
+    }
+
+    @Override
+    public String getString(int column) {
+        if (columns[column] == DATE) {
+            // ISO yyyy-MM-dd in ASCII digits whatever the default locale
+            return LocalDate.ofEpochDay(range.epochDay()).toString();
+        }
+        return Long.toString(getLong(column));
+    }
+
+    @Override
+    public long getLong(int column) {
+        switch (columns[column]) {
+            case ID:
+            case EPOCH_DAY:
+                return range.epochDay();
+            case DATE:
+                throw new IllegalArgumentException("date is a string column");
+            case UTC_OFFSET:
+                return range.offsetMinutes();
+            default:
+                return range.minutes(columns[column] - PRAYER_BASE);
+        }
+    }
+
+    @Override
+    public int getInt(int column) {
+        return (int) getLong(column);
+    }
+
+    @Override
+    public short getShort(int column) {
+        return (short) getLong(column);
+    }
+
+    @Override
+    public float getFloat(int column) {
+        return getLong(column);
+    }
+
+    @Override
+    public double getDouble(int column) {
+        return getLong(column);
+    }
+
+    @Override
+    public boolean isNull(int column) {
+        return false;
+    }
+
+    @Override
+    public int getType(int column) {
+        return columns[column] == DATE ? FIELD_TYPE_STRING : FIELD_TYPE_INTEGER;
+    }
+}
@@ -0,0 +1,135 @@
+package com.xolbine.namaztimemm;
+
+import android.content.ContentProvider;
+import android.content.ContentValues;
+import android.content.UriMatcher;
+import android.database.Cursor;
+import android.location.Location;
+import android.net.Uri;
+import android.util.Log;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Read-only prayer timetable for surfaces outside the WebView: widgets and
+ * companion apps signed with the same key.
+ *
+ *   content://com.xolbine.namaztimemm.timetable/timetable
+ *       ?start=2026-03-01&days=31&lat=16.87&lng=96.20
+ *       &method=Karachi&asrSchool=2&hijriOffset=0&zoneId=Asia/Yangon
+ *
+ * Every parameter is optional. Location defaults to the last saved one,
+ * calculation settings to SettingsStore, zone to the device zone,
+ * start to today there and days to 1. The projection picks columns from
+ * {@link TimetableCursor#allColumns()}, e.g. {"date", "fajr", "maghrib"}.
+ * Selection and sort order are ignored: rows are always days in order.
+ */
+public class TimetableProvider extends ContentProvider {
+    private static final String TAG = "TimetableProvider";
+    public static final String AUTHORITY = "com.xolbine.namaztimemm.timetable";
+    private static final int TIMETABLE = 1;
+    private static final int MAX_DAYS = 366 * 5;
+
+    private static final UriMatcher MATCHER = new UriMatcher(UriMatcher.NO_MATCH);
+
+    static {
+        MATCHER.addURI(AUTHORITY, "timetable", TIMETABLE);
+    }
+
+    @Override
+    public boolean onCreate() {
+        // Everything is loaded on first query, off the app's startup path
+        return true;
+    }
+
+    @Override
+    public Cursor query(Uri uri, String[] projection, String selection, String[] selectionArgs, String sortOrder) {
+        if (MATCHER.match(uri) != TIMETABLE) {
+            throw new IllegalArgumentException("Unknown URI " + uri);
+        }
+
+        double lat;
+        double lng;
+        String latParam = uri.getQueryParameter("lat");
+        String lngParam = uri.getQueryParameter("lng");
+        if (latParam != null && lngParam != null) {
+            lat = Double.parseDouble(latParam);
+            lng = Double.parseDouble(lngParam);
+        } else {
+            Location location = LastLocationStore.load(getContext());
+            if (location == null) {
+                Log.w(TAG, "No location saved, returning no rows");
+                return null;
+            }
+            lat = location.getLatitude();
+            lng = location.getLongitude();
+        }
+
+        PrayerSettings settings = PrayerSettings.load(getContext());
+        String methodParam = uri.getQueryParameter("method");
+        PrayerTimeEngine.CalcMethod method = methodParam != null
+            ? PrayerTimeEngine.CalcMethod.fromName(methodParam) : settings.calcMethod();
+        int asrSchool = intParam(uri, "asrSchool", settings.asrSchool);
+        int hijriOffset = intParam(uri, "hijriOffset", settings.hijriOffset);
+
+        TimezoneResolver resolver = TimezoneResolver.getInstance();
+        // Checked here so a bad value fails the query, not a later moveToNext()
+        ZoneId zone = zoneParam(resolver.zoneOrDevice(uri.getQueryParameter("zoneId")));
+        String zoneId = zone.getId();
+
+        String startParam = uri.getQueryParameter("start");
+        int startEpochDay = (int) (startParam != null
+            ? dateParam(startParam) : LocalDate.now(zone)).toEpochDay();
+        int days = intParam(uri, "days", 1);
+        if (days <= 0 || days > MAX_DAYS) {
+            throw new IllegalArgumentException("days must be between 1 and " + MAX_DAYS);
+        }
+
+        TimetableWindows.Range range = TimetableWindows.getInstance().range(lat, lng, resolver, zoneId,
+            method, asrSchool, hijriOffset, startEpochDay, days);
+        return new TimetableCursor(range, projection);
+    }
+
+    @Override
+    public String getType(Uri uri) {
+        return MATCHER.match(uri) == TIMETABLE ? "vnd.android.cursor.dir/vnd." + AUTHORITY + ".day" : null;
+    }
+
+    @Override
+    public Uri insert(Uri uri, ContentValues values) {
+        throw new UnsupportedOperationException("Timetable is read-only");
+    }
+
+    @Override
+    public int delete(Uri uri, String selection, String[] selectionArgs) {
+        throw new UnsupportedOperationException("Timetable is read-only");
+    }
+
+    @Override
+    public int update(Uri uri, ContentValues values, String selection, String[] selectionArgs) {
+        throw new UnsupportedOperationException("Timetable is read-only");
+    }
+
+    static ZoneId zoneParam(String zoneId) {
+        try {
+            return ZoneId.of(zoneId);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Unknown zoneId " + zoneId, e);
+        }
+    }
+
+    static LocalDate dateParam(String date) {
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("start must be a yyyy-MM-dd date, got " + date, e);
+        }
+    }
+
+    private static int intParam(Uri uri, String name, int defaultValue) {
+        String value = uri.getQueryParameter(name);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+}
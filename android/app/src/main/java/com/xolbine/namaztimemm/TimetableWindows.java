@@ -0,0 +1,203 @@
+package com.xolbine.namaztimemm;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Process-wide LRU cache of local-time timetable windows for range readers
+ * such as {@link TimetableProvider}.
+ *
+ * A window is {@link #WINDOW_DAYS} consecutive days aligned to a multiple of
+ * that length, computed in one {@link PrayerTimeEngine#computeDays} pass and
+ * shifted per day to the zone's offset. Windows are keyed by location,
+ * zone, method, Asr school, Hijri offset and window start. A month query
+ * touches one or two windows and a year query about a dozen. Locations
+ * within {@link PrayerTimeCache#MAX_CACHED_LATITUDE} snap to the same grid
+ * as PrayerTimeCache, for the same error budget; beyond it the exact point
+ * is the key.
+ */
+public final class TimetableWindows {
+    static final int WINDOW_DAYS = 32;
+    private static final int DEFAULT_CAPACITY = 96;
+
+    private static TimetableWindows instance;
+
+    private final int capacity;
+    private final LinkedHashMap<Key, Window> entries;
+    private long hits = 0;
+    private long misses = 0;
+
+    /** Local minutes after midnight for one window, plus each day's UTC offset in minutes. */
+    static final class Window {
+        final Timetable local;
+        final int[] offsetMinutes;
+
+        Window(Timetable local, int[] offsetMinutes) {
+            this.local = local;
+            this.offsetMinutes = offsetMinutes;
+        }
+    }
+
+    public static synchronized TimetableWindows getInstance() {
+        if (instance == null) {
+            instance = new TimetableWindows(DEFAULT_CAPACITY);
+        }
+        return instance;
+    }
+
+    TimetableWindows(int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<Key, Window>(capacity * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Window> eldest) {
+                return size() > TimetableWindows.this.capacity;
+            }
+        };
+    }
+
+    /** Reader over {@code days} days from startEpochDay; computes nothing until rows are read. */
+    public Range range(double lat, double lng, TimezoneResolver resolver, String zoneId,
+                       PrayerTimeEngine.CalcMethod method, int asrSchool, int hijriOffset,
+                       int startEpochDay, int days) {
+        if (days <= 0) {
+            throw new IllegalArgumentException("days must be positive");
+        }
+        if (Math.abs(lat) <= PrayerTimeCache.MAX_CACHED_LATITUDE) {
+            lat = Math.round(lat / PrayerTimeCache.CELL_DEGREES) * PrayerTimeCache.CELL_DEGREES;
+            lng = Math.round(lng / PrayerTimeCache.CELL_DEGREES) * PrayerTimeCache.CELL_DEGREES;
+        }
+        return new Range(new Key(lat, lng, zoneId, method, asrSchool, hijriOffset, 0), resolver,
+            startEpochDay, days);
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    private Window window(Key series, TimezoneResolver resolver, int windowStart) {
+        Key key = series.at(windowStart);
+        synchronized (this) {
+            Window cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+        // Computed outside the lock; two readers racing on one window both compute it, which is harmless
+        int[] ymd = PrayerTimeEngine.civilFromEpochDay(windowStart);
+        Timetable utc = PrayerTimeEngine.computeDays(key.lat, key.lng, 0, ymd[0], ymd[1], ymd[2], WINDOW_DAYS,
+            key.method, key.asrSchool, PrayerTimeEngine.HighLatRule.MIDDLE_OF_NIGHT, null, key.hijriOffset);
+        int[] offsets = resolver.offsetMinutes(key.zoneId, windowStart, WINDOW_DAYS);
+        Window computed = new Window(utc.withDailyOffsets(offsets), offsets);
+        synchronized (this) {
+            entries.put(key, computed);
+        }
+        return computed;
+    }
+
+    /**
+     * Forward-or-random row reader over a day range, holding one window at a
+     * time. Not thread-safe, like the cursors that wrap it.
+     */
+    public final class Range {
+        private final Key series;
+        private final TimezoneResolver resolver;
+        private final int startEpochDay;
+        private final int days;
+        private Window window;
+        private int windowStart = Integer.MIN_VALUE;
+        private int dayIndex;
+
+        private Range(Key series, TimezoneResolver resolver, int startEpochDay, int days) {
+            this.series = series;
+            this.resolver = resolver;
+            this.startEpochDay = startEpochDay;
+            this.days = days;
+        }
+
+        public int getCount() {
+            return days;
+        }
+
+        /** Positions the reader on row 0..getCount()-1, loading its window if needed. */
+        public void moveTo(int row) {
+            int epochDay = startEpochDay + row;
+            int start = Math.floorDiv(epochDay, WINDOW_DAYS) * WINDOW_DAYS;
+            if (start != windowStart) {
+                window = window(series, resolver, start);
+                windowStart = start;
+            }
+            dayIndex = epochDay - start;
+        }
+
+        public int epochDay() {
+            return windowStart + dayIndex;
+        }
+
+        /** Local minutes after midnight for PrayerTimeEngine.FAJR..ISHA on the current row. */
+        public int minutes(int prayer) {
+            return window.local.getMinutes(prayer, dayIndex);
+        }
+
+        public int offsetMinutes() {
+            return window.offsetMinutes[dayIndex];
+        }
+    }
+
+    private static final class Key {
+        final double lat;
+        final double lng;
+        final String zoneId;
+        final PrayerTimeEngine.CalcMethod method;
+        final int asrSchool;
+        final int hijriOffset;
+        final int windowStart;
+
+        Key(double lat, double lng, String zoneId, PrayerTimeEngine.CalcMethod method,
+            int asrSchool, int hijriOffset, int windowStart) {
+            this.lat = lat;
+            this.lng = lng;
+            this.zoneId = zoneId;
+            this.method = method;
+            this.asrSchool = asrSchool;
+            this.hijriOffset = hijriOffset;
+            this.windowStart = windowStart;
+        }
+
+        Key at(int windowStart) {
+            return new Key(lat, lng, zoneId, method, asrSchool, hijriOffset, windowStart);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return windowStart == k.windowStart && lat == k.lat && lng == k.lng && method == k.method
+                && asrSchool == k.asrSchool && hijriOffset == k.hijriOffset && zoneId.equals(k.zoneId);
+        }
+
+        @Override
+        public int hashCode() {
+            int h = Double.hashCode(lat);
+            h = 31 * h + Double.hashCode(lng);
+            h = 31 * h + zoneId.hashCode();
+            h = 31 * h + method.ordinal();
+            h = 31 * h + asrSchool;
+            h = 31 * h + hijriOffset;
+            return 31 * h + windowStart;
+        }
+    }
+}
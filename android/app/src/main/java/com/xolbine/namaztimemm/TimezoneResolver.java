@@ -0,0 +1,73 @@
+package com.xolbine.namaztimemm;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Date-dependent UTC offsets for an IANA zone, from java.time ZoneRules cached
+ * per zone. Offsets are evaluated at local noon so a DST switch in the early
+ * hours doesn't shift that day's prayers.
+ *
+ * Callers pass an explicit zone id (an alarm profile's, a provider query's) or
+ * fall back to the device zone. Mapping coordinates to a zone offline needs a
+ * timezone boundary asset that the app does not ship yet, so there is no
+ * resolve(lat, lng) here.
+ */
+public final class TimezoneResolver {
+    private static TimezoneResolver instance;
+
+    private final Map<String, ZoneRules> rulesCache = new HashMap<>();
+
+    public static synchronized TimezoneResolver getInstance() {
+        if (instance == null) {
+            instance = new TimezoneResolver();
+        }
+        return instance;
+    }
+
+    /** The device's current IANA zone id. */
+    public String deviceZone() {
+        return TimeZone.getDefault().getID();
+    }
+
+    /** {@code zoneId} when given, else the device zone. */
+    public String zoneOrDevice(String zoneId) {
+        return zoneId != null && !zoneId.isEmpty() ? zoneId : deviceZone();
+    }
+
+    /** UTC offset in hours at local noon of the given date (month 1-12). */
+    public double offsetHours(String zoneId, int year, int month, int day) {
+        return offsetHours(zoneId, PrayerTimeEngine.epochDay(year, month, day));
+    }
+
+    public double offsetHours(String zoneId, int epochDay) {
+        ZoneRules rules = rules(zoneId);
+        // Noon UTC is within 14 h of local noon everywhere, close enough to land on the same side of a DST switch
+        long noonUtc = epochDay * 86400L + 12 * 3600L;
+        int seconds = rules.getOffset(Instant.ofEpochSecond(noonUtc)).getTotalSeconds();
+        seconds = rules.getOffset(Instant.ofEpochSecond(noonUtc - seconds)).getTotalSeconds();
+        return seconds / 3600.0;
+    }
+
+    /** Per-day offsets in minutes for {@code days} days starting at startEpochDay. */
+    public int[] offsetMinutes(String zoneId, int startEpochDay, int days) {
+        int[] minutes = new int[days];
+        for (int d = 0; d < days; d++) {
+            minutes[d] = (int) Math.round(offsetHours(zoneId, startEpochDay + d) * 60);
+        }
+        return minutes;
+    }
+
+    private synchronized ZoneRules rules(String zoneId) {
+        ZoneRules rules = rulesCache.get(zoneId);
+        if (rules == null) {
+            rules = ZoneId.of(zoneId).getRules();
+            rulesCache.put(zoneId, rules);
+        }
+        return rules;
+    }
+}
@@ -2,6 +2,7 @@ package com.xolbine.namaztimemm;
 
 import android.content.Context;
 import android.os.PowerManager;
+import android.os.SystemClock;
 import android.util.Log;
 
 /**
@@ -12,6 +13,8 @@ public class WakeLockHelper {
     private static final String TAG = "WakeLockHelper";
     private static PowerManager.WakeLock wakeLock = null;
     private static final long WAKE_LOCK_TIMEOUT = 6 * 60 * 1000 + 500; // 6 minutes + buffer
+    private static Context appContext = null;
+    private static long acquiredAt = 0;
 
     public static synchronized void acquire(Context context) {
         if (wakeLock != null && wakeLock.isHeld()) {
@@ -28,6 +31,8 @@ public class WakeLockHelper {
                 "NamazTimeMM:AdhanWakeLock"
             );
             wakeLock.acquire(WAKE_LOCK_TIMEOUT);
+            appContext = context.getApplicationContext();
+            acquiredAt = SystemClock.elapsedRealtime();
             Log.i(TAG, "WakeLock acquired with wakeup flags");
         }
     }
@@ -41,6 +46,19 @@ public class WakeLockHelper {
                 Log.i(TAG, "WakeLock already released");
             }
             wakeLock = null;
+            recordHeld();
         }
     }
+
+    /** Held time for the energy ledger; a lock that outlived its timeout only counts up to it. */
+    private static void recordHeld() {
+        if (appContext == null) {
+            return;
+        }
+        long held = Math.min(SystemClock.elapsedRealtime() - acquiredAt, WAKE_LOCK_TIMEOUT);
+        EnergyLedger ledger = EnergyLedger.getInstance(appContext);
+        ledger.add(EnergyLedger.Metric.WAKELOCK_MS, held);
+        ledger.flush();
+        appContext = null;
+    }
 }
@@ -0,0 +1,71 @@
+package com.xolbine.namaztimemm;
+
+import static org.junit.Assert.*;
+
+import android.app.usage.UsageStatsManager;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class AlarmHealthTest {
+    private static final long NEXT = 1773182040000L;
+
+    private static AlarmHealth health(boolean exact, boolean ignoring, boolean restricted, int bucket,
+                                      boolean notifications, boolean fullScreen, long nextClock) {
+        return new AlarmHealth(35, exact, ignoring, restricted, bucket, notifications, fullScreen,
+            nextClock, true, 1311, NEXT);
+    }
+
+    private static List<String> codes(AlarmHealth health) {
+        List<String> codes = new ArrayList<>();
+        for (AlarmHealth.Issue issue : health.issues()) {
+            codes.add(issue.code);
+        }
+        return codes;
+    }
+
+    @Test
+    public void healthyDeviceHasNoIssues() {
+        AlarmHealth health = health(true, true, false, UsageStatsManager.STANDBY_BUCKET_ACTIVE, true, true, NEXT);
+        assertTrue(health.issues().isEmpty());
+    }
+
+    @Test
+    public void errorsComeBeforeWarnings() {
+        AlarmHealth health = health(false, false, true, UsageStatsManager.STANDBY_BUCKET_RESTRICTED,
+            false, false, NEXT);
+        List<String> codes = codes(health);
+        assertEquals(6, codes.size());
+        assertEquals("exactAlarmDenied", codes.get(0));
+        assertEquals("batteryOptimized", codes.get(4));
+        assertEquals("fullScreenIntentDenied", codes.get(5));
+        for (int i = 0; i < 4; i++) {
+            assertEquals(AlarmHealth.ERROR, health.issues().get(i).severity);
+        }
+    }
+
+    @Test
+    public void rareBucketIsOnlyAWarning() {
+        AlarmHealth health = health(true, true, false, UsageStatsManager.STANDBY_BUCKET_RARE, true, true, NEXT);
+        assertEquals(1, health.issues().size());
+        assertEquals("standbyRare", health.issues().get(0).code);
+        assertEquals(AlarmHealth.WARNING, health.issues().get(0).severity);
+        assertEquals("rare", AlarmHealth.bucketName(health.standbyBucket));
+        assertEquals("unknown", AlarmHealth.bucketName(AlarmHealth.BUCKET_UNKNOWN));
+    }
+
+    @Test
+    public void armedAlarmMissingWhenTheSystemHasNothingOrSomethingLater() {
+        int active = UsageStatsManager.STANDBY_BUCKET_ACTIVE;
+        assertFalse(health(true, true, false, active, true, true, NEXT).armedAlarmMissing());
+        assertTrue(health(true, true, false, active, true, true, 0).armedAlarmMissing());
+        assertTrue(health(true, true, false, active, true, true, NEXT + 3600000).armedAlarmMissing());
+        assertEquals("armedAlarmMissing", codes(health(true, true, false, active, true, true, 0)).get(0));
+        // Another app's earlier alarm hides ours; not reported
+        assertFalse(health(true, true, false, active, true, true, NEXT - 3600000).armedAlarmMissing());
+        // Nothing armed, nothing to miss
+        assertFalse(new AlarmHealth(35, true, true, false, active, true, true, 0, false, -1, 0).armedAlarmMissing());
+    }
+}
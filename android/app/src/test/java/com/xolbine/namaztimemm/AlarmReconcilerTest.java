@@ -0,0 +1,230 @@
+package com.xolbine.namaztimemm;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.TreeMap;
+
+public class AlarmReconcilerTest {
+    private static final TimeZone YANGON = TimeZone.getTimeZone("Asia/Yangon");
+    private static final TimeZone LONDON = TimeZone.getTimeZone("Europe/London");
+
+    private static AlarmScheduleStore.Inputs inputs(double lat, double lng, String... prayers) {
+        return new AlarmScheduleStore.Inputs(lat, lng, PrayerTimeEngine.CalcMethod.KARACHI, 2, 0,
+            new HashSet<>(Arrays.asList(prayers)));
+    }
+
+    private static long at(TimeZone zone, int year, int month, int day, int hour, int minute) {
+        Calendar c = Calendar.getInstance(zone);
+        c.clear();
+        c.set(year, month - 1, day, hour, minute, 0);
+        return c.getTimeInMillis();
+    }
+
+    @Test
+    public void desiredMatchesJsSchedulerIdsAndTimes() {
+        long now = at(YANGON, 2026, 3, 10, 0, 30);
+        Map<Integer, Long> desired = AlarmReconciler.desired(
+            inputs(16.8661, 96.1951, AlarmReconciler.ALARM_PRAYERS), now, YANGON);
+        assertEquals(5 * 7, desired.size());
+
+        // Day index is yyyymmdd % 1000, so 2026-03-10 is 310
+        int[] minutes = PrayerTimeEngine.computeDay(16.8661, 96.1951, 6.5, 2026, 3, 10,
+            PrayerTimeEngine.CalcMethod.KARACHI, 2, PrayerTimeEngine.HighLatRule.MIDDLE_OF_NIGHT, null, 0);
+        int fajr = minutes[PrayerTimeEngine.FAJR];
+        assertEquals(Long.valueOf(at(YANGON, 2026, 3, 10, fajr / 60, fajr % 60)), desired.get(1310));
+        int isha = minutes[PrayerTimeEngine.ISHA];
+        assertEquals(Long.valueOf(at(YANGON, 2026, 3, 10, isha / 60, isha % 60)), desired.get(5310));
+        assertTrue(desired.containsKey(5316));
+        assertFalse(desired.containsKey(1317));
+    }
+
+    @Test
+    public void desiredSkipsPastAndDisabledPrayers() {
+        long now = at(YANGON, 2026, 3, 10, 14, 0);
+        Map<Integer, Long> desired = AlarmReconciler.desired(inputs(16.8661, 96.1951, "fajr", "maghrib"), now, YANGON);
+        assertFalse(desired.containsKey(1310)); // Fajr already past
+        assertTrue(desired.containsKey(4310));
+        assertEquals(2 * 6 + 1, desired.size());
+        for (int id : desired.keySet()) {
+            assertTrue(id / 1000 == 1 || id / 1000 == 4);
+        }
+    }
+
+    @Test
+    public void desiredFollowsDstInsideTheWeek() {
+        // UK clocks go forward on 2026-03-29; Maghrib's wall time jumps by about an hour
+        long now = at(LONDON, 2026, 3, 27, 0, 30);
+        Map<Integer, Long> desired = AlarmReconciler.desired(inputs(51.5074, -0.1278, "maghrib"), now, LONDON);
+        Calendar before = Calendar.getInstance(LONDON);
+        before.setTimeInMillis(desired.get(4328));
+        Calendar after = Calendar.getInstance(LONDON);
+        after.setTimeInMillis(desired.get(4329));
+        int beforeMinutes = before.get(Calendar.HOUR_OF_DAY) * 60 + before.get(Calendar.MINUTE);
+        int afterMinutes = after.get(Calendar.HOUR_OF_DAY) * 60 + after.get(Calendar.MINUTE);
+        assertTrue(afterMinutes - beforeMinutes > 55 && afterMinutes - beforeMinutes < 65);
+    }
+
+    @Test
+    public void diffTouchesOnlyWhatChanged() {
+        long now = 1_000_000L;
+        Map<Integer, Long> armed = new TreeMap<>();
+        armed.put(1310, 2_000_000L); // unchanged
+        armed.put(2310, 3_000_000L); // moved
+        armed.put(3310, 4_000_000L); // no longer wanted
+        armed.put(4309, 500_000L);   // already fired
+        Map<Integer, Long> desired = new TreeMap<>();
+        desired.put(1310, 2_000_000L);
+        desired.put(2310, 3_060_000L);
+        desired.put(5310, 6_000_000L); // new
+
+        AlarmReconciler.Diff diff = AlarmReconciler.diff(armed, desired, now);
+        assertEquals(1, diff.unchanged);
+        assertEquals(Arrays.asList(3310), diff.cancel);
+        assertEquals(2, diff.arm.size());
+        assertEquals(Long.valueOf(3_060_000L), diff.arm.get(2310));
+        assertEquals(Long.valueOf(6_000_000L), diff.arm.get(5310));
+    }
+
+    @Test
+    public void reconcilingTwiceIsANoOp() {
+        long now = at(YANGON, 2026, 3, 10, 9, 0);
+        Map<Integer, Long> desired = AlarmReconciler.desired(
+            inputs(16.8661, 96.1951, AlarmReconciler.ALARM_PRAYERS), now, YANGON);
+        AlarmReconciler.Diff diff = AlarmReconciler.diff(desired, desired, now);
+        assertTrue(diff.cancel.isEmpty());
+        assertTrue(diff.arm.isEmpty());
+        assertEquals(desired.size(), diff.unchanged);
+    }
+
+    @Test
+    public void profilesGetTheirOwnIdRangeAndZone() {
+        long now = at(YANGON, 2026, 3, 10, 0, 30);
+        List<AlarmProfile> profiles = Arrays.asList(
+            AlarmProfile.primary(inputs(16.8661, 96.1951, "fajr")),
+            new AlarmProfile(1, "London", inputs(51.5074, -0.1278, "fajr"), "Europe/London", "adhan"));
+        Map<Integer, Long> desired = AlarmReconciler.desired(profiles, now, YANGON);
+
+        // London's day 310 Fajr, in London time, under slot 1's ids
+        int[] minutes = PrayerTimeEngine.computeDay(51.5074, -0.1278, 0, 2026, 3, 10,
+            PrayerTimeEngine.CalcMethod.KARACHI, 2, PrayerTimeEngine.HighLatRule.MIDDLE_OF_NIGHT, null, 0);
+        int fajr = minutes[PrayerTimeEngine.FAJR];
+        assertEquals(Long.valueOf(at(LONDON, 2026, 3, 10, fajr / 60, fajr % 60)), desired.get(11310));
+        assertTrue(desired.containsKey(1310));
+        assertEquals(1, AlarmProfile.slotOf(11310));
+        assertEquals(0, DeliveryTier.prayerIndex(11310));
+        assertEquals("Fajr · London", profiles.get(1).alarmName(11310));
+    }
+
+    @Test
+    public void profileWithoutZoneFollowsTheDeviceZone() {
+        long now = at(LONDON, 2026, 3, 10, 0, 30);
+        List<AlarmProfile> profiles = Arrays.asList(
+            new AlarmProfile(1, "Travel", inputs(51.5074, -0.1278, "fajr"), null, "adhan"));
+        Map<Integer, Long> inLondon = AlarmReconciler.desired(profiles, now, LONDON);
+        Map<Integer, Long> inYangon = AlarmReconciler.desired(profiles, now, YANGON);
+
+        int[] minutes = PrayerTimeEngine.computeDay(51.5074, -0.1278, 0, 2026, 3, 10,
+            PrayerTimeEngine.CalcMethod.KARACHI, 2, PrayerTimeEngine.HighLatRule.MIDDLE_OF_NIGHT, null, 0);
+        int fajr = minutes[PrayerTimeEngine.FAJR];
+        assertEquals(Long.valueOf(at(LONDON, 2026, 3, 10, fajr / 60, fajr % 60)), inLondon.get(11310));
+        assertFalse(inLondon.get(11310).equals(inYangon.get(11310)));
+    }
+
+    @Test
+    public void mosqueTimesReplaceComputedOnesNearTheMosque() throws IOException {
+        long now = at(YANGON, 2026, 3, 10, 0, 30);
+        MosqueTimetable.Importer importer = new MosqueTimetable.Importer("Sule", 16.7747, 96.1588);
+        importer.read(new StringReader("2026-03-11,fajr,4:55\n2026-03-11,isha,7:40 PM\n"));
+        MosqueTimetable mosque = importer.build();
+        List<AlarmProfile> profiles = Arrays.asList(
+            AlarmProfile.primary(inputs(16.8661, 96.1951, AlarmReconciler.ALARM_PRAYERS)),
+            new AlarmProfile(1, "Mandalay", inputs(21.9588, 96.0891, "fajr"), "Asia/Yangon", "adhan"));
+        Map<Integer, Long> desired = AlarmReconciler.desired(profiles, now, YANGON, mosque);
+        Map<Integer, Long> computed = AlarmReconciler.desired(profiles, now, YANGON);
+
+        assertEquals(Long.valueOf(at(YANGON, 2026, 3, 11, 4, 55)), desired.get(1311));
+        assertEquals(Long.valueOf(at(YANGON, 2026, 3, 11, 19, 40)), desired.get(5311));
+        // Uncovered days and prayers keep computed times
+        assertEquals(computed.get(1310), desired.get(1310));
+        assertEquals(computed.get(3311), desired.get(3311));
+        // Mandalay is too far for the mosque's times; its Fajr no longer coincides with Yangon's, so it is armed
+        int[] minutes = PrayerTimeEngine.computeDay(21.9588, 96.0891, 6.5, 2026, 3, 11,
+            PrayerTimeEngine.CalcMethod.KARACHI, 2, PrayerTimeEngine.HighLatRule.MIDDLE_OF_NIGHT, null, 0);
+        int fajr = minutes[PrayerTimeEngine.FAJR];
+        assertNull(computed.get(11311));
+        assertEquals(Long.valueOf(at(YANGON, 2026, 3, 11, fajr / 60, fajr % 60)), desired.get(11311));
+    }
+
+    @Test
+    public void displayedTimesMatchArmedOnesWithMosqueOverrides() throws IOException {
+        // On the 0.05 degree cache grid, so the cached day is computed at the same point
+        double lat = 16.80;
+        double lng = 96.15;
+        long now = at(YANGON, 2026, 3, 10, 0, 30);
+        MosqueTimetable.Importer importer = new MosqueTimetable.Importer("Sule", 16.7747, 96.1588);
+        importer.read(new StringReader("2026-03-11,fajr,4:55\n2026-03-11,isha,7:40 PM\n"));
+        MosqueTimetable mosque = importer.build();
+        Map<Integer, Long> armed = AlarmReconciler.desired(
+            Arrays.asList(AlarmProfile.primary(inputs(lat, lng, AlarmReconciler.ALARM_PRAYERS))), now, YANGON, mosque);
+
+        // What getPrayerTimes and the widgets show for that day
+        int[] shown = DailyPrayerTimes.minutes(mosque, lat, lng, 6.5, 2026, 3, 11,
+            PrayerTimeEngine.CalcMethod.KARACHI, 2, 0);
+        assertEquals(295, shown[PrayerTimeEngine.FAJR]);
+        assertEquals(1180, shown[PrayerTimeEngine.ISHA]);
+        int[] engine = { PrayerTimeEngine.FAJR, PrayerTimeEngine.DHUHR, PrayerTimeEngine.ASR,
+            PrayerTimeEngine.MAGHRIB, PrayerTimeEngine.ISHA };
+        for (int p = 0; p < engine.length; p++) {
+            int m = shown[engine[p]];
+            assertEquals(Long.valueOf(at(YANGON, 2026, 3, 11, m / 60, m % 60)), armed.get((p + 1) * 1000 + 311));
+        }
+    }
+
+    @Test
+    public void coincidingProfilesArmOnce() {
+        long now = at(YANGON, 2026, 3, 10, 0, 30);
+        // A second profile a few hundred metres away: same minutes, so nothing extra is armed
+        List<AlarmProfile> profiles = Arrays.asList(
+            AlarmProfile.primary(inputs(16.8661, 96.1951, AlarmReconciler.ALARM_PRAYERS)),
+            new AlarmProfile(1, "Mosque", inputs(16.8670, 96.1951, AlarmReconciler.ALARM_PRAYERS),
+                "Asia/Yangon", "adhan"),
+            new AlarmProfile(2, "Sittwe", inputs(20.1462, 92.8984, "asr"), "Asia/Yangon", "adhan"));
+        Map<Integer, Long> desired = AlarmReconciler.desired(profiles, now, YANGON);
+
+        Map<Integer, Long> primary = AlarmReconciler.desired(
+            inputs(16.8661, 96.1951, AlarmReconciler.ALARM_PRAYERS), now, YANGON);
+        int fromMosque = 0;
+        int fromSittwe = 0;
+        for (int id : desired.keySet()) {
+            if (AlarmProfile.slotOf(id) == 1) fromMosque++;
+            if (AlarmProfile.slotOf(id) == 2) fromSittwe++;
+        }
+        assertTrue(fromMosque < primary.size() / 2);
+        assertEquals(7, fromSittwe);
+        // The primary schedule itself is untouched
+        for (Map.Entry<Integer, Long> e : primary.entrySet()) {
+            assertEquals(e.getValue(), desired.get(e.getKey()));
+        }
+    }
+
+    @Test
+    public void identicalProfilesMatchTheSingleProfileSchedule() {
+        long now = at(YANGON, 2026, 3, 10, 0, 30);
+        AlarmScheduleStore.Inputs home = inputs(16.8661, 96.1951, AlarmReconciler.ALARM_PRAYERS);
+        List<AlarmProfile> profiles = Arrays.asList(
+            AlarmProfile.primary(home),
+            new AlarmProfile(1, "Copy", home, "Asia/Yangon", "adhan"));
+
+        assertEquals(AlarmReconciler.desired(home, now, YANGON), AlarmReconciler.desired(profiles, now, YANGON));
+    }
+}
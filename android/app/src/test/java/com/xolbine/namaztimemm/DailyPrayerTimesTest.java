@@ -0,0 +1,31 @@
+package com.xolbine.namaztimemm;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * The native first frame and widget must read the same as the web list.
+ */
+public class DailyPrayerTimesTest {
+
+    @Test
+    public void formatsLikeSolarCalcFormatHM() {
+        assertEquals("12:00 AM", DailyPrayerTimes.formatTime(0));
+        assertEquals("4:52 AM", DailyPrayerTimes.formatTime(4 * 60 + 52));
+        assertEquals("12:05 PM", DailyPrayerTimes.formatTime(12 * 60 + 5));
+        assertEquals("6:30 PM", DailyPrayerTimes.formatTime(18 * 60 + 30));
+        assertEquals("11:59 PM", DailyPrayerTimes.formatTime(23 * 60 + 59));
+    }
+
+    @Test
+    public void upcomingSkipsDhuhrAndEndsAfterIsha() {
+        // fajr, sunrise, zawal, dhuhr, asr, maghrib, isha
+        int[] minutes = { 292, 370, 720, 724, 930, 1080, 1160 };
+        assertEquals(0, DailyPrayerTimes.upcoming(minutes, 0));
+        assertEquals(1, DailyPrayerTimes.upcoming(minutes, 292)); // Fajr has started
+        assertEquals(3, DailyPrayerTimes.upcoming(minutes, 722)); // Asr, Dhuhr is not listed
+        assertEquals(5, DailyPrayerTimes.upcoming(minutes, 1159));
+        assertEquals(-1, DailyPrayerTimes.upcoming(minutes, 1160));
+    }
+}
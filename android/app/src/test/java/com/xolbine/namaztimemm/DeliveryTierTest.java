@@ -0,0 +1,24 @@
+package com.xolbine.namaztimemm;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class DeliveryTierTest {
+    @Test
+    public void namesRoundTripAndUnknownIsFull() {
+        for (DeliveryTier tier : DeliveryTier.values()) {
+            assertSame(tier, DeliveryTier.fromName(tier.jsName));
+        }
+        assertSame(DeliveryTier.FULL, DeliveryTier.fromName(null));
+        assertSame(DeliveryTier.FULL, DeliveryTier.fromName("loud"));
+    }
+
+    @Test
+    public void prayerIndexFollowsAlarmIds() {
+        assertEquals(0, DeliveryTier.prayerIndex(1310)); // Fajr, day index 310
+        assertEquals(4, DeliveryTier.prayerIndex(5000)); // Isha
+        assertEquals(-1, DeliveryTier.prayerIndex(9999)); // test alarm
+        assertEquals(-1, DeliveryTier.prayerIndex(0));
+    }
+}
@@ -0,0 +1,105 @@
+package com.xolbine.namaztimemm;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.TimeZone;
+import java.util.TreeMap;
+
+public class EnergyLedgerTest {
+    private static final TimeZone YANGON = TimeZone.getTimeZone("Asia/Yangon");
+    private static final long DAY = 24L * 60 * 60 * 1000;
+    // 2026-03-10 00:00 in Yangon (UTC+6:30)
+    private static final long MIDNIGHT = 1773077400000L;
+
+    @Test
+    public void countersLandOnTheLocalDay() {
+        EnergyLedger ledger = new EnergyLedger(null);
+        ledger.add(EnergyLedger.Metric.ALARM_WAKEUPS, 1, MIDNIGHT - 60000, YANGON);
+        ledger.add(EnergyLedger.Metric.ALARM_WAKEUPS, 1, MIDNIGHT + 60000, YANGON);
+        ledger.add(EnergyLedger.Metric.AUDIO_MS, 180000, MIDNIGHT + 60000, YANGON);
+
+        TreeMap<Integer, long[]> days = ledger.snapshot();
+        assertEquals(2, days.size());
+        int today = EnergyLedger.localEpochDay(MIDNIGHT, YANGON);
+        assertEquals(today - 1, (int) days.firstKey());
+        assertEquals(1, days.get(today)[EnergyLedger.Metric.ALARM_WAKEUPS.ordinal()]);
+        assertEquals(180000, days.get(today)[EnergyLedger.Metric.AUDIO_MS.ordinal()]);
+    }
+
+    @Test
+    public void keepsOnlyTheLastFourteenDays() {
+        EnergyLedger ledger = new EnergyLedger(null);
+        for (int d = 0; d < 20; d++) {
+            ledger.add(EnergyLedger.Metric.SENSOR_EVENTS, d + 1, MIDNIGHT + d * DAY, YANGON);
+        }
+        TreeMap<Integer, long[]> days = ledger.snapshot();
+        assertEquals(EnergyLedger.MAX_DAYS, days.size());
+        assertEquals(7, days.firstEntry().getValue()[EnergyLedger.Metric.SENSOR_EVENTS.ordinal()]);
+    }
+
+    @Test
+    public void flushAndReloadRoundTrips() throws Exception {
+        File file = File.createTempFile("energy", ".bin");
+        assertTrue(file.delete()); // start as on first launch, with no file yet
+        try {
+            EnergyLedger ledger = new EnergyLedger(file);
+            assertTrue(ledger.snapshot().isEmpty());
+            ledger.add(EnergyLedger.Metric.WAKELOCK_MS, 42000, MIDNIGHT, YANGON);
+            ledger.add(EnergyLedger.Metric.SENSOR_EMITS, 900, MIDNIGHT + DAY, YANGON);
+            ledger.flush();
+
+            TreeMap<Integer, long[]> reloaded = new EnergyLedger(file).snapshot();
+            assertEquals(2, reloaded.size());
+            assertArrayEquals(ledger.snapshot().firstEntry().getValue(), reloaded.firstEntry().getValue());
+            assertArrayEquals(ledger.snapshot().lastEntry().getValue(), reloaded.lastEntry().getValue());
+            // Eight longs per day plus a small header
+            assertTrue(file.length() < 2 * (4 + 8 * 8) + 16);
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void emptyOrTruncatedFileLoadsEmpty() throws Exception {
+        File file = File.createTempFile("energy", ".bin");
+        try {
+            assertTrue(new EnergyLedger(file).snapshot().isEmpty());
+
+            TreeMap<Integer, long[]> days = new TreeMap<>();
+            days.put(20522, new long[] { 3, 0, 0, 0, 0, 0, 0, 0 });
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            EnergyLedger.writeTo(out, days);
+            try (FileOutputStream truncated = new FileOutputStream(file)) {
+                truncated.write(out.toByteArray(), 0, out.size() - 5);
+            }
+            assertTrue(new EnergyLedger(file).snapshot().isEmpty());
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void unknownTrailingMetricsAreSkipped() throws Exception {
+        TreeMap<Integer, long[]> days = new TreeMap<>();
+        days.put(20522, new long[] { 3, 0, 0, 0, 0, 0, 0, 0 });
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        EnergyLedger.writeTo(out, days);
+
+        // Patch the metric count to claim one extra column and append it
+        byte[] bytes = out.toByteArray();
+        bytes[8] = (byte) (bytes[8] + 1);
+        ByteArrayOutputStream patched = new ByteArrayOutputStream();
+        patched.write(bytes);
+        patched.write(new byte[8]);
+
+        TreeMap<Integer, long[]> read = EnergyLedger.read(new ByteArrayInputStream(patched.toByteArray()));
+        assertEquals(3, read.get(20522)[0]);
+        assertEquals(EnergyLedger.Metric.values().length, read.get(20522).length);
+    }
+}
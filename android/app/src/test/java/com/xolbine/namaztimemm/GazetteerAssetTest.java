@@ -0,0 +1,72 @@
+package com.xolbine.namaztimemm;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+/**
+ * The shipped assets/gazetteer.bin: it loads, keeps every built-in city with its
+ * slug, and is what GazetteerBuilder produces from gazetteer/places.csv.
+ * Paths are relative to the app module, the working directory of unit tests.
+ */
+public class GazetteerAssetTest {
+    private static final File ASSET = new File("src/main/assets/" + Gazetteer.ASSET_NAME);
+    private static final File SOURCE = new File("gazetteer/places.csv");
+
+    private Gazetteer gazetteer;
+
+    @Before
+    public void setUp() throws Exception {
+        try (InputStream in = new FileInputStream(ASSET)) {
+            gazetteer = Gazetteer.read(in);
+        }
+    }
+
+    @Test
+    public void assetHasTownshipsBeyondTheBuiltInCities() {
+        assertTrue(gazetteer.size() > 5 * Cities.ALL.length);
+        for (int i = 0; i < Cities.ALL.length; i++) {
+            Cities.City city = Cities.ALL[i];
+            Gazetteer.Place place = gazetteer.get(i);
+            assertEquals(city.name, place.name);
+            assertEquals(city.slug, place.slug);
+            assertEquals(city.lat, place.lat, 1e-4);
+            assertEquals(city.lng, place.lng, 1e-4);
+        }
+    }
+
+    @Test
+    public void nearestAndSearchFindTownships() {
+        Gazetteer.Place place = gazetteer.nearest(20.68, 96.92); // by Inle Lake
+        assertEquals("Nyaungshwe", place.name);
+        assertEquals("", place.slug);
+        assertEquals("Kawthaung", gazetteer.nearest(10.0, 98.5).name);
+        assertEquals("Pyin Oo Lwin", gazetteer.nearest(22.03, 96.47).name);
+
+        assertEquals("Tachileik", gazetteer.search("tachi", 5).get(0).name);
+        assertEquals("Nyaung-U", gazetteer.search("nyaung u", 5).get(0).name);
+    }
+
+    @Test
+    public void assetMatchesItsSource() throws Exception {
+        Gazetteer rebuilt;
+        try (Reader in = new InputStreamReader(new FileInputStream(SOURCE), StandardCharsets.UTF_8)) {
+            rebuilt = GazetteerBuilder.build(in);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        rebuilt.writeTo(out);
+        assertTrue("Rebuild " + ASSET + " with GazetteerBuilder",
+            Arrays.equals(Files.readAllBytes(ASSET.toPath()), out.toByteArray()));
+    }
+}
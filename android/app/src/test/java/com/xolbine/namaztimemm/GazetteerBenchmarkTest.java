@@ -0,0 +1,109 @@
+package com.xolbine.namaztimemm;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * k-d tree nearest lookup against a linear scan over a synthetic 20k-place
+ * gazetteer spread over Myanmar's bounding box. Throughput is printed, not asserted.
+ */
+public class GazetteerBenchmarkTest {
+    private static final int PLACES = 20000;
+    private static final int QUERIES = 20000;
+
+    private Gazetteer.Place[] places;
+    private Gazetteer gazetteer;
+    private double[][] queries;
+
+    @Before
+    public void setUp() {
+        Random random = new Random(7);
+        places = new Gazetteer.Place[PLACES];
+        for (int i = 0; i < PLACES; i++) {
+            places[i] = new Gazetteer.Place("Place " + i, "", 9.5 + random.nextDouble() * 19,
+                92.2 + random.nextDouble() * 9.0, 6.5);
+        }
+        gazetteer = new Gazetteer(places);
+
+        queries = new double[QUERIES][];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = new double[] { 9.5 + random.nextDouble() * 19, 92.2 + random.nextDouble() * 9.0 };
+        }
+    }
+
+    @Test
+    public void nearestMatchesLinearScan() {
+        for (double[] q : queries) {
+            Gazetteer.Place expected = linearNearest(q[0], q[1]);
+            Gazetteer.Place actual = gazetteer.nearest(q[0], q[1]);
+            assertEquals(Gazetteer.distanceKm(q[0], q[1], expected.lat, expected.lng),
+                Gazetteer.distanceKm(q[0], q[1], actual.lat, actual.lng), 1e-9);
+        }
+    }
+
+    @Test
+    public void nearestThroughput() {
+        long sink = 0;
+        // Warm up both paths
+        for (int i = 0; i < 500; i++) {
+            sink += gazetteer.nearest(queries[i][0], queries[i][1]).name.length();
+            sink += linearNearest(queries[i][0], queries[i][1]).name.length();
+        }
+
+        long start = System.nanoTime();
+        for (double[] q : queries) {
+            sink += gazetteer.nearest(q[0], q[1]).name.length();
+        }
+        long treeNanos = System.nanoTime() - start;
+
+        int linearQueries = QUERIES / 20;
+        start = System.nanoTime();
+        for (int i = 0; i < linearQueries; i++) {
+            sink += linearNearest(queries[i][0], queries[i][1]).name.length();
+        }
+        long linearNanos = System.nanoTime() - start;
+
+        double treeUs = treeNanos / 1000.0 / QUERIES;
+        double linearUs = linearNanos / 1000.0 / linearQueries;
+        System.out.printf("nearest over %d places: k-d tree %.2f us, linear %.1f us, speedup %.0fx (sink %d)%n",
+            PLACES, treeUs, linearUs, linearUs / treeUs, sink);
+    }
+
+    @Test
+    public void prefixSearchAndFileRoundTrip() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        gazetteer.writeTo(out);
+        Gazetteer copy = Gazetteer.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(PLACES, copy.size());
+
+        List<Gazetteer.Place> results = copy.search("place 1234", 20);
+        assertEquals("Place 1234", results.get(0).name);
+        for (Gazetteer.Place p : results) {
+            assertTrue(p.name.startsWith("Place 1234"));
+        }
+        assertEquals(11, results.size()); // 1234 and 12340..12349
+
+        List<Gazetteer.Place> cities = Gazetteer.fromCities().search("MAW", 5);
+        assertEquals("Mawlamyine", cities.get(0).name);
+    }
+
+    private Gazetteer.Place linearNearest(double lat, double lng) {
+        Gazetteer.Place best = null;
+        double bestKm = Double.MAX_VALUE;
+        for (Gazetteer.Place p : places) {
+            double km = Gazetteer.distanceKm(lat, lng, p.lat, p.lng);
+            if (km < bestKm) {
+                bestKm = km;
+                best = p;
+            }
+        }
+        return best;
+    }
+}
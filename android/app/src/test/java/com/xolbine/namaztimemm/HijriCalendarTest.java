@@ -0,0 +1,50 @@
+package com.xolbine.namaztimemm;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class HijriCalendarTest {
+
+    @Test
+    public void tableMatchesArithmeticWithOffsets() {
+        HijriCalendar calendar = new HijriCalendar(2020, 2030);
+        for (int e = calendar.getFirstEpochDay() - 40; e <= calendar.getLastEpochDay() + 40; e++) {
+            for (int offset = -2; offset <= 2; offset++) {
+                int[] expected = HijriCalendar.arithmetic(e + offset);
+                assertArrayEquals("epoch day " + e + " offset " + offset, expected, calendar.toHijri(e, offset));
+                assertEquals(expected[1], calendar.month(e, offset));
+            }
+        }
+    }
+
+    @Test
+    public void knownDates() {
+        HijriCalendar calendar = HijriCalendar.getDefault();
+        int[] hijri = calendar.toHijri(PrayerTimeEngine.epochDay(2026, 3, 1), 0);
+        assertArrayEquals(new int[] { 1447, 9, 11 }, hijri);
+        assertEquals(9, calendar.month(PrayerTimeEngine.epochDay(2026, 3, 1), 0));
+        assertEquals(10, calendar.month(PrayerTimeEngine.epochDay(2026, 3, 1), 30));
+    }
+
+    @Test
+    public void eventIndexMatchesFirstMatchScan() {
+        for (int month = 1; month <= 12; month++) {
+            for (int day = 1; day <= 30; day++) {
+                HijriCalendar.IslamicEvent expected = null;
+                for (HijriCalendar.IslamicEvent event : HijriCalendar.IslamicEvent.values()) {
+                    boolean match = event.range > 1
+                        ? month == event.month && day >= event.day && day < event.day + event.range
+                        : month == event.month && day == event.day;
+                    if (match) {
+                        expected = event;
+                        break;
+                    }
+                }
+                assertSame(month + "/" + day, expected, HijriCalendar.eventFor(month, day));
+            }
+        }
+        assertEquals(HijriCalendar.IslamicEvent.QADR, HijriCalendar.eventFor(9, 27));
+        assertNull(HijriCalendar.eventFor(2, 5));
+    }
+}
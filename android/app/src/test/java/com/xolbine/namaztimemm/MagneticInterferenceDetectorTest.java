@@ -0,0 +1,122 @@
+package com.xolbine.namaztimemm;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class MagneticInterferenceDetectorTest {
+    private static final float[] IDENTITY = { 1, 0, 0, 0, 1, 0, 0, 0, 1 };
+    private static final long STEP_MS = 50;
+
+    private MagneticInterferenceDetector detector;
+    private long now;
+
+    @Before
+    public void setUp() {
+        detector = new MagneticInterferenceDetector();
+        now = 1000;
+    }
+
+    /** A field of {@code strength} uT pointing north, level. */
+    private static float[] north(float strength) {
+        return new float[] { 0, strength, 0 };
+    }
+
+    /** Feeds a full window of the same sample; returns the state after the last one. */
+    private boolean feed(float[] field, float[] rotation) {
+        boolean state = false;
+        for (int i = 0; i < 16; i++) {
+            now += STEP_MS;
+            state = detector.update(field, rotation, now);
+        }
+        return state;
+    }
+
+    @Test
+    public void expectedFieldIsClean() {
+        detector.setExpectedField(50f, 0f);
+        assertFalse(feed(north(50f), null));
+        assertFalse(feed(north(60f), null)); // 20% off, under the 25% enter ratio
+        assertEquals(60f, detector.getMeanMagnitude(), 1e-3);
+    }
+
+    @Test
+    public void magnitudeBeyondEnterRatioIsInterference() {
+        detector.setExpectedField(50f, 0f);
+        assertTrue(feed(north(65f), null)); // 30% off
+        assertTrue(detector.hasInterference());
+    }
+
+    @Test
+    public void clearsOnlyBelowTheExitRatio() {
+        detector.setExpectedField(50f, 0f);
+        assertTrue(feed(north(65f), null));
+        // 16% off: under the enter ratio but still above the 15% exit ratio
+        assertTrue(feed(north(58f), null));
+        assertFalse(feed(north(56f), null)); // 12% off
+    }
+
+    @Test
+    public void stateHoldsForTheDwellTime() {
+        detector.setExpectedField(50f, 0f);
+        // Enters on the eighth sample, at t=1400
+        assertTrue(feed(north(65f), null));
+        // A full window of clean samples within 750 ms of entering doesn't clear it
+        for (int i = 0; i < 16; i++) {
+            now += 10;
+            assertTrue(detector.update(north(50f), null, now));
+        }
+        now = 1400 + 750;
+        assertFalse(detector.update(north(50f), null, now));
+    }
+
+    @Test
+    public void needsHalfAWindowBeforeDeciding() {
+        detector.setExpectedField(50f, 0f);
+        for (int i = 0; i < 7; i++) {
+            now += STEP_MS;
+            assertFalse(detector.update(north(80f), null, now));
+        }
+        now += STEP_MS;
+        assertTrue(detector.update(north(80f), null, now));
+    }
+
+    @Test
+    public void withoutALocationUsesTheWideDefaultBand() {
+        // Default is 45 uT with a 45% enter ratio
+        assertFalse(feed(north(60f), null)); // 33% off
+        assertTrue(feed(north(70f), null));  // 56% off
+        assertFalse(feed(north(58f), null)); // 29%, under the 35% exit ratio
+    }
+
+    @Test
+    public void inclinationOffByMoreThanTheEnterAngleIsInterference() {
+        // (0, 30, -40) in a level device dips 53.1 degrees
+        float[] field = { 0, 30f, -40f };
+        detector.setExpectedField(50f, 53f);
+        assertFalse(feed(field, IDENTITY));
+
+        detector.reset();
+        detector.setExpectedField(50f, 38f);
+        assertTrue(feed(field, IDENTITY)); // 15 degrees off
+    }
+
+    @Test
+    public void inclinationIsIgnoredWithoutOrientation() {
+        detector.setExpectedField(50f, 0f);
+        assertFalse(feed(new float[] { 0, 30f, -40f }, null));
+    }
+
+    @Test
+    public void noisyFieldIsInterferenceEvenWithTheRightMean() {
+        detector.setExpectedField(50f, 0f);
+        boolean state = false;
+        for (int i = 0; i < 16; i++) {
+            now += STEP_MS;
+            state = detector.update(north(i % 2 == 0 ? 40f : 60f), null, now);
+        }
+        assertEquals(50f, detector.getMeanMagnitude(), 1e-3);
+        assertTrue(state); // standard deviation 20% of the expected field
+    }
+}
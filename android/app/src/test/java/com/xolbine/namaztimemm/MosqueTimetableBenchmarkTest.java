@@ -0,0 +1,275 @@
+package com.xolbine.namaztimemm;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Random;
+
+/**
+ * Streaming import of a synthetic ten-year mosque CSV (every prayer, every
+ * day) and the indexed lookups the alarm and clock paths make on it.
+ * Lookup speed is printed, not asserted.
+ */
+public class MosqueTimetableBenchmarkTest {
+    private static final int YEARS = 10;
+    private static final int START = PrayerTimeEngine.epochDay(2025, 1, 1);
+    private static final int DAYS = PrayerTimeEngine.epochDay(2025 + YEARS, 1, 1) - START;
+
+    private String csv;
+    private int rows;
+
+    @Before
+    public void setUp() {
+        Random random = new Random(11);
+        StringBuilder sb = new StringBuilder("date,prayer,time\n");
+        for (int d = 0; d < DAYS; d++) {
+            int[] ymd = PrayerTimeEngine.civilFromEpochDay(START + d);
+            String date = String.format("%04d-%02d-%02d", ymd[0], ymd[1], ymd[2]);
+            for (int p = 0; p < PrayerTimeEngine.PRAYER_COUNT; p++) {
+                int minutes = expected(p, START + d);
+                sb.append(date).append(',').append(PrayerTimeEngine.PRAYER_KEYS[p]).append(',');
+                if (random.nextBoolean()) {
+                    sb.append(minutes / 60).append(':').append(pad(minutes % 60));
+                } else {
+                    int h12 = (minutes / 60) % 12 == 0 ? 12 : (minutes / 60) % 12;
+                    sb.append(h12).append(':').append(pad(minutes % 60)).append(minutes >= 720 ? " PM" : " AM");
+                }
+                sb.append('\n');
+                rows++;
+            }
+        }
+        csv = sb.toString();
+    }
+
+    /** A deterministic time per prayer that drifts over the year. */
+    private static int expected(int prayer, int epochDay) {
+        return 270 + prayer * 150 + Math.floorMod(epochDay, 40);
+    }
+
+    private static String pad(int minutes) {
+        return minutes < 10 ? "0" + minutes : Integer.toString(minutes);
+    }
+
+    private MosqueTimetable importCsv(String text) throws IOException {
+        MosqueTimetable.Importer importer = new MosqueTimetable.Importer("Test", Double.NaN, Double.NaN);
+        importer.read(new StringReader(text));
+        return importer.build();
+    }
+
+    @Test
+    public void importThroughput() throws IOException {
+        // Warm up
+        for (int i = 0; i < 3; i++) {
+            importCsv(csv);
+        }
+
+        int runs = 5;
+        long start = System.nanoTime();
+        MosqueTimetable table = null;
+        for (int i = 0; i < runs; i++) {
+            table = importCsv(csv);
+        }
+        double ms = (System.nanoTime() - start) / 1e6 / runs;
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        table.writeTo(out);
+        System.out.printf("import %d years (%d rows, %d KB CSV): %.1f ms, %.0f rows/ms, %d KB stored%n",
+            YEARS, rows, csv.length() / 1024, ms, rows / ms, out.size() / 1024);
+
+        assertEquals(DAYS, table.days());
+        assertEquals(rows, table.entries());
+        assertTrue(out.size() < csv.length() / 4);
+    }
+
+    @Test
+    public void everyRowIsFoundByDay() throws IOException {
+        MosqueTimetable table = importCsv(csv);
+        for (int d = START; d < START + DAYS; d++) {
+            for (int p = 0; p < PrayerTimeEngine.PRAYER_COUNT; p++) {
+                assertEquals(expected(p, d), table.minutes(p, d));
+            }
+        }
+        assertEquals(MosqueTimetable.NONE, table.minutes(PrayerTimeEngine.FAJR, START - 1));
+        assertEquals(MosqueTimetable.NONE, table.minutes(PrayerTimeEngine.FAJR, START + DAYS));
+    }
+
+    @Test
+    public void lookupThroughput() throws IOException {
+        MosqueTimetable table = importCsv(csv);
+        int lookups = 2000000;
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            sink += table.minutes(i % PrayerTimeEngine.PRAYER_COUNT, START + (i * 31) % DAYS);
+        }
+        double ns = (System.nanoTime() - start) / (double) lookups;
+        System.out.printf("lookup over %d days: %.1f ns (sink %d)%n", DAYS, ns, sink);
+
+        long expectedSink = 0;
+        for (int i = 0; i < lookups; i++) {
+            expectedSink += expected(i % PrayerTimeEngine.PRAYER_COUNT, START + (i * 31) % DAYS);
+        }
+        assertEquals(expectedSink, sink);
+    }
+
+    @Test
+    public void roundTripsThroughStorage() throws IOException {
+        MosqueTimetable.Importer importer = new MosqueTimetable.Importer("Sule", 16.7747, 96.1588);
+        importer.read(new StringReader(csv));
+        MosqueTimetable table = importer.build();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        table.writeTo(out);
+        MosqueTimetable read = MosqueTimetable.read(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals("Sule", read.name);
+        assertEquals(16.7747, read.lat, 0);
+        assertEquals(table.getStartEpochDay(), read.getStartEpochDay());
+        assertEquals(table.days(), read.days());
+        for (int p = 0; p < PrayerTimeEngine.PRAYER_COUNT; p++) {
+            assertEquals(table.minutes(p, START + 100), read.minutes(p, START + 100));
+        }
+    }
+
+    @Test
+    public void rejectsForeignFiles() {
+        try {
+            MosqueTimetable.read(new ByteArrayInputStream(new byte[] { 'N', 'T', 'G', 'Z', 0, 0, 0, 1 }));
+            fail("Expected a format error");
+        } catch (IOException e) {
+            assertEquals("Not a mosque timetable", e.getMessage());
+        }
+    }
+
+    @Test
+    public void appliesOnlyNearTheMosque() {
+        MosqueTimetable.Importer importer = new MosqueTimetable.Importer("Sule", 16.7747, 96.1588);
+        MosqueTimetable table = build(importer, "2026-03-01,fajr,5:05\n");
+        assertTrue(table.appliesTo(16.80, 96.15));   // Yangon
+        assertFalse(table.appliesTo(21.9588, 96.0891)); // Mandalay
+
+        MosqueTimetable anywhere = build(new MosqueTimetable.Importer("", Double.NaN, Double.NaN),
+            "2026-03-01,fajr,5:05\n");
+        assertTrue(anywhere.appliesTo(21.9588, 96.0891));
+        assertFalse(MosqueTimetable.EMPTY.appliesTo(16.80, 96.15));
+    }
+
+    @Test
+    public void applyOverridesOnlyCoveredPrayers() {
+        MosqueTimetable table = build(new MosqueTimetable.Importer("", Double.NaN, Double.NaN),
+            "2026-03-01,fajr,5:05\n2026-03-01,Isha,7:45 PM\n");
+        int[] day = { 300, 360, 720, 730, 930, 1080, 1160 };
+        assertEquals(2, table.apply(PrayerTimeEngine.epochDay(2026, 3, 1), day));
+        assertArrayEquals(new int[] { 305, 360, 720, 730, 930, 1080, 1185 }, day);
+        assertEquals(0, table.apply(PrayerTimeEngine.epochDay(2026, 3, 2), day));
+    }
+
+    @Test
+    public void mergesIntoAnExistingTable() {
+        MosqueTimetable march = build(new MosqueTimetable.Importer("Sule", 16.7747, 96.1588),
+            "2026-03-01,fajr,5:05\n2026-03-31,fajr,4:50\n");
+        MosqueTimetable.Importer importer = new MosqueTimetable.Importer(march, null, Double.NaN, Double.NaN);
+        MosqueTimetable merged = build(importer, "2026-02-28,fajr,5:10\n2026-03-31,fajr,4:48\n2026-04-01,dhuhr,12:30\n");
+
+        assertEquals("Sule", merged.name);
+        assertEquals(16.7747, merged.lat, 0);
+        assertEquals(310, merged.minutes(PrayerTimeEngine.FAJR, PrayerTimeEngine.epochDay(2026, 2, 28)));
+        assertEquals(305, merged.minutes(PrayerTimeEngine.FAJR, PrayerTimeEngine.epochDay(2026, 3, 1)));
+        assertEquals(288, merged.minutes(PrayerTimeEngine.FAJR, PrayerTimeEngine.epochDay(2026, 3, 31)));
+        assertEquals(750, merged.minutes(PrayerTimeEngine.DHUHR, PrayerTimeEngine.epochDay(2026, 4, 1)));
+        assertEquals(33, merged.days());
+        // The base table is untouched
+        assertEquals(290, march.minutes(PrayerTimeEngine.FAJR, PrayerTimeEngine.epochDay(2026, 3, 31)));
+    }
+
+    @Test
+    public void countsAndReportsBadRows() throws IOException {
+        MosqueTimetable.Importer importer = new MosqueTimetable.Importer("", Double.NaN, Double.NaN);
+        importer.read(new StringReader("# Sule Pagoda mosque, March\n"
+            + "\n"
+            + "2026-03-01,zuhr,12:25\n"
+            + "2026-02-30,fajr,5:05\n"
+            + "2026-03-02,tahajjud,3:30\n"
+            + "2026-03-02,asr,25:10\n"
+            + "2026-03-02,\"maghrib\",\"6:10 PM\"\n"
+            + "2026-03-02 fajr 5:04\n"));
+
+        assertEquals(2, importer.rows());
+        assertEquals(4, importer.skipped());
+        assertEquals("line 4: bad date", importer.errors().get(0));
+        assertEquals("line 5: unknown prayer", importer.errors().get(1));
+        assertEquals("line 6: bad time", importer.errors().get(2));
+        assertEquals("line 8: expected date,prayer,time", importer.errors().get(3));
+
+        MosqueTimetable table = importer.build();
+        assertEquals(745, table.minutes(PrayerTimeEngine.DHUHR, PrayerTimeEngine.epochDay(2026, 3, 1)));
+        assertEquals(1090, table.minutes(PrayerTimeEngine.MAGHRIB, PrayerTimeEngine.epochDay(2026, 3, 2)));
+    }
+
+    @Test
+    public void skipsAHeaderAfterABomOrComments() throws IOException {
+        for (String text : new String[] {
+                "\uFEFFdate,prayer,time\n2026-03-01,fajr,5:05\n",
+                "\uFEFF2026-03-01,fajr,5:05\n",
+                "# Sule Pagoda mosque\n\n\"Date\",\"Prayer\",\"Time\"\n2026-03-01,fajr,5:05\n" }) {
+            MosqueTimetable.Importer importer = new MosqueTimetable.Importer("", Double.NaN, Double.NaN);
+            importer.read(new StringReader(text));
+            assertEquals(text, 1, importer.rows());
+            assertEquals(text, 0, importer.skipped());
+            assertEquals(305, importer.build().minutes(PrayerTimeEngine.FAJR, PrayerTimeEngine.epochDay(2026, 3, 1)));
+        }
+    }
+
+    @Test
+    public void quotedFirstDateIsARowNotAHeader() throws IOException {
+        MosqueTimetable.Importer importer = new MosqueTimetable.Importer("", Double.NaN, Double.NaN);
+        importer.read(new StringReader("\"2026-03-01\",fajr,5:05\n\"2026-03-02\",fajr,5:04\n"));
+        assertEquals(2, importer.rows());
+        assertEquals(305, importer.build().minutes(PrayerTimeEngine.FAJR, PrayerTimeEngine.epochDay(2026, 3, 1)));
+    }
+
+    @Test
+    public void onlyTheFirstLineCanBeAHeader() throws IOException {
+        MosqueTimetable.Importer importer = new MosqueTimetable.Importer("", Double.NaN, Double.NaN);
+        importer.read(new StringReader("2026-03-01,fajr,5:05\ndate,prayer,time\n"));
+        assertEquals(1, importer.rows());
+        assertEquals(1, importer.skipped());
+        assertEquals("line 2: bad date", importer.errors().get(0));
+    }
+
+    @Test
+    public void rejectsDatesFarOutsideTheSpan() throws IOException {
+        MosqueTimetable.Importer importer = new MosqueTimetable.Importer("", Double.NaN, Double.NaN);
+        importer.read(new StringReader("2026-03-01,fajr,5:05\n9026-03-01,fajr,5:05\n"));
+        assertEquals(1, importer.rows());
+        assertEquals(1, importer.build().days());
+    }
+
+    @Test
+    public void parsesTimes() {
+        assertEquals(305, MosqueTimetable.Importer.parseTime("5:05"));
+        assertEquals(305, MosqueTimetable.Importer.parseTime("05:05:00"));
+        assertEquals(1185, MosqueTimetable.Importer.parseTime("7:45 PM"));
+        assertEquals(1185, MosqueTimetable.Importer.parseTime("7:45pm"));
+        assertEquals(5, MosqueTimetable.Importer.parseTime("12:05 AM"));
+        assertEquals(725, MosqueTimetable.Importer.parseTime("12:05 PM"));
+        assertEquals(-1, MosqueTimetable.Importer.parseTime("13:05 PM"));
+        assertEquals(-1, MosqueTimetable.Importer.parseTime("5:60"));
+        assertEquals(-1, MosqueTimetable.Importer.parseTime("505"));
+    }
+
+    private static MosqueTimetable build(MosqueTimetable.Importer importer, String text) {
+        try {
+            importer.read(new StringReader(text));
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        return importer.build();
+    }
+}
@@ -0,0 +1,146 @@
+package com.xolbine.namaztimemm;
+
+import static org.junit.Assert.*;
+
+import com.getcapacitor.PluginCall;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serial order, the bounded queue and shutdown. Latches hold the worker on a
+ * known call, so nothing depends on how fast the machine is.
+ */
+public class PluginExecutorTest {
+    private final PluginExecutor executor = new PluginExecutor("Test");
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    /** Records how the executor settled it. */
+    private static final class RecordingCall extends PluginCall {
+        final List<String> rejections = Collections.synchronizedList(new ArrayList<String>());
+
+        RecordingCall(String methodName) {
+            super(null, "Test", methodName, methodName, null);
+        }
+
+        @Override
+        public void reject(String message) {
+            rejections.add(message);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    public void callsRunOneAtATimeInOrder() throws Exception {
+        final List<Integer> order = Collections.synchronizedList(new ArrayList<Integer>());
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(20);
+        for (int i = 0; i < 20; i++) {
+            final int index = i;
+            executor.execute(new RecordingCall("call" + i), new Runnable() {
+                @Override
+                public void run() {
+                    maxInFlight.set(Math.max(maxInFlight.get(), inFlight.incrementAndGet()));
+                    order.add(index);
+                    inFlight.decrementAndGet();
+                    done.countDown();
+                }
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+
+        assertEquals(1, maxInFlight.get());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i, (int) order.get(i));
+        }
+    }
+
+    @Test
+    public void fullQueueRejectsTheOverflow() throws Exception {
+        RecordingCall running = blockWorker();
+        List<RecordingCall> queued = new ArrayList<>();
+        for (int i = 0; i < PluginExecutor.QUEUE_CAPACITY; i++) {
+            RecordingCall call = new RecordingCall("queued" + i);
+            queued.add(call);
+            executor.execute(call, noop());
+        }
+        RecordingCall overflow = new RecordingCall("overflow");
+        executor.execute(overflow, noop());
+
+        assertEquals(Collections.singletonList("Test is busy, try again"), overflow.rejections);
+        assertTrue(running.rejections.isEmpty());
+        for (RecordingCall call : queued) {
+            assertTrue(call.rejections.isEmpty());
+        }
+    }
+
+    @Test
+    public void shutdownRejectsCallsThatNeverStarted() throws Exception {
+        RecordingCall running = blockWorker();
+        RecordingCall first = new RecordingCall("first");
+        RecordingCall second = new RecordingCall("second");
+        final AtomicInteger ran = new AtomicInteger();
+        Runnable count = new Runnable() {
+            @Override
+            public void run() {
+                ran.incrementAndGet();
+            }
+        };
+        executor.execute(first, count);
+        executor.execute(second, count);
+        executor.execute(count); // lifecycle work has no call to reject
+
+        executor.shutdown();
+        release.countDown();
+
+        assertEquals(Collections.singletonList("Cancelled"), first.rejections);
+        assertEquals(Collections.singletonList("Cancelled"), second.rejections);
+        // The running call settles itself
+        assertTrue(running.rejections.isEmpty());
+        assertEquals(0, ran.get());
+
+        RecordingCall late = new RecordingCall("late");
+        executor.execute(late, count);
+        assertEquals(Collections.singletonList("Test is busy, try again"), late.rejections);
+    }
+
+    /** Occupies the worker until {@link #release}, so later calls stay queued. */
+    private RecordingCall blockWorker() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        RecordingCall call = new RecordingCall("blocking");
+        executor.execute(call, new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        return call;
+    }
+
+    private static Runnable noop() {
+        return new Runnable() {
+            @Override
+            public void run() {
+            }
+        };
+    }
+}
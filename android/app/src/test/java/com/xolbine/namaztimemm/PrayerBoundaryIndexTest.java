@@ -0,0 +1,100 @@
+package com.xolbine.namaztimemm;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class PrayerBoundaryIndexTest {
+    private static final long MIN = 60000L;
+    private static final long DAY = 1440 * MIN;
+    // Fajr, Sunrise, Zawal, Asr, Maghrib, Isha in minutes after midnight
+    private static final int[] MINUTES = { 300, 360, 720, 930, 1080, 1160 };
+
+    /** Fixed times in a UTC+0 world, so day d starts at d * DAY. */
+    private static PrayerBoundaryIndex.Source fixedDays() {
+        return new PrayerBoundaryIndex.Source() {
+            @Override
+            public long[] day(long millis) {
+                long start = Math.floorDiv(millis, DAY) * DAY;
+                long[] bounds = new long[MINUTES.length + 1];
+                for (int i = 0; i < MINUTES.length; i++) {
+                    bounds[i] = start + MINUTES[i] * MIN;
+                }
+                bounds[MINUTES.length] = start + DAY;
+                return bounds;
+            }
+        };
+    }
+
+    @Test
+    public void findsCurrentAndNextWithinTheDay() {
+        PrayerBoundaryIndex index = new PrayerBoundaryIndex(fixedDays());
+        long now = 100 * DAY + 800 * MIN;
+
+        int next = index.seek(now);
+        assertEquals(PrayerTimeEngine.ASR, index.kind(next));
+        assertEquals(PrayerTimeEngine.ZAWAL, index.kind(next - 1));
+        assertEquals(130 * MIN, index.time(next) - now);
+        assertFalse(index.isLaterDay(now, next));
+    }
+
+    @Test
+    public void beforeFajrCurrentIsLastNightsIsha() {
+        PrayerBoundaryIndex index = new PrayerBoundaryIndex(fixedDays());
+        long now = 100 * DAY + 30 * MIN;
+
+        int next = index.seek(now);
+        assertEquals(PrayerTimeEngine.FAJR, index.kind(next));
+        assertEquals(PrayerTimeEngine.ISHA, index.kind(next - 1));
+        assertEquals(99 * DAY + 1160 * MIN, index.time(next - 1));
+        assertFalse(index.isLaterDay(now, next));
+
+        // After Isha the next Fajr is on the following day
+        now = 100 * DAY + 1200 * MIN;
+        next = index.seek(now);
+        assertEquals(PrayerTimeEngine.FAJR, index.kind(next));
+        assertTrue(index.isLaterDay(now, next));
+    }
+
+    @Test
+    public void boundaryItselfCountsAsPassed() {
+        PrayerBoundaryIndex index = new PrayerBoundaryIndex(fixedDays());
+        long maghrib = 100 * DAY + 1080 * MIN;
+
+        int next = index.seek(maghrib);
+        assertEquals(PrayerTimeEngine.MAGHRIB, index.kind(next - 1));
+        assertEquals(PrayerTimeEngine.ISHA, index.kind(next));
+    }
+
+    @Test
+    public void extendsOneDayAtATimeAsTimePasses() {
+        PrayerBoundaryIndex index = new PrayerBoundaryIndex(fixedDays());
+        index.seek(100 * DAY);
+        long initial = index.computedDays();
+        assertEquals(PrayerBoundaryIndex.HORIZON_DAYS + 2, initial);
+
+        // Every minute of the same day is answered without computing anything
+        for (long t = 100 * DAY; t < 101 * DAY; t += MIN) {
+            index.seek(t);
+        }
+        assertEquals(initial, index.computedDays());
+
+        int next = index.seek(101 * DAY + MIN);
+        assertEquals(initial + 1, index.computedDays());
+        assertEquals(101 * DAY + 300 * MIN, index.time(next));
+        assertEquals((PrayerBoundaryIndex.HORIZON_DAYS + 1) * MINUTES.length, index.available(next));
+    }
+
+    @Test
+    public void clockJumpsRebuild() {
+        PrayerBoundaryIndex index = new PrayerBoundaryIndex(fixedDays());
+        index.seek(100 * DAY);
+
+        int next = index.seek(400 * DAY + 1000 * MIN);
+        assertEquals(400 * DAY + 1080 * MIN, index.time(next));
+
+        next = index.seek(50 * DAY + 1000 * MIN);
+        assertEquals(50 * DAY + 1080 * MIN, index.time(next));
+        assertEquals(3 * (PrayerBoundaryIndex.HORIZON_DAYS + 2), index.computedDays());
+    }
+}
@@ -0,0 +1,80 @@
+package com.xolbine.namaztimemm;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+public class PrayerTimeCacheTest {
+
+    @Test
+    public void gpsJitterHitsTheSameEntry() {
+        PrayerTimeCache cache = new PrayerTimeCache(16);
+        int[] first = cache.get(16.86610, 96.19510, 6.5, 2026, 10, 19,
+            PrayerTimeEngine.CalcMethod.KARACHI, 2, 0);
+        // ~5 m of jitter
+        int[] second = cache.get(16.86614, 96.19505, 6.5, 2026, 10, 19,
+            PrayerTimeEngine.CalcMethod.KARACHI, 2, 0);
+
+        assertArrayEquals(first, second);
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        PrayerTimeCache cache = new PrayerTimeCache(2);
+        cache.get(16.8, 96.2, 6.5, 2026, 1, 1, PrayerTimeEngine.CalcMethod.KARACHI, 2, 0);
+        cache.get(16.8, 96.2, 6.5, 2026, 1, 2, PrayerTimeEngine.CalcMethod.KARACHI, 2, 0);
+        // Touch day 1 so day 2 becomes the eldest
+        cache.get(16.8, 96.2, 6.5, 2026, 1, 1, PrayerTimeEngine.CalcMethod.KARACHI, 2, 0);
+        cache.get(16.8, 96.2, 6.5, 2026, 1, 3, PrayerTimeEngine.CalcMethod.KARACHI, 2, 0);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        cache.get(16.8, 96.2, 6.5, 2026, 1, 1, PrayerTimeEngine.CalcMethod.KARACHI, 2, 0);
+        assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    public void highLatitudeBypassesCache() {
+        PrayerTimeCache cache = new PrayerTimeCache(16);
+        cache.get(59.9, 10.7, 1, 2026, 6, 21, PrayerTimeEngine.CalcMethod.MWL, 1, 0);
+        cache.get(59.9, 10.7, 1, 2026, 6, 21, PrayerTimeEngine.CalcMethod.MWL, 1, 0);
+        assertEquals(2, cache.getBypasses());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void quantizationErrorStaysUnderThirtySeconds() {
+        Random random = new Random(42);
+        double half = PrayerTimeCache.CELL_DEGREES / 2;
+        double worstSeconds = 0;
+
+        for (int i = 0; i < 20000; i++) {
+            double centreLat = Math.round((random.nextDouble() * 2 - 1) * (PrayerTimeCache.MAX_CACHED_LATITUDE - half)
+                / PrayerTimeCache.CELL_DEGREES) * PrayerTimeCache.CELL_DEGREES;
+            double centreLng = Math.round((random.nextDouble() * 360 - 180) / PrayerTimeCache.CELL_DEGREES)
+                * PrayerTimeCache.CELL_DEGREES;
+            // Worst case sits on a cell corner
+            double lat = centreLat + (random.nextBoolean() ? half : -half);
+            double lng = centreLng + (random.nextBoolean() ? half : -half);
+            int[] civil = PrayerTimeEngine.civilFromEpochDay(PrayerTimeEngine.epochDay(2026, 1, 1) + random.nextInt(365));
+            PrayerTimeEngine.CalcMethod method =
+                PrayerTimeEngine.CalcMethod.values()[random.nextInt(PrayerTimeEngine.CalcMethod.values().length)];
+            int school = 1 + random.nextInt(2);
+
+            double[] exact = PrayerTimeEngine.computeDayHours(lat, lng, 0, civil[0], civil[1], civil[2],
+                method, school, PrayerTimeEngine.HighLatRule.MIDDLE_OF_NIGHT, null, 0);
+            double[] cell = PrayerTimeEngine.computeDayHours(centreLat, centreLng, 0, civil[0], civil[1], civil[2],
+                method, school, PrayerTimeEngine.HighLatRule.MIDDLE_OF_NIGHT, null, 0);
+
+            for (int p = 0; p < PrayerTimeEngine.PRAYER_COUNT; p++) {
+                worstSeconds = Math.max(worstSeconds, Math.abs(exact[p] - cell[p]) * 3600);
+            }
+        }
+
+        assertTrue(worstSeconds < 30);
+    }
+}
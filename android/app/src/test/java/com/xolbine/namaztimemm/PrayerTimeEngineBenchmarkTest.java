@@ -0,0 +1,137 @@
+package com.xolbine.namaztimemm;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Compares the bulk year-at-once path against computing one day at a time.
+ * Throughput is printed, not asserted; correctness is checked against the
+ * per-day and per-method paths. Run with ./gradlew :app:testDebugUnitTest --tests '*PrayerTimeEngineBenchmarkTest'
+ */
+public class PrayerTimeEngineBenchmarkTest {
+    private static final double LAT = 16.8661;
+    private static final double LNG = 96.1951;
+    private static final double TZ = 6.5;
+    private static final int DAYS = 365;
+    private static final int ROUNDS = 200;
+
+    @Test
+    public void bulkMatchesDayAtATime() {
+        for (PrayerTimeEngine.CalcMethod method : PrayerTimeEngine.CalcMethod.values()) {
+            Timetable table = computeYear(method);
+            for (int d = 0; d < DAYS; d++) {
+                int[] expected = computeDay(table.getStartEpochDay() + d, method);
+                for (int p = 0; p < PrayerTimeEngine.PRAYER_COUNT; p++) {
+                    // Only a rounding-boundary minute may differ
+                    assertTrue(method + " day " + d + " prayer " + p,
+                        Math.abs(expected[p] - table.getMinutes(p, d)) <= 1);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void yearAtOnceThroughput() {
+        PrayerTimeEngine.CalcMethod method = PrayerTimeEngine.CalcMethod.KARACHI;
+        Timetable reference = computeYear(method);
+        int startEpochDay = reference.getStartEpochDay();
+
+        // Warm up both paths
+        long sink = 0;
+        for (int i = 0; i < 20; i++) {
+            sink += computeYear(method).getMinutes(PrayerTimeEngine.FAJR, 0);
+            sink += computeDay(startEpochDay + i, method)[PrayerTimeEngine.FAJR];
+        }
+
+        long start = System.nanoTime();
+        for (int r = 0; r < ROUNDS; r++) {
+            sink += computeYear(method).getMinutes(PrayerTimeEngine.ISHA, r % DAYS);
+        }
+        long bulkNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int r = 0; r < ROUNDS; r++) {
+            for (int d = 0; d < DAYS; d++) {
+                sink += computeDay(startEpochDay + d, method)[PrayerTimeEngine.ISHA];
+            }
+        }
+        long singleNanos = System.nanoTime() - start;
+
+        double bulkDaysPerSec = (double) ROUNDS * DAYS / (bulkNanos / 1e9);
+        double singleDaysPerSec = (double) ROUNDS * DAYS / (singleNanos / 1e9);
+        System.out.printf("year-at-once: %.0f days/s, day-at-a-time: %.0f days/s, speedup %.1fx (sink %d)%n",
+            bulkDaysPerSec, singleDaysPerSec, bulkDaysPerSec / singleDaysPerSec, sink);
+    }
+
+    @Test
+    public void allMethodsMatchesPerMethod() {
+        MultiMethodTimetable all = PrayerTimeEngine.computeDaysAllMethods(LAT, LNG, TZ, 2026, 1, 1, DAYS,
+            PrayerTimeEngine.HighLatRule.MIDDLE_OF_NIGHT, null, 0);
+        for (PrayerTimeEngine.CalcMethod method : PrayerTimeEngine.CalcMethod.values()) {
+            for (int school = 1; school <= 2; school++) {
+                Timetable expected = PrayerTimeEngine.computeDays(LAT, LNG, TZ, 2026, 1, 1, DAYS, method, school,
+                    PrayerTimeEngine.HighLatRule.MIDDLE_OF_NIGHT, null, 0);
+                Timetable actual = all.get(method, school);
+                for (int p = 0; p < PrayerTimeEngine.PRAYER_COUNT; p++) {
+                    for (int d = 0; d < DAYS; d++) {
+                        assertEquals(method + " school " + school + " day " + d + " prayer " + p,
+                            expected.getMinutes(p, d), actual.getMinutes(p, d));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void allMethodsThroughput() {
+        PrayerTimeEngine.CalcMethod[] methods = PrayerTimeEngine.CalcMethod.values();
+        long sink = 0;
+        for (int i = 0; i < 20; i++) {
+            sink += allMethodsYear().size();
+            sink += perMethodYear(methods);
+        }
+
+        long start = System.nanoTime();
+        for (int r = 0; r < ROUNDS; r++) {
+            sink += allMethodsYear().size();
+        }
+        long sharedNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int r = 0; r < ROUNDS; r++) {
+            sink += perMethodYear(methods);
+        }
+        long separateNanos = System.nanoTime() - start;
+
+        System.out.printf("all methods x schools: shared %.2f ms/year, separate %.2f ms/year, speedup %.1fx (sink %d)%n",
+            sharedNanos / 1e6 / ROUNDS, separateNanos / 1e6 / ROUNDS, (double) separateNanos / sharedNanos, sink);
+    }
+
+    private static MultiMethodTimetable allMethodsYear() {
+        return PrayerTimeEngine.computeDaysAllMethods(LAT, LNG, TZ, 2026, 1, 1, DAYS,
+            PrayerTimeEngine.HighLatRule.MIDDLE_OF_NIGHT, null, 0);
+    }
+
+    private static int perMethodYear(PrayerTimeEngine.CalcMethod[] methods) {
+        int sum = 0;
+        for (PrayerTimeEngine.CalcMethod method : methods) {
+            for (int school = 1; school <= 2; school++) {
+                sum += PrayerTimeEngine.computeDays(LAT, LNG, TZ, 2026, 1, 1, DAYS, method, school,
+                    PrayerTimeEngine.HighLatRule.MIDDLE_OF_NIGHT, null, 0).size();
+            }
+        }
+        return sum;
+    }
+
+    private static Timetable computeYear(PrayerTimeEngine.CalcMethod method) {
+        return PrayerTimeEngine.computeDays(LAT, LNG, TZ, 2026, 1, 1, DAYS, method, 2,
+            PrayerTimeEngine.HighLatRule.MIDDLE_OF_NIGHT, null, 0);
+    }
+
+    private static int[] computeDay(int epochDay, PrayerTimeEngine.CalcMethod method) {
+        int[] civil = PrayerTimeEngine.civilFromEpochDay(epochDay);
+        return PrayerTimeEngine.computeDay(LAT, LNG, TZ, civil[0], civil[1], civil[2], method, 2,
+            PrayerTimeEngine.HighLatRule.MIDDLE_OF_NIGHT, null, 0);
+    }
+}
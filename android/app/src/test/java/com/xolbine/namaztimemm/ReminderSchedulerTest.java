@@ -0,0 +1,125 @@
+package com.xolbine.namaztimemm;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.TreeMap;
+
+public class ReminderSchedulerTest {
+    private static final long MIN = 60000L;
+
+    @Test
+    public void planAddsBeforeAndIqamahInTimeOrder() {
+        Map<Integer, Long> times = new TreeMap<>();
+        times.put(1310, 300 * MIN);  // Fajr
+        times.put(4310, 1080 * MIN); // Maghrib
+        int[] iqamah = { 20, 0, 0, 5, 0 };
+
+        List<ReminderScheduler.Reminder> plan = ReminderScheduler.plan(times, 15, iqamah, 0);
+        assertEquals(4, plan.size());
+        assertEquals(285 * MIN, plan.get(0).at);
+        assertFalse(plan.get(0).iqamah);
+        assertEquals(320 * MIN, plan.get(1).at);
+        assertTrue(plan.get(1).iqamah);
+        assertEquals(1065 * MIN, plan.get(2).at);
+        assertEquals(1085 * MIN, plan.get(3).at);
+        assertEquals(3, plan.get(3).prayer);
+
+        // Only what is still ahead
+        assertEquals(2, ReminderScheduler.plan(times, 15, iqamah, 320 * MIN).size());
+    }
+
+    @Test
+    public void coalesceMergesRemindersWithinTheWindow() {
+        Map<Integer, Long> times = new TreeMap<>();
+        times.put(2310, 720 * MIN);  // Dhuhr
+        times.put(3310, 735 * MIN);  // an Asr close behind, to force overlap
+        int[] iqamah = { 0, 10, 0, 0, 0 };
+        // Dhuhr-15 = 705, Asr-15 = 720, Dhuhr iqamah = 730
+        List<List<ReminderScheduler.Reminder>> groups = ReminderScheduler.coalesce(
+            ReminderScheduler.plan(times, 15, iqamah, 0), ReminderScheduler.COALESCE_WINDOW_MS);
+        assertEquals(2, groups.size());
+        assertEquals(1, groups.get(0).size());
+        assertEquals(2, groups.get(1).size());
+    }
+
+    @Test
+    public void groupEndsBeforeItsPrayerStarts() {
+        Map<Integer, Long> times = new TreeMap<>();
+        times.put(2310, 720 * MIN);  // Dhuhr
+        times.put(3310, 728 * MIN);  // Asr
+        int[] iqamah = { 0, 5, 0, 0, 0 };
+        // Dhuhr-5 = 715, Asr-5 = 723, Dhuhr iqamah = 725: all within the window,
+        // but firing at 723 or later would be after Dhuhr's reminder was due
+        List<List<ReminderScheduler.Reminder>> groups = ReminderScheduler.coalesce(
+            ReminderScheduler.plan(times, 5, iqamah, 0), ReminderScheduler.COALESCE_WINDOW_MS);
+        assertEquals(2, groups.size());
+        assertEquals(1, groups.get(0).size());
+        assertEquals(2, groups.get(1).size());
+        assertEquals(725 * MIN, groups.get(1).get(1).at);
+    }
+
+    @Test
+    public void weekOfRemindersNeedsFewerWakeupsThanReminders() {
+        AlarmScheduleStore.Inputs inputs = new AlarmScheduleStore.Inputs(16.8661, 96.1951,
+            PrayerTimeEngine.CalcMethod.KARACHI, 2, 0, new HashSet<>(Arrays.asList(AlarmReconciler.ALARM_PRAYERS)));
+        Calendar midnight = Calendar.getInstance(TimeZone.getTimeZone("Asia/Yangon"));
+        midnight.clear();
+        midnight.set(2026, Calendar.MARCH, 10);
+        long now = midnight.getTimeInMillis();
+        Map<Integer, Long> times = AlarmReconciler.desired(inputs, now, TimeZone.getTimeZone("Asia/Yangon"));
+        // An hour-before reminder plus iqamah alerts: Isha's reminder lands next to Maghrib's iqamah
+        int[] iqamah = { 20, 15, 15, 15, 15 };
+        List<ReminderScheduler.Reminder> plan = ReminderScheduler.plan(times, 60, iqamah, now);
+        int wakeups = ReminderScheduler.coalesce(plan, ReminderScheduler.COALESCE_WINDOW_MS).size();
+        assertEquals(70, plan.size());
+        assertTrue(wakeups < plan.size());
+        for (List<ReminderScheduler.Reminder> group : ReminderScheduler.coalesce(plan, ReminderScheduler.COALESCE_WINDOW_MS)) {
+            // Armed at the last reminder: nobody early, nobody more than the window late
+            long fireAt = group.get(group.size() - 1).at;
+            assertTrue(fireAt - group.get(0).at <= ReminderScheduler.COALESCE_WINDOW_MS);
+            for (ReminderScheduler.Reminder r : group) {
+                assertTrue(r.iqamah || fireAt < r.prayerTime);
+            }
+        }
+    }
+
+    @Test
+    public void remindersFollowTheMosqueTimesNearIt() throws IOException {
+        TimeZone yangon = TimeZone.getTimeZone("Asia/Yangon");
+        Calendar midnight = Calendar.getInstance(yangon);
+        midnight.clear();
+        midnight.set(2026, Calendar.MARCH, 10);
+        long now = midnight.getTimeInMillis();
+        MosqueTimetable.Importer importer = new MosqueTimetable.Importer("Sule", 16.7747, 96.1588);
+        importer.read(new StringReader("2026-03-11,fajr,4:55\n"));
+        MosqueTimetable mosque = importer.build();
+        AlarmScheduleStore.Inputs near = new AlarmScheduleStore.Inputs(16.8661, 96.1951,
+            PrayerTimeEngine.CalcMethod.KARACHI, 2, 0, new HashSet<String>());
+        AlarmScheduleStore.Inputs far = new AlarmScheduleStore.Inputs(21.9588, 96.0891,
+            PrayerTimeEngine.CalcMethod.KARACHI, 2, 0, new HashSet<String>());
+
+        Calendar fajr = (Calendar) midnight.clone();
+        fajr.set(2026, Calendar.MARCH, 11, 4, 55);
+        Map<Integer, Long> times = ReminderScheduler.prayerTimes(near, now, yangon, mosque);
+        assertEquals(Long.valueOf(fajr.getTimeInMillis()), times.get(1311));
+        // Every adhan is disabled, but reminders still need every prayer
+        assertTrue(times.containsKey(5310));
+        List<ReminderScheduler.Reminder> plan = ReminderScheduler.plan(times, 15, new int[5], now);
+        assertEquals(fajr.getTimeInMillis() - 15 * MIN, plan.get(5).at);
+
+        // Too far from the mosque: computed times, as for the adhan
+        Map<Integer, Long> computed = ReminderScheduler.prayerTimes(far, now, yangon, MosqueTimetable.EMPTY);
+        assertNotNull(computed.get(1311));
+        assertEquals(computed, ReminderScheduler.prayerTimes(far, now, yangon, mosque));
+    }
+}
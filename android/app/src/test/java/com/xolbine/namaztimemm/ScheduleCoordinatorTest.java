@@ -0,0 +1,149 @@
+package com.xolbine.namaztimemm;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Drives the coordinator on a manual clock, so no test waits on real time. */
+public class ScheduleCoordinatorTest {
+    private static final long DEBOUNCE_MS = 50;
+    private static final long MAX_WAIT_MS = 200;
+
+    /** Runs due tasks in time order when advanced; nothing runs on its own. */
+    private static final class ManualScheduler implements ScheduleCoordinator.Scheduler {
+        private final List<long[]> due = new ArrayList<>(); // {dueMs, index into tasks}
+        private final List<FutureTask<Void>> tasks = new ArrayList<>();
+        private long nowMs;
+
+        @Override
+        public long nanoTime() {
+            return TimeUnit.MILLISECONDS.toNanos(nowMs);
+        }
+
+        @Override
+        public Future<?> schedule(Runnable task, long delayMs) {
+            FutureTask<Void> future = new FutureTask<>(task, null);
+            due.add(new long[] { nowMs + delayMs, tasks.size() });
+            tasks.add(future);
+            return future;
+        }
+
+        long now() {
+            return nowMs;
+        }
+
+        void advance(long ms) {
+            long target = nowMs + ms;
+            while (true) {
+                long[] next = null;
+                for (long[] d : due) {
+                    if (d[0] <= target && (next == null || d[0] < next[0])) {
+                        next = d;
+                    }
+                }
+                if (next == null) {
+                    break;
+                }
+                due.remove(next);
+                nowMs = next[0];
+                tasks.get((int) next[1]).run(); // no-op when cancelled
+            }
+            nowMs = target;
+        }
+    }
+
+    @Test
+    public void burstCollapsesIntoOneRun() {
+        final List<Integer> runs = new ArrayList<>();
+        ManualScheduler scheduler = new ManualScheduler();
+        ScheduleCoordinator coordinator = new ScheduleCoordinator(DEBOUNCE_MS, MAX_WAIT_MS, scheduler,
+            new ScheduleCoordinator.Run() {
+                @Override
+                public void run(int requests) {
+                    runs.add(requests);
+                }
+            });
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i + 1, coordinator.request());
+            scheduler.advance(1);
+        }
+        scheduler.advance(DEBOUNCE_MS - 2);
+        assertTrue(runs.isEmpty());
+        scheduler.advance(1);
+        scheduler.advance(10 * DEBOUNCE_MS);
+
+        assertEquals(1, runs.size());
+        assertEquals(10, (int) runs.get(0));
+        assertEquals(10, coordinator.requests());
+        assertEquals(1, coordinator.runs());
+        assertEquals(9, coordinator.collapsed());
+    }
+
+    @Test
+    public void requestDuringRunQueuesOneMoreWithoutOverlap() {
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        final List<Integer> runs = new ArrayList<>();
+        final ManualScheduler scheduler = new ManualScheduler();
+        final ScheduleCoordinator[] coordinator = new ScheduleCoordinator[1];
+        coordinator[0] = new ScheduleCoordinator(DEBOUNCE_MS, MAX_WAIT_MS, scheduler,
+            new ScheduleCoordinator.Run() {
+                @Override
+                public void run(int requests) {
+                    maxInFlight.set(Math.max(maxInFlight.get(), inFlight.incrementAndGet()));
+                    runs.add(requests);
+                    if (runs.size() == 1) {
+                        // Both land while the first run is still going
+                        coordinator[0].request();
+                        coordinator[0].request();
+                    }
+                    inFlight.decrementAndGet();
+                }
+            });
+
+        coordinator[0].request();
+        scheduler.advance(DEBOUNCE_MS);
+        assertEquals(1, runs.size());
+        scheduler.advance(DEBOUNCE_MS);
+
+        assertEquals(1, maxInFlight.get());
+        assertEquals(2, runs.size());
+        assertEquals(2, (int) runs.get(1));
+        assertEquals(1, coordinator[0].collapsed());
+    }
+
+    @Test
+    public void steadyRequestsStillRunWithinTheMaxWait() {
+        final List<Long> runAt = new ArrayList<>();
+        final ManualScheduler scheduler = new ManualScheduler();
+        ScheduleCoordinator coordinator = new ScheduleCoordinator(DEBOUNCE_MS, MAX_WAIT_MS, scheduler,
+            new ScheduleCoordinator.Run() {
+                @Override
+                public void run(int requests) {
+                    runAt.add(scheduler.now());
+                }
+            });
+
+        // A request every half debounce for 3x the max wait never lets the debounce expire
+        while (scheduler.now() < 3 * MAX_WAIT_MS) {
+            coordinator.request();
+            scheduler.advance(DEBOUNCE_MS / 2);
+        }
+        scheduler.advance(DEBOUNCE_MS);
+
+        assertEquals(3, runAt.size());
+        assertEquals(MAX_WAIT_MS, (long) runAt.get(0));
+        for (int i = 1; i < runAt.size(); i++) {
+            assertTrue(runAt.get(i) - runAt.get(i - 1) <= MAX_WAIT_MS + DEBOUNCE_MS / 2);
+        }
+        assertEquals(coordinator.requests(), coordinator.runs() + coordinator.collapsed());
+    }
+}
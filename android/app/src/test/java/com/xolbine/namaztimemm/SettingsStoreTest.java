@@ -0,0 +1,129 @@
+package com.xolbine.namaztimemm;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class SettingsStoreTest {
+
+    private static class MemoryBacking implements SettingsStore.Backing {
+        final Map<String, Object> stored = new HashMap<>();
+        int writes;
+
+        @Override
+        public Map<String, ?> load() {
+            return new HashMap<>(stored);
+        }
+
+        @Override
+        public void write(Map<String, Object> changes) {
+            writes++;
+            stored.putAll(changes);
+        }
+    }
+
+    @Test
+    public void unsetKeysReadAsDefaults() {
+        SettingsStore store = new SettingsStore(new MemoryBacking());
+
+        assertEquals(2, (int) store.get(SettingsStore.ASR_SHADOW));
+        assertEquals("my", store.get(SettingsStore.LANGUAGE));
+        assertTrue(store.get(SettingsStore.PRAYER_SOUND.get(0)));
+        assertEquals(DeliveryTier.FULL.jsName, store.get(SettingsStore.DELIVERY_TIER.get(4)));
+        assertEquals(4 + 2 * AlarmReconciler.ALARM_PRAYERS.length, store.snapshot().size());
+    }
+
+    @Test
+    public void batchIsOneWriteAndOneNotification() {
+        MemoryBacking backing = new MemoryBacking();
+        SettingsStore store = new SettingsStore(backing);
+        final List<Set<String>> heard = new ArrayList<>();
+        store.addListener(new SettingsStore.Listener() {
+            @Override
+            public void onSettingsChanged(Set<String> keys) {
+                heard.add(keys);
+            }
+        });
+
+        Set<String> changed = store.edit()
+            .put(SettingsStore.METHOD, 3)
+            .put(SettingsStore.LANGUAGE, "en")
+            .put(SettingsStore.ASR_SHADOW, 2) // same as the default
+            .commit();
+
+        assertEquals(2, changed.size());
+        assertTrue(changed.contains("method"));
+        assertTrue(changed.contains("language"));
+        assertEquals(1, backing.writes);
+        assertEquals(1, heard.size());
+        assertEquals(changed, heard.get(0));
+        assertEquals(3, (int) store.get(SettingsStore.METHOD));
+    }
+
+    @Test
+    public void unchangedBatchDoesNotWriteOrNotify() {
+        MemoryBacking backing = new MemoryBacking();
+        SettingsStore store = new SettingsStore(backing);
+        store.edit().put(SettingsStore.HIJRI_OFFSET, 1).commit();
+        final int[] calls = {0};
+        store.addListener(new SettingsStore.Listener() {
+            @Override
+            public void onSettingsChanged(Set<String> keys) {
+                calls[0]++;
+            }
+        });
+
+        assertTrue(store.edit().put(SettingsStore.HIJRI_OFFSET, 1).commit().isEmpty());
+        assertEquals(1, backing.writes);
+        assertEquals(0, calls[0]);
+    }
+
+    @Test
+    public void badValueLeavesStoreUntouched() {
+        MemoryBacking backing = new MemoryBacking();
+        SettingsStore store = new SettingsStore(backing);
+        SettingsStore.Batch batch = store.edit().putValue("method", 5.0);
+
+        try {
+            batch.putValue("prayerSound.fajr", "yes");
+            fail("Expected a type error");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            batch.putValue("volume", 3);
+            fail("Expected an unknown key error");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            batch.put(SettingsStore.LANGUAGE, null);
+            fail("Expected a null error");
+        } catch (IllegalArgumentException expected) {
+        }
+
+        assertEquals(0, (int) store.get(SettingsStore.METHOD));
+        assertEquals(0, backing.writes);
+    }
+
+    @Test
+    public void reloadsWhatWasWrittenAndDropsBadEntries() {
+        MemoryBacking backing = new MemoryBacking();
+        SettingsStore first = new SettingsStore(backing);
+        first.edit().putValue("deliveryTier.asr", "vibrate").putValue("hijriOffset", -1).commit();
+        backing.stored.put("language", 7);
+        backing.stored.put("somethingOld", "x");
+
+        SettingsStore second = new SettingsStore(backing);
+
+        assertEquals("vibrate", second.get(SettingsStore.DELIVERY_TIER.get(2)));
+        assertEquals(-1, (int) second.get(SettingsStore.HIJRI_OFFSET));
+        assertEquals("my", second.get(SettingsStore.LANGUAGE));
+        assertEquals(1, second.droppedOnLoad.size());
+        assertTrue(second.droppedOnLoad.get(0).startsWith("language"));
+    }
+}
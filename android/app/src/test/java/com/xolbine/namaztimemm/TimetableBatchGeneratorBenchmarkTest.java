@@ -0,0 +1,103 @@
+package com.xolbine.namaztimemm;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Harness for the multi-city, multi-method generator.
+ * Reports rows per second (one row = city x method x asrSchool x day) and the
+ * speedup over one thread for each pool size; timings are printed, not asserted.
+ */
+public class TimetableBatchGeneratorBenchmarkTest {
+
+    @Test
+    public void fileRoundTripMatchesGrid() throws Exception {
+        TimetableBatchGenerator generator = TimetableBatchGenerator.forAllCities(2026, 1, 1, 62);
+        generator.generate();
+
+        File file = File.createTempFile("timetable", ".bin");
+        file.deleteOnExit();
+        generator.writeTo(file);
+
+        TimetableBatchGenerator.Reader reader = TimetableBatchGenerator.Reader.open(file);
+        assertEquals(62, reader.days);
+        assertEquals(Cities.ALL.length, reader.citySlugs.length);
+        for (int city = 0; city < Cities.ALL.length; city++) {
+            for (int method = 0; method < MultiMethodTimetable.PUBLISHED_METHODS.length; method++) {
+                for (int school = 0; school < MultiMethodTimetable.ASR_SCHOOLS.length; school++) {
+                    for (int day = 0; day < 62; day += 7) {
+                        for (int p = 0; p < PrayerTimeEngine.PRAYER_COUNT; p++) {
+                            assertEquals(generator.getMinutes(city, method, school, day, p),
+                                reader.getMinutes(city, method, school, day, p));
+                        }
+                    }
+                }
+            }
+        }
+
+        // Spot check one cell against the single-day engine
+        int[] yangon = PrayerTimeEngine.computeDay(16.8661, 96.1951, 6.5, 2026, 2, 1,
+            PrayerTimeEngine.CalcMethod.MWL, 1, PrayerTimeEngine.HighLatRule.MIDDLE_OF_NIGHT, null, 0);
+        assertTrue(Math.abs(yangon[PrayerTimeEngine.FAJR]
+            - reader.getMinutes(0, 1, 0, 31, PrayerTimeEngine.FAJR)) <= 1);
+    }
+
+    @Test
+    public void rowsPerSecondByThreadCount() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        TimetableBatchGenerator reference = null;
+        double baseline = 0;
+
+        // Powers of two, then all cores
+        List<Integer> counts = new ArrayList<>();
+        for (int threads = 1; threads < cores; threads *= 2) {
+            counts.add(threads);
+        }
+        counts.add(cores);
+
+        for (int threads : counts) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                // Warm-up run, then the measured run
+                TimetableBatchGenerator.forAllCities(2026, 1, 1, 365).generate(pool);
+                TimetableBatchGenerator generator = TimetableBatchGenerator.forAllCities(2026, 1, 1, 365);
+                TimetableBatchGenerator.Result result = generator.generate(pool);
+
+                double rate = result.cellsPerSecond();
+                if (threads == 1) baseline = rate;
+                System.out.printf("threads=%d rows=%d %.0f rows/s, speedup %.2fx, efficiency %.0f%%%n",
+                    threads, result.cells, rate, rate / baseline, 100 * rate / baseline / threads);
+
+                // Timing is only reported; the grid must not depend on the split
+                if (reference == null) {
+                    reference = generator;
+                } else {
+                    assertSameGrid(reference, generator, 365);
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    private static void assertSameGrid(TimetableBatchGenerator expected, TimetableBatchGenerator actual, int days) {
+        for (int city = 0; city < Cities.ALL.length; city++) {
+            for (int method = 0; method < MultiMethodTimetable.PUBLISHED_METHODS.length; method++) {
+                for (int school = 0; school < MultiMethodTimetable.ASR_SCHOOLS.length; school++) {
+                    for (int day = 0; day < days; day++) {
+                        for (int p = 0; p < PrayerTimeEngine.PRAYER_COUNT; p++) {
+                            assertEquals(expected.getMinutes(city, method, school, day, p),
+                                actual.getMinutes(city, method, school, day, p));
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
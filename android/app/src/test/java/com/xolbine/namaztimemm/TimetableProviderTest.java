@@ -0,0 +1,39 @@
+package com.xolbine.namaztimemm;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+
+public class TimetableProviderTest {
+    @Test
+    public void acceptsValidZoneAndStart() {
+        assertEquals("Asia/Yangon", TimetableProvider.zoneParam("Asia/Yangon").getId());
+        assertEquals(LocalDate.of(2026, 3, 1), TimetableProvider.dateParam("2026-03-01"));
+    }
+
+    @Test
+    public void badZoneIsAnIllegalArgument() {
+        for (String zone : new String[] { "Asia/Nowhere", "not a zone" }) {
+            try {
+                TimetableProvider.zoneParam(zone);
+                fail("Expected " + zone + " to be rejected");
+            } catch (IllegalArgumentException e) {
+                assertEquals("Unknown zoneId " + zone, e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void badStartIsAnIllegalArgument() {
+        for (String date : new String[] { "2026-02-30", "01/03/2026" }) {
+            try {
+                TimetableProvider.dateParam(date);
+                fail("Expected " + date + " to be rejected");
+            } catch (IllegalArgumentException e) {
+                assertTrue(e.getMessage().startsWith("start must be"));
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.xolbine.namaztimemm;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Harness for the provider's windowed range reader.
+ * Reports rows per second for month and year queries, cold and from cache.
+ */
+public class TimetableWindowsBenchmarkTest {
+    private static final double LAT = 16.8661;
+    private static final double LNG = 96.1951;
+    private static final String ZONE = "Asia/Yangon";
+    private static final TimezoneResolver RESOLVER = TimezoneResolver.getInstance();
+
+    private static TimetableWindows.Range range(TimetableWindows windows, int startEpochDay, int days) {
+        return windows.range(LAT, LNG, RESOLVER, ZONE, PrayerTimeEngine.CalcMethod.KARACHI, 2, 0,
+            startEpochDay, days);
+    }
+
+    @Test
+    public void rowsMatchTheSingleDayEngine() {
+        TimetableWindows windows = new TimetableWindows(16);
+        int start = PrayerTimeEngine.epochDay(2026, 2, 20);
+        TimetableWindows.Range range = range(windows, start, 20);
+
+        for (int row = 0; row < range.getCount(); row++) {
+            range.moveTo(row);
+            assertEquals(start + row, range.epochDay());
+            assertEquals(390, range.offsetMinutes());
+            int[] ymd = PrayerTimeEngine.civilFromEpochDay(range.epochDay());
+            int[] expected = PrayerTimeCache.getInstance().get(LAT, LNG, 6.5, ymd[0], ymd[1], ymd[2],
+                PrayerTimeEngine.CalcMethod.KARACHI, 2, 0);
+            for (int p = 0; p < PrayerTimeEngine.PRAYER_COUNT; p++) {
+                assertTrue(Math.abs(expected[p] - range.minutes(p)) <= 1);
+            }
+        }
+    }
+
+    @Test
+    public void windowsAreSharedAcrossQueries() {
+        TimetableWindows windows = new TimetableWindows(16);
+        int start = PrayerTimeEngine.epochDay(2026, 3, 1);
+
+        read(range(windows, start, 31));
+        long misses = windows.getMisses();
+        assertTrue(misses <= 2);
+
+        // Same key, overlapping range: no new computation
+        read(range(windows, start + 10, 15));
+        assertEquals(misses, windows.getMisses());
+        assertTrue(windows.getHits() > 0);
+    }
+
+    @Test
+    public void rowsPerSecondForMonthAndYear() {
+        int start = PrayerTimeEngine.epochDay(2026, 1, 1);
+        for (int days : new int[] { 31, 365 }) {
+            TimetableWindows windows = new TimetableWindows(64);
+            read(range(windows, start, days)); // warm-up
+
+            windows.clear();
+            long coldStart = System.nanoTime();
+            long cold = read(range(windows, start, days));
+            long coldNanos = System.nanoTime() - coldStart;
+
+            int iterations = 200;
+            long warmStart = System.nanoTime();
+            long warm = 0;
+            for (int i = 0; i < iterations; i++) {
+                warm += read(range(windows, start, days));
+            }
+            long warmNanos = System.nanoTime() - warmStart;
+
+            System.out.printf("days=%d cold %.0f rows/s, cached %.0f rows/s (%d windows)%n",
+                days, days / (coldNanos / 1e9), (double) days * iterations / (warmNanos / 1e9), windows.size());
+            assertTrue(cold > 0 && warm > 0);
+            assertTrue(windows.size() <= days / TimetableWindows.WINDOW_DAYS + 2);
+        }
+    }
+
+    /** Reads every prayer of every row, like a full projection; returns a checksum. */
+    private static long read(TimetableWindows.Range range) {
+        long sum = 0;
+        for (int row = 0; row < range.getCount(); row++) {
+            range.moveTo(row);
+            for (int p = 0; p < PrayerTimeEngine.PRAYER_COUNT; p++) {
+                sum += range.minutes(p);
+            }
+        }
+        return sum;
+    }
+}
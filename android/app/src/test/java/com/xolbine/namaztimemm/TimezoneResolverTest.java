@@ -0,0 +1,43 @@
+package com.xolbine.namaztimemm;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.TimeZone;
+
+public class TimezoneResolverTest {
+    private final TimezoneResolver resolver = TimezoneResolver.getInstance();
+
+    @Test
+    public void explicitZoneWinsOverTheDevice() {
+        assertEquals("Asia/Yangon", resolver.zoneOrDevice("Asia/Yangon"));
+        assertEquals(TimeZone.getDefault().getID(), resolver.zoneOrDevice(null));
+        assertEquals(TimeZone.getDefault().getID(), resolver.zoneOrDevice(""));
+    }
+
+    @Test
+    public void offsetsFollowZoneRules() {
+        assertEquals(6.5, resolver.offsetHours("Asia/Yangon", 2026, 6, 1), 0);
+        assertEquals(0, resolver.offsetHours("Europe/London", 2026, 1, 15), 0);
+        assertEquals(1, resolver.offsetHours("Europe/London", 2026, 7, 15), 0);
+        // Clocks go forward at 01:00 UTC on 2026-03-29, before noon
+        assertEquals(1, resolver.offsetHours("Europe/London", 2026, 3, 29), 0);
+        assertEquals(0, resolver.offsetHours("Europe/London", 2026, 3, 28), 0);
+    }
+
+    @Test
+    public void utcTimetableShiftedPerDayMatchesFixedOffset() {
+        Timetable direct = PrayerTimeEngine.computeDays(16.8661, 96.1951, 6.5, 2026, 1, 1, 365,
+            PrayerTimeEngine.CalcMethod.KARACHI, 2, PrayerTimeEngine.HighLatRule.MIDDLE_OF_NIGHT, null, 0);
+        Timetable utc = PrayerTimeEngine.computeDays(16.8661, 96.1951, 0, 2026, 1, 1, 365,
+            PrayerTimeEngine.CalcMethod.KARACHI, 2, PrayerTimeEngine.HighLatRule.MIDDLE_OF_NIGHT, null, 0);
+        Timetable shifted = utc.withDailyOffsets(resolver.offsetMinutes("Asia/Yangon", utc.getStartEpochDay(), 365));
+
+        for (int p = 0; p < PrayerTimeEngine.PRAYER_COUNT; p++) {
+            for (int d = 0; d < 365; d++) {
+                assertTrue(Math.abs(direct.getMinutes(p, d) - shifted.getMinutes(p, d)) <= 1);
+            }
+        }
+    }
+}
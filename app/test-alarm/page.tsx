@@ -3,7 +3,7 @@
 import { useState, useEffect } from "react"
 import { Button } from "@/components/ui/button"
 import { Card, CardContent, CardDescription, CardHeader, CardTitle } from "@/components/ui/card"
-import AdhanAlarm from "@/lib/adhan-alarm"
+import AdhanAlarm, { type AlarmHealth, type DailyWakeups, type EnergyDay } from "@/lib/adhan-alarm"
 import { Alert, AlertDescription, AlertTitle } from "@/components/ui/alert"
 import { AlertCircle, CheckCircle2, XCircle } from "lucide-react"
 
@@ -11,6 +11,9 @@ export default function TestAlarmPage() {
   const [logs, setLogs] = useState<string[]>([])
   const [permissionGranted, setPermissionGranted] = useState<boolean | null>(null)
   const [showMIUIGuide, setShowMIUIGuide] = useState(false)
+  const [energy, setEnergy] = useState<EnergyDay[] | null>(null)
+  const [health, setHealth] = useState<AlarmHealth | null>(null)
+  const [wakeups, setWakeups] = useState<DailyWakeups | null>(null)
 
   const addLog = (message: string) => {
     const timestamp = new Date().toLocaleTimeString()
@@ -21,6 +24,7 @@ export default function TestAlarmPage() {
   useEffect(() => {
     addLog("Test Alarm page loaded")
     checkPermission()
+    checkHealth()
   }, [])
 
   const checkPermission = async () => {
@@ -109,6 +113,41 @@ export default function TestAlarmPage() {
     }
   }
 
+  const loadEnergyReport = async () => {
+    try {
+      const [result, planned] = await Promise.all([
+        AdhanAlarm.getEnergyReport({ days: 7 }),
+        AdhanAlarm.getDailyWakeups(),
+      ])
+      setEnergy(result.days)
+      setWakeups(planned)
+      addLog(`Energy report: ${result.days.length} day(s)`)
+    } catch (error) {
+      addLog(`Error reading energy report: ${error}`)
+    }
+  }
+
+  const showScheduleStats = async () => {
+    try {
+      const stats = await AdhanAlarm.getScheduleStats()
+      addLog(`Scheduler: ${stats.requests} request(s), ${stats.runs} run(s), ${stats.collapsed} collapsed`)
+    } catch (error) {
+      addLog(`Error reading scheduler stats: ${error}`)
+    }
+  }
+
+  const checkHealth = async () => {
+    try {
+      const result = await AdhanAlarm.getAlarmHealth()
+      setHealth(result)
+      addLog(`Alarm health: ${result.ok ? "OK" : "problems found"}, ${result.issues.length} issue(s)`)
+    } catch (error) {
+      addLog(`Error checking alarm health: ${error}`)
+    }
+  }
+
+  const seconds = (ms: number) => `${Math.round(ms / 1000)} s`
+
   return (
     <div className="container mx-auto p-4 max-w-2xl space-y-4">
       <Alert className="bg-orange-50 border-orange-200">
@@ -239,9 +278,136 @@ export default function TestAlarmPage() {
               <Button onClick={stopAdhan} variant="secondary">
                 Stop Adhan
               </Button>
+              <Button onClick={showScheduleStats} variant="outline" className="col-span-2">
+                Scheduler Stats
+              </Button>
             </div>
           </div>
 
+          <div className="space-y-2">
+            <h3 className="font-semibold">Alarm Health</h3>
+            <Button onClick={checkHealth} variant="outline" className="w-full">
+              Check Alarm Health
+            </Button>
+            {health !== null && (
+              <div className="space-y-2">
+                <table className="w-full text-xs">
+                  <tbody>
+                    <tr className="border-t">
+                      <td className="py-1 pr-2">Exact alarms</td>
+                      <td className="py-1">{health.exactAlarms ? "Allowed" : "Denied"}</td>
+                    </tr>
+                    <tr className="border-t">
+                      <td className="py-1 pr-2">Battery optimization</td>
+                      <td className="py-1">{health.ignoringBatteryOptimizations ? "Off" : "On"}</td>
+                    </tr>
+                    <tr className="border-t">
+                      <td className="py-1 pr-2">Background restricted</td>
+                      <td className="py-1">{health.backgroundRestricted ? "Yes" : "No"}</td>
+                    </tr>
+                    <tr className="border-t">
+                      <td className="py-1 pr-2">Standby bucket</td>
+                      <td className="py-1">{health.standbyBucket}</td>
+                    </tr>
+                    <tr className="border-t">
+                      <td className="py-1 pr-2">Notifications</td>
+                      <td className="py-1">{health.notificationsEnabled ? "On" : "Off"}</td>
+                    </tr>
+                    <tr className="border-t">
+                      <td className="py-1 pr-2">Full-screen alerts</td>
+                      <td className="py-1">{health.fullScreenIntent ? "Allowed" : "Denied"}</td>
+                    </tr>
+                    <tr className="border-t">
+                      <td className="py-1 pr-2">Next armed</td>
+                      <td className="py-1">
+                        {health.nextArmed
+                          ? `${health.nextArmed.prayerName} ${new Date(health.nextArmed.triggerTime).toLocaleString()}`
+                          : "None"}
+                      </td>
+                    </tr>
+                    <tr className="border-t">
+                      <td className="py-1 pr-2">System next alarm</td>
+                      <td className="py-1">
+                        {health.nextAlarmClock
+                          ? `${new Date(health.nextAlarmClock.triggerTime).toLocaleString()}${health.nextAlarmClock.ours ? "" : " (another app)"}`
+                          : "None"}
+                      </td>
+                    </tr>
+                  </tbody>
+                </table>
+                {health.issues.length === 0 ? (
+                  <p className="text-sm text-green-700">No problems found</p>
+                ) : (
+                  health.issues.map((issue) => (
+                    <Alert
+                      key={issue.code}
+                      className={issue.severity === "error" ? "bg-red-50 border-red-200" : "bg-orange-50 border-orange-200"}
+                    >
+                      {issue.severity === "error" ? (
+                        <XCircle className="h-4 w-4 text-red-600" />
+                      ) : (
+                        <AlertCircle className="h-4 w-4 text-orange-600" />
+                      )}
+                      <AlertDescription className={issue.severity === "error" ? "text-red-800" : "text-orange-800"}>
+                        {issue.message}
+                      </AlertDescription>
+                    </Alert>
+                  ))
+                )}
+              </div>
+            )}
+          </div>
+
+          <div className="space-y-2">
+            <h3 className="font-semibold">Energy</h3>
+            <Button onClick={loadEnergyReport} variant="outline" className="w-full">
+              Show Energy Report
+            </Button>
+            {wakeups !== null && (
+              <p className="text-sm">
+                Next 24 h: {wakeups.total} wakeup(s), {wakeups.adhan} adhan + {wakeups.reminderWakeups} for{" "}
+                {wakeups.reminders} reminder(s); {wakeups.withoutCoalescing} without coalescing
+              </p>
+            )}
+            {energy !== null &&
+              (energy.length === 0 ? (
+                <p className="text-sm text-muted-foreground">Nothing recorded yet</p>
+              ) : (
+                <div className="overflow-x-auto">
+                  <table className="w-full text-xs">
+                    <thead>
+                      <tr className="text-left text-muted-foreground">
+                        <th className="py-1 pr-2">Date</th>
+                        <th className="py-1 pr-2">Wakeups</th>
+                        <th className="py-1 pr-2">Wake lock</th>
+                        <th className="py-1 pr-2">Media lock</th>
+                        <th className="py-1 pr-2">Service</th>
+                        <th className="py-1 pr-2">Audio</th>
+                        <th className="py-1 pr-2">Sensors</th>
+                        <th className="py-1">Events (sent/recv)</th>
+                      </tr>
+                    </thead>
+                    <tbody>
+                      {energy.map((day) => (
+                        <tr key={day.date} className="border-t">
+                          <td className="py-1 pr-2">{day.date}</td>
+                          <td className="py-1 pr-2">{day.alarmWakeups}</td>
+                          <td className="py-1 pr-2">{seconds(day.wakeLockMs)}</td>
+                          <td className="py-1 pr-2">{seconds(day.mediaWakeLockMs)}</td>
+                          <td className="py-1 pr-2">{seconds(day.foregroundServiceMs)}</td>
+                          <td className="py-1 pr-2">{seconds(day.audioMs)}</td>
+                          <td className="py-1 pr-2">{seconds(day.sensorActiveMs)}</td>
+                          <td className="py-1">
+                            {day.sensorEventsEmitted}/{day.sensorEventsDelivered}
+                          </td>
+                        </tr>
+                      ))}
+                    </tbody>
+                  </table>
+                </div>
+              ))}
+          </div>
+
           <div className="space-y-2">
             <h3 className="font-semibold">Logs</h3>
             <div className="bg-black text-green-400 p-4 rounded-md max-h-96 overflow-y-auto font-mono text-xs">
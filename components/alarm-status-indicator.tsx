@@ -5,16 +5,23 @@ import { getScheduledAlarms, getAlarmConfig, type StoredAlarm } from "@/lib/alar
 import { Bell, BellOff, Clock } from "lucide-react"
 import { Card, CardContent } from "@/components/ui/card"
 import { Badge } from "@/components/ui/badge"
+import PrayerClock from "@/lib/prayer-clock"
 
 export function AlarmStatusIndicator() {
   const [alarms, setAlarms] = useState<StoredAlarm[]>([])
   const [nextAlarm, setNextAlarm] = useState<StoredAlarm | null>(null)
   const [config, setConfig] = useState<any>(null)
+  const [now, setNow] = useState(Date.now())
 
   useEffect(() => {
     loadAlarmStatus()
-    const interval = setInterval(loadAlarmStatus, 60000) // Update every minute
-    return () => clearInterval(interval)
+    // Alarms fire at prayer boundaries, so storage only needs re-reading then
+    const next = PrayerClock.addListener("nextPrayerChanged", () => loadAlarmStatus())
+    const tick = PrayerClock.addListener("minuteTick", ({ time }) => setNow(time))
+    return () => {
+      next.then((handle) => handle.remove())
+      tick.then((handle) => handle.remove())
+    }
   }, [])
 
   async function loadAlarmStatus() {
@@ -25,6 +32,7 @@ export function AlarmStatusIndicator() {
 
     // Filter out past alarms
     const now = Date.now()
+    setNow(now)
     const futureAlarms = scheduledAlarms.filter((a) => a.triggerTime > now)
 
     setAlarms(futureAlarms)
@@ -52,7 +60,7 @@ export function AlarmStatusIndicator() {
     )
   }
 
-  const timeUntilNext = nextAlarm ? nextAlarm.triggerTime - Date.now() : 0
+  const timeUntilNext = nextAlarm ? nextAlarm.triggerTime - now : 0
   const hoursUntil = Math.floor(timeUntilNext / (1000 * 60 * 60))
   const minutesUntil = Math.floor((timeUntilNext % (1000 * 60 * 60)) / (1000 * 60))
 
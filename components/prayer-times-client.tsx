@@ -4,6 +4,7 @@ import { useState, useEffect, useCallback, useRef } from "react"
 import { translations } from "@/lib/translations"
 import {
   calculatePrayerTimes,
+  prayerTimesFromMinutes,
   getHijriDate,
   getIslamicEvent,
   type PrayerTimes,
@@ -13,13 +14,27 @@ import {
 import { Languages, ChevronDown, MapPin, ArrowLeft, Compass } from "lucide-react"
 import Link from "next/link"
 import { useRouter } from "next/navigation"
+import { Capacitor, type PluginListenerHandle } from "@capacitor/core"
 import { Geolocation } from "@capacitor/geolocation"
+import NativePrayerTimes from "@/lib/prayer-times-plugin"
+import Gazetteer, { type Place } from "@/lib/gazetteer-plugin"
+import NativeLocation, { type NativeFix } from "@/lib/native-location"
+import Startup from "@/lib/startup"
+import type { DeliveryTier } from "@/lib/adhan-alarm"
+import NativeSettingsStore from "@/lib/settings-store"
+import PrayerClock, { type ShownPrayer } from "@/lib/prayer-clock"
 import { scheduleNativeAlarms } from "@/lib/native-alarm-scheduler"
 import { createNotificationChannels } from "@/lib/notifications"
-import { loadSettings, saveSettings, type UserSettings } from "@/lib/storage"
+import { loadSettings, saveSettings, toNativeSettings, type UserSettings } from "@/lib/storage"
 import { useAndroidBack } from "@/lib/use-android-back"
 import { useToast } from "@/hooks/use-toast"
 
+// Tap order for the per-prayer delivery button
+const DELIVERY_TIERS: DeliveryTier[] = ["adhan", "chime", "vibrate", "silent"]
+// Within PLACE_KM the location is labelled with the place; up to NEAREST_PLACE_MAX_KM, as "near" it
+const PLACE_KM = 5
+const NEAREST_PLACE_MAX_KM = 50
+
 export default function PrayerTimesClient({ initialTimes, initialCity, initialHijri, initialEvent, isRegional }: any) {
   const router = useRouter()
   const { toast } = useToast()
@@ -38,6 +53,13 @@ export default function PrayerTimesClient({ initialTimes, initialCity, initialHi
           maghrib: true,
           isha: true,
         },
+        prayerDeliveryTiers: {
+          fajr: "adhan",
+          dhuhr: "adhan",
+          asr: "adhan",
+          maghrib: "adhan",
+          isha: "adhan",
+        },
         lastUpdated: Date.now(),
       }
     }
@@ -56,15 +78,20 @@ export default function PrayerTimesClient({ initialTimes, initialCity, initialHi
   const [gpsError, setGpsError] = useState<string | null>(null)
 
   const [currentTime, setCurrentTime] = useState(new Date())
+  const [nextPrayer, setNextPrayer] = useState<ShownPrayer | null>(null)
   const [showAbout, setShowAbout] = useState(false)
   const [showNoti, setShowNoti] = useState(false)
   const [showCityMenu, setShowCityMenu] = useState(false)
+  const [cityQuery, setCityQuery] = useState("")
+  const [cityResults, setCityResults] = useState<Place[]>(CITIES)
+  const [nearestPlace, setNearestPlace] = useState<{ name: string; distanceKm: number } | null>(null)
   const [showMethodMenu, setShowMethodMenu] = useState(false)
   const [showSettingsSaved, setShowSettingsSaved] = useState(false)
 
   const hasRequestedGPS = useRef(false)
   const gpsTimeoutRef = useRef<NodeJS.Timeout | null>(null)
   const notificationDebounceTimer = useRef<NodeJS.Timeout | null>(null)
+  const readySent = useRef(false)
 
   const updateSettings = useCallback((updates: Partial<UserSettings>) => {
     setSettings((prev) => {
@@ -74,6 +101,10 @@ export default function PrayerTimesClient({ initialTimes, initialCity, initialHi
 
   useEffect(() => {
     saveSettings(settings)
+    if (Capacitor.isNativePlatform()) {
+      // One batch; native only writes and notifies for the keys that changed
+      NativeSettingsStore.set({ values: toNativeSettings(settings) }).catch(() => {})
+    }
 
     const timer = setTimeout(() => {
       setShowSettingsSaved(true)
@@ -113,7 +144,8 @@ export default function PrayerTimesClient({ initialTimes, initialCity, initialHi
     }
 
     // Priority 3: Request fresh GPS location only for non-regional pages
-    if (!resolved && !isRegional && !hasRequestedGPS.current) {
+    // (on native the NativeLocation effect below handles this without blocking on GPS)
+    if (!resolved && !isRegional && !hasRequestedGPS.current && !Capacitor.isNativePlatform()) {
       hasRequestedGPS.current = true
       refreshLocation()
     } else {
@@ -128,12 +160,31 @@ export default function PrayerTimesClient({ initialTimes, initialCity, initialHi
       sessionStorage.setItem("v0_prayer_noti_seen", "true")
     }
 
-    // Clock tick and notification channels
-    const timer = setInterval(() => setCurrentTime(new Date()), 1000)
     createNotificationChannels()
-    return () => clearInterval(timer)
   }, [initialCity, isRegional])
 
+  // Minute-aligned clock; re-renders only when the minute or the next prayer changes
+  useEffect(() => {
+    const tick = PrayerClock.addListener("minuteTick", ({ time }) => setCurrentTime(new Date(time)))
+    const next = PrayerClock.addListener("nextPrayerChanged", ({ prayer }) => setNextPrayer(prayer))
+    return () => {
+      tick.then((handle) => handle.remove())
+      next.then((handle) => handle.remove())
+      PrayerClock.stop().catch(() => {})
+    }
+  }, [])
+
+  useEffect(() => {
+    if (!location) return
+    // Settings are synced natively before this runs (effects and plugin calls run in order)
+    PrayerClock.start({ lat: location.lat, lng: location.lng })
+      .then((next) => {
+        setCurrentTime(new Date())
+        setNextPrayer(next.prayer)
+      })
+      .catch(() => {})
+  }, [location, settings.method, settings.asrShadow, settings.hijriOffset])
+
   const scheduleNotificationsDebounced = useCallback((loc: typeof location, sett: UserSettings) => {
     if (notificationDebounceTimer.current) {
       clearTimeout(notificationDebounceTimer.current)
@@ -179,6 +230,7 @@ export default function PrayerTimesClient({ initialTimes, initialCity, initialHi
     }
 
     const liveTimezone = -new Date().getTimezoneOffset() / 60
+    let cancelled = false
 
     try {
       const methodMap: Record<number, CalcMethod> = {
@@ -195,30 +247,93 @@ export default function PrayerTimesClient({ initialTimes, initialCity, initialHi
         calcMethod = settings.method as CalcMethod
       }
 
-      const calculated = calculatePrayerTimes(
-        location.lat,
-        location.lng,
-        liveTimezone,
-        new Date(),
-        calcMethod,
-        settings.asrShadow,
-        undefined,
-        undefined,
-        settings.hijriOffset,
-      )
-
-      if (calculated && typeof calculated === "object" && "fajr" in calculated && "sunrise" in calculated) {
-        setTimes(calculated)
-        setLoading(false)
-        scheduleNotificationsDebounced(location, settings)
+      const computeJs = () =>
+        calculatePrayerTimes(
+          location.lat,
+          location.lng,
+          liveTimezone,
+          new Date(),
+          calcMethod,
+          settings.asrShadow,
+          undefined,
+          undefined,
+          settings.hijriOffset,
+        )
+
+      const apply = (calculated: PrayerTimes) => {
+        if (cancelled) return
+        if (calculated && typeof calculated === "object" && "fajr" in calculated && "sunrise" in calculated) {
+          setTimes(calculated)
+          setLoading(false)
+          if (!readySent.current) {
+            // Hand over from the native first frame now that the web UI has times
+            readySent.current = true
+            Startup.ready().catch(() => {})
+          }
+          scheduleNotificationsDebounced(location, settings)
+        } else {
+          setLoading(false)
+        }
+      }
+
+      if (Capacitor.isNativePlatform()) {
+        // Native cache quantizes the location, so GPS jitter doesn't re-run the solver
+        NativePrayerTimes.getPrayerTimes({
+          lat: location.lat,
+          lng: location.lng,
+          timezone: liveTimezone,
+          method: calcMethod,
+          asrSchool: settings.asrShadow,
+          hijriOffset: settings.hijriOffset,
+        })
+          .then((mins) => apply(prayerTimesFromMinutes(mins)))
+          .catch(() => apply(computeJs()))
       } else {
-        setLoading(false)
+        apply(computeJs())
       }
     } catch {
       setLoading(false)
     }
+
+    return () => {
+      cancelled = true
+    }
   }, [location, settings])
 
+  useEffect(() => {
+    if (!location || isRegional) {
+      setNearestPlace(null)
+      return
+    }
+    let cancelled = false
+    Gazetteer.nearest({ lat: location.lat, lng: location.lng })
+      .then((place) => {
+        if (cancelled) return
+        // A point at sea or across the border shouldn't borrow a far-off town's name
+        setNearestPlace(place.distanceKm <= NEAREST_PLACE_MAX_KM ? place : null)
+      })
+      .catch(() => {})
+    return () => {
+      cancelled = true
+    }
+  }, [location, isRegional])
+
+  useEffect(() => {
+    if (!cityQuery) {
+      setCityResults(CITIES)
+      return
+    }
+    let cancelled = false
+    Gazetteer.search({ query: cityQuery, limit: 30 })
+      .then(({ places }) => {
+        if (!cancelled) setCityResults(places)
+      })
+      .catch(() => {})
+    return () => {
+      cancelled = true
+    }
+  }, [cityQuery])
+
   useEffect(() => {
     if (location && times) {
       scheduleNotificationsDebounced(location, settings)
@@ -268,17 +383,44 @@ export default function PrayerTimesClient({ initialTimes, initialCity, initialHi
     }
   }, [isRefreshing])
 
+  // Native: paint from the best cached fix right away, then refine in the background
+  useEffect(() => {
+    if (initialCity || isRegional || !Capacitor.isNativePlatform()) return
+    hasRequestedGPS.current = true
+
+    const apply = (fix: NativeFix) => {
+      const loc = { lat: fix.lat, lng: fix.lng, timezone: -new Date().getTimezoneOffset() / 60 }
+      setLocation(loc)
+      localStorage.setItem("last_location", JSON.stringify(loc))
+    }
+
+    const listener: Promise<PluginListenerHandle> = NativeLocation.addListener("locationUpdate", apply)
+    NativeLocation.getCachedLocation()
+      .then(({ location: fix }) => fix && apply(fix))
+      .catch(() => {})
+    NativeLocation.startRefinement()
+      .then(({ location: fix }) => fix && apply(fix))
+      .catch(() => refreshLocation())
+
+    return () => {
+      listener.then((handle) => handle.remove())
+      NativeLocation.stopRefinement().catch(() => {})
+    }
+  }, [initialCity, isRegional])
+
   const t = translations[settings.language]
+  const placeLabel = (place: { name: string; distanceKm: number }) =>
+    place.distanceKm <= PLACE_KM ? place.name : t.near_place(place.name, Math.round(place.distanceKm))
   const hijri = getHijriDate(currentTime, settings.hijriOffset)
   const event = hijri ? getIslamicEvent(hijri.day, hijri.month) : null
 
   const prayers = [
-    { name: t.fajr, time: times?.fajr || "--:--", secondary: false },
-    { name: t.sunrise, time: times?.sunrise || "--:--", secondary: true },
-    { name: t.zawal, time: times?.zawal || "--:--", secondary: false },
-    { name: t.asr, time: times?.asr || "--:--", isAsr: true },
-    { name: t.maghrib, time: times?.maghrib || "--:--", secondary: false },
-    { name: t.isha, time: times?.isha || "--:--", secondary: false },
+    { key: "fajr", name: t.fajr, time: times?.fajr || "--:--", secondary: false },
+    { key: "sunrise", name: t.sunrise, time: times?.sunrise || "--:--", secondary: true },
+    { key: "zawal", name: t.zawal, time: times?.zawal || "--:--", secondary: false },
+    { key: "asr", name: t.asr, time: times?.asr || "--:--", isAsr: true },
+    { key: "maghrib", name: t.maghrib, time: times?.maghrib || "--:--", secondary: false },
+    { key: "isha", name: t.isha, time: times?.isha || "--:--", secondary: false },
   ]
 
   useAndroidBack({
@@ -315,29 +457,48 @@ export default function PrayerTimesClient({ initialTimes, initialCity, initialHi
                   {["fajr", "dhuhr", "asr", "maghrib", "isha"].map((prayer) => (
                     <div key={prayer} className="flex items-center justify-between">
                       <label className="text-xs capitalize font-medium text-foreground">{prayer}</label>
-                      <button
-                        onClick={() => {
-                          const newSounds = {
-                            ...settings.prayerSoundSettings,
-                            [prayer]:
-                              !settings.prayerSoundSettings[prayer as keyof typeof settings.prayerSoundSettings],
-                          }
-                          updateSettings({ prayerSoundSettings: newSounds })
-                        }}
-                        className={`relative inline-flex h-6 w-11 shrink-0 cursor-pointer items-center rounded-full transition-colors duration-200 ease-in-out focus:outline-none ${
-                          settings.prayerSoundSettings[prayer as keyof typeof settings.prayerSoundSettings]
-                            ? "bg-[#1B3C26]"
-                            : "bg-gray-200"
-                        }`}
-                      >
-                        <span
-                          className={`pointer-events-none inline-block h-4 w-4 transform rounded-full bg-white shadow ring-0 transition duration-200 ease-in-out ${
+                      <div className="flex items-center gap-3">
+                        {settings.prayerSoundSettings[prayer as keyof typeof settings.prayerSoundSettings] && (
+                          <button
+                            onClick={() => {
+                              const key = prayer as keyof typeof settings.prayerDeliveryTiers
+                              const current = DELIVERY_TIERS.indexOf(settings.prayerDeliveryTiers[key])
+                              updateSettings({
+                                prayerDeliveryTiers: {
+                                  ...settings.prayerDeliveryTiers,
+                                  [key]: DELIVERY_TIERS[(current + 1) % DELIVERY_TIERS.length],
+                                },
+                              })
+                            }}
+                            className="px-2 py-1 border border-primary/20 text-[9px] font-bold uppercase tracking-[0.2em] text-muted-foreground hover:text-primary transition-colors"
+                          >
+                            {settings.prayerDeliveryTiers[prayer as keyof typeof settings.prayerDeliveryTiers]}
+                          </button>
+                        )}
+                        <button
+                          onClick={() => {
+                            const newSounds = {
+                              ...settings.prayerSoundSettings,
+                              [prayer]:
+                                !settings.prayerSoundSettings[prayer as keyof typeof settings.prayerSoundSettings],
+                            }
+                            updateSettings({ prayerSoundSettings: newSounds })
+                          }}
+                          className={`relative inline-flex h-6 w-11 shrink-0 cursor-pointer items-center rounded-full transition-colors duration-200 ease-in-out focus:outline-none ${
                             settings.prayerSoundSettings[prayer as keyof typeof settings.prayerSoundSettings]
-                              ? "translate-x-6"
-                              : "translate-x-1"
+                              ? "bg-[#1B3C26]"
+                              : "bg-gray-200"
                           }`}
-                        />
-                      </button>
+                        >
+                          <span
+                            className={`pointer-events-none inline-block h-4 w-4 transform rounded-full bg-white shadow ring-0 transition duration-200 ease-in-out ${
+                              settings.prayerSoundSettings[prayer as keyof typeof settings.prayerSoundSettings]
+                                ? "translate-x-6"
+                                : "translate-x-1"
+                            }`}
+                          />
+                        </button>
+                      </div>
                     </div>
                   ))}
                 </div>
@@ -400,7 +561,9 @@ export default function PrayerTimesClient({ initialTimes, initialCity, initialHi
                 <div className="flex items-center gap-3 text-muted-foreground">
                   <div className="w-2 h-2 rounded-full bg-primary animate-pulse" />
                   <span className="text-[10px] uppercase tracking-[0.3em] font-medium">
-                    {location ? `${location.lat.toFixed(4)}° N, ${location.lng.toFixed(4)}° E` : t.requesting}
+                    {location
+                      ? `${nearestPlace ? `${placeLabel(nearestPlace)} · ` : ""}${location.lat.toFixed(4)}° N, ${location.lng.toFixed(4)}° E`
+                      : t.requesting}
                   </span>
                 </div>
 
@@ -419,13 +582,26 @@ export default function PrayerTimesClient({ initialTimes, initialCity, initialHi
 
                   {showCityMenu && (
                     <div className="absolute top-full left-0 mt-2 w-64 bg-background border border-foreground/5 shadow-2xl z-50 max-h-80 overflow-y-auto custom-scrollbar">
+                      <input
+                        value={cityQuery}
+                        onChange={(e) => setCityQuery(e.target.value)}
+                        placeholder={t.select_city}
+                        className="w-full px-6 py-3 text-[10px] uppercase tracking-[0.2em] bg-background border-b border-foreground/5 outline-none"
+                      />
                       <div className="grid grid-cols-1 divide-y divide-foreground/5">
-                        {CITIES.map((city) => (
+                        {cityResults.map((city) => (
                           <button
-                            key={city.slug}
+                            key={city.slug || `${city.name}-${city.lat}-${city.lng}`}
                             onClick={() => {
                               setShowCityMenu(false)
-                              router.push(`/${city.slug}`)
+                              setCityQuery("")
+                              if (city.slug) {
+                                router.push(`/${city.slug}`)
+                              } else {
+                                const loc = { lat: city.lat, lng: city.lng, timezone: city.timezone }
+                                setLocation(loc)
+                                localStorage.setItem("last_location", JSON.stringify(loc))
+                              }
                             }}
                             className="px-6 py-4 text-left text-[10px] font-bold uppercase tracking-[0.2em] hover:bg-primary hover:text-white transition-all w-full flex justify-between items-center group"
                           >
@@ -458,7 +634,6 @@ export default function PrayerTimesClient({ initialTimes, initialCity, initialHi
                 {currentTime.toLocaleTimeString([], {
                   hour: "2-digit",
                   minute: "2-digit",
-                  second: "2-digit",
                   hour12: false,
                 })}
               </div>
@@ -527,7 +702,7 @@ export default function PrayerTimesClient({ initialTimes, initialCity, initialHi
                 key={prayer.name}
                 className={`grid grid-cols-2 py-10 items-baseline border-b border-foreground/5 group hover:bg-primary/[0.02] transition-all duration-700 relative overflow-hidden ${
                   prayer.secondary ? "opacity-30 grayscale" : ""
-                }`}
+                } ${prayer.key === nextPrayer ? "bg-primary/[0.03]" : ""}`}
               >
                 <div className="flex items-baseline gap-4">
                   <span className="text-2xl md:text-4xl font-serif tracking-tight text-foreground transition-transform duration-500 group-hover:translate-x-2">
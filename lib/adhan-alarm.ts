@@ -1,5 +1,80 @@
 import { registerPlugin } from "@capacitor/core"
 
+/** adhan: full audio service; chime, vibrate and silent: a notification only */
+export type DeliveryTier = "adhan" | "chime" | "vibrate" | "silent"
+
+export interface EnergyDay {
+  /** Local date, YYYY-MM-DD */
+  date: string
+  alarmWakeups: number
+  wakeLockMs: number
+  mediaWakeLockMs: number
+  foregroundServiceMs: number
+  audioMs: number
+  sensorActiveMs: number
+  sensorEventsDelivered: number
+  sensorEventsEmitted: number
+}
+
+export interface DailyWakeups {
+  adhan: number
+  reminders: number
+  reminderWakeups: number
+  total: number
+  withoutCoalescing: number
+}
+
+/** An extra location with its own adhan alarms, alongside the one requestSchedule covers */
+export interface AlarmProfile {
+  label: string
+  lat: number
+  lng: number
+  /** IANA zone; alarms follow the device zone when omitted */
+  zoneId?: string
+  method?: string
+  asrSchool?: 1 | 2
+  hijriOffset?: number
+  /** Missing prayers are enabled */
+  enabledPrayers?: Record<string, boolean>
+  /** Raw sound resource; "adhan" by default */
+  sound?: string
+}
+
+export interface AlarmHealthIssue {
+  code:
+    | "exactAlarmDenied"
+    | "backgroundRestricted"
+    | "standbyRestricted"
+    | "standbyRare"
+    | "notificationsDisabled"
+    | "armedAlarmMissing"
+    | "batteryOptimized"
+    | "fullScreenIntentDenied"
+  /** error: alarms will be missed; warning: they may be late or silent */
+  severity: "error" | "warning"
+  message: string
+}
+
+/** OS settings that decide whether alarms fire on time; settings an Android version lacks read as allowed */
+export interface AlarmHealth {
+  checkedAt: number
+  sdkInt: number
+  exactAlarms: boolean
+  ignoringBatteryOptimizations: boolean
+  backgroundRestricted: boolean
+  standbyBucket: "active" | "workingSet" | "frequent" | "rare" | "restricted" | "unknown"
+  notificationsEnabled: boolean
+  fullScreenIntent: boolean
+  /** The system's next alarm clock from any app; ours is false when another app's comes first */
+  nextAlarmClock?: { triggerTime: number; ours: boolean }
+  /** Our earliest future alarm, as armed */
+  nextArmed?: { prayerId: number; prayerName: string; triggerTime: number }
+  /** Errors first, then warnings */
+  issues: AlarmHealthIssue[]
+  /** No error-severity issues */
+  ok: boolean
+}
+
 export interface AdhanAlarmPlugin {
   scheduleAlarm(options: {
     triggerTime: number
@@ -12,6 +87,53 @@ export interface AdhanAlarmPlugin {
 
   cancelAllAlarms(): Promise<{ success: boolean }>
 
+  /**
+   * Saves what the schedule is built from and queues a native rebuild. Calls within
+   * the debounce window collapse into one run over the latest inputs; queued is how
+   * many requests that run now covers.
+   */
+  requestSchedule(options: {
+    lat: number
+    lng: number
+    method: string
+    asrSchool: 1 | 2
+    hijriOffset: number
+    enabledPrayers: Record<string, boolean>
+  }): Promise<{ queued: number }>
+
+  /**
+   * Replaces the extra profiles (at most 4) and queues a rebuild. An alarm within a
+   * minute of the same prayer from the main schedule or an earlier profile is skipped.
+   */
+  setProfiles(options: { profiles: AlarmProfile[] }): Promise<{ queued: number }>
+
+  getProfiles(): Promise<{ profiles: (Required<AlarmProfile> & { slot: number })[] }>
+
+  /** Totals since the app process started; collapsed counts requests absorbed by another's run */
+  getScheduleStats(): Promise<{ requests: number; runs: number; collapsed: number }>
+
+  /** Soft reminders, batched into shared inexact wakeups; 0 or a missing key turns one off */
+  setReminders(options: {
+    beforeMinutes?: number
+    /** Minutes after the adhan, by prayer key (fajr, dhuhr, asr, maghrib, isha) */
+    iqamahOffsets?: Record<string, number>
+  }): Promise<void>
+
+  /** Future alarms armed natively, and when the set was last reconciled (0 if never) */
+  getArmedAlarms(): Promise<{
+    /** profile is 0 for the main schedule, else the setProfiles index + 1 */
+    alarms: { prayerId: number; prayerName: string; profile: number; triggerTime: number }[]
+    reconciledAt: number
+  }>
+
+  /** Wakeups over the next 24 hours; withoutCoalescing is what one alarm per reminder would cost */
+  getDailyWakeups(): Promise<DailyWakeups>
+
+  /** Per-day energy counters, newest first; keeps up to 14 days */
+  getEnergyReport(options?: { days?: number }): Promise<{ days: EnergyDay[] }>
+
+  getAlarmHealth(): Promise<AlarmHealth>
+
   checkExactAlarmPermission(): Promise<{ granted: boolean; canRequest: boolean }>
 
   requestExactAlarmPermission(): Promise<{ success: boolean; message?: string }>
@@ -31,6 +153,42 @@ const AdhanAlarm = registerPlugin<AdhanAlarmPlugin>("AdhanAlarm", {
       async cancelAllAlarms() {
         return { success: false }
       },
+      async requestSchedule() {
+        return { queued: 0 }
+      },
+      async setProfiles() {
+        return { queued: 0 }
+      },
+      async getProfiles() {
+        return { profiles: [] }
+      },
+      async getScheduleStats() {
+        return { requests: 0, runs: 0, collapsed: 0 }
+      },
+      async setReminders() {},
+      async getArmedAlarms() {
+        return { alarms: [], reconciledAt: 0 }
+      },
+      async getDailyWakeups() {
+        return { adhan: 0, reminders: 0, reminderWakeups: 0, total: 0, withoutCoalescing: 0 }
+      },
+      async getEnergyReport() {
+        return { days: [] }
+      },
+      async getAlarmHealth(): Promise<AlarmHealth> {
+        return {
+          checkedAt: Date.now(),
+          sdkInt: 0,
+          exactAlarms: false,
+          ignoringBatteryOptimizations: false,
+          backgroundRestricted: false,
+          standbyBucket: "unknown",
+          notificationsEnabled: false,
+          fullScreenIntent: false,
+          issues: [],
+          ok: false,
+        }
+      },
       async checkExactAlarmPermission() {
         return { granted: false, canRequest: false }
       },
@@ -1,3 +1,6 @@
+import { Capacitor } from "@capacitor/core"
+import AdhanAlarm from "./adhan-alarm"
+
 export interface StoredAlarm {
   prayerId: number
   prayerName: string
@@ -36,10 +39,13 @@ export async function saveAlarmConfig(config: AlarmScheduleData): Promise<void>
 export async function getAlarmConfig(): Promise<AlarmScheduleData | null> {
   try {
     const configString = localStorage.getItem("alarm_config")
-    if (configString) {
-      return JSON.parse(configString)
+    const config: AlarmScheduleData | null = configString ? JSON.parse(configString) : null
+    if (config && Capacitor.isNativePlatform()) {
+      // Native reconciles on its own (boot, time change), so its timestamp is the current one
+      const { reconciledAt } = await AdhanAlarm.getArmedAlarms()
+      if (reconciledAt > 0) config.lastScheduled = reconciledAt
     }
-    return null
+    return config
   } catch (error) {
     console.error("[v0] [Alarm Storage] Error getting config:", error)
     return null
@@ -60,10 +66,14 @@ export async function saveScheduledAlarms(alarms: StoredAlarm[]): Promise<void>
 }
 
 /**
- * Get list of scheduled alarms
+ * Get list of scheduled alarms; on device this is what AlarmManager actually has armed
  */
 export async function getScheduledAlarms(): Promise<StoredAlarm[]> {
   try {
+    if (Capacitor.isNativePlatform()) {
+      const { alarms } = await AdhanAlarm.getArmedAlarms()
+      return alarms.map((alarm) => ({ ...alarm, soundUri: "adhan", scheduled: true }))
+    }
     const alarmsString = localStorage.getItem("scheduled_alarms")
     if (alarmsString) {
       return JSON.parse(alarmsString)
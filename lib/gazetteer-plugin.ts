@@ -0,0 +1,55 @@
+import { registerPlugin } from "@capacitor/core"
+import { CITIES } from "./solar-calc"
+
+export interface Place {
+  name: string
+  /** Route slug for the built-in cities, empty for other places */
+  slug: string
+  lat: number
+  lng: number
+  timezone: number
+}
+
+export interface GazetteerPlugin {
+  nearest(options: { lat: number; lng: number }): Promise<Place & { distanceKm: number }>
+  search(options: { query: string; limit?: number }): Promise<{ places: Place[] }>
+}
+
+const normalize = (s: string) => s.toLowerCase().replace(/[\s\p{P}]/gu, "")
+
+const distanceKm = (lat1: number, lng1: number, lat2: number, lng2: number) => {
+  const rad = Math.PI / 180
+  const dLat = (lat2 - lat1) * rad
+  const dLng = (lng2 - lng1) * rad
+  const a = Math.sin(dLat / 2) ** 2 + Math.cos(lat1 * rad) * Math.cos(lat2 * rad) * Math.sin(dLng / 2) ** 2
+  return 2 * 6371 * Math.asin(Math.min(1, Math.sqrt(a)))
+}
+
+const Gazetteer = registerPlugin<GazetteerPlugin>("Gazetteer", {
+  web: () => {
+    return {
+      async nearest({ lat, lng }: { lat: number; lng: number }) {
+        let best: Place = CITIES[0]
+        let bestKm = Infinity
+        for (const city of CITIES) {
+          const km = distanceKm(lat, lng, city.lat, city.lng)
+          if (km < bestKm) {
+            best = city
+            bestKm = km
+          }
+        }
+        return { ...best, distanceKm: bestKm }
+      },
+
+      async search({ query, limit = 20 }: { query: string; limit?: number }) {
+        const key = normalize(query)
+        const places = CITIES.filter((city) => normalize(city.name).startsWith(key))
+          .sort((a, b) => normalize(a.name).localeCompare(normalize(b.name)))
+          .slice(0, limit)
+        return { places }
+      },
+    }
+  },
+})
+
+export default Gazetteer
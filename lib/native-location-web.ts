@@ -0,0 +1,60 @@
+import { WebPlugin } from "@capacitor/core"
+import type { NativeFix, NativeLocationPlugin, RefinementOptions } from "./native-location"
+
+export class NativeLocationWeb extends WebPlugin implements NativeLocationPlugin {
+  private watchId: number | null = null
+  private timeout: ReturnType<typeof setTimeout> | null = null
+
+  async getCachedLocation(): Promise<{ location?: NativeFix }> {
+    const cached = localStorage.getItem("last_location")
+    if (!cached) return {}
+    try {
+      const parsed = JSON.parse(cached)
+      if (typeof parsed.lat === "number" && typeof parsed.lng === "number") {
+        return { location: { lat: parsed.lat, lng: parsed.lng, time: 0, provider: "store" } }
+      }
+    } catch {
+      // Ignore malformed cache
+    }
+    return {}
+  }
+
+  async startRefinement(options: RefinementOptions = {}): Promise<{ started: boolean }> {
+    if (!("geolocation" in navigator)) {
+      throw new Error("Geolocation not supported")
+    }
+    await this.stopRefinement()
+
+    const target = options.targetAccuracy ?? 500
+    this.watchId = navigator.geolocation.watchPosition(
+      (pos) => {
+        this.notifyListeners("locationUpdate", {
+          lat: pos.coords.latitude,
+          lng: pos.coords.longitude,
+          accuracy: pos.coords.accuracy,
+          time: pos.timestamp,
+          provider: "web",
+        })
+        if (pos.coords.accuracy <= target) {
+          this.stopRefinement()
+        }
+      },
+      () => this.stopRefinement(),
+      { enableHighAccuracy: true },
+    )
+    this.timeout = setTimeout(() => this.stopRefinement(), options.timeoutMs ?? 30000)
+    return { started: true }
+  }
+
+  async stopRefinement(): Promise<void> {
+    if (this.timeout) {
+      clearTimeout(this.timeout)
+      this.timeout = null
+    }
+    if (this.watchId !== null) {
+      navigator.geolocation.clearWatch(this.watchId)
+      this.watchId = null
+      this.notifyListeners("refinementStopped", {})
+    }
+  }
+}
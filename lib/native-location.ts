@@ -0,0 +1,37 @@
+import { registerPlugin, type PluginListenerHandle } from "@capacitor/core"
+
+export interface NativeFix {
+  lat: number
+  lng: number
+  /** Metres, when the provider reports it */
+  accuracy?: number
+  /** Epoch milliseconds of the fix */
+  time: number
+  provider: string
+}
+
+export interface RefinementOptions {
+  /** Stop once a fix is at least this accurate (metres, default 500) */
+  targetAccuracy?: number
+  /** Give up after this long (default 30000 ms) */
+  timeoutMs?: number
+}
+
+export interface NativeLocationPlugin {
+  /** Best fix available without turning on a radio: persisted, last-known and passive fixes */
+  getCachedLocation(): Promise<{ location?: NativeFix }>
+
+  /** Listens on network and GPS until targetAccuracy or the timeout; started is false when the cached fix already qualifies */
+  startRefinement(options?: RefinementOptions): Promise<{ started: boolean; location?: NativeFix }>
+  stopRefinement(): Promise<void>
+
+  addListener(eventName: "locationUpdate", listenerFunc: (fix: NativeFix) => void): Promise<PluginListenerHandle>
+  addListener(eventName: "refinementStopped", listenerFunc: () => void): Promise<PluginListenerHandle>
+  removeAllListeners(): Promise<void>
+}
+
+const NativeLocation = registerPlugin<NativeLocationPlugin>("NativeLocation", {
+  web: () => import("./native-location-web").then((m) => new m.NativeLocationWeb()),
+})
+
+export default NativeLocation
@@ -0,0 +1,113 @@
+import { WebPlugin } from "@capacitor/core"
+import type { Boundaries, Boundary, NextPrayer, PrayerClockPlugin, ShownPrayer } from "./prayer-clock"
+import { calculatePrayerTimes, CalcMethod } from "./solar-calc"
+import { loadSettings } from "./storage"
+
+const SHOWN: ShownPrayer[] = ["fajr", "sunrise", "zawal", "asr", "maghrib", "isha"]
+
+const METHODS: Record<number, CalcMethod> = {
+  0: CalcMethod.Karachi,
+  1: CalcMethod.MWL,
+  2: CalcMethod.Egypt,
+  3: CalcMethod.UmmAlQura,
+}
+
+export class PrayerClockWeb extends WebPlugin implements PrayerClockPlugin {
+  private location: { lat: number; lng: number } | null = null
+  private timer: ReturnType<typeof setTimeout> | null = null
+  private next: NextPrayer | null = null
+
+  private onVisibility = () => {
+    if (document.hidden) {
+      this.clearTimer()
+    } else if (this.location) {
+      this.tick()
+    }
+  }
+
+  async start(options: { lat: number; lng: number }): Promise<NextPrayer> {
+    this.location = { lat: options.lat, lng: options.lng }
+    this.next = this.computeNext(Date.now())
+    document.addEventListener("visibilitychange", this.onVisibility)
+    this.schedule()
+    return this.next
+  }
+
+  async getBoundaries(options?: { count?: number }): Promise<Boundaries> {
+    if (!this.location) throw new Error("Prayer clock not started")
+    const now = Date.now()
+    // Yesterday through three days ahead, like the native index
+    const days = [-1, 0, 1, 2, 3].map((offset) => this.day(now, offset))
+    const bounds: Boundary[] = days.flatMap(({ start, mins }) =>
+      SHOWN.map((prayer) => ({ prayer, time: start + mins[prayer] * 60000 })),
+    )
+    let lo = 0
+    let hi = bounds.length
+    while (lo < hi) {
+      const mid = (lo + hi) >>> 1
+      if (bounds[mid].time <= now) lo = mid + 1
+      else hi = mid
+    }
+    const today = days.filter(({ start }) => start <= now).length - 1
+    return {
+      now,
+      current: bounds[lo - 1],
+      next: { ...bounds[lo], tomorrow: lo >= (today + 1) * SHOWN.length },
+      remainingMs: bounds[lo].time - now,
+      upcoming: bounds.slice(lo, lo + (options?.count ?? SHOWN.length)),
+    }
+  }
+
+  async stop(): Promise<void> {
+    this.location = null
+    this.clearTimer()
+    document.removeEventListener("visibilitychange", this.onVisibility)
+  }
+
+  private tick() {
+    const now = Date.now()
+    this.notifyListeners("minuteTick", { time: now })
+    const next = this.computeNext(now)
+    if (!this.next || next.prayer !== this.next.prayer || next.time !== this.next.time) {
+      this.next = next
+      this.notifyListeners("nextPrayerChanged", next)
+    }
+    this.schedule()
+  }
+
+  /** Next wake-up at the start of the coming minute */
+  private schedule() {
+    this.clearTimer()
+    if (document.hidden) return
+    this.timer = setTimeout(() => this.tick(), 60000 - (Date.now() % 60000))
+  }
+
+  private clearTimer() {
+    if (this.timer) {
+      clearTimeout(this.timer)
+      this.timer = null
+    }
+  }
+
+  private computeNext(now: number): NextPrayer {
+    const today = this.day(now, 0)
+    for (const prayer of SHOWN) {
+      const time = today.start + today.mins[prayer] * 60000
+      if (time > now) return { prayer, time, tomorrow: false }
+    }
+    const tomorrow = this.day(now, 1)
+    return { prayer: "fajr", time: tomorrow.start + tomorrow.mins.fajr * 60000, tomorrow: true }
+  }
+
+  private day(now: number, offsetDays: number) {
+    const { lat, lng } = this.location!
+    const settings = loadSettings()
+    const method = METHODS[settings.method] || CalcMethod.Karachi
+    const date = new Date(now)
+    date.setDate(date.getDate() + offsetDays)
+    date.setHours(0, 0, 0, 0)
+    const tz = -date.getTimezoneOffset() / 60
+    const mins = calculatePrayerTimes(lat, lng, tz, date, method, settings.asrShadow, undefined, undefined, settings.hijriOffset)._mins
+    return { start: date.getTime(), mins }
+  }
+}
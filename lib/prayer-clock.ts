@@ -0,0 +1,47 @@
+import { registerPlugin, type PluginListenerHandle } from "@capacitor/core"
+
+export type ShownPrayer = "fajr" | "sunrise" | "zawal" | "asr" | "maghrib" | "isha"
+
+export interface NextPrayer {
+  prayer: ShownPrayer
+  /** Epoch milliseconds */
+  time: number
+  /** True after Isha, when the next prayer is tomorrow's Fajr */
+  tomorrow: boolean
+}
+
+export interface Boundary {
+  prayer: ShownPrayer
+  /** Epoch milliseconds */
+  time: number
+}
+
+export interface Boundaries {
+  now: number
+  /** Last boundary passed; before Fajr this is last night's Isha */
+  current: Boundary
+  next: NextPrayer
+  remainingMs: number
+  /** Starting with next; limited to the few days the index holds */
+  upcoming: Boundary[]
+}
+
+export interface PrayerClockPlugin {
+  /** Starts minute-aligned events for a location, using the synced settings; call again after changes */
+  start(options: { lat: number; lng: number }): Promise<NextPrayer>
+  stop(): Promise<void>
+  /** Binary search over the indexed boundaries; falls back to the last saved location when not started */
+  getBoundaries(options?: { count?: number }): Promise<Boundaries>
+
+  /** At the start of every minute while the app is in the foreground */
+  addListener(eventName: "minuteTick", listenerFunc: (tick: { time: number }) => void): Promise<PluginListenerHandle>
+  /** When a prayer boundary passes */
+  addListener(eventName: "nextPrayerChanged", listenerFunc: (next: NextPrayer) => void): Promise<PluginListenerHandle>
+  removeAllListeners(): Promise<void>
+}
+
+const PrayerClock = registerPlugin<PrayerClockPlugin>("PrayerClock", {
+  web: () => import("./prayer-clock-web").then((m) => new m.PrayerClockWeb()),
+})
+
+export default PrayerClock
@@ -0,0 +1,277 @@
+import { registerPlugin } from "@capacitor/core"
+import { calculatePrayerTimes, CalcMethod, getHijriDate, getIslamicEvent } from "./solar-calc"
+
+/**
+ * Structure-of-arrays timetable: one array of minutes-after-midnight per prayer,
+ * indexed by day offset from startEpochDay (days since 1970-01-01).
+ */
+export interface NativeTimetable {
+  /** Set when offsets came from a resolved zone instead of a fixed timezone */
+  zoneId?: string
+  startEpochDay: number
+  days: number
+  fajr: number[]
+  sunrise: number[]
+  zawal: number[]
+  dhuhr: number[]
+  asr: number[]
+  maghrib: number[]
+  isha: number[]
+}
+
+export interface TimetableOptions {
+  lat: number
+  lng: number
+  /** UTC offset in hours; omit to use zoneId (or the device zone) with date-dependent offsets */
+  timezone?: number
+  zoneId?: string
+  method?: CalcMethod
+  asrSchool?: 1 | 2
+  hijriOffset?: number
+  year?: number
+  month?: number // 1-12
+  day?: number
+  days?: number
+}
+
+export interface MethodComparisonRow {
+  method: CalcMethod
+  asrSchool: 1 | 2
+  fajr: number
+  sunrise: number
+  zawal: number
+  dhuhr: number
+  asr: number
+  maghrib: number
+  isha: number
+}
+
+export interface PrayerMinutes {
+  fajr: number
+  sunrise: number
+  zawal: number
+  dhuhr: number
+  asr: number
+  maghrib: number
+  isha: number
+}
+
+export interface CacheStats {
+  hits: number
+  misses: number
+  evictions: number
+  /** Lookups above 40° latitude, which are always computed directly */
+  bypasses: number
+  size: number
+  capacity: number
+}
+
+export interface HijriDay {
+  day: number // Gregorian day of month
+  hijriYear: number
+  hijriMonth: number
+  hijriDay: number
+  event?: string
+}
+
+export interface MosqueTimetableOptions {
+  /** content:// or file:// URI of a CSV file; alternatively pass the text as csv */
+  uri?: string
+  /** Rows of date,prayer,time, e.g. "2026-03-01,fajr,5:05" or "2026-03-01,Isha,7:45 PM" */
+  csv?: string
+  name?: string
+  /** Mosque location; when set, its times only apply within 30 km of it */
+  lat?: number
+  lng?: number
+  /** Discard previously imported rows instead of merging into them */
+  replace?: boolean
+}
+
+export interface MosqueTimetableSummary {
+  /** Days spanned by the stored timetable; 0 when nothing is imported */
+  days: number
+  /** Day/prayer entries set */
+  entries: number
+  name?: string
+  startEpochDay?: number
+  endEpochDay?: number
+  lat?: number
+  lng?: number
+}
+
+export interface MosqueTimetableImport extends MosqueTimetableSummary {
+  rows: number
+  skipped: number
+  /** The first few problems, e.g. "line 12: bad time" */
+  errors: string[]
+}
+
+export interface PrayerTimesPlugin {
+  getTimetable(options: TimetableOptions): Promise<NativeTimetable>
+
+  /** Every published method under both Asr schools for one day, computed in a single pass */
+  compareMethods(
+    options: Omit<TimetableOptions, "method" | "asrSchool" | "days">,
+  ): Promise<{ results: MethodComparisonRow[] }>
+
+  /** One day of times from the native location-quantized cache (0.05° grid) */
+  getPrayerTimes(options: Omit<TimetableOptions, "days">): Promise<PrayerMinutes & { timezone: number }>
+
+  getCacheStats(): Promise<CacheStats>
+
+  /** Hijri date and event key for every day of a Gregorian month, from the native lookup table */
+  getHijriMonth(options: { year?: number; month?: number; hijriOffset?: number }): Promise<{ days: HijriDay[] }>
+
+  /** Stores a mosque's published times; alarms, widgets and the prayer clock prefer them where they apply */
+  importMosqueTimetable(options: MosqueTimetableOptions): Promise<MosqueTimetableImport>
+
+  getMosqueTimetable(): Promise<MosqueTimetableSummary>
+
+  clearMosqueTimetable(): Promise<void>
+}
+
+const PRAYER_KEYS = ["fajr", "sunrise", "zawal", "dhuhr", "asr", "maghrib", "isha"] as const
+
+// Without a timezone the web fallback uses the device zone
+const deviceTimezone = (date = new Date()) => -date.getTimezoneOffset() / 60
+
+const PrayerTimes = registerPlugin<PrayerTimesPlugin>("PrayerTimes", {
+  web: () => {
+    return {
+      async getTimetable(options: TimetableOptions): Promise<NativeTimetable> {
+        const today = new Date()
+        const start = Date.UTC(
+          options.year ?? today.getFullYear(),
+          (options.month ?? today.getMonth() + 1) - 1,
+          options.day ?? today.getDate(),
+        )
+        const days = options.days ?? 365
+        const table: NativeTimetable = {
+          startEpochDay: Math.floor(start / 86400000),
+          days,
+          fajr: [],
+          sunrise: [],
+          zawal: [],
+          dhuhr: [],
+          asr: [],
+          maghrib: [],
+          isha: [],
+        }
+
+        for (let i = 0; i < days; i++) {
+          const times = calculatePrayerTimes(
+            options.lat,
+            options.lng,
+            options.timezone ?? deviceTimezone(new Date(start + i * 86400000)),
+            new Date(start + i * 86400000),
+            options.method,
+            options.asrSchool ?? 2,
+            undefined,
+            undefined,
+            options.hijriOffset ?? 0,
+          )
+          for (const key of PRAYER_KEYS) {
+            table[key].push(times._mins[key])
+          }
+        }
+
+        return table
+      },
+
+      async compareMethods(options: Omit<TimetableOptions, "method" | "asrSchool" | "days">) {
+        const today = new Date()
+        const date = new Date(
+          Date.UTC(
+            options.year ?? today.getFullYear(),
+            (options.month ?? today.getMonth() + 1) - 1,
+            options.day ?? today.getDate(),
+          ),
+        )
+        const methods = [CalcMethod.Karachi, CalcMethod.MWL, CalcMethod.Egypt, CalcMethod.UmmAlQura]
+        const results: MethodComparisonRow[] = []
+
+        for (const method of methods) {
+          for (const asrSchool of [1, 2] as const) {
+            const times = calculatePrayerTimes(
+              options.lat,
+              options.lng,
+              options.timezone ?? deviceTimezone(date),
+              date,
+              method,
+              asrSchool,
+              undefined,
+              undefined,
+              options.hijriOffset ?? 0,
+            )
+            results.push({ method, asrSchool, ...times._mins })
+          }
+        }
+
+        return { results }
+      },
+
+      async getPrayerTimes(options: Omit<TimetableOptions, "days">): Promise<PrayerMinutes> {
+        const today = new Date()
+        const date = new Date(
+          Date.UTC(
+            options.year ?? today.getFullYear(),
+            (options.month ?? today.getMonth() + 1) - 1,
+            options.day ?? today.getDate(),
+          ),
+        )
+        const timezone = options.timezone ?? deviceTimezone(date)
+        const times = calculatePrayerTimes(
+          options.lat,
+          options.lng,
+          timezone,
+          date,
+          options.method,
+          options.asrSchool ?? 2,
+          undefined,
+          undefined,
+          options.hijriOffset ?? 0,
+        )
+        return { ...times._mins, timezone }
+      },
+
+      async getCacheStats(): Promise<CacheStats> {
+        return { hits: 0, misses: 0, evictions: 0, bypasses: 0, size: 0, capacity: 0 }
+      },
+
+      async getHijriMonth(options: { year?: number; month?: number; hijriOffset?: number }) {
+        const today = new Date()
+        const year = options.year ?? today.getFullYear()
+        const month = (options.month ?? today.getMonth() + 1) - 1
+        const length = new Date(year, month + 1, 0).getDate()
+        const days: HijriDay[] = []
+
+        for (let day = 1; day <= length; day++) {
+          const hijri = getHijriDate(new Date(year, month, day), options.hijriOffset ?? 0)
+          const event = getIslamicEvent(hijri.day, hijri.month)
+          days.push({
+            day,
+            hijriYear: hijri.year,
+            hijriMonth: hijri.month,
+            hijriDay: hijri.day,
+            ...(event ? { event: event.key } : {}),
+          })
+        }
+
+        return { days }
+      },
+
+      // Overrides only feed native alarms and widgets, which the web build doesn't have
+      async importMosqueTimetable(): Promise<MosqueTimetableImport> {
+        throw new Error("Mosque timetables are only supported on Android")
+      },
+
+      async getMosqueTimetable(): Promise<MosqueTimetableSummary> {
+        return { days: 0, entries: 0 }
+      },
+
+      async clearMosqueTimetable() {},
+    }
+  },
+})
+
+export default PrayerTimes
@@ -0,0 +1,32 @@
+import { WebPlugin } from "@capacitor/core"
+import type { NativeSettings, SettingsPlugin } from "./settings-store"
+import { loadSettings, toNativeSettings } from "./storage"
+
+/** In the browser localStorage is the only store; this keeps the plugin's batch and event semantics */
+export class SettingsStoreWeb extends WebPlugin implements SettingsPlugin {
+  private values: NativeSettings | null = null
+
+  async getAll(): Promise<{ values: NativeSettings }> {
+    return { values: { ...this.current() } }
+  }
+
+  async set(options: { values: Partial<NativeSettings> }): Promise<{ changed: (keyof NativeSettings)[] }> {
+    const current = this.current()
+    const changed = (Object.keys(options.values) as (keyof NativeSettings)[]).filter(
+      (key) => options.values[key] !== current[key],
+    )
+    if (changed.length === 0) return { changed }
+    this.values = { ...current, ...options.values }
+    const values: Partial<NativeSettings> = {}
+    for (const key of changed) {
+      ;(values as Record<string, unknown>)[key] = this.values[key]
+    }
+    this.notifyListeners("settingsChanged", { keys: changed, values })
+    return { changed }
+  }
+
+  private current(): NativeSettings {
+    if (!this.values) this.values = toNativeSettings(loadSettings())
+    return this.values
+  }
+}
@@ -0,0 +1,34 @@
+import { registerPlugin, type PluginListenerHandle } from "@capacitor/core"
+import type { DeliveryTier } from "./adhan-alarm"
+
+type AlarmPrayer = "fajr" | "dhuhr" | "asr" | "maghrib" | "isha"
+
+/** Typed keys of the native SettingsStore; per-prayer settings are flattened to "field.prayer" */
+export type NativeSettings = {
+  method: number
+  asrShadow: 1 | 2
+  hijriOffset: number
+  language: "en" | "my"
+} & { [K in `prayerSound.${AlarmPrayer}`]: boolean } & { [K in `deliveryTier.${AlarmPrayer}`]: DeliveryTier }
+
+export interface SettingsChange {
+  keys: (keyof NativeSettings)[]
+  values: Partial<NativeSettings>
+}
+
+export interface SettingsPlugin {
+  /** Every key, with defaults filled in */
+  getAll(): Promise<{ values: NativeSettings }>
+  /** Applied as one batch; an unknown key or wrong type rejects the whole call */
+  set(options: { values: Partial<NativeSettings> }): Promise<{ changed: (keyof NativeSettings)[] }>
+
+  /** Once per batch that changed anything, from whichever side wrote it */
+  addListener(eventName: "settingsChanged", listenerFunc: (change: SettingsChange) => void): Promise<PluginListenerHandle>
+  removeAllListeners(): Promise<void>
+}
+
+const NativeSettingsStore = registerPlugin<SettingsPlugin>("Settings", {
+  web: () => import("./settings-store-web").then((m) => new m.SettingsStoreWeb()),
+})
+
+export default NativeSettingsStore
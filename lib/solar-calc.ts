@@ -208,24 +208,30 @@ export function getHijriDate(date: Date, offset = 0) {
 
 /* -------------------- Islamic Events -------------------- */
 
+const ISLAMIC_EVENTS = [
+  { m: 1, d: 1, key: "new_year" },
+  { m: 1, d: 10, key: "ashura" },
+  { m: 3, d: 12, key: "mawlid" },
+  { m: 7, d: 27, key: "isra" },
+  { m: 8, d: 15, key: "baraat" },
+  { m: 9, d: 1, key: "ramadan_start" },
+  { m: 9, d: 21, key: "qadr", range: 10 },
+  { m: 10, d: 1, key: "fitr" },
+  { m: 12, d: 8, key: "hajj", range: 6 },
+  { m: 12, d: 9, key: "arafah" },
+  { m: 12, d: 10, key: "adha" },
+]
+
+// month * 31 + day -> first matching event, same precedence as the list above
+const EVENT_INDEX = new Map<number, (typeof ISLAMIC_EVENTS)[number]>()
+for (const e of ISLAMIC_EVENTS) {
+  for (let d = e.d; d < e.d + (e.range ?? 1); d++) {
+    if (!EVENT_INDEX.has(e.m * 31 + d)) EVENT_INDEX.set(e.m * 31 + d, e)
+  }
+}
+
 export function getIslamicEvent(day: number, month: number) {
-  const events = [
-    { m: 1, d: 1, key: "new_year" },
-    { m: 1, d: 10, key: "ashura" },
-    { m: 3, d: 12, key: "mawlid" },
-    { m: 7, d: 27, key: "isra" },
-    { m: 8, d: 15, key: "baraat" },
-    { m: 9, d: 1, key: "ramadan_start" },
-    { m: 9, d: 21, key: "qadr", range: 10 },
-    { m: 10, d: 1, key: "fitr" },
-    { m: 12, d: 8, key: "hajj", range: 6 },
-    { m: 12, d: 9, key: "arafah" },
-    { m: 12, d: 10, key: "adha" },
-  ]
-
-  return events.find((e) =>
-    e.range ? month === e.m && day >= e.d && day < e.d + e.range : month === e.m && day === e.d,
-  )
+  return EVENT_INDEX.get(month * 31 + day)
 }
 
 /* -------------------- High Latitude -------------------- */
@@ -315,6 +321,20 @@ export function calculatePrayerTimesAdvanced(
   }
 }
 
+/** Builds a PrayerTimes from minutes after midnight (e.g. the native engine's output) */
+export function prayerTimesFromMinutes(mins: PrayerTimes["_mins"]): PrayerTimes {
+  return {
+    fajr: formatHM(mins.fajr / 60),
+    sunrise: formatHM(mins.sunrise / 60),
+    zawal: formatHM(mins.zawal / 60),
+    dhuhr: formatHM(mins.dhuhr / 60),
+    asr: formatHM(mins.asr / 60),
+    maghrib: formatHM(mins.maghrib / 60),
+    isha: formatHM(mins.isha / 60),
+    _mins: { ...mins },
+  }
+}
+
 /* -------------------- Backward Compatibility -------------------- */
 
 export const calculatePrayerTimes = calculatePrayerTimesAdvanced
@@ -0,0 +1,35 @@
+import { registerPlugin } from "@capacitor/core"
+
+/** Cold-start milestones in ms since process start (native only) */
+export type StartupTimings = Partial<
+  Record<
+    | "activity_create"
+    | "first_frame_computed"
+    | "first_frame_drawn"
+    | "webview_page_loaded"
+    | "web_ready"
+    | "overlay_dismissed"
+    | "alarm_ui_create"
+    | "alarm_ui_drawn",
+    number
+  >
+>
+
+export interface StartupPlugin {
+  /** Web UI has times on screen; removes the native first frame */
+  ready(): Promise<void>
+  getTimings(): Promise<StartupTimings>
+}
+
+const Startup = registerPlugin<StartupPlugin>("Startup", {
+  web: () => {
+    return {
+      async ready() {},
+      async getTimings() {
+        return {}
+      },
+    }
+  },
+})
+
+export default Startup
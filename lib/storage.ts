@@ -5,6 +5,8 @@
  */
 
 import { schedulePrayerNotifications } from "./notifications"
+import type { DeliveryTier } from "./adhan-alarm"
+import type { NativeSettings } from "./settings-store"
 
 /* =======================
    Types
@@ -32,6 +34,15 @@ export interface UserSettings {
     isha: boolean
   }
 
+  // How each enabled prayer alerts: full adhan, short chime, vibrate or silent notification
+  prayerDeliveryTiers: {
+    fajr: DeliveryTier
+    dhuhr: DeliveryTier
+    asr: DeliveryTier
+    maghrib: DeliveryTier
+    isha: DeliveryTier
+  }
+
   // Timestamp
   lastUpdated: number
 }
@@ -60,6 +71,13 @@ const DEFAULT_SETTINGS: UserSettings = {
     maghrib: true,
     isha: true,
   },
+  prayerDeliveryTiers: {
+    fajr: "adhan",
+    dhuhr: "adhan",
+    asr: "adhan",
+    maghrib: "adhan",
+    isha: "adhan",
+  },
   lastUpdated: Date.now(),
 }
 
@@ -102,6 +120,10 @@ export function loadSettings(): UserSettings {
         ...DEFAULT_SETTINGS.prayerSoundSettings,
         ...parsed.prayerSoundSettings,
       },
+      prayerDeliveryTiers: {
+        ...DEFAULT_SETTINGS.prayerDeliveryTiers,
+        ...parsed.prayerDeliveryTiers,
+      },
     }
   } catch {
     return DEFAULT_SETTINGS
@@ -129,6 +151,27 @@ export function saveSettings(settings: UserSettings): boolean {
   }
 }
 
+/* =======================
+   Native Store
+======================= */
+
+/** Flat, typed form the native SettingsStore keeps, so receivers and widgets can read settings */
+export function toNativeSettings(settings: UserSettings): NativeSettings {
+  const flat: Record<string, number | boolean | string> = {
+    method: settings.method,
+    asrShadow: settings.asrShadow,
+    hijriOffset: settings.hijriOffset,
+    language: settings.language,
+  }
+  for (const [prayer, enabled] of Object.entries(settings.prayerSoundSettings)) {
+    flat[`prayerSound.${prayer}`] = enabled
+  }
+  for (const [prayer, tier] of Object.entries(settings.prayerDeliveryTiers)) {
+    flat[`deliveryTier.${prayer}`] = tier
+  }
+  return flat as NativeSettings
+}
+
 /* =======================
    Re-schedule Bridge
 ======================= */
@@ -50,6 +50,7 @@ export const translations = {
     },
     rule: "Asr Shadow Rule",
     requesting: "Requesting Location...",
+    near_place: (place: string, km: number) => `Near ${place} (${km} km)`,
     about: "About the Creator",
     about_title: "About the Creator",
     about_desc:
@@ -112,6 +113,7 @@ export const translations = {
     },
     rule: "Asr Shadow Rule",
     requesting: "တည်နေရာရှာဖွေနေသည်...",
+    near_place: (place: string, km: number) => `${place} အနီး (${km} km)`,
     about: "ဖန်တီးသူအကြောင်း",
     about_title: "ဖန်တီးသူအကြောင်း",
     about_desc: